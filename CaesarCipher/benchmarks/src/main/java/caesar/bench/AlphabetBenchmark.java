@@ -0,0 +1,95 @@
+package caesar.bench;
+
+/**
+ * Measures {@link Cipher#encryptWord(String)} for different kinds of alphabet, to check that
+ * multi-ring and Unicode support leave the ASCII path as fast as before:
+ * <ul>
+ *   <li>{@code ascii} - the default a-z cipher, entirely in the direct table</li>
+ *   <li>{@code alphanumeric} - a-z, A-Z and 0-9 rings, still in the direct table</li>
+ *   <li>{@code cjk} - CJK ideographs above the direct table, found by binary search</li>
+ *   <li>{@code emoji} - supplementary letters, translated one code point at a time</li>
+ * </ul>
+ * Scores are per character.
+ */
+import caesar.Cipher;
+import caesar.EncryptionMachine;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AlphabetBenchmark {
+    /** Number of chars in each encrypted word. */
+    private static final int LENGTH = 4096;
+
+    /** The kind of alphabet to encrypt with. */
+    @Param({"ascii", "alphanumeric", "cjk", "emoji"})
+    public String alphabet;
+
+    /** The cipher for the chosen alphabet. */
+    private Cipher cipher;
+
+    /** A word of {@link #LENGTH} chars drawn from the alphabet. */
+    private String word;
+
+    @Setup
+    public void setUp() {
+        String letters;
+        switch (alphabet) {
+            case "ascii" -> {
+                cipher = EncryptionMachine.DEFAULT_CIPHER;
+                letters = EncryptionMachine.ALPHABET;
+            }
+            case "alphanumeric" -> {
+                cipher = Cipher.alphanumeric(EncryptionMachine.SHIFT);
+                letters = String.join("", cipher.getRings());
+            }
+            case "cjk" -> {
+                StringBuilder ideographs = new StringBuilder();
+                for (int c = 0x4E00; c < 0x4E00 + 2000; c++) {
+                    ideographs.appendCodePoint(c);
+                }
+                letters = ideographs.toString();
+                cipher = new Cipher(List.of(letters), EncryptionMachine.SHIFT);
+            }
+            case "emoji" -> {
+                StringBuilder emoji = new StringBuilder();
+                for (int c = 0x1F600; c < 0x1F650; c++) {
+                    emoji.appendCodePoint(c);
+                }
+                letters = emoji.toString();
+                cipher = new Cipher(List.of(letters), EncryptionMachine.SHIFT);
+            }
+            default -> throw new IllegalArgumentException("Unknown alphabet: " + alphabet);
+        }
+
+        int[] codePoints = letters.codePoints().toArray();
+        StringBuilder builder = new StringBuilder(LENGTH);
+        for (int i = 0; builder.length() < LENGTH; i++) {
+            builder.appendCodePoint(codePoints[(i * 7) % codePoints.length]);
+        }
+        word = builder.toString();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LENGTH)
+    public String encryptWord() {
+        return cipher.encryptWord(word);
+    }
+}
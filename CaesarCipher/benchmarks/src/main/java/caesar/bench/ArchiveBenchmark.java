@@ -0,0 +1,108 @@
+package caesar.bench;
+
+/**
+ * Measures the latency of reading records at random positions from a block archive, for
+ * each block size with and without compression. The archive reads and inflates one block per
+ * lookup no matter how far into the file the record is; {@link ArchiveScanBenchmark} times
+ * the full scan needed to find the same records in a plain file.
+ */
+import caesar.ArchiveReader;
+import caesar.ArchiveWriter;
+import caesar.Cipher;
+import caesar.EncryptionMachine;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ArchiveBenchmark {
+    /** Number of records in the archive and the plain file. */
+    @Param({"1000000"})
+    public int records;
+
+    /** Number of record bytes in a block. */
+    @Param({"4096", "16384", "65536"})
+    public int blockSize;
+
+    /** Whether blocks are deflated. */
+    @Param({"true", "false"})
+    public boolean compress;
+
+    /** The cipher the records are encrypted with. */
+    private final Cipher cipher = EncryptionMachine.DEFAULT_CIPHER;
+
+    /** The directory holding the archive. */
+    private Path directory;
+
+    /** The reader of the archive. */
+    private ArchiveReader reader;
+
+    /** Picks the records to read. */
+    private SplittableRandom random;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("archive-bench");
+        Path archive = directory.resolve("words.arc");
+
+        SplittableRandom words = new SplittableRandom(42);
+        try (ArchiveWriter writer = new ArchiveWriter(archive, cipher, blockSize, compress)) {
+            for (int i = 0; i < records; i++) {
+                writer.append(word(words));
+            }
+        }
+        reader = new ArchiveReader(archive, cipher);
+        random = new SplittableRandom(7);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        reader.close();
+        Files.delete(directory.resolve("words.arc"));
+        Files.delete(directory);
+    }
+
+    /**
+     * Generates a random lowercase word of 3 to 10 letters.
+     *
+     * @param words the generator to draw the word from
+     * @return the next word
+     */
+    static String word(SplittableRandom words) {
+        char[] letters = new char[3 + words.nextInt(8)];
+        for (int j = 0; j < letters.length; j++) {
+            letters[j] = EncryptionMachine.ALPHABET.charAt(words.nextInt(EncryptionMachine.ALPHABET.length()));
+        }
+        return new String(letters);
+    }
+
+    @Benchmark
+    public String archiveRecord() throws IOException {
+        return reader.read(random.nextInt(records));
+    }
+
+    @Benchmark
+    public List<String> archiveRange100() throws IOException {
+        return reader.read(random.nextInt(records - 100), 100);
+    }
+}
@@ -0,0 +1,81 @@
+package caesar.bench;
+
+/**
+ * Measures the full scan needed to find a record at a random position in a plain file of
+ * encrypted words, one per line, as {@code --batch} writes them. This is the baseline for
+ * {@link ArchiveBenchmark}: it holds the same words but has no blocks, so it does not
+ * depend on the archive parameters, and the scan reads on average half the file.
+ */
+import caesar.Cipher;
+import caesar.EncryptionMachine;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ArchiveScanBenchmark {
+    /** Number of records in the plain file. */
+    @Param({"1000000"})
+    public int records;
+
+    /** The cipher the records are encrypted with. */
+    private final Cipher cipher = EncryptionMachine.DEFAULT_CIPHER;
+
+    /** The plain file of encrypted words. */
+    private Path plain;
+
+    /** Picks the records to read. */
+    private SplittableRandom random;
+
+    @Setup
+    public void setUp() throws IOException {
+        plain = Files.createTempFile("archive-scan-bench", ".txt");
+
+        SplittableRandom words = new SplittableRandom(42);
+        try (BufferedWriter out = Files.newBufferedWriter(plain, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < records; i++) {
+                out.write(cipher.encryptWord(ArchiveBenchmark.word(words)));
+                out.newLine();
+            }
+        }
+        random = new SplittableRandom(7);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.delete(plain);
+    }
+
+    @Benchmark
+    public String fullScan() throws IOException {
+        int target = random.nextInt(records);
+        try (BufferedReader in = Files.newBufferedReader(plain, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < target; i++) {
+                in.readLine();
+            }
+            return cipher.decryptWord(in.readLine());
+        }
+    }
+}
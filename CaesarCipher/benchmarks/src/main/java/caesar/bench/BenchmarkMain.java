@@ -0,0 +1,37 @@
+package caesar.bench;
+
+/**
+ * Entry point of the benchmark jar. It runs JMH with the given command-line options and,
+ * unless a result format was chosen explicitly, writes the results as JSON to
+ * {@code jmh-result.json} so runs can be compared between releases.
+ */
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+public class BenchmarkMain {
+    /** File the JSON results are written to when no result file is given. */
+    private static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+    /**
+     * Runs the benchmarks selected by the JMH command-line options.
+     *
+     * @param args JMH command-line options, for example a benchmark regex or {@code -rff file}
+     * @throws Exception if the options are invalid or a benchmark fails
+     */
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+
+        if (!commandLine.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!commandLine.getResult().hasValue()) {
+            options.result(DEFAULT_RESULT_FILE);
+        }
+
+        new Runner(options.build()).run();
+    }
+}
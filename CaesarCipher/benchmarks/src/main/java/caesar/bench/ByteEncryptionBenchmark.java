@@ -0,0 +1,63 @@
+package caesar.bench;
+
+/**
+ * Compares the scalar bulk byte path with the Vector API path for ASCII input of different
+ * lengths.
+ */
+import caesar.EncryptionMachine;
+import caesar.VectorEncryptor;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@State(Scope.Thread)
+public class ByteEncryptionBenchmark {
+    /** Number of bytes encrypted per invocation. */
+    @Param({"45", "4096", "1048576"})
+    public int length;
+
+    /** The bytes to encrypt. */
+    private byte[] src;
+
+    /** The buffer receiving the encrypted bytes. */
+    private byte[] dst;
+
+    /** The vector engine for the default alphabet and shift. */
+    private VectorEncryptor vector;
+
+    @Setup
+    public void setUp() {
+        src = new byte[length];
+        for (int i = 0; i < length; i++) {
+            src[i] = (byte) EncryptionMachine.ALPHABET.charAt(i % EncryptionMachine.ALPHABET.length());
+        }
+        dst = new byte[length];
+        vector = new VectorEncryptor(EncryptionMachine.DEFAULT_CIPHER);
+    }
+
+    @Benchmark
+    public byte[] scalar() {
+        EncryptionMachine.encryptBytes(src, 0, dst, 0, length);
+        return dst;
+    }
+
+    @Benchmark
+    public byte[] vector() {
+        vector.encrypt(src, 0, dst, 0, length);
+        return dst;
+    }
+}
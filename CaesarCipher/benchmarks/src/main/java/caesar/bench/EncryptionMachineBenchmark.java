@@ -0,0 +1,102 @@
+package caesar.bench;
+
+/**
+ * JMH benchmarks for the hot paths of {@link EncryptionMachine}: single letters, words from
+ * one character up to a megabyte, the invalid-character rejection path and the output of an
+ * encrypted word to the console and to a buffered sink.
+ */
+import caesar.EncryptionMachine;
+import caesar.OutputSink;
+import java.io.BufferedWriter;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EncryptionMachineBenchmark {
+    /** Number of characters in the encrypted word, from a single letter up to a megabyte. */
+    @Param({"1", "16", "256", "4096", "65536", "1048576"})
+    public int wordLength;
+
+    /** A valid word of {@link #wordLength} letters. */
+    private String word;
+
+    /** A 16-letter word whose last character is outside the alphabet. */
+    private String invalidWord;
+
+    /** The letter encrypted by {@link #encryptLetter()}; not final so it is not constant folded. */
+    private char letter = 'x';
+
+    /** The console stream in place before the benchmark replaced it. */
+    private PrintStream originalOut;
+
+    /** A buffered sink discarding its output, for comparison with the console path. */
+    private OutputSink bufferedSink;
+
+    @Setup
+    public void setUp() {
+        StringBuilder sb = new StringBuilder(wordLength);
+        for (int i = 0; i < wordLength; i++) {
+            sb.append(EncryptionMachine.ALPHABET.charAt(i % EncryptionMachine.ALPHABET.length()));
+        }
+        word = sb.toString();
+        invalidWord = "abcdefghijklmnoP";
+
+        // Measure the cost of formatting and printing, not of the terminal
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        bufferedSink = OutputSink.buffered(new BufferedWriter(Writer.nullWriter()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    @Benchmark
+    public char encryptLetter() throws Exception {
+        return EncryptionMachine.encryptLetter(letter);
+    }
+
+    @Benchmark
+    public String encryptWord() throws Exception {
+        return EncryptionMachine.encryptWord(word);
+    }
+
+    @Benchmark
+    public Object encryptWordInvalid() throws Exception {
+        try {
+            return EncryptionMachine.encryptWord(invalidWord);
+        } catch (IllegalArgumentException ex) {
+            return ex;
+        }
+    }
+
+    @Benchmark
+    public void outputEncryptedWord() {
+        EncryptionMachine.outputEncryptedWord(word, word);
+    }
+
+    @Benchmark
+    public void outputEncryptedWordBuffered() {
+        EncryptionMachine.outputEncryptedWord(bufferedSink, word, word);
+    }
+}
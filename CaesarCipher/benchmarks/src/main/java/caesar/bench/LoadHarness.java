@@ -0,0 +1,546 @@
+package caesar.bench;
+
+/**
+ * Load and soak harness for the word encryption APIs. Unlike the JMH benchmarks, which
+ * measure one call in isolation, it drives an API from many threads at once for as long as
+ * asked, so contention on shared state and pressure on the garbage collector show up. The
+ * JUnit suite cannot do this: it swaps {@code System.in} and {@code System.out} globally, so
+ * its tests cannot even run in parallel.
+ * <p>
+ * Every worker draws words at random from a pool generated up front with the chosen length
+ * distribution, a fraction of them holding one character outside the alphabet, and checks
+ * every result against the one computed on a single thread before the run: a valid word must
+ * encrypt to the expected text and an invalid one must be rejected. Each call is timed on its
+ * own, so latencies include the cost of {@link System#nanoTime()} itself, about 20-30 ns on
+ * most systems. Virtual workers yield every {@value #VIRTUAL_YIELD_CALLS} calls, as a request
+ * handler would when it blocks, since a virtual thread that never blocks keeps its carrier and
+ * the others would never run.
+ * <p>
+ * At every interval and at the end the harness prints the throughput, the latency
+ * percentiles, the allocation rate and bytes per call, the collections and, for platform
+ * threads, how often workers blocked on a monitor:
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar caesar.bench.LoadHarness --threads=64 --virtual --seconds=600
+ * java -cp benchmarks/target/benchmarks.jar caesar.bench.LoadHarness --api=cache --lengths=geometric:6 --invalid=0.05
+ * </pre>
+ * Allocation is read from every live thread, carriers of virtual threads included, so it also
+ * counts the little the harness itself allocates while reporting. The harness exits with an
+ * exception if any call returned a wrong result.
+ */
+import caesar.Cipher;
+import caesar.EncryptionMachine;
+import caesar.EncryptionResult;
+import caesar.InvalidCharPolicy;
+import caesar.WordCache;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.ToIntFunction;
+
+public class LoadHarness {
+    /** Length of the measured run in seconds when none is given. */
+    private static final int DEFAULT_SECONDS = 30;
+
+    /** Length of the warm-up in seconds when none is given. */
+    private static final int DEFAULT_WARMUP_SECONDS = 5;
+
+    /** Seconds between two interval reports when none is given. */
+    private static final int DEFAULT_INTERVAL_SECONDS = 5;
+
+    /** Number of words generated up front when none is given. */
+    private static final int DEFAULT_POOL_SIZE = 1 << 16;
+
+    /** Word length distribution when none is given: uniform between 1 and 16 letters. */
+    private static final String DEFAULT_LENGTHS = "1-16";
+
+    /** Fraction of words holding an invalid character when none is given. */
+    private static final double DEFAULT_INVALID_RATIO = 0.01;
+
+    /** Characters injected into invalid words, none of them in the default alphabet. */
+    private static final String INVALID_CHARACTERS = " A!1é-Z.";
+
+    /** Number of calls between two yields of a virtual worker. */
+    private static final int VIRTUAL_YIELD_CALLS = 1024;
+
+    /** Number of entries of the shared cache used by the cache API. */
+    private static final int CACHE_ENTRIES = 1 << 14;
+
+    /**
+     * One call of the API under load.
+     */
+    @FunctionalInterface
+    private interface Operation {
+        /**
+         * Encrypts a word.
+         *
+         * @param word the word to encrypt
+         * @return the encrypted word
+         * @throws IllegalArgumentException if the word is rejected
+         * @throws Exception if the API fails in any other way
+         */
+        String encrypt(String word) throws Exception;
+    }
+
+    /**
+     * Counts latencies in log-linear buckets: 64 buckets for each power of two, so every
+     * recorded value is within about 1.6% of its bucket's bounds. Only the owning worker
+     * writes the counts, with opaque stores, so the reporter can read them at any time
+     * without locking or slowing the worker down.
+     */
+    private static final class LatencyHistogram {
+        /** log2 of the number of buckets per power of two. */
+        private static final int SUB_BUCKET_BITS = 6;
+
+        /** Number of buckets per power of two. */
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+        /** Number of buckets, enough for any non-negative long. */
+        private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+        /** The number of values recorded in every bucket. */
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+        /**
+         * Records one value. Must only be called by the owning thread.
+         *
+         * @param nanos the value, negative values count as zero
+         */
+        void record(long nanos) {
+            int bucket = bucket(Math.max(0, nanos));
+            counts.setOpaque(bucket, counts.getPlain(bucket) + 1);
+        }
+
+        /**
+         * Adds the current counts of this histogram to an array.
+         *
+         * @param totals the array of {@link #BUCKETS} counts to add to
+         */
+        void addTo(long[] totals) {
+            for (int i = 0; i < BUCKETS; i++) {
+                totals[i] += counts.getOpaque(i);
+            }
+        }
+
+        /**
+         * Returns the bucket a value falls in.
+         *
+         * @param value a non-negative value
+         * @return the index of its bucket
+         */
+        static int bucket(long value) {
+            if (value < SUB_BUCKETS) {
+                return (int) value;
+            }
+            int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+            int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+            return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+        }
+
+        /**
+         * Returns the largest value that falls in a bucket.
+         *
+         * @param bucket the index of the bucket
+         * @return the upper bound of the bucket
+         */
+        static long upperBound(int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket;
+            }
+            int shift = bucket / SUB_BUCKETS - 1;
+            long lower = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+            return lower + (1L << shift) - 1;
+        }
+
+        /**
+         * Returns a percentile of bucket counts, using the nearest-rank method.
+         *
+         * @param counts the number of values in every bucket
+         * @param total the sum of the counts
+         * @param fraction the percentile as a fraction, for example 0.99
+         * @return the upper bound of the bucket holding that percentile, or zero if there are
+         *         no values
+         */
+        static long percentile(long[] counts, long total, double fraction) {
+            long rank = Math.max(1, (long) Math.ceil(fraction * total));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return upperBound(i);
+                }
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * The cumulative counters of the whole JVM at one moment, so an interval is the
+     * difference of two snapshots.
+     */
+    private static final class Snapshot {
+        /** When the snapshot was taken, from {@link System#nanoTime()}. */
+        final long nanos;
+
+        /** The latency counts of every worker added together. */
+        final long[] latencies = new long[LatencyHistogram.BUCKETS];
+
+        /** The number of calls made. */
+        final long calls;
+
+        /** The number of calls that returned a wrong result. */
+        final long errors;
+
+        /** The bytes allocated by every live thread. */
+        final long allocated;
+
+        /** The number of garbage collections. */
+        final long collections;
+
+        /** The time spent collecting garbage in milliseconds. */
+        final long collectionMillis;
+
+        /** The number of times the platform workers blocked on a monitor, or -1 for virtual ones. */
+        final long blocked;
+
+        Snapshot(List<Worker> workers, long[] workerIds) {
+            long calls = 0;
+            long errors = 0;
+            for (Worker worker : workers) {
+                worker.histogram.addTo(latencies);
+                errors += worker.errors.get();
+            }
+            for (long count : latencies) {
+                calls += count;
+            }
+            this.calls = calls;
+            this.errors = errors;
+            this.nanos = System.nanoTime();
+
+            com.sun.management.ThreadMXBean threads =
+                    (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            long allocated = 0;
+            for (long bytes : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+                allocated += Math.max(0, bytes);
+            }
+            this.allocated = allocated;
+
+            long collections = 0;
+            long collectionMillis = 0;
+            for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+                collections += Math.max(0, collector.getCollectionCount());
+                collectionMillis += Math.max(0, collector.getCollectionTime());
+            }
+            this.collections = collections;
+            this.collectionMillis = collectionMillis;
+
+            long blocked = workerIds == null ? -1 : 0;
+            if (workerIds != null) {
+                for (ThreadInfo info : threads.getThreadInfo(workerIds)) {
+                    if (info != null) {
+                        blocked += info.getBlockedCount();
+                    }
+                }
+            }
+            this.blocked = blocked;
+        }
+    }
+
+    /**
+     * Calls the API in a loop on one thread until the run stops.
+     */
+    private static final class Worker implements Runnable {
+        /** The API under load. */
+        private final Operation operation;
+
+        /** The words to encrypt. */
+        private final String[] words;
+
+        /** The expected result of every word, or null if it must be rejected. */
+        private final String[] expected;
+
+        /** Picks the next word. */
+        private final SplittableRandom random;
+
+        /** Number of calls between two yields, or zero to never yield. */
+        private final int yieldCalls;
+
+        /** The latency of every call. */
+        final LatencyHistogram histogram = new LatencyHistogram();
+
+        /** The number of calls that returned a wrong result. */
+        final AtomicLong errors = new AtomicLong();
+
+        /** The first wrong result, kept for the final report. */
+        volatile String firstError;
+
+        /** Set to stop the loop. */
+        volatile boolean stopped;
+
+        Worker(Operation operation, String[] words, String[] expected, SplittableRandom random, int yieldCalls) {
+            this.operation = operation;
+            this.words = words;
+            this.expected = expected;
+            this.random = random;
+            this.yieldCalls = yieldCalls;
+        }
+
+        @Override
+        public void run() {
+            for (long calls = 1; !stopped; calls++) {
+                // A virtual thread that never blocks keeps its carrier, starving the others
+                if (yieldCalls > 0 && calls % yieldCalls == 0) {
+                    Thread.yield();
+                }
+                int index = random.nextInt(words.length);
+                String result;
+                long start = System.nanoTime();
+                try {
+                    result = operation.encrypt(words[index]);
+                } catch (IllegalArgumentException ex) {
+                    result = null;
+                } catch (Exception ex) {
+                    result = ex.toString();
+                }
+                histogram.record(System.nanoTime() - start);
+
+                if (!Objects.equals(result, expected[index])) {
+                    if (errors.getAndIncrement() == 0) {
+                        firstError = "\"" + words[index] + "\" gave " + result + " instead of " + expected[index];
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs the harness.
+     *
+     * @param args {@code [--api=machine|cipher|try|cache] [--threads=n] [--virtual]
+     *        [--seconds=n] [--warmup=n] [--interval=n] [--lengths=n|min-max|geometric:mean]
+     *        [--invalid=fraction] [--pool=n]}
+     * @throws Exception if a thread cannot be joined or a call returned a wrong result
+     */
+    public static void main(String[] args) throws Exception {
+        String api = "machine";
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean virtual = false;
+        int seconds = DEFAULT_SECONDS;
+        int warmup = DEFAULT_WARMUP_SECONDS;
+        int interval = DEFAULT_INTERVAL_SECONDS;
+        String lengths = DEFAULT_LENGTHS;
+        double invalidRatio = DEFAULT_INVALID_RATIO;
+        int poolSize = DEFAULT_POOL_SIZE;
+        for (String arg : args) {
+            if (arg.startsWith("--api=")) {
+                api = arg.substring("--api=".length());
+            } else if (arg.startsWith("--threads=")) {
+                threads = Integer.parseInt(arg.substring("--threads=".length()));
+            } else if (arg.equals("--virtual")) {
+                virtual = true;
+            } else if (arg.startsWith("--seconds=")) {
+                seconds = Integer.parseInt(arg.substring("--seconds=".length()));
+            } else if (arg.startsWith("--warmup=")) {
+                warmup = Integer.parseInt(arg.substring("--warmup=".length()));
+            } else if (arg.startsWith("--interval=")) {
+                interval = Integer.parseInt(arg.substring("--interval=".length()));
+            } else if (arg.startsWith("--lengths=")) {
+                lengths = arg.substring("--lengths=".length());
+            } else if (arg.startsWith("--invalid=")) {
+                invalidRatio = Double.parseDouble(arg.substring("--invalid=".length()));
+            } else if (arg.startsWith("--pool=")) {
+                poolSize = Integer.parseInt(arg.substring("--pool=".length()));
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        if (threads <= 0 || seconds <= 0 || warmup < 0 || interval <= 0 || poolSize <= 0) {
+            throw new IllegalArgumentException("Threads, seconds, interval and pool must be positive");
+        }
+        if (invalidRatio < 0 || invalidRatio > 1) {
+            throw new IllegalArgumentException("The invalid ratio must be between 0 and 1");
+        }
+
+        Operation operation = LoadHarness.operation(api);
+        ToIntFunction<SplittableRandom> distribution = LoadHarness.lengths(lengths);
+        SplittableRandom random = new SplittableRandom(42);
+        String[] words = new String[poolSize];
+        String[] expected = new String[poolSize];
+        for (int i = 0; i < poolSize; i++) {
+            words[i] = LoadHarness.word(random, distribution.applyAsInt(random), random.nextDouble() < invalidRatio);
+            try {
+                expected[i] = EncryptionMachine.DEFAULT_CIPHER.encryptWord(words[i]);
+            } catch (IllegalArgumentException ex) {
+                expected[i] = null;
+            }
+        }
+
+        List<Worker> workers = new ArrayList<>(threads);
+        List<Thread> started = new ArrayList<>(threads);
+        Thread.Builder builder = virtual ? Thread.ofVirtual().name("load-", 0) : Thread.ofPlatform().name("load-", 0);
+        for (int i = 0; i < threads; i++) {
+            Worker worker = new Worker(operation, words, expected, random.split(),
+                    virtual ? VIRTUAL_YIELD_CALLS : 0);
+            workers.add(worker);
+            started.add(builder.start(worker));
+        }
+        long[] workerIds = null;
+        if (!virtual) {
+            workerIds = started.stream().mapToLong(Thread::threadId).toArray();
+        }
+
+        System.out.printf("%s on %d %s threads, lengths %s, %.1f%% invalid, %d words%n", api, threads,
+                virtual ? "virtual" : "platform", lengths, invalidRatio * 100, poolSize);
+        Snapshot start = new Snapshot(workers, workerIds);
+        Snapshot measured = start;
+        Snapshot previous = start;
+        long warmupEnd = start.nanos + TimeUnit.SECONDS.toNanos(warmup);
+        long end = warmupEnd + TimeUnit.SECONDS.toNanos(seconds);
+        try {
+            // Intervals restart when the warm-up ends, so no interval mixes both phases
+            for (long tick = start.nanos; tick < end; ) {
+                tick = Math.min(tick + TimeUnit.SECONDS.toNanos(interval), tick < warmupEnd ? warmupEnd : end);
+                TimeUnit.NANOSECONDS.sleep(Math.max(0, tick - System.nanoTime()));
+
+                Snapshot current = new Snapshot(workers, workerIds);
+                LoadHarness.report(String.format("%7.1fs%s", (current.nanos - start.nanos) / 1e9,
+                        tick <= warmupEnd ? " warm-up" : ""), previous, current);
+                if (tick == warmupEnd) {
+                    measured = current;
+                }
+                previous = current;
+            }
+        } finally {
+            for (Worker worker : workers) {
+                worker.stopped = true;
+            }
+            for (Thread thread : started) {
+                thread.join();
+            }
+        }
+
+        // The last interval ends the total: once a thread exits, its counters are gone
+        LoadHarness.report("   total", measured, previous);
+        long errors = workers.stream().mapToLong(worker -> worker.errors.get()).sum();
+        if (errors > 0) {
+            String first = workers.stream().map(worker -> worker.firstError)
+                    .filter(Objects::nonNull).findFirst().orElse("");
+            throw new IllegalStateException(errors + " calls returned a wrong result, first: " + first);
+        }
+    }
+
+    /**
+     * Prints one line describing what happened between two snapshots.
+     *
+     * @param label the label at the start of the line
+     * @param from the earlier snapshot
+     * @param to the later snapshot
+     */
+    private static void report(String label, Snapshot from, Snapshot to) {
+        long[] latencies = new long[LatencyHistogram.BUCKETS];
+        long max = 0;
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = to.latencies[i] - from.latencies[i];
+            if (latencies[i] > 0) {
+                max = LatencyHistogram.upperBound(i);
+            }
+        }
+        long calls = to.calls - from.calls;
+        double seconds = (to.nanos - from.nanos) / 1e9;
+        long allocated = to.allocated - from.allocated;
+
+        System.out.printf("%s %,13.0f calls/s  p50 %,7d  p90 %,7d  p99 %,8d  p99.9 %,9d  max %,11d ns"
+                        + "  %,8.1f MB/s %,7.1f B/call  gc %d (%d ms)%s%s%n",
+                label, calls / seconds,
+                LatencyHistogram.percentile(latencies, calls, 0.50),
+                LatencyHistogram.percentile(latencies, calls, 0.90),
+                LatencyHistogram.percentile(latencies, calls, 0.99),
+                LatencyHistogram.percentile(latencies, calls, 0.999),
+                max, allocated / 1e6 / seconds, calls == 0 ? 0.0 : (double) allocated / calls,
+                to.collections - from.collections, to.collectionMillis - from.collectionMillis,
+                to.blocked < 0 ? "" : "  blocked " + (to.blocked - from.blocked),
+                to.errors == from.errors ? "" : "  errors " + (to.errors - from.errors));
+    }
+
+    /**
+     * Returns the API to put under load.
+     *
+     * @param name {@code machine} for {@link EncryptionMachine#encryptWord}, {@code cipher}
+     *        for {@link Cipher#encryptWord}, {@code try} for
+     *        {@link Cipher#tryEncryptWord(String, InvalidCharPolicy)} without exceptions, or
+     *        {@code cache} for one {@link WordCache} shared by every thread
+     * @return the operation calling that API
+     * @throws IllegalArgumentException if the name is unknown
+     */
+    private static Operation operation(String name) {
+        Cipher cipher = EncryptionMachine.DEFAULT_CIPHER;
+        switch (name) {
+            case "machine":
+                return EncryptionMachine::encryptWord;
+            case "cipher":
+                return cipher::encryptWord;
+            case "try":
+                return word -> {
+                    EncryptionResult result = cipher.tryEncryptWord(word, InvalidCharPolicy.REJECT);
+                    return result.isRejected() ? null : result.getText();
+                };
+            case "cache":
+                WordCache cache = new WordCache(CACHE_ENTRIES);
+                return word -> cache.encryptWord(cipher, word);
+            default:
+                throw new IllegalArgumentException("Unknown API: " + name);
+        }
+    }
+
+    /**
+     * Parses a word length distribution.
+     *
+     * @param spec {@code n} for a fixed length, {@code min-max} for lengths uniform between
+     *        the two, both included, or {@code geometric:mean} for mostly short words with a
+     *        long tail, as in natural text
+     * @return the distribution, drawing a length of at least one from a random generator
+     * @throws IllegalArgumentException if the specification is malformed
+     */
+    private static ToIntFunction<SplittableRandom> lengths(String spec) {
+        if (spec.startsWith("geometric:")) {
+            double mean = Double.parseDouble(spec.substring("geometric:".length()));
+            if (mean < 1) {
+                throw new IllegalArgumentException("The mean length must be at least 1");
+            }
+            double log = Math.log(1 - 1 / mean);
+            return mean == 1 ? random -> 1 : random -> 1 + (int) (Math.log(1 - random.nextDouble()) / log);
+        }
+        int dash = spec.indexOf('-');
+        int min = Integer.parseInt(dash < 0 ? spec : spec.substring(0, dash));
+        int max = dash < 0 ? min : Integer.parseInt(spec.substring(dash + 1));
+        if (min < 1 || max < min) {
+            throw new IllegalArgumentException("Word lengths must be at least 1: " + spec);
+        }
+        return random -> random.nextInt(min, max + 1);
+    }
+
+    /**
+     * Generates a random word of the default alphabet.
+     *
+     * @param random the random generator
+     * @param length the number of characters
+     * @param invalid whether to replace one character with one outside the alphabet
+     * @return the word
+     */
+    private static String word(SplittableRandom random, int length, boolean invalid) {
+        char[] letters = new char[length];
+        for (int i = 0; i < length; i++) {
+            letters[i] = EncryptionMachine.ALPHABET.charAt(random.nextInt(EncryptionMachine.ALPHABET.length()));
+        }
+        if (invalid) {
+            letters[random.nextInt(length)] = INVALID_CHARACTERS.charAt(random.nextInt(INVALID_CHARACTERS.length()));
+        }
+        return new String(letters);
+    }
+}
@@ -0,0 +1,81 @@
+package caesar.bench;
+
+/**
+ * Compares the per-character cost of the original {@code ALPHABET.indexOf} plus modulo
+ * encryption against the precomputed {@link ShiftTable}. Scores are per operation, and each
+ * operation encrypts {@link #LENGTH} characters.
+ */
+import caesar.EncryptionMachine;
+import caesar.ShiftTable;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LookupTableBenchmark {
+    /** Number of characters encrypted per invocation. */
+    private static final int LENGTH = 4096;
+
+    /** The characters to encrypt. */
+    private char[] word;
+
+    /** The table for the default alphabet and shift. */
+    private ShiftTable table;
+
+    @Setup
+    public void setUp() {
+        word = new char[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            word[i] = EncryptionMachine.ALPHABET.charAt(i % EncryptionMachine.ALPHABET.length());
+        }
+        table = new ShiftTable(EncryptionMachine.ALPHABET, EncryptionMachine.SHIFT);
+    }
+
+    /**
+     * The encryption path used before the lookup table was introduced, kept as the baseline.
+     *
+     * @param letter the letter to encrypt
+     * @return the encrypted letter
+     */
+    private static char indexOfEncryptLetter(char letter) {
+        int charIndex = EncryptionMachine.ALPHABET.indexOf(letter);
+        if (charIndex == -1) {
+            throw new IllegalArgumentException("Only standard English alphabet letters a-z are allowed");
+        }
+        return EncryptionMachine.ALPHABET.charAt((charIndex + EncryptionMachine.SHIFT) % EncryptionMachine.ALPHABET.length());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LENGTH)
+    public long indexOfModulo() {
+        long sum = 0;
+        for (char c : word) {
+            sum += indexOfEncryptLetter(c);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LENGTH)
+    public long lookupTable() {
+        long sum = 0;
+        for (char c : word) {
+            sum += table.translate(c);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,69 @@
+package caesar.bench;
+
+/**
+ * Shows how {@link ParallelEncryptor} scales with the number of worker threads by encrypting
+ * a large byte array in place on fork-join pools of different sizes.
+ */
+import caesar.EncryptionMachine;
+import caesar.ParallelEncryptor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParallelScalingBenchmark {
+    /** Number of worker threads in the fork-join pool. */
+    @Param({"1", "2", "4", "8", "16"})
+    public int threads;
+
+    /** Size of the encrypted input in megabytes. */
+    @Param({"64"})
+    public int megabytes;
+
+    /** The bytes to encrypt, re-encrypted in place every invocation. */
+    private byte[] input;
+
+    /** The pool sized to {@link #threads}. */
+    private ForkJoinPool pool;
+
+    /** The engine under test. */
+    private ParallelEncryptor encryptor;
+
+    @Setup
+    public void setUp() {
+        input = new byte[megabytes << 20];
+        for (int i = 0; i < input.length; i++) {
+            input[i] = (byte) EncryptionMachine.ALPHABET.charAt(i % EncryptionMachine.ALPHABET.length());
+        }
+        pool = new ForkJoinPool(threads);
+        encryptor = new ParallelEncryptor(EncryptionMachine.DEFAULT_CIPHER,
+                pool, ParallelEncryptor.DEFAULT_THRESHOLD);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public byte[] encrypt() {
+        encryptor.encrypt(input, 0, input, 0, input.length);
+        return input;
+    }
+}
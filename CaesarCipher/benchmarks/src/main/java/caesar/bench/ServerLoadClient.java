@@ -0,0 +1,166 @@
+package caesar.bench;
+
+/**
+ * Loopback load test for {@link EncryptionServer}. Every simulated client opens its own
+ * connection on a virtual thread and sends requests one at a time, timing each round trip.
+ * The report gives the overall throughput and the p50, p99 and maximum latency.
+ * <p>
+ * Without an address option a server is started in this JVM on a free loopback port:
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar caesar.bench.ServerLoadClient --connections=256
+ * java -cp benchmarks/target/benchmarks.jar caesar.bench.ServerLoadClient --port=7717
+ * </pre>
+ */
+import caesar.EncryptionClient;
+import caesar.EncryptionMachine;
+import caesar.EncryptionServer;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class ServerLoadClient {
+    /** Number of concurrent connections when none is given. */
+    private static final int DEFAULT_CONNECTIONS = 64;
+
+    /** Number of requests each connection sends when none is given. */
+    private static final int DEFAULT_REQUESTS = 10_000;
+
+    /** The word every request encrypts. */
+    private static final String WORD = "antidisestablishmentarianism";
+
+    /**
+     * Runs the load test.
+     *
+     * @param args {@code [--connections=n] [--requests=n] [--port=n | --unix=path]}
+     * @throws Exception if a connection fails or a reply is wrong
+     */
+    public static void main(String[] args) throws Exception {
+        int connections = DEFAULT_CONNECTIONS;
+        int requests = DEFAULT_REQUESTS;
+        SocketAddress address = null;
+        for (String arg : args) {
+            if (arg.startsWith("--connections=")) {
+                connections = Integer.parseInt(arg.substring("--connections=".length()));
+            } else if (arg.startsWith("--requests=")) {
+                requests = Integer.parseInt(arg.substring("--requests=".length()));
+            } else if (arg.startsWith("--port=")) {
+                int port = Integer.parseInt(arg.substring("--port=".length()));
+                address = new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+            } else if (arg.startsWith("--unix=")) {
+                address = UnixDomainSocketAddress.of(arg.substring("--unix=".length()));
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        if (connections <= 0 || requests <= 0) {
+            throw new IllegalArgumentException("Connections and requests must be positive");
+        }
+
+        if (address != null) {
+            ServerLoadClient.run(address, connections, requests);
+            return;
+        }
+
+        try (EncryptionServer server = new EncryptionServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))) {
+            Thread.ofVirtual().start(() -> {
+                try {
+                    server.serve();
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            ServerLoadClient.run(server.getLocalAddress(), connections, requests);
+        }
+    }
+
+    /**
+     * Drives the server with the given load and prints the report.
+     *
+     * @param address the server address
+     * @param connections the number of concurrent connections
+     * @param requests the number of requests per connection
+     * @throws IllegalArgumentException if the total number of requests does not fit in an array
+     * @throws Exception if a connection fails or a reply is wrong
+     */
+    private static void run(SocketAddress address, int connections, int requests) throws Exception {
+        int total;
+        try {
+            total = Math.multiplyExact(connections, requests);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Too many requests in total to keep every latency: "
+                    + connections + " x " + requests, e);
+        }
+
+        List<Future<long[]>> results = new ArrayList<>(connections);
+        long start = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < connections; i++) {
+                results.add(clients.submit(() -> ServerLoadClient.client(address, requests)));
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        long[] latencies = new long[total];
+        int filled = 0;
+        for (Future<long[]> result : results) {
+            long[] client = result.get();
+            System.arraycopy(client, 0, latencies, filled, client.length);
+            filled += client.length;
+        }
+        Arrays.sort(latencies);
+
+        double seconds = elapsed / 1e9;
+        System.out.printf("%d connections x %d requests to %s%n", connections, requests, address);
+        System.out.printf("Throughput: %.0f requests/s (%.2f s)%n", latencies.length / seconds, seconds);
+        System.out.printf("Latency p50: %.1f us, p99: %.1f us, max: %.1f us%n",
+                ServerLoadClient.percentile(latencies, 0.50) / 1e3,
+                ServerLoadClient.percentile(latencies, 0.99) / 1e3,
+                latencies[latencies.length - 1] / 1e3);
+    }
+
+    /**
+     * Sends requests over one connection, one at a time, timing each round trip.
+     *
+     * @param address the server address
+     * @param requests the number of requests to send
+     * @return the latency of every request in nanoseconds
+     * @throws IOException if the connection fails or a reply is wrong
+     */
+    private static long[] client(SocketAddress address, int requests) throws IOException {
+        try (EncryptionClient client = new EncryptionClient(address)) {
+            String expected = EncryptionMachine.DEFAULT_CIPHER.encryptWord(WORD);
+
+            long[] latencies = new long[requests];
+            for (int i = 0; i < requests; i++) {
+                long start = System.nanoTime();
+                String reply = client.encrypt(WORD);
+                latencies[i] = System.nanoTime() - start;
+
+                if (!expected.equals(reply)) {
+                    throw new IOException("Unexpected reply: " + reply);
+                }
+            }
+            return latencies;
+        }
+    }
+
+    /**
+     * Returns a percentile of sorted values, using the nearest-rank method.
+     *
+     * @param sorted the values in ascending order
+     * @param fraction the percentile as a fraction, for example 0.99
+     * @return the value at that percentile
+     */
+    private static long percentile(long[] sorted, double fraction) {
+        int rank = (int) Math.ceil(fraction * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+}
@@ -0,0 +1,144 @@
+package caesar.bench;
+
+/**
+ * Measures the wall-clock time of one-off {@code --encrypt} invocations, from process start
+ * to exit, for the ways the command line can be launched:
+ * <ul>
+ *   <li>{@code jvm} - {@code java -jar} with the JDK's default CDS archive</li>
+ *   <li>{@code jvm-noshare} - {@code java -Xshare:off -jar}, without any CDS</li>
+ *   <li>{@code jvm-c1} - {@code java -XX:TieredStopAtLevel=1 -jar}, only the client compiler</li>
+ *   <li>{@code appcds} - {@code java -XX:SharedArchiveFile=...} with the archive built by
+ *       {@code mvn package -Pappcds}</li>
+ *   <li>{@code native} - the executable built by {@code mvn package -Pnative}</li>
+ * </ul>
+ * Variants whose archive or executable has not been built are skipped. Each variant is run a
+ * few times untimed first so the files are in the page cache.
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar caesar.bench.StartupBenchmark --runs=50
+ * </pre>
+ */
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class StartupBenchmark {
+    /** Number of timed runs per variant when none is given. */
+    private static final int DEFAULT_RUNS = 20;
+
+    /** Number of untimed runs per variant before measuring. */
+    private static final int WARMUP_RUNS = 3;
+
+    /** The jar built by the core module, relative to the build root. */
+    private static final String DEFAULT_JAR = "core/target/caesar-cipher-1.0-SNAPSHOT.jar";
+
+    /** The native executable built by the native profile, relative to the build root. */
+    private static final String DEFAULT_NATIVE = "core/target/caesar";
+
+    /** The word every run encrypts. */
+    private static final String WORD = "hello";
+
+    /** The output every run must print. */
+    private static final String EXPECTED = "khoor";
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args {@code [--runs=n] [--jar=path] [--archive=path] [--native=path]}
+     * @throws Exception if a launch fails or prints the wrong output
+     */
+    public static void main(String[] args) throws Exception {
+        int runs = DEFAULT_RUNS;
+        Path jar = Path.of(DEFAULT_JAR);
+        Path archive = null;
+        Path nativeImage = Path.of(DEFAULT_NATIVE);
+        for (String arg : args) {
+            if (arg.startsWith("--runs=")) {
+                runs = Integer.parseInt(arg.substring("--runs=".length()));
+            } else if (arg.startsWith("--jar=")) {
+                jar = Path.of(arg.substring("--jar=".length()));
+            } else if (arg.startsWith("--archive=")) {
+                archive = Path.of(arg.substring("--archive=".length()));
+            } else if (arg.startsWith("--native=")) {
+                nativeImage = Path.of(arg.substring("--native=".length()));
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalArgumentException("No jar at " + jar + ", run mvn package first");
+        }
+        if (archive == null) {
+            String name = jar.getFileName().toString();
+            archive = jar.resolveSibling(name.substring(0, name.length() - ".jar".length()) + ".jsa");
+        }
+
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        String jarPath = jar.toString();
+        System.out.printf("%-12s %8s %8s %8s %8s%n", "variant", "min ms", "p50 ms", "mean ms", "max ms");
+        StartupBenchmark.measure("jvm", runs, List.of(java, "-jar", jarPath));
+        StartupBenchmark.measure("jvm-noshare", runs, List.of(java, "-Xshare:off", "-jar", jarPath));
+        StartupBenchmark.measure("jvm-c1", runs, List.of(java, "-XX:TieredStopAtLevel=1", "-jar", jarPath));
+        if (Files.isRegularFile(archive)) {
+            StartupBenchmark.measure("appcds", runs, List.of(java, "-XX:SharedArchiveFile=" + archive, "-jar", jarPath));
+        } else {
+            System.out.printf("%-12s skipped, no archive at %s%n", "appcds", archive);
+        }
+        if (Files.isExecutable(nativeImage)) {
+            StartupBenchmark.measure("native", runs, List.of(nativeImage.toString()));
+        } else {
+            System.out.printf("%-12s skipped, no executable at %s%n", "native", nativeImage);
+        }
+    }
+
+    /**
+     * Times one variant and prints a line of the report.
+     *
+     * @param variant the name of the variant
+     * @param runs the number of timed runs
+     * @param launcher the command starting the program, without its arguments
+     * @throws Exception if a launch fails or prints the wrong output
+     */
+    private static void measure(String variant, int runs, List<String> launcher) throws Exception {
+        List<String> command = new ArrayList<>(launcher);
+        command.add("--encrypt");
+        command.add(WORD);
+
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            StartupBenchmark.launch(command);
+        }
+        long[] times = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            times[i] = StartupBenchmark.launch(command);
+        }
+        Arrays.sort(times);
+
+        System.out.printf("%-12s %8.1f %8.1f %8.1f %8.1f%n", variant,
+                times[0] / 1e6, times[runs / 2] / 1e6,
+                Arrays.stream(times).average().orElse(0) / 1e6, times[runs - 1] / 1e6);
+    }
+
+    /**
+     * Runs the command once and checks its output.
+     *
+     * @param command the command to run
+     * @return the time from start to exit in nanoseconds
+     * @throws IOException if the command fails or prints the wrong output
+     * @throws InterruptedException if interrupted while waiting for the process
+     */
+    private static long launch(List<String> command) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8).strip();
+        int exit = process.waitFor();
+        long elapsed = System.nanoTime() - start;
+
+        if (exit != 0 || !output.equals(EXPECTED)) {
+            throw new IOException(String.join(" ", command) + " exited with " + exit + ": " + output);
+        }
+        return elapsed;
+    }
+}
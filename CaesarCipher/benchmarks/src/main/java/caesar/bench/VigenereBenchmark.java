@@ -0,0 +1,98 @@
+package caesar.bench;
+
+/**
+ * Compares the keyed {@link VigenereCipher} with the fixed-shift {@link Cipher} on words and
+ * byte arrays of letters, for keys of different lengths, to check that the precomputed key
+ * schedule keeps the cost per character close to the fixed shift. Scores are per character.
+ */
+import caesar.Cipher;
+import caesar.EncryptionMachine;
+import caesar.InvalidCharPolicy;
+import caesar.VigenereCipher;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class VigenereBenchmark {
+    /** Number of letters in each encrypted word or array. */
+    private static final int LENGTH = 4096;
+
+    /** Number of letters in the key. */
+    @Param({"1", "8", "64"})
+    public int keyLength;
+
+    /** The fixed-shift cipher. */
+    private final Cipher caesar = EncryptionMachine.DEFAULT_CIPHER;
+
+    /** The keyed cipher. */
+    private VigenereCipher vigenere;
+
+    /** A word of {@link #LENGTH} letters. */
+    private String word;
+
+    /** The letters of {@link #word} as ISO-8859-1 bytes. */
+    private byte[] bytes;
+
+    /** Output of the byte benchmarks. */
+    private byte[] encrypted;
+
+    @Setup
+    public void setUp() {
+        StringBuilder key = new StringBuilder();
+        for (int i = 0; i < keyLength; i++) {
+            key.append(EncryptionMachine.ALPHABET.charAt((i * 11 + 3) % EncryptionMachine.ALPHABET.length()));
+        }
+        vigenere = EncryptionMachine.vigenere(key.toString());
+
+        StringBuilder builder = new StringBuilder(LENGTH);
+        for (int i = 0; i < LENGTH; i++) {
+            builder.append(EncryptionMachine.ALPHABET.charAt((i * 7) % EncryptionMachine.ALPHABET.length()));
+        }
+        word = builder.toString();
+        bytes = word.getBytes(StandardCharsets.ISO_8859_1);
+        encrypted = new byte[LENGTH];
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LENGTH)
+    public String caesarWord() {
+        return caesar.encryptWord(word);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LENGTH)
+    public String vigenereWord() {
+        return vigenere.encryptWord(word);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LENGTH)
+    public byte[] caesarBytes() {
+        caesar.encryptBytes(bytes, 0, encrypted, 0, LENGTH);
+        return encrypted;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LENGTH)
+    public byte[] vigenereBytes() {
+        vigenere.encryptor().translateBytes(bytes, 0, encrypted, 0, LENGTH, InvalidCharPolicy.REJECT, (byte) '?');
+        return encrypted;
+    }
+}
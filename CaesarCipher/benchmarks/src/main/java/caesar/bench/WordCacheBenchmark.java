@@ -0,0 +1,130 @@
+package caesar.bench;
+
+/**
+ * Compares encrypting words directly with encrypting them through a {@link WordCache}, on
+ * word streams drawn from a Zipfian distribution over a fixed vocabulary, as natural text
+ * is. The cache pays off when the skew is high enough that most words are hits and the
+ * words are long enough that a hash lookup is cheaper than encrypting them; short words or
+ * a flat distribution make it a loss. The {@code Threads4} variants share one cache
+ * between four threads to show the cost of segment locking.
+ * <p>
+ * Scores are per word.
+ */
+import caesar.Cipher;
+import caesar.EncryptionMachine;
+import caesar.WordCache;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WordCacheBenchmark {
+    /** Number of distinct words. */
+    private static final int VOCABULARY = 10_000;
+
+    /** Number of words in the replayed stream, a power of two. */
+    private static final int STREAM = 1 << 16;
+
+    /** Zipf exponent: 0 is uniform, around 1 is natural text. */
+    @Param({"0.5", "1.0", "1.2"})
+    public double skew;
+
+    /** Number of letters in every word. */
+    @Param({"4", "16", "64"})
+    public int wordLength;
+
+    /** Entry limit of the cache, a tenth of the vocabulary. */
+    @Param({"1000"})
+    public int cacheEntries;
+
+    /** The cipher to encrypt with. */
+    private final Cipher cipher = EncryptionMachine.DEFAULT_CIPHER;
+
+    /** The stream of words, drawn from the Zipfian distribution. */
+    private String[] stream;
+
+    /** The cache shared by all threads. */
+    private WordCache cache;
+
+    /**
+     * Position of one thread in the word stream.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        /** Index of the next word, wrapped with the stream length. */
+        int next;
+
+        @Setup
+        public void setUp() {
+            // Start threads at different places so they do not move in lock step
+            next = (int) (Thread.currentThread().threadId() * 7919);
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        String[] vocabulary = new String[VOCABULARY];
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < VOCABULARY; i++) {
+            char[] letters = new char[wordLength];
+            for (int j = 0; j < wordLength; j++) {
+                letters[j] = EncryptionMachine.ALPHABET.charAt(random.nextInt(EncryptionMachine.ALPHABET.length()));
+            }
+            vocabulary[i] = new String(letters);
+        }
+
+        // Cumulative Zipf distribution, sampled by inverting it with a binary search
+        double[] cumulative = new double[VOCABULARY];
+        double total = 0;
+        for (int rank = 0; rank < VOCABULARY; rank++) {
+            total += 1 / Math.pow(rank + 1, skew);
+            cumulative[rank] = total;
+        }
+        stream = new String[STREAM];
+        for (int i = 0; i < STREAM; i++) {
+            int rank = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+            stream[i] = vocabulary[Math.min(VOCABULARY - 1, rank < 0 ? -rank - 1 : rank)];
+        }
+
+        cache = new WordCache(cacheEntries);
+    }
+
+    @Benchmark
+    public String direct(Cursor cursor) {
+        return cipher.encryptWord(stream[cursor.next++ & (STREAM - 1)]);
+    }
+
+    @Benchmark
+    public String cached(Cursor cursor) {
+        return cache.encryptWord(cipher, stream[cursor.next++ & (STREAM - 1)]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String directThreads4(Cursor cursor) {
+        return direct(cursor);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String cachedThreads4(Cursor cursor) {
+        return cached(cursor);
+    }
+}
@@ -0,0 +1,247 @@
+package caesar;
+
+/**
+ * Reads records from an archive written by {@link ArchiveWriter}. Opening an archive reads
+ * only its trailer and block index; reading a range of records finds the blocks holding it
+ * with a binary search over the index and reads, checks, inflates and decrypts only those
+ * blocks. Reads use positional I/O, so one reader can be shared by several threads.
+ */
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+public final class ArchiveReader implements Closeable {
+    /** The cipher the records are decrypted with. */
+    private final Cipher cipher;
+
+    /** The channel the archive is read from. */
+    private final FileChannel in;
+
+    /** Number of records in the archive. */
+    private final long recordCount;
+
+    /** File offset of every block. */
+    private final long[] offsets;
+
+    /** Number of bytes every block takes in the file. */
+    private final int[] storedLengths;
+
+    /** Number of bytes every block takes once inflated. */
+    private final int[] rawLengths;
+
+    /** Index of the first record of every block, in ascending order. */
+    private final long[] firstRecords;
+
+    /** Number of records in every block. */
+    private final int[] recordCounts;
+
+    /** CRC-32 of the stored bytes of every block. */
+    private final int[] checksums;
+
+    /** Whether every block is deflated. */
+    private final boolean[] compressed;
+
+    /**
+     * Opens an archive and reads its index.
+     *
+     * @param path the archive to read
+     * @param cipher the cipher the archive was written with
+     * @throws IOException if the file cannot be read or is not a complete archive
+     */
+    public ArchiveReader(Path path, Cipher cipher) throws IOException {
+        this.cipher = cipher;
+        this.in = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = in.size();
+            if (size < ArchiveWriter.HEADER_SIZE + ArchiveWriter.TRAILER_SIZE
+                    || readRange(0, ArchiveWriter.HEADER_SIZE).getLong() != ArchiveWriter.MAGIC) {
+                throw new IOException(path + " is not an archive");
+            }
+            ByteBuffer trailer = readRange(size - ArchiveWriter.TRAILER_SIZE, ArchiveWriter.TRAILER_SIZE);
+            long indexOffset = trailer.getLong();
+            int blockCount = trailer.getInt();
+            this.recordCount = trailer.getLong();
+            if (trailer.getLong() != ArchiveWriter.MAGIC || blockCount < 0
+                    || indexOffset + (long) blockCount * ArchiveWriter.INDEX_ENTRY_SIZE
+                            != size - ArchiveWriter.TRAILER_SIZE) {
+                throw new IOException(path + " is truncated or was not closed");
+            }
+
+            this.offsets = new long[blockCount];
+            this.storedLengths = new int[blockCount];
+            this.rawLengths = new int[blockCount];
+            this.firstRecords = new long[blockCount];
+            this.recordCounts = new int[blockCount];
+            this.checksums = new int[blockCount];
+            this.compressed = new boolean[blockCount];
+            ByteBuffer index = readRange(indexOffset, blockCount * ArchiveWriter.INDEX_ENTRY_SIZE);
+            for (int i = 0; i < blockCount; i++) {
+                offsets[i] = index.getLong();
+                storedLengths[i] = index.getInt();
+                rawLengths[i] = index.getInt();
+                firstRecords[i] = index.getLong();
+                recordCounts[i] = index.getInt();
+                checksums[i] = index.getInt();
+                compressed[i] = (index.get() & ArchiveWriter.COMPRESSED) != 0;
+            }
+        } catch (IOException | RuntimeException ex) {
+            in.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Returns the number of records in the archive.
+     *
+     * @return the record count
+     */
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Returns the number of blocks in the archive.
+     *
+     * @return the block count
+     */
+    public int getBlockCount() {
+        return offsets.length;
+    }
+
+    /**
+     * Reads and decrypts one record.
+     *
+     * @param record the index of the record
+     * @return the decrypted word
+     * @throws IndexOutOfBoundsException if the index is outside the archive
+     * @throws IOException if the file cannot be read or its block is corrupted
+     */
+    public String read(long record) throws IOException {
+        return read(record, 1).get(0);
+    }
+
+    /**
+     * Reads and decrypts a range of records, touching only the blocks that hold them.
+     *
+     * @param first the index of the first record
+     * @param count the number of records
+     * @return the decrypted words, in order
+     * @throws IndexOutOfBoundsException if the range is outside the archive
+     * @throws IOException if the file cannot be read or one of its blocks is corrupted
+     */
+    public List<String> read(long first, int count) throws IOException {
+        Objects.checkFromIndexSize(first, count, recordCount);
+        List<String> words = new ArrayList<>(count);
+        if (count == 0) {
+            return words;
+        }
+
+        int block = Arrays.binarySearch(firstRecords, first);
+        if (block < 0) {
+            block = -block - 2;
+        }
+        long end = first + count;
+        for (; block < offsets.length && firstRecords[block] < end; block++) {
+            ByteBuffer records = readBlock(block);
+            long record = firstRecords[block];
+            for (int i = 0; i < recordCounts[block] && record < end; i++, record++) {
+                int length = readVarint(records);
+                if (record >= first) {
+                    String encrypted = new String(records.array(), records.position(), length, StandardCharsets.UTF_8);
+                    words.add(cipher.decryptWord(encrypted));
+                }
+                records.position(records.position() + length);
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Closes the file.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Reads one block, checks its CRC-32 and inflates it if it is deflated.
+     *
+     * @param block the index of the block
+     * @return the records of the block, in a heap buffer positioned at the first record
+     * @throws IOException if the file cannot be read or the block is corrupted
+     */
+    private ByteBuffer readBlock(int block) throws IOException {
+        ByteBuffer stored = readRange(offsets[block], storedLengths[block]);
+        CRC32 crc = new CRC32();
+        crc.update(stored.array(), 0, storedLengths[block]);
+        if ((int) crc.getValue() != checksums[block]) {
+            throw new IOException("Block " + block + " is corrupted");
+        }
+        if (!compressed[block]) {
+            return stored;
+        }
+
+        byte[] raw = new byte[rawLengths[block]];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(stored.array(), 0, storedLengths[block]);
+            if (inflater.inflate(raw) != raw.length || !inflater.finished()) {
+                throw new IOException("Block " + block + " is corrupted");
+            }
+        } catch (DataFormatException ex) {
+            throw new IOException("Block " + block + " is corrupted", ex);
+        } finally {
+            inflater.end();
+        }
+        return ByteBuffer.wrap(raw);
+    }
+
+    /**
+     * Reads a range of the file into a new heap buffer.
+     *
+     * @param offset the offset of the range
+     * @param length the length of the range
+     * @return the bytes, positioned at the start
+     * @throws IOException if the file cannot be read or ends before the range does
+     */
+    private ByteBuffer readRange(long offset, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (in.read(buffer, offset + buffer.position()) < 0) {
+                throw new IOException("The archive ends at byte " + (offset + buffer.position()));
+            }
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * Reads a number written by {@code ArchiveWriter.writeVarint}.
+     *
+     * @param buffer the buffer to read from, advanced past the number
+     * @return the number
+     */
+    private static int readVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package caesar;
+
+/**
+ * Writes encrypted words to a block archive that {@link ArchiveReader} can read any range of
+ * records from without scanning the rest of the file. Each appended word is encrypted with
+ * {@link Cipher#encryptWord} and added to the current block; a block is closed once it
+ * would grow past the block size, optionally deflated, and written out. Closing the writer
+ * writes an index of every block followed by a fixed-size trailer.
+ * <p>
+ * The layout of an archive, with every number big-endian:
+ * <pre>
+ * header   magic (8 bytes)
+ * blocks   per block: the records, each a varint length and its UTF-8 bytes, deflated if
+ *          that made the block smaller
+ * index    per block: offset (8), stored length (4), raw length (4), first record (8),
+ *          record count (4), CRC-32 of the stored bytes (4), flags (1)
+ * trailer  index offset (8), block count (4), record count (8), magic (8)
+ * </pre>
+ * Words are encrypted before they are compressed, since compressed bytes are not letters
+ * the cipher could translate; a shift keeps the redundancy of the text, so it compresses
+ * just as well.
+ */
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+public final class ArchiveWriter implements Closeable {
+    /** Default number of record bytes in a block before it is closed. */
+    public static final int DEFAULT_BLOCK_SIZE = 16 << 10;
+
+    /** Magic number at the start and the end of every archive, "CSRARC01" in ASCII. */
+    static final long MAGIC = 0x4353524152433031L;
+
+    /** Size of the header in bytes. */
+    static final int HEADER_SIZE = Long.BYTES;
+
+    /** Size of one index entry in bytes. */
+    static final int INDEX_ENTRY_SIZE = 33;
+
+    /** Size of the trailer in bytes. */
+    static final int TRAILER_SIZE = 28;
+
+    /** Index flag set when a block is stored deflated. */
+    static final byte COMPRESSED = 1;
+
+    /** The cipher the words are encrypted with. */
+    private final Cipher cipher;
+
+    /** The channel the archive is written to. */
+    private final FileChannel out;
+
+    /** Number of record bytes in a block before it is closed. */
+    private final int blockSize;
+
+    /** Deflates blocks, or null if blocks are stored as they are. */
+    private final Deflater deflater;
+
+    /** The records of the current block. */
+    private final ByteArrayOutputStream block = new ByteArrayOutputStream();
+
+    /** The index entries of the blocks written so far. */
+    private final ByteArrayOutputStream index = new ByteArrayOutputStream();
+
+    /** Number of records in the current block. */
+    private int blockRecords;
+
+    /** Number of blocks written so far. */
+    private int blockCount;
+
+    /** Number of records appended so far. */
+    private long recordCount;
+
+    /** Whether {@link #close()} has run. */
+    private boolean closed;
+
+    /**
+     * Creates a writer with {@link #DEFAULT_BLOCK_SIZE} blocks that are deflated when it
+     * makes them smaller, replacing the file if it exists.
+     *
+     * @param path the archive to write
+     * @param cipher the cipher to encrypt with
+     * @throws IOException if the file cannot be created
+     */
+    public ArchiveWriter(Path path, Cipher cipher) throws IOException {
+        this(path, cipher, DEFAULT_BLOCK_SIZE, true);
+    }
+
+    /**
+     * Creates a writer, replacing the file if it exists.
+     *
+     * @param path the archive to write
+     * @param cipher the cipher to encrypt with
+     * @param blockSize the number of record bytes in a block before it is closed, must be
+     *        positive; a record larger than this gets a block of its own
+     * @param compress whether to deflate blocks when it makes them smaller
+     * @throws IOException if the file cannot be created
+     * @throws IllegalArgumentException if the block size is not positive
+     */
+    public ArchiveWriter(Path path, Cipher cipher, int blockSize, boolean compress) throws IOException {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("The block size must be positive");
+        }
+        this.cipher = cipher;
+        this.blockSize = blockSize;
+        this.deflater = compress ? new Deflater() : null;
+        this.out = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+        write(ByteBuffer.allocate(HEADER_SIZE).putLong(MAGIC).flip());
+    }
+
+    /**
+     * Encrypts a word and appends it as the next record.
+     *
+     * @param word the word to encrypt
+     * @throws IllegalArgumentException if the word contains characters outside the alphabet;
+     *         nothing is appended
+     * @throws IOException if a full block cannot be written
+     * @throws IllegalStateException if the writer is closed
+     */
+    public void append(String word) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("The archive is closed");
+        }
+        byte[] encrypted = cipher.encryptWord(word).getBytes(StandardCharsets.UTF_8);
+
+        if (blockRecords > 0 && block.size() + 5 + encrypted.length > blockSize) {
+            flushBlock();
+        }
+        writeVarint(block, encrypted.length);
+        block.write(encrypted, 0, encrypted.length);
+        blockRecords++;
+        recordCount++;
+    }
+
+    /**
+     * Returns the number of records appended so far.
+     *
+     * @return the record count
+     */
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Writes the last block, the index and the trailer, and closes the file. Closing twice
+     * has no effect.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (blockRecords > 0) {
+                flushBlock();
+            }
+            long indexOffset = out.position();
+            write(ByteBuffer.wrap(index.toByteArray()));
+            write(ByteBuffer.allocate(TRAILER_SIZE)
+                    .putLong(indexOffset).putInt(blockCount).putLong(recordCount).putLong(MAGIC).flip());
+        } finally {
+            if (deflater != null) {
+                deflater.end();
+            }
+            out.close();
+        }
+    }
+
+    /**
+     * Writes the current block, deflated if that makes it smaller, and records its index entry.
+     *
+     * @throws IOException if the block cannot be written
+     */
+    private void flushBlock() throws IOException {
+        byte[] raw = block.toByteArray();
+        byte[] stored = raw;
+        int storedLength = raw.length;
+        byte flags = 0;
+
+        if (deflater != null) {
+            byte[] compressed = new byte[raw.length];
+            deflater.reset();
+            deflater.setInput(raw);
+            deflater.finish();
+            int length = deflater.deflate(compressed);
+            if (deflater.finished() && length < raw.length) {
+                stored = compressed;
+                storedLength = length;
+                flags = COMPRESSED;
+            }
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(stored, 0, storedLength);
+        long offset = out.position();
+        write(ByteBuffer.wrap(stored, 0, storedLength));
+
+        ByteBuffer entry = ByteBuffer.allocate(INDEX_ENTRY_SIZE)
+                .putLong(offset).putInt(storedLength).putInt(raw.length)
+                .putLong(recordCount - blockRecords).putInt(blockRecords)
+                .putInt((int) crc.getValue()).put(flags);
+        index.write(entry.array(), 0, INDEX_ENTRY_SIZE);
+
+        blockCount++;
+        blockRecords = 0;
+        block.reset();
+    }
+
+    /**
+     * Writes every remaining byte of a buffer at the current position.
+     *
+     * @param buffer the bytes to write
+     * @throws IOException if the file cannot be written
+     */
+    private void write(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    /**
+     * Writes a non-negative number in seven-bit groups, lowest first, with the high bit set
+     * on every group but the last.
+     *
+     * @param out the stream to write to
+     * @param value the number to write
+     */
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+}
@@ -0,0 +1,733 @@
+package caesar;
+
+/**
+ * An immutable Caesar cipher for one alphabet and shift. The translation tables are built
+ * once at construction, so an instance can be shared freely between threads and many keys
+ * can be used side by side in one JVM without recomputing anything per call.
+ */
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+public final class Cipher {
+    /** The precomputed translation tables. */
+    private final ShiftTable table;
+
+    /** The translation tables for the opposite shift, used to decrypt. */
+    private final ShiftTable inverse;
+
+    /** Message used when a character outside the alphabet is encountered. */
+    private final String invalidLetterMessage;
+
+    /** Hash of the rings and normalized shift, computed once so ciphers are cheap map keys. */
+    private final int hash;
+
+    /**
+     * Creates a cipher for the given alphabet and shift.
+     *
+     * @param alphabet the characters to rotate through, in order and without duplicates
+     * @param shift the number of positions to shift each character, may be negative
+     * @throws IllegalArgumentException if the alphabet is empty or contains duplicates
+     */
+    public Cipher(String alphabet, int shift) {
+        this(alphabet, shift, "Only letters from the alphabet \"" + alphabet + "\" are allowed");
+    }
+
+    /**
+     * Creates a cipher over several rings that each rotate on their own, for example
+     * lowercase letters, uppercase letters and digits. Letters may be any Unicode code
+     * points, including supplementary characters such as emoji.
+     *
+     * @param rings the code points of each ring, in order; no code point may appear twice
+     * @param shift the number of positions to shift each letter within its ring, may be
+     *        negative
+     * @throws IllegalArgumentException if a ring is empty or a letter appears twice
+     * @see ShiftTable#ShiftTable(List, int)
+     */
+    public Cipher(List<String> rings, int shift) {
+        this(rings, shift, "Only letters from the alphabets \"" + String.join("\", \"", rings) + "\" are allowed");
+    }
+
+    /**
+     * Creates a cipher with a specific message for rejected characters.
+     *
+     * @param alphabet the characters to rotate through, in order and without duplicates
+     * @param shift the number of positions to shift each character, may be negative
+     * @param invalidLetterMessage the message of the exception thrown for rejected characters
+     */
+    Cipher(String alphabet, int shift, String invalidLetterMessage) {
+        this(List.of(alphabet), shift, invalidLetterMessage);
+    }
+
+    /**
+     * Creates a cipher over several rings with a specific message for rejected characters.
+     *
+     * @param rings the code points of each ring, in order
+     * @param shift the number of positions to shift each letter within its ring
+     * @param invalidLetterMessage the message of the exception thrown for rejected characters
+     */
+    private Cipher(List<String> rings, int shift, String invalidLetterMessage) {
+        this.table = new ShiftTable(rings, shift);
+        this.inverse = new ShiftTable(rings, -shift);
+        this.invalidLetterMessage = invalidLetterMessage;
+        this.hash = 31 * table.getRings().hashCode() + table.getShift();
+    }
+
+    /**
+     * Creates a cipher over the same rings with another shift and the same message for
+     * rejected characters.
+     *
+     * @param shift the number of positions to shift each letter within its ring, may be
+     *        negative
+     * @return the cipher with the new shift
+     */
+    Cipher withShift(int shift) {
+        return new Cipher(table.getRings(), shift, invalidLetterMessage);
+    }
+
+    /**
+     * Creates a cipher that keeps the case of English letters: a-z and A-Z rotate separately.
+     *
+     * @param shift the number of positions to shift each letter, may be negative
+     * @return the case-preserving cipher
+     */
+    public static Cipher casePreserving(int shift) {
+        return new Cipher(List.of(EncryptionMachine.ALPHABET, EncryptionMachine.UPPERCASE_ALPHABET), shift);
+    }
+
+    /**
+     * Creates a cipher for English letters and digits: a-z, A-Z and 0-9 rotate separately,
+     * so case is kept and digits stay digits.
+     *
+     * @param shift the number of positions to shift each letter or digit, may be negative
+     * @return the alphanumeric cipher
+     */
+    public static Cipher alphanumeric(int shift) {
+        return new Cipher(List.of(EncryptionMachine.ALPHABET, EncryptionMachine.UPPERCASE_ALPHABET,
+                EncryptionMachine.DIGITS), shift);
+    }
+
+    /**
+     * Encrypts a given word by applying this cipher to each character.
+     *
+     * @param word the word to encrypt, containing only letters from the alphabet
+     * @return the encrypted word
+     * @throws IllegalArgumentException if the word contains characters outside the alphabet
+     */
+    public String encryptWord(String word) {
+        int length = word.length();
+        char[] encrypted = new char[length];
+
+        for (int i = 0; i < length; i++) {
+            char c = table.translate(word.charAt(i));
+            if (c == ShiftTable.INVALID) {
+                return translateCodePoints(table, word, i, encrypted);
+            }
+            encrypted[i] = c;
+        }
+
+        return new String(encrypted);
+    }
+
+    /**
+     * Encrypts a single letter.
+     *
+     * @param letter the letter to encrypt, must be a letter of the alphabet
+     * @return the encrypted letter
+     * @throws IllegalArgumentException if the letter is not in the alphabet
+     */
+    public char encryptLetter(char letter) {
+        char encrypted = table.translate(letter);
+        if (encrypted == ShiftTable.INVALID) {
+            throw invalidLetter();
+        }
+
+        return encrypted;
+    }
+
+    /**
+     * Checks a word against the alphabet without encrypting it or throwing.
+     *
+     * @param word the word to check
+     * @return -1 if every character is in the alphabet, otherwise the offset of the first
+     *         character that is not
+     */
+    public int validateWord(CharSequence word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (table.translate(word.charAt(i)) != ShiftTable.INVALID) {
+                continue;
+            }
+            if (!table.hasSupplementaryLetters()) {
+                return i;
+            }
+            int codePoint = Character.codePointAt(word, i);
+            if (table.translateCodePoint(codePoint) < 0) {
+                return i;
+            }
+            i += Character.charCount(codePoint) - 1;
+        }
+        return -1;
+    }
+
+    /**
+     * Encrypts a word without throwing, replacing invalid characters with
+     * {@link InvalidCharPolicy#DEFAULT_REPLACEMENT} under {@link InvalidCharPolicy#REPLACE}.
+     *
+     * @param word the word to encrypt
+     * @param policy what to do with characters outside the alphabet
+     * @return the encrypted text and the offsets of any invalid characters
+     */
+    public EncryptionResult tryEncryptWord(String word, InvalidCharPolicy policy) {
+        return tryEncryptWord(word, policy, InvalidCharPolicy.DEFAULT_REPLACEMENT);
+    }
+
+    /**
+     * Encrypts a word without throwing. Every invalid character is recorded, whatever the
+     * policy; under {@link InvalidCharPolicy#REJECT} the result then has no text.
+     *
+     * @param word the word to encrypt
+     * @param policy what to do with characters outside the alphabet
+     * @param replacement the character written in place of invalid ones under
+     *        {@link InvalidCharPolicy#REPLACE}
+     * @return the encrypted text and the offsets of any invalid characters
+     */
+    public EncryptionResult tryEncryptWord(String word, InvalidCharPolicy policy, char replacement) {
+        int length = word.length();
+        char[] encrypted = new char[length];
+        word.getChars(0, length, encrypted, 0);
+
+        // Clean input takes the same table loop as encryptWord
+        int invalid = table.translate(encrypted, 0, encrypted, 0, length);
+        if (invalid == -1) {
+            return new EncryptionResult(new String(encrypted), null, 0);
+        }
+
+        if (table.hasSupplementaryLetters()) {
+            return tryEncryptCodePoints(word, invalid, encrypted, policy, replacement);
+        }
+
+        int[] offsets = new int[4];
+        int count = 0;
+        int written = invalid;
+        for (int i = invalid; i < length; i++) {
+            char letter = encrypted[i];
+            char c = table.translate(letter);
+            if (c != ShiftTable.INVALID) {
+                encrypted[written++] = c;
+                continue;
+            }
+
+            if (count == offsets.length) {
+                offsets = Arrays.copyOf(offsets, count * 2);
+            }
+            offsets[count++] = i;
+
+            switch (policy) {
+                case PASS_THROUGH -> encrypted[written++] = letter;
+                case REPLACE -> encrypted[written++] = replacement;
+                default -> {
+                    // Skipped and rejected characters are not written
+                }
+            }
+        }
+
+        String text = policy == InvalidCharPolicy.REJECT ? null : new String(encrypted, 0, written);
+        return new EncryptionResult(text, offsets, count);
+    }
+
+    /**
+     * Finishes {@link #tryEncryptWord(String, InvalidCharPolicy, char)} one code point at a
+     * time for alphabets with supplementary letters. Offsets are still char indices.
+     *
+     * @param word the whole word
+     * @param from the index of the first character the char loop could not translate
+     * @param prefix the characters translated before {@code from}
+     * @param policy what to do with characters outside the alphabet
+     * @param replacement the character written in place of invalid ones
+     * @return the encrypted text and the offsets of any invalid characters
+     */
+    private EncryptionResult tryEncryptCodePoints(String word, int from, char[] prefix,
+            InvalidCharPolicy policy, char replacement) {
+        StringBuilder encrypted = new StringBuilder(word.length() + 1).append(prefix, 0, from);
+        int[] offsets = new int[4];
+        int count = 0;
+        for (int i = from; i < word.length(); ) {
+            int codePoint = word.codePointAt(i);
+            int c = table.translateCodePoint(codePoint);
+            if (c >= 0) {
+                encrypted.appendCodePoint(c);
+            } else {
+                if (count == offsets.length) {
+                    offsets = Arrays.copyOf(offsets, count * 2);
+                }
+                offsets[count++] = i;
+
+                switch (policy) {
+                    case PASS_THROUGH -> encrypted.appendCodePoint(codePoint);
+                    case REPLACE -> encrypted.append(replacement);
+                    default -> {
+                        // Skipped and rejected characters are not written
+                    }
+                }
+            }
+            i += Character.charCount(codePoint);
+        }
+
+        String text = policy == InvalidCharPolicy.REJECT ? null : encrypted.toString();
+        return new EncryptionResult(text, offsets, count);
+    }
+
+    /**
+     * Encrypts a range of characters into a destination array without allocating or throwing.
+     * The ranges may be the same range of the same array to encrypt in place.
+     *
+     * @param src the array holding the characters to encrypt
+     * @param srcOffset the index of the first character to encrypt
+     * @param dst the array receiving the encrypted characters
+     * @param dstOffset the index in {@code dst} of the first encrypted character
+     * @param length the number of characters to encrypt
+     * @param policy what to do with characters outside the alphabet
+     * @param replacement the character written in place of invalid ones under
+     *        {@link InvalidCharPolicy#REPLACE}
+     * @return the number of characters written to {@code dst}, or {@code -1 - offset} where
+     *         {@code offset} is the position relative to {@code srcOffset} of the first
+     *         invalid character if the policy is {@link InvalidCharPolicy#REJECT}, in which case
+     *         the characters before it may already have been written
+     */
+    public int encryptChars(char[] src, int srcOffset, char[] dst, int dstOffset, int length,
+            InvalidCharPolicy policy, char replacement) {
+        Objects.checkFromIndexSize(srcOffset, length, src.length);
+        Objects.checkFromIndexSize(dstOffset, length, dst.length);
+
+        int invalid = table.translate(src, srcOffset, dst, dstOffset, length);
+        if (invalid == -1) {
+            return length;
+        }
+        if (policy == InvalidCharPolicy.REJECT) {
+            return -1 - invalid;
+        }
+
+        int written = invalid;
+        for (int i = invalid; i < length; i++) {
+            char letter = src[srcOffset + i];
+            char c = table.translate(letter);
+            if (c != ShiftTable.INVALID) {
+                dst[dstOffset + written++] = c;
+            } else if (policy == InvalidCharPolicy.PASS_THROUGH) {
+                dst[dstOffset + written++] = letter;
+            } else if (policy == InvalidCharPolicy.REPLACE) {
+                dst[dstOffset + written++] = replacement;
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Encrypts a range of ISO-8859-1 bytes into a destination array without allocating or
+     * throwing. The ranges may be the same range of the same array to encrypt in place.
+     *
+     * @param src the array holding the bytes to encrypt
+     * @param srcOffset the index of the first byte to encrypt
+     * @param dst the array receiving the encrypted bytes
+     * @param dstOffset the index in {@code dst} of the first encrypted byte
+     * @param length the number of bytes to encrypt
+     * @param policy what to do with bytes outside the alphabet
+     * @param replacement the byte written in place of invalid ones under
+     *        {@link InvalidCharPolicy#REPLACE}
+     * @return the number of bytes written to {@code dst}, or {@code -1 - offset} where
+     *         {@code offset} is the position relative to {@code srcOffset} of the first
+     *         invalid byte if the policy is {@link InvalidCharPolicy#REJECT}, in which case
+     *         the bytes before it may already have been written
+     */
+    public int encryptBytes(byte[] src, int srcOffset, byte[] dst, int dstOffset, int length,
+            InvalidCharPolicy policy, byte replacement) {
+        Objects.checkFromIndexSize(srcOffset, length, src.length);
+        Objects.checkFromIndexSize(dstOffset, length, dst.length);
+
+        int invalid = table.translate(src, srcOffset, dst, dstOffset, length);
+        if (invalid == -1) {
+            return length;
+        }
+        if (policy == InvalidCharPolicy.REJECT) {
+            return -1 - invalid;
+        }
+
+        int written = invalid;
+        for (int i = invalid; i < length; i++) {
+            byte letter = src[srcOffset + i];
+            int b = table.translate(letter);
+            if (b >= 0) {
+                dst[dstOffset + written++] = (byte) b;
+            } else if (policy == InvalidCharPolicy.PASS_THROUGH) {
+                dst[dstOffset + written++] = letter;
+            } else if (policy == InvalidCharPolicy.REPLACE) {
+                dst[dstOffset + written++] = replacement;
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Encrypts every word of an array.
+     *
+     * @param words the words to encrypt
+     * @return the encrypted words, in the same order
+     * @throws IllegalArgumentException if any word contains characters outside the alphabet
+     */
+    public String[] encryptWords(String[] words) {
+        String[] encrypted = new String[words.length];
+        for (int i = 0; i < words.length; i++) {
+            encrypted[i] = encryptWord(words[i]);
+        }
+        return encrypted;
+    }
+
+    /**
+     * Encrypts every word of a list.
+     *
+     * @param words the words to encrypt
+     * @return the encrypted words, in the same order
+     * @throws IllegalArgumentException if any word contains characters outside the alphabet
+     */
+    public List<String> encryptWords(List<String> words) {
+        List<String> encrypted = new ArrayList<>(words.size());
+        for (String word : words) {
+            encrypted.add(encryptWord(word));
+        }
+        return encrypted;
+    }
+
+    /**
+     * Lazily encrypts every word of a stream.
+     *
+     * @param words the words to encrypt
+     * @return a stream of the encrypted words; it throws {@link IllegalArgumentException}
+     *         when it reaches a word with characters outside the alphabet
+     */
+    public Stream<String> encryptWords(Stream<String> words) {
+        return words.map(this::encryptWord);
+    }
+
+    /**
+     * Encrypts every word and writes each ciphertext on its own line. The words are
+     * encrypted through one reusable buffer, so only the writer's own buffering allocates;
+     * pass a buffered writer to write everything in one buffered pass.
+     *
+     * @param words the words to encrypt
+     * @param out the writer receiving one encrypted word per line
+     * @throws IOException if the writer fails
+     * @throws IllegalArgumentException if any word contains characters outside the alphabet;
+     *         the words before it have already been written
+     */
+    public void writeEncryptedWords(Iterable<String> words, Writer out) throws IOException {
+        String lineSeparator = System.lineSeparator();
+        char[] buffer = new char[64];
+
+        for (String word : words) {
+            int length = word.length();
+            if (buffer.length < length) {
+                buffer = new char[Math.max(length, buffer.length * 2)];
+            }
+
+            word.getChars(0, length, buffer, 0);
+            if (table.translate(buffer, 0, buffer, 0, length) != -1) {
+                throw invalidLetter();
+            }
+            out.write(buffer, 0, length);
+            out.write(lineSeparator);
+        }
+    }
+
+    /**
+     * Decrypts a word encrypted with this cipher by shifting each character back.
+     *
+     * @param word the word to decrypt, containing only letters from the alphabet
+     * @return the decrypted word
+     * @throws IllegalArgumentException if the word contains characters outside the alphabet
+     */
+    public String decryptWord(String word) {
+        int length = word.length();
+        char[] decrypted = new char[length];
+
+        for (int i = 0; i < length; i++) {
+            char c = inverse.translate(word.charAt(i));
+            if (c == ShiftTable.INVALID) {
+                return translateCodePoints(inverse, word, i, decrypted);
+            }
+            decrypted[i] = c;
+        }
+
+        return new String(decrypted);
+    }
+
+    /**
+     * Finishes translating a word one code point at a time, once the char loop has stopped
+     * at a character it cannot translate on its own. Only alphabets with supplementary
+     * letters get past the first check, so the ASCII path never pays for it.
+     *
+     * @param table the table to translate with
+     * @param word the whole word
+     * @param from the index of the first character the char loop could not translate
+     * @param prefix the characters translated before {@code from}
+     * @return the translated word
+     * @throws IllegalArgumentException if the word contains characters outside the alphabet
+     */
+    private String translateCodePoints(ShiftTable table, String word, int from, char[] prefix) {
+        if (!table.hasSupplementaryLetters()) {
+            throw invalidLetter();
+        }
+
+        StringBuilder translated = new StringBuilder(word.length() + 1).append(prefix, 0, from);
+        for (int i = from; i < word.length(); ) {
+            int codePoint = word.codePointAt(i);
+            int c = table.translateCodePoint(codePoint);
+            if (c < 0) {
+                throw invalidLetter();
+            }
+            translated.appendCodePoint(c);
+            i += Character.charCount(codePoint);
+        }
+        return translated.toString();
+    }
+
+    /**
+     * Encrypts a single code point, which may be a supplementary letter.
+     *
+     * @param codePoint the code point to encrypt, must be a letter of the alphabet
+     * @return the encrypted code point
+     * @throws IllegalArgumentException if the code point is not in the alphabet
+     */
+    public int encryptCodePoint(int codePoint) {
+        int encrypted = table.translateCodePoint(codePoint);
+        if (encrypted < 0) {
+            throw invalidLetter();
+        }
+        return encrypted;
+    }
+
+    /**
+     * Decrypts a single code point encrypted with this cipher.
+     *
+     * @param codePoint the code point to decrypt, must be a letter of the alphabet
+     * @return the decrypted code point
+     * @throws IllegalArgumentException if the code point is not in the alphabet
+     */
+    public int decryptCodePoint(int codePoint) {
+        int decrypted = inverse.translateCodePoint(codePoint);
+        if (decrypted < 0) {
+            throw invalidLetter();
+        }
+        return decrypted;
+    }
+
+    /**
+     * Decrypts a single letter encrypted with this cipher.
+     *
+     * @param letter the letter to decrypt, must be a letter of the alphabet
+     * @return the decrypted letter
+     * @throws IllegalArgumentException if the letter is not in the alphabet
+     */
+    public char decryptLetter(char letter) {
+        char decrypted = inverse.translate(letter);
+        if (decrypted == ShiftTable.INVALID) {
+            throw invalidLetter();
+        }
+
+        return decrypted;
+    }
+
+    /**
+     * Encrypts a range of characters into a destination array without allocating. The ranges
+     * may be the same range of the same array to encrypt in place.
+     *
+     * @param src the array holding the characters to encrypt
+     * @param srcOffset the index of the first character to encrypt
+     * @param dst the array receiving the encrypted characters
+     * @param dstOffset the index in {@code dst} of the first encrypted character
+     * @param length the number of characters to encrypt
+     * @throws IllegalArgumentException if the range contains characters outside the alphabet;
+     *         characters before the first invalid one are left encrypted
+     */
+    public void encryptChars(char[] src, int srcOffset, char[] dst, int dstOffset, int length) {
+        Objects.checkFromIndexSize(srcOffset, length, src.length);
+        Objects.checkFromIndexSize(dstOffset, length, dst.length);
+
+        if (table.translate(src, srcOffset, dst, dstOffset, length) != -1) {
+            throw invalidLetter();
+        }
+    }
+
+    /**
+     * Encrypts the remaining characters of {@code src} into {@code dst} and advances the
+     * position of both buffers by the number of characters encrypted. Passing the same
+     * buffer twice encrypts it in place.
+     *
+     * @param src the characters to encrypt
+     * @param dst the buffer receiving the encrypted characters
+     * @throws BufferOverflowException if {@code dst} has fewer remaining characters than {@code src}
+     * @throws IllegalArgumentException if {@code src} contains characters outside the
+     *         alphabet; both positions are left unchanged
+     */
+    public void encryptChars(CharBuffer src, CharBuffer dst) {
+        int length = src.remaining();
+        if (dst.remaining() < length) {
+            throw new BufferOverflowException();
+        }
+
+        if (table.translate(src, dst) != -1) {
+            throw invalidLetter();
+        }
+
+        src.position(src.position() + length);
+        if (dst != src) {
+            dst.position(dst.position() + length);
+        }
+    }
+
+    /**
+     * Encrypts a range of ISO-8859-1 (and therefore ASCII) bytes into a destination array
+     * without allocating. The ranges may be the same range of the same array to encrypt in
+     * place.
+     *
+     * @param src the array holding the bytes to encrypt
+     * @param srcOffset the index of the first byte to encrypt
+     * @param dst the array receiving the encrypted bytes
+     * @param dstOffset the index in {@code dst} of the first encrypted byte
+     * @param length the number of bytes to encrypt
+     * @throws IllegalArgumentException if the range contains bytes outside the alphabet;
+     *         bytes before the first invalid one are left encrypted
+     */
+    public void encryptBytes(byte[] src, int srcOffset, byte[] dst, int dstOffset, int length) {
+        Objects.checkFromIndexSize(srcOffset, length, src.length);
+        Objects.checkFromIndexSize(dstOffset, length, dst.length);
+
+        if (table.translate(src, srcOffset, dst, dstOffset, length) != -1) {
+            throw invalidLetter();
+        }
+    }
+
+    /**
+     * Encrypts the remaining ISO-8859-1 bytes of {@code src} into {@code dst} and advances
+     * the position of both buffers by the number of bytes encrypted. Passing the same buffer
+     * twice encrypts it in place.
+     *
+     * @param src the bytes to encrypt
+     * @param dst the buffer receiving the encrypted bytes
+     * @throws BufferOverflowException if {@code dst} has fewer remaining bytes than {@code src}
+     * @throws IllegalArgumentException if {@code src} contains bytes outside the alphabet;
+     *         both positions are left unchanged
+     */
+    public void encryptBytes(ByteBuffer src, ByteBuffer dst) {
+        int length = src.remaining();
+        if (dst.remaining() < length) {
+            throw new BufferOverflowException();
+        }
+
+        if (table.translate(src, dst) != -1) {
+            throw invalidLetter();
+        }
+
+        src.position(src.position() + length);
+        if (dst != src) {
+            dst.position(dst.position() + length);
+        }
+    }
+
+    /**
+     * Returns the precomputed translation tables of this cipher.
+     *
+     * @return the translation tables
+     */
+    public ShiftTable getTable() {
+        return table;
+    }
+
+    /**
+     * Returns the precomputed translation tables for decrypting with this cipher.
+     *
+     * @return the inverse translation tables
+     */
+    public ShiftTable getInverseTable() {
+        return inverse;
+    }
+
+    /**
+     * Returns the alphabet of this cipher.
+     *
+     * @return the alphabet
+     */
+    public String getAlphabet() {
+        return table.getAlphabet();
+    }
+
+    /**
+     * Returns the rings this cipher rotates through; a plain alphabet is a single ring.
+     *
+     * @return the rings, unmodifiable
+     */
+    public List<String> getRings() {
+        return table.getRings();
+    }
+
+    /**
+     * Returns the shift of this cipher, normalized to the range [0, alphabet length).
+     *
+     * @return the normalized shift
+     */
+    public int getShift() {
+        return table.getShift();
+    }
+
+    /**
+     * Compares two ciphers by what they do: ciphers with the same rings and the same
+     * normalized shift encrypt every word identically.
+     *
+     * @param other the object to compare with
+     * @return true if {@code other} is a cipher with the same rings and normalized shift
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        return other instanceof Cipher cipher
+                && hash == cipher.hash
+                && table.getShift() == cipher.table.getShift()
+                && table.getRings().equals(cipher.table.getRings());
+    }
+
+    /**
+     * Returns a hash code consistent with {@link #equals(Object)}.
+     *
+     * @return the hash code
+     */
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    /**
+     * Creates the exception thrown for a character outside the alphabet.
+     *
+     * @return a new exception carrying this cipher's message
+     */
+    IllegalArgumentException invalidLetter() {
+        return new IllegalArgumentException(invalidLetterMessage);
+    }
+
+    /**
+     * Returns the message used when a character outside the alphabet is rejected.
+     *
+     * @return the rejection message
+     */
+    String getInvalidLetterMessage() {
+        return invalidLetterMessage;
+    }
+}
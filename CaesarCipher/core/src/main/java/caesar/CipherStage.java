@@ -0,0 +1,232 @@
+package caesar;
+
+/**
+ * One stage of a reactive encryption pipeline: a {@link Flow.Processor} that transforms each
+ * item it receives and publishes the result to its own subscribers. Stages subscribe to one
+ * another, so validation, encryption and output framing can be composed:
+ * <pre>
+ * CipherStage&lt;String, String&gt; validate = CipherStage.validation(cipher);
+ * CipherStage&lt;String, EncryptedChunk&gt; encrypt = CipherStage.encryption(cipher);
+ * CipherStage&lt;EncryptedChunk, String&gt; frame = CipherStage.framing();
+ * source.subscribe(validate);
+ * validate.subscribe(encrypt);
+ * encrypt.subscribe(frame);
+ * </pre>
+ * <p>
+ * Buffering is bounded in every stage. A stage only requests as many items from upstream as
+ * its buffer can hold, and publishing blocks while a subscriber's buffer is full, so a slow
+ * consumer slows the whole pipeline down instead of letting queues grow. Nothing is requested
+ * from upstream until the stage has a subscriber of its own, so stages can be wired in any
+ * order without losing the items a source sends in between.
+ * <p>
+ * A function that throws, such as encryption of a chunk with characters outside the
+ * alphabet, cancels the upstream subscription and completes the stage exceptionally with
+ * that exception, matching what {@link Cipher#encryptWord(String)} throws.
+ */
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.function.Function;
+
+public class CipherStage<S, T> extends SubmissionPublisher<T> implements Flow.Processor<S, T> {
+    /** The transformation applied to every item. */
+    private final Function<? super S, ? extends T> function;
+
+    /** The number of items requested from upstream whenever half of the buffer has drained. */
+    private final int replenish;
+
+    /** Guards {@link #subscription} and {@link #downstream} while the stage is being wired. */
+    private final Object wiring = new Object();
+
+    /** The upstream subscription, set once subscribed. */
+    private Flow.Subscription subscription;
+
+    /** Whether a subscriber has subscribed to this stage, so upstream items can be requested. */
+    private boolean downstream;
+
+    /** Items received since demand was last replenished. */
+    private int received;
+
+    /**
+     * Creates a stage publishing on the common pool with the default buffer size.
+     *
+     * @param function the transformation applied to every item
+     */
+    public CipherStage(Function<? super S, ? extends T> function) {
+        this(ForkJoinPool.commonPool(), Flow.defaultBufferSize(), function);
+    }
+
+    /**
+     * Creates a stage.
+     *
+     * @param executor the executor delivering items to subscribers
+     * @param maxBufferCapacity the most items buffered per subscriber, and the most requested
+     *        from upstream at once
+     * @param function the transformation applied to every item
+     */
+    public CipherStage(Executor executor, int maxBufferCapacity, Function<? super S, ? extends T> function) {
+        super(executor, maxBufferCapacity);
+        this.function = Objects.requireNonNull(function);
+        this.replenish = Math.max(1, getMaxBufferCapacity() / 2);
+    }
+
+    /**
+     * Creates a stage that passes chunks on unchanged if every character is in the
+     * alphabet, and fails otherwise.
+     *
+     * @param cipher the cipher whose alphabet the chunks must use
+     * @return the validation stage
+     */
+    public static CipherStage<String, String> validation(Cipher cipher) {
+        return new CipherStage<>(chunk -> {
+            if (cipher.validateWord(chunk) >= 0) {
+                throw cipher.invalidLetter();
+            }
+            return chunk;
+        });
+    }
+
+    /**
+     * Creates a stage that encrypts every chunk like {@link Cipher#encryptWord(String)}.
+     *
+     * @param cipher the cipher to encrypt with
+     * @return the encryption stage
+     */
+    public static CipherStage<String, EncryptedChunk> encryption(Cipher cipher) {
+        return new CipherStage<>(chunk -> new EncryptedChunk(chunk, cipher.encryptWord(chunk)));
+    }
+
+    /**
+     * Creates a stage that encrypts every chunk, handling characters outside the alphabet
+     * according to the policy. Only {@link InvalidCharPolicy#REJECT} can fail the stage.
+     *
+     * @param cipher the cipher to encrypt with
+     * @param policy what to do with characters outside the alphabet
+     * @return the encryption stage
+     */
+    public static CipherStage<String, EncryptedChunk> encryption(Cipher cipher, InvalidCharPolicy policy) {
+        return new CipherStage<>(chunk -> {
+            EncryptionResult result = cipher.tryEncryptWord(chunk, policy);
+            if (result.isRejected()) {
+                throw cipher.invalidLetter();
+            }
+            return new EncryptedChunk(chunk, result.getText());
+        });
+    }
+
+    /**
+     * Creates a stage that encrypts every chunk with a key. The key position runs on from one
+     * chunk to the next, so the chunks are encrypted as one text; a stage therefore serves a
+     * single stream and is not reused.
+     *
+     * @param cipher the keyed cipher to encrypt with
+     * @return the encryption stage
+     */
+    public static CipherStage<String, EncryptedChunk> encryption(VigenereCipher cipher) {
+        VigenereCipher.Cursor cursor = cipher.encryptor();
+        return new CipherStage<>(chunk -> new EncryptedChunk(chunk, cursor.translateWord(chunk)));
+    }
+
+    /**
+     * Creates a stage that formats every encrypted chunk as the line
+     * {@link EncryptionMachine#outputEncryptedWord(String, String)} prints, without the line
+     * separator.
+     *
+     * @return the framing stage
+     */
+    public static CipherStage<EncryptedChunk, String> framing() {
+        return new CipherStage<>(EncryptedChunk::toString);
+    }
+
+    /**
+     * Adds a subscriber. The first one releases the initial demand to upstream, since items
+     * published before any subscriber exists would be dropped.
+     *
+     * @param subscriber the subscriber to add
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        super.subscribe(subscriber);
+        Flow.Subscription pending;
+        synchronized (wiring) {
+            if (downstream) {
+                return;
+            }
+            downstream = true;
+            pending = subscription;
+        }
+        if (pending != null) {
+            pending.request(getMaxBufferCapacity());
+        }
+    }
+
+    /**
+     * Stores the upstream subscription and requests a full buffer of items once this stage
+     * has a subscriber of its own.
+     *
+     * @param subscription the upstream subscription
+     */
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        boolean ready;
+        synchronized (wiring) {
+            if (this.subscription != null) {
+                subscription.cancel();
+                return;
+            }
+            this.subscription = subscription;
+            ready = downstream;
+        }
+        if (ready) {
+            subscription.request(getMaxBufferCapacity());
+        }
+    }
+
+    /**
+     * Transforms one item and publishes the result, blocking while a subscriber's buffer is
+     * full. Demand is replenished once half of the requested items have arrived.
+     *
+     * @param item the item to transform
+     */
+    @Override
+    public void onNext(S item) {
+        if (isClosed()) {
+            return;
+        }
+
+        T result;
+        try {
+            result = function.apply(item);
+        } catch (RuntimeException e) {
+            subscription.cancel();
+            closeExceptionally(e);
+            return;
+        }
+        submit(result);
+
+        if (++received == replenish) {
+            received = 0;
+            subscription.request(replenish);
+        }
+    }
+
+    /**
+     * Passes an upstream failure on to the subscribers.
+     *
+     * @param throwable the upstream failure
+     */
+    @Override
+    public void onError(Throwable throwable) {
+        closeExceptionally(throwable);
+    }
+
+    /**
+     * Completes the subscribers once every published item has been delivered.
+     */
+    @Override
+    public void onComplete() {
+        close();
+    }
+}
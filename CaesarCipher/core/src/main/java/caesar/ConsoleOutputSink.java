@@ -0,0 +1,27 @@
+package caesar;
+
+/**
+ * The default {@link OutputSink}, printing every message to {@code System.out} immediately.
+ */
+final class ConsoleOutputSink implements OutputSink {
+    /** The only instance; the sink is stateless. */
+    static final ConsoleOutputSink INSTANCE = new ConsoleOutputSink();
+
+    private ConsoleOutputSink() {
+    }
+
+    @Override
+    public void writeLine(String line) {
+        System.out.println(line);
+    }
+
+    @Override
+    public void writeEncryptedWord(String originalWord, String encryptedWord) {
+        EncryptionMachine.outputEncryptedWord(originalWord, encryptedWord);
+    }
+
+    @Override
+    public void flush() {
+        System.out.flush();
+    }
+}
@@ -0,0 +1,713 @@
+package caesar;
+
+/**
+ * Encrypts every regular file under a directory tree into the same relative paths under an
+ * output directory, scheduling the work on a bounded {@link ForkJoinPool} so idle workers
+ * steal from busy ones. Files larger than the chunk size are split into chunks that are
+ * encrypted concurrently and written at their own offsets; smaller files are grouped into
+ * batches of about {@link #DEFAULT_BATCH_SIZE} bytes so each task does a useful amount of
+ * work.
+ * <p>
+ * Input bytes are treated as ISO-8859-1 and encrypted with the cipher's table, so with
+ * {@link InvalidCharPolicy#REJECT} every output is exactly what {@code encryptWord} would
+ * return and a file holding anything outside the alphabet is reported as failed. Each output
+ * is written to a temporary file beside its target and moved into place atomically, so a
+ * reader never sees a partial output and a failed file leaves nothing behind. One failed
+ * file does not stop the others.
+ * <p>
+ * Workers block on file I/O, so the pool should be sized for the disk as well as the CPUs.
+ * A {@link ProgressListener} can follow a long run as files and chunks complete.
+ */
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+public final class DirectoryEncryptor {
+    /** Default number of bytes above which a file is split, and the size of each chunk. */
+    public static final int DEFAULT_CHUNK_SIZE = 4 << 20;
+
+    /** Default number of bytes of small files grouped into one task. */
+    public static final int DEFAULT_BATCH_SIZE = 1 << 20;
+
+    /** The cipher used for every byte. */
+    private final Cipher cipher;
+
+    /** What to do with bytes outside the alphabet. */
+    private final InvalidCharPolicy policy;
+
+    /** The pool the files and chunks are encrypted on. */
+    private final ForkJoinPool pool;
+
+    /** Number of bytes above which a file is split, and the size of each chunk. */
+    private final int chunkSize;
+
+    /** Number of bytes of small files grouped into one task. */
+    private final int batchSize;
+
+    /** Byte written in place of invalid bytes under {@link InvalidCharPolicy#REPLACE}. */
+    private final byte replacement;
+
+    /**
+     * Receives progress updates while a directory is encrypted. Updates are made from the
+     * worker threads as each small file, each chunk of a large file and each large file
+     * completes, so implementations must be thread-safe and quick; two updates made at the
+     * same time may arrive in either order.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        /**
+         * Reports how much of the run is done. Failed files count as done.
+         *
+         * @param filesDone the number of files finished so far
+         * @param fileCount the number of files in the run
+         * @param bytesDone the number of input bytes processed so far
+         * @param totalBytes the total size of the inputs
+         */
+        void progress(int filesDone, int fileCount, long bytesDone, long totalBytes);
+    }
+
+    /**
+     * The outcome of encrypting one file.
+     */
+    public static final class FileResult {
+        /** The file that was encrypted. */
+        private final Path input;
+
+        /** The file the encrypted bytes were written to. */
+        private final Path output;
+
+        /** The number of bytes read from the input. */
+        private final long bytes;
+
+        /** The time spent on the file in nanoseconds. */
+        private final long nanos;
+
+        /** Why the file failed, or null if it was encrypted. */
+        private final String error;
+
+        FileResult(Path input, Path output, long bytes, long nanos, String error) {
+            this.input = input;
+            this.output = output;
+            this.bytes = bytes;
+            this.nanos = nanos;
+            this.error = error;
+        }
+
+        /**
+         * Returns the file that was encrypted.
+         *
+         * @return the input path
+         */
+        public Path getInput() {
+            return input;
+        }
+
+        /**
+         * Returns the file the encrypted bytes were written to.
+         *
+         * @return the output path, which does not exist if the file failed
+         */
+        public Path getOutput() {
+            return output;
+        }
+
+        /**
+         * Returns the size of the input.
+         *
+         * @return the number of bytes read from the input
+         */
+        public long getBytes() {
+            return bytes;
+        }
+
+        /**
+         * Returns the time spent reading, encrypting and writing the file.
+         *
+         * @return the elapsed time in nanoseconds
+         */
+        public long getNanos() {
+            return nanos;
+        }
+
+        /**
+         * Returns why the file failed.
+         *
+         * @return the error message, or null if the file was encrypted
+         */
+        public String getError() {
+            return error;
+        }
+
+        /**
+         * Returns whether the file was encrypted.
+         *
+         * @return true if the output was written
+         */
+        public boolean isSuccessful() {
+            return error == null;
+        }
+
+        /**
+         * Returns the throughput of this file.
+         *
+         * @return the input size divided by the elapsed time, in megabytes per second
+         */
+        public double getThroughput() {
+            return DirectoryEncryptor.megabytesPerSecond(bytes, nanos);
+        }
+    }
+
+    /**
+     * The outcome of encrypting a directory tree.
+     */
+    public static final class Report {
+        /** The result of every file, in the order the tree was walked. */
+        private final List<FileResult> files;
+
+        /** The wall-clock time of the whole run in nanoseconds. */
+        private final long elapsedNanos;
+
+        Report(List<FileResult> files, long elapsedNanos) {
+            this.files = Collections.unmodifiableList(files);
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * Returns the result of every file.
+         *
+         * @return the results, in the order the tree was walked
+         */
+        public List<FileResult> getFiles() {
+            return files;
+        }
+
+        /**
+         * Returns the wall-clock time of the whole run.
+         *
+         * @return the elapsed time in nanoseconds
+         */
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * Returns the number of input bytes of the files that were encrypted.
+         *
+         * @return the total size of the successful inputs
+         */
+        public long getBytes() {
+            long total = 0;
+            for (FileResult file : files) {
+                if (file.isSuccessful()) {
+                    total += file.getBytes();
+                }
+            }
+            return total;
+        }
+
+        /**
+         * Returns the number of files that were not encrypted.
+         *
+         * @return the number of failed files
+         */
+        public int getFailureCount() {
+            int failures = 0;
+            for (FileResult file : files) {
+                if (!file.isSuccessful()) {
+                    failures++;
+                }
+            }
+            return failures;
+        }
+
+        /**
+         * Returns the aggregate throughput of the run.
+         *
+         * @return the successful input bytes divided by the wall-clock time, in megabytes per
+         *         second
+         */
+        public double getThroughput() {
+            return DirectoryEncryptor.megabytesPerSecond(getBytes(), elapsedNanos);
+        }
+    }
+
+    /**
+     * Counts the files and bytes finished in one run and passes them to its listener.
+     */
+    private static final class Progress {
+        /** The listener receiving every update. */
+        private final ProgressListener listener;
+
+        /** The size of every input file of the run. */
+        private final long[] sizes;
+
+        /** The total size of the inputs. */
+        private final long totalBytes;
+
+        /** The bytes of every file already reported by its chunks. */
+        private final AtomicLongArray reported;
+
+        /** The number of files finished so far. */
+        private final AtomicInteger filesDone = new AtomicInteger();
+
+        /** The number of bytes processed so far. */
+        private final AtomicLong bytesDone = new AtomicLong();
+
+        Progress(ProgressListener listener, long[] sizes) {
+            this.listener = listener;
+            this.sizes = sizes;
+            this.totalBytes = Arrays.stream(sizes).sum();
+            this.reported = new AtomicLongArray(sizes.length);
+        }
+
+        /**
+         * Records that a chunk of a file was processed.
+         *
+         * @param index the index of the file
+         * @param bytes the length of the chunk
+         */
+        void chunkDone(int index, long bytes) {
+            reported.addAndGet(index, bytes);
+            listener.progress(filesDone.get(), sizes.length, bytesDone.addAndGet(bytes), totalBytes);
+        }
+
+        /**
+         * Records that a file finished, counting whatever its chunks did not report.
+         *
+         * @param index the index of the file
+         */
+        void fileDone(int index) {
+            long remaining = Math.max(0, sizes[index] - reported.get(index));
+            int files = filesDone.incrementAndGet();
+            listener.progress(files, sizes.length, bytesDone.addAndGet(remaining), totalBytes);
+        }
+    }
+
+    /**
+     * Encrypts a group of small files one after another on one worker.
+     */
+    private final class BatchTask extends RecursiveAction {
+        /** Indexes of the files in this batch. */
+        private final int[] indexes;
+
+        /** Every input file of the run. */
+        private final Path[] inputs;
+
+        /** Every output file of the run. */
+        private final Path[] outputs;
+
+        /** Receives the result of every file of the run. */
+        private final FileResult[] results;
+
+        /** The progress of the run. */
+        private final Progress progress;
+
+        BatchTask(int[] indexes, Path[] inputs, Path[] outputs, FileResult[] results, Progress progress) {
+            this.indexes = indexes;
+            this.inputs = inputs;
+            this.outputs = outputs;
+            this.results = results;
+            this.progress = progress;
+        }
+
+        @Override
+        protected void compute() {
+            for (int index : indexes) {
+                results[index] = encryptSmallFile(inputs[index], outputs[index]);
+                progress.fileDone(index);
+            }
+        }
+    }
+
+    /**
+     * Encrypts one large file by forking a task per chunk.
+     */
+    private final class LargeFileTask extends RecursiveAction {
+        /** Index of the file in the run. */
+        private final int index;
+
+        /** Every input file of the run. */
+        private final Path[] inputs;
+
+        /** Every output file of the run. */
+        private final Path[] outputs;
+
+        /** Receives the result of every file of the run. */
+        private final FileResult[] results;
+
+        /** The progress of the run. */
+        private final Progress progress;
+
+        LargeFileTask(int index, Path[] inputs, Path[] outputs, FileResult[] results, Progress progress) {
+            this.index = index;
+            this.inputs = inputs;
+            this.outputs = outputs;
+            this.results = results;
+            this.progress = progress;
+        }
+
+        @Override
+        protected void compute() {
+            results[index] = encryptLargeFile(inputs[index], outputs[index], index, progress);
+            progress.fileDone(index);
+        }
+    }
+
+    /**
+     * Encrypts one chunk of a file and writes it at the same offset of the output. Returns
+     * the offset in the file of the first invalid byte under {@link InvalidCharPolicy#REJECT},
+     * or -1 if there is none.
+     */
+    private final class ChunkTask extends RecursiveTask<Long> {
+        /** The channel the chunk is read from. */
+        private final FileChannel in;
+
+        /** The channel the chunk is written to. */
+        private final FileChannel out;
+
+        /** Offset of the chunk in the file. */
+        private final long offset;
+
+        /** Length of the chunk. */
+        private final int length;
+
+        /** Index of the file in the run. */
+        private final int index;
+
+        /** The progress of the run. */
+        private final Progress progress;
+
+        ChunkTask(FileChannel in, FileChannel out, long offset, int length, int index, Progress progress) {
+            this.in = in;
+            this.out = out;
+            this.offset = offset;
+            this.length = length;
+            this.index = index;
+            this.progress = progress;
+        }
+
+        @Override
+        protected Long compute() {
+            try {
+                byte[] bytes = new byte[length];
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                while (buffer.hasRemaining()) {
+                    if (in.read(buffer, offset + buffer.position()) < 0) {
+                        throw new IOException("The file shrank while it was being encrypted");
+                    }
+                }
+
+                // Every policy but skip writes one byte per input byte, so chunks never shift
+                int written = cipher.encryptBytes(bytes, 0, bytes, 0, length, policy, replacement);
+                if (written < 0) {
+                    return offset - 1 - written;
+                }
+                buffer.clear();
+                while (buffer.hasRemaining()) {
+                    out.write(buffer, offset + buffer.position());
+                }
+                progress.chunkDone(index, length);
+                return -1L;
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+
+    /**
+     * Creates a directory encryptor that splits files above {@link #DEFAULT_CHUNK_SIZE} bytes
+     * and replaces invalid bytes with {@link InvalidCharPolicy#DEFAULT_REPLACEMENT} under
+     * {@link InvalidCharPolicy#REPLACE}.
+     *
+     * @param cipher the cipher to encrypt with
+     * @param policy what to do with bytes outside the alphabet
+     * @param pool the pool to run files and chunks on
+     */
+    public DirectoryEncryptor(Cipher cipher, InvalidCharPolicy policy, ForkJoinPool pool) {
+        this(cipher, policy, pool, DEFAULT_CHUNK_SIZE, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Creates a directory encryptor.
+     *
+     * @param cipher the cipher to encrypt with
+     * @param policy what to do with bytes outside the alphabet
+     * @param pool the pool to run files and chunks on
+     * @param chunkSize the number of bytes above which a file is split, and the size of each
+     *        chunk, must be positive
+     * @param batchSize the number of bytes of small files grouped into one task, must be
+     *        positive
+     * @throws IllegalArgumentException if the chunk or batch size is not positive
+     */
+    public DirectoryEncryptor(Cipher cipher, InvalidCharPolicy policy, ForkJoinPool pool,
+            int chunkSize, int batchSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("The chunk size must be positive");
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("The batch size must be positive");
+        }
+        this.cipher = cipher;
+        this.policy = policy;
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+        this.batchSize = batchSize;
+        this.replacement = (byte) InvalidCharPolicy.DEFAULT_REPLACEMENT;
+    }
+
+    /**
+     * Encrypts every regular file under the input directory into the same relative path
+     * under the output directory, creating directories as needed and replacing outputs that
+     * already exist. If the output directory is inside the input directory it is not walked.
+     *
+     * @param input the directory to encrypt
+     * @param output the directory receiving the encrypted files
+     * @return the result of every file and the aggregate timing
+     * @throws IOException if the input cannot be walked or an output directory cannot be
+     *         created; failures of single files are reported in the result instead
+     */
+    public Report encryptDirectory(Path input, Path output) throws IOException {
+        return encryptDirectory(input, output, (filesDone, fileCount, bytesDone, totalBytes) -> { });
+    }
+
+    /**
+     * Encrypts a directory tree like {@link #encryptDirectory(Path, Path)}, reporting
+     * progress to a listener as files and chunks complete.
+     *
+     * @param input the directory to encrypt
+     * @param output the directory receiving the encrypted files
+     * @param listener the listener receiving progress updates from the worker threads
+     * @return the result of every file and the aggregate timing
+     * @throws IOException if the input cannot be walked or an output directory cannot be
+     *         created; failures of single files are reported in the result instead
+     */
+    public Report encryptDirectory(Path input, Path output, ProgressListener listener) throws IOException {
+        long start = System.nanoTime();
+        Path root = input.toAbsolutePath().normalize();
+        Path target = output.toAbsolutePath().normalize();
+
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(root)) {
+            files = walk.filter(Files::isRegularFile)
+                    .filter(path -> root.startsWith(target) || !path.startsWith(target))
+                    .sorted()
+                    .toList();
+        }
+
+        int count = files.size();
+        Path[] inputs = files.toArray(new Path[0]);
+        Path[] outputs = new Path[count];
+        long[] sizes = new long[count];
+        for (int i = 0; i < count; i++) {
+            outputs[i] = target.resolve(root.relativize(inputs[i]));
+            Files.createDirectories(outputs[i].getParent());
+            sizes[i] = Files.size(inputs[i]);
+        }
+
+        FileResult[] results = new FileResult[count];
+        Progress progress = new Progress(listener, sizes);
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        int[] batch = new int[count];
+        int batchCount = 0;
+        long batchBytes = 0;
+        for (int i = 0; i < count; i++) {
+            if (sizes[i] > chunkSize) {
+                tasks.add(new LargeFileTask(i, inputs, outputs, results, progress));
+                continue;
+            }
+            batch[batchCount++] = i;
+            batchBytes += sizes[i];
+            if (batchBytes >= batchSize) {
+                tasks.add(new BatchTask(Arrays.copyOf(batch, batchCount), inputs, outputs, results, progress));
+                batchCount = 0;
+                batchBytes = 0;
+            }
+        }
+        if (batchCount > 0) {
+            tasks.add(new BatchTask(Arrays.copyOf(batch, batchCount), inputs, outputs, results, progress));
+        }
+
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                ForkJoinTask.invokeAll(tasks);
+            }
+        });
+        return new Report(Arrays.asList(results), System.nanoTime() - start);
+    }
+
+    /**
+     * Encrypts a file small enough to hold in memory in one pass.
+     *
+     * @param input the file to encrypt
+     * @param output the file receiving the encrypted bytes
+     * @return the result of the file
+     */
+    private FileResult encryptSmallFile(Path input, Path output) {
+        long start = System.nanoTime();
+        long size = 0;
+        Path temp = null;
+        try {
+            byte[] bytes = Files.readAllBytes(input);
+            size = bytes.length;
+            int written = cipher.encryptBytes(bytes, 0, bytes, 0, bytes.length, policy, replacement);
+            if (written < 0) {
+                throw new IllegalArgumentException(invalidByteMessage(-1L - written));
+            }
+
+            temp = createTemp(output);
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                out.write(bytes, 0, written);
+            }
+            commit(temp, output);
+            return new FileResult(input, output, size, System.nanoTime() - start, null);
+        } catch (IOException | RuntimeException ex) {
+            return failed(input, output, size, start, temp, ex);
+        }
+    }
+
+    /**
+     * Encrypts a file above the chunk size. Under {@link InvalidCharPolicy#SKIP} the output
+     * offsets depend on everything before them, so the file is streamed on this worker with a
+     * {@link FileEncryptor}; under every other policy its chunks are encrypted concurrently.
+     *
+     * @param input the file to encrypt
+     * @param output the file receiving the encrypted bytes
+     * @param index the index of the file in the run
+     * @param progress the progress of the run, told about every chunk written
+     * @return the result of the file
+     */
+    private FileResult encryptLargeFile(Path input, Path output, int index, Progress progress) {
+        long start = System.nanoTime();
+        long size = 0;
+        Path temp = null;
+        try {
+            temp = createTemp(output);
+            if (policy == InvalidCharPolicy.SKIP) {
+                size = Files.size(input);
+                new FileEncryptor(cipher, policy, chunkSize, replacement).encryptFile(input, temp);
+            } else {
+                try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+                     FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                    size = in.size();
+                    List<ChunkTask> chunks = new ArrayList<>();
+                    for (long offset = 0; offset < size; offset += chunkSize) {
+                        chunks.add(new ChunkTask(in, out, offset, (int) Math.min(chunkSize, size - offset), index, progress));
+                    }
+                    for (ChunkTask chunk : chunks) {
+                        chunk.fork();
+                    }
+
+                    // Wait for every chunk, even after one fails, before the channels close
+                    long invalid = -1;
+                    Throwable error = null;
+                    for (ChunkTask chunk : chunks) {
+                        chunk.quietlyJoin();
+                        if (chunk.isCompletedAbnormally()) {
+                            error = error == null ? chunk.getException() : error;
+                        } else if (chunk.getRawResult() >= 0 && (invalid < 0 || chunk.getRawResult() < invalid)) {
+                            invalid = chunk.getRawResult();
+                        }
+                    }
+                    if (error instanceof RuntimeException runtime) {
+                        throw runtime;
+                    }
+                    if (error != null) {
+                        throw new IllegalStateException(error);
+                    }
+                    if (invalid >= 0) {
+                        throw new IllegalArgumentException(invalidByteMessage(invalid));
+                    }
+                }
+            }
+            commit(temp, output);
+            return new FileResult(input, output, size, System.nanoTime() - start, null);
+        } catch (IOException | RuntimeException ex) {
+            return failed(input, output, size, start, temp, ex);
+        }
+    }
+
+    /**
+     * Creates an empty temporary file beside the output, so it can be moved over it atomically.
+     *
+     * @param output the file the temporary file will become
+     * @return the temporary file
+     * @throws IOException if the file cannot be created
+     */
+    private static Path createTemp(Path output) throws IOException {
+        return Files.createTempFile(output.getParent(), "." + output.getFileName(), ".tmp");
+    }
+
+    /**
+     * Moves a finished temporary file over its output in one step.
+     *
+     * @param temp the finished temporary file
+     * @param output the file it becomes
+     * @throws IOException if the file cannot be moved
+     */
+    private static void commit(Path temp, Path output) throws IOException {
+        Files.move(temp, output, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Deletes the temporary file of a failed file and records why it failed.
+     *
+     * @param input the file that failed
+     * @param output the file it would have been written to
+     * @param size the number of bytes known to be in the input
+     * @param start the time the file was started, from {@link System#nanoTime()}
+     * @param temp the temporary file, or null if none was created
+     * @param ex the failure
+     * @return the failed result
+     */
+    private static FileResult failed(Path input, Path output, long size, long start, Path temp, Exception ex) {
+        if (temp != null) {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException suppressed) {
+                ex.addSuppressed(suppressed);
+            }
+        }
+        Throwable cause = ex instanceof UncheckedIOException ? ex.getCause() : ex;
+        return new FileResult(input, output, size, System.nanoTime() - start, String.valueOf(cause.getMessage()));
+    }
+
+    /**
+     * Builds the message for a byte rejected by {@link InvalidCharPolicy#REJECT}.
+     *
+     * @param offset the offset of the byte in the file
+     * @return the cipher's invalid letter message with the offset
+     */
+    private String invalidByteMessage(long offset) {
+        return cipher.getInvalidLetterMessage() + " (found at byte " + offset + ")";
+    }
+
+    /**
+     * Converts a byte count and a duration into a throughput.
+     *
+     * @param bytes the number of bytes
+     * @param nanos the duration in nanoseconds
+     * @return the throughput in megabytes per second, or zero for an empty duration
+     */
+    private static double megabytesPerSecond(long bytes, long nanos) {
+        return nanos <= 0 ? 0 : bytes / 1e6 / (nanos / 1e9);
+    }
+}
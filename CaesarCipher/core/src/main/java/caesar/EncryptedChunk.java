@@ -0,0 +1,53 @@
+package caesar;
+
+/**
+ * A chunk of text together with its encryption, as emitted by
+ * {@link CipherStage#encryption(Cipher)} so later stages can still see the original text.
+ */
+public final class EncryptedChunk {
+    /** The text before encryption. */
+    private final String plaintext;
+
+    /** The encrypted text. */
+    private final String ciphertext;
+
+    /**
+     * Creates a chunk.
+     *
+     * @param plaintext the text before encryption
+     * @param ciphertext the encrypted text
+     */
+    public EncryptedChunk(String plaintext, String ciphertext) {
+        this.plaintext = plaintext;
+        this.ciphertext = ciphertext;
+    }
+
+    /**
+     * Returns the text before encryption.
+     *
+     * @return the plaintext
+     */
+    public String getPlaintext() {
+        return plaintext;
+    }
+
+    /**
+     * Returns the encrypted text.
+     *
+     * @return the ciphertext
+     */
+    public String getCiphertext() {
+        return ciphertext;
+    }
+
+    /**
+     * Formats the chunk like {@link EncryptionMachine#outputEncryptedWord(String, String)},
+     * without the line separator.
+     *
+     * @return {@code "plaintext" has been encrypted to: "ciphertext"}
+     */
+    @Override
+    public String toString() {
+        return "\"" + plaintext + "\"" + EncryptionMachine.ENCRYPT_MESSAGE + "\"" + ciphertext + "\"";
+    }
+}
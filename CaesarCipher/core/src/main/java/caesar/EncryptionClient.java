@@ -0,0 +1,106 @@
+package caesar;
+
+/**
+ * A connection to an {@link EncryptionServer}. It is safe to use from virtual threads; one
+ * client must not be shared between threads.
+ */
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class EncryptionClient implements Closeable {
+    /** The connection to the server. */
+    private final SocketChannel channel;
+
+    /** Line framing over the connection. */
+    private final LineChannel lines;
+
+    /**
+     * Connects to a server over TCP or, for a {@link UnixDomainSocketAddress}, over a Unix
+     * domain socket.
+     *
+     * @param address the server address
+     * @throws IOException if the connection cannot be made
+     */
+    public EncryptionClient(SocketAddress address) throws IOException {
+        SocketChannel channel = address instanceof UnixDomainSocketAddress
+                ? SocketChannel.open(StandardProtocolFamily.UNIX)
+                : SocketChannel.open();
+        try {
+            if (!(address instanceof UnixDomainSocketAddress)) {
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            }
+            channel.connect(address);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        this.channel = channel;
+        this.lines = new LineChannel(channel);
+    }
+
+    /**
+     * Sends one word and waits for its reply.
+     *
+     * @param word the word to encrypt
+     * @return the encrypted word, or a line starting with {@link EncryptionServer#ERROR_PREFIX}
+     * @throws IOException if the connection fails
+     */
+    public String encrypt(String word) throws IOException {
+        lines.writeLine(word);
+        lines.flush();
+        return readReply();
+    }
+
+    /**
+     * Sends every word before reading any reply, so the whole batch costs about one round
+     * trip.
+     *
+     * @param words the words to encrypt
+     * @return the replies, in the order of the words
+     * @throws IOException if the connection fails
+     */
+    public List<String> encryptAll(List<String> words) throws IOException {
+        for (String word : words) {
+            lines.writeLine(word);
+        }
+        lines.flush();
+
+        List<String> replies = new ArrayList<>(words.size());
+        for (int i = 0; i < words.size(); i++) {
+            replies.add(readReply());
+        }
+        return replies;
+    }
+
+    /**
+     * Reads one reply line.
+     *
+     * @return the reply
+     * @throws IOException if the connection fails or the server closed it
+     */
+    private String readReply() throws IOException {
+        String reply = lines.readLine();
+        if (reply == null) {
+            throw new EOFException("The server closed the connection");
+        }
+        return reply;
+    }
+
+    /**
+     * Closes the connection.
+     *
+     * @throws IOException if closing fails
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
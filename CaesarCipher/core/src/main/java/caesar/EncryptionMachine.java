@@ -0,0 +1,1164 @@
+package caesar;
+
+/**
+ * A class that implements a simple Caesar cipher encryption machine for encrypting words
+ * using a fixed alphabet and shift value. It provides functionality to encrypt individual
+ * characters and words, and includes a console-based interface for user interaction.
+ */
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+public class EncryptionMachine {
+    /** The standard English alphabet used for encryption. */
+    public static final String ALPHABET = "abcdefghijklmnopqrstuvwxyz";
+
+    /** The uppercase English alphabet, used with {@link #ALPHABET} by case-preserving ciphers. */
+    public static final String UPPERCASE_ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
+    /** The decimal digits, a ring of their own in {@link Cipher#alphanumeric(int)}. */
+    public static final String DIGITS = "0123456789";
+
+    /** Message template used when outputting encrypted words. */
+    static final String ENCRYPT_MESSAGE = " has been encrypted to: ";
+
+    /** The number of positions to shift each character during encryption. */
+    public static final int SHIFT = 3;
+
+    /** Message used when a character outside the alphabet is encountered. */
+    private static final String INVALID_LETTER_MESSAGE = "Only standard English alphabet letters a-z are allowed";
+
+    /** Command-line flag selecting the non-interactive file encryption mode. */
+    private static final String ENCRYPT_FILE_FLAG = "--encrypt-file";
+
+    /** Command-line flag making file mode encrypt only the chunks changed since the last run. */
+    private static final String INCREMENTAL_FLAG = "--incremental";
+
+    /** Command-line flag selecting the non-interactive directory encryption mode. */
+    private static final String ENCRYPT_DIR_FLAG = "--encrypt-dir";
+
+    /** Command-line option prefix setting the number of workers of directory and re-keying modes. */
+    private static final String THREADS_OPTION = "--threads=";
+
+    /** Command-line flag selecting the non-interactive re-keying mode. */
+    private static final String REKEY_FLAG = "--rekey";
+
+    /** Command-line option prefix setting the shift the re-keyed files were encrypted with. */
+    private static final String FROM_OPTION = "--from=";
+
+    /** Command-line option prefix setting the shift the re-keyed files are encrypted with. */
+    private static final String TO_OPTION = "--to=";
+
+    /** Minimum time between two progress lines of the re-keying mode, in nanoseconds. */
+    private static final long PROGRESS_INTERVAL_NANOS = 500_000_000L;
+
+    /** Command-line flag selecting the mode that writes words to a block archive. */
+    private static final String ARCHIVE_FLAG = "--archive";
+
+    /** Command-line flag selecting the mode that reads records from a block archive. */
+    private static final String EXTRACT_FLAG = "--extract";
+
+    /** Command-line option prefix setting the block size of archive mode. */
+    private static final String BLOCK_SIZE_OPTION = "--block-size=";
+
+    /** Command-line flag turning off block compression in archive mode. */
+    private static final String NO_COMPRESS_FLAG = "--no-compress";
+
+    /** Command-line option prefix selecting the {@link InvalidCharPolicy} of a mode. */
+    private static final String INVALID_POLICY_OPTION = "--invalid=";
+
+    /** Command-line option prefix selecting the chunk size in bytes for file mode. */
+    private static final String CHUNK_SIZE_OPTION = "--chunk-size=";
+
+    /** Command-line flag selecting the prompt-free batch mode that reads words from stdin. */
+    private static final String BATCH_FLAG = "--batch";
+
+    /** Command-line flag running the interactive mode with buffered output, for piping to files. */
+    private static final String BUFFERED_FLAG = "--buffered";
+
+    /** Command-line flag encrypting the remaining arguments without prompts. */
+    private static final String ENCRYPT_FLAG = "--encrypt";
+
+    /** Command-line flag selecting the shift recovery mode. */
+    private static final String CRACK_FLAG = "--crack";
+
+    /** Command-line option prefix selecting how many bytes the shift recovery mode samples. */
+    private static final String SAMPLE_OPTION = "--sample=";
+
+    /** Command-line flag selecting the long-running socket server mode. */
+    private static final String SERVE_FLAG = "--serve";
+
+    /** Command-line option prefix selecting the loopback TCP port of the server mode. */
+    private static final String PORT_OPTION = "--port=";
+
+    /** Command-line option prefix selecting a Unix domain socket path for the server mode. */
+    private static final String UNIX_OPTION = "--unix=";
+
+    /** Command-line flag running the interactive mode with the entered key as a Vigenère key. */
+    private static final String VIGENERE_FLAG = "--vigenere";
+
+    /** Command-line option prefix giving a Vigenère key for file mode instead of the fixed shift. */
+    private static final String KEY_OPTION = "--key=";
+
+    /** The loopback TCP port the server mode listens on when none is given. */
+    public static final int DEFAULT_PORT = 7717;
+
+    /** The cipher for {@link #ALPHABET} and {@link #SHIFT} that the static methods delegate to. */
+    public static final Cipher DEFAULT_CIPHER = new Cipher(ALPHABET, SHIFT, INVALID_LETTER_MESSAGE);
+
+    /**
+     * Optional cache in front of {@link #encryptWord(String)}, configured by
+     * {@value WordCache#ENTRIES_PROPERTY} and {@value WordCache#WEIGHT_PROPERTY}. It is a
+     * constant, so without the properties the cache check is compiled away.
+     */
+    private static final WordCache WORD_CACHE = WordCache.fromSystemProperties();
+
+    /** Parallel engine for long inputs, running on the common fork-join pool. */
+    private static final ParallelEncryptor PARALLEL_ENCRYPTOR =
+            new ParallelEncryptor(DEFAULT_CIPHER, ForkJoinPool.commonPool(), ParallelEncryptor.DEFAULT_THRESHOLD);
+
+    /**
+     * Encrypts a given word by applying a Caesar cipher with a fixed shift to each character.
+     *
+     * @param word the word to encrypt, containing only lowercase letters from the alphabet
+     * @return the encrypted word
+     * @throws Exception if the word contains characters outside the standard alphabet (a-z)
+     */
+    public static String encryptWord(String word) throws Exception {
+        if (EncryptionMetrics.ENABLED) {
+            return EncryptionMetrics.encryptWord(EncryptionMachine::encryptWordCached, word);
+        }
+        return EncryptionMachine.encryptWordCached(word);
+    }
+
+    /**
+     * Encrypts a word through the word cache when one is configured.
+     *
+     * @param word the word to encrypt
+     * @return the encrypted word
+     * @throws IllegalArgumentException if the word contains characters outside the alphabet
+     */
+    private static String encryptWordCached(String word) {
+        if (WORD_CACHE != null) {
+            return WORD_CACHE.encryptWord(DEFAULT_CIPHER, word);
+        }
+        return DEFAULT_CIPHER.encryptWord(word);
+    }
+
+    /**
+     * Returns the cache in front of {@link #encryptWord(String)}, which is only present when
+     * the JVM was started with {@code -Dcaesar.cache.entries=<limit>}.
+     *
+     * @return the word cache, or empty if words are not cached
+     */
+    public static Optional<WordCache> getWordCache() {
+        return Optional.ofNullable(WORD_CACHE);
+    }
+
+    /**
+     * Checks a word against the standard alphabet without throwing.
+     *
+     * @param word the word to check
+     * @return -1 if the word only contains lowercase letters (a-z), otherwise the offset of
+     *         the first character that is not
+     */
+    public static int validateWord(String word) {
+        return DEFAULT_CIPHER.validateWord(word);
+    }
+
+    /**
+     * Encrypts a word without throwing, handling characters outside the standard alphabet
+     * according to the policy. Dirty input costs no exception or stack trace.
+     *
+     * @param word the word to encrypt
+     * @param policy what to do with characters outside the standard alphabet (a-z)
+     * @return the encrypted text and the offsets of any invalid characters
+     */
+    public static EncryptionResult tryEncryptWord(String word, InvalidCharPolicy policy) {
+        if (EncryptionMetrics.ENABLED) {
+            return EncryptionMetrics.tryEncryptWord(DEFAULT_CIPHER, word, policy);
+        }
+        return DEFAULT_CIPHER.tryEncryptWord(word, policy);
+    }
+
+    /**
+     * Encrypts a batch of words in one call.
+     *
+     * @param words the words to encrypt, containing only lowercase letters from the alphabet
+     * @return the encrypted words, in the same order
+     * @throws IllegalArgumentException if any word contains characters outside the standard
+     *         alphabet (a-z)
+     */
+    public static String[] encryptWords(String... words) {
+        if (EncryptionMetrics.ENABLED) {
+            return EncryptionMetrics.encryptWords(words, DEFAULT_CIPHER::encryptWords, Arrays.asList(words));
+        }
+        return DEFAULT_CIPHER.encryptWords(words);
+    }
+
+    /**
+     * Encrypts a batch of words in one call.
+     *
+     * @param words the words to encrypt, containing only lowercase letters from the alphabet
+     * @return the encrypted words, in the same order
+     * @throws IllegalArgumentException if any word contains characters outside the standard
+     *         alphabet (a-z)
+     */
+    public static List<String> encryptWords(List<String> words) {
+        if (EncryptionMetrics.ENABLED) {
+            return EncryptionMetrics.encryptWords(words, DEFAULT_CIPHER::encryptWords, words);
+        }
+        return DEFAULT_CIPHER.encryptWords(words);
+    }
+
+    /**
+     * Lazily encrypts a stream of words.
+     *
+     * @param words the words to encrypt, containing only lowercase letters from the alphabet
+     * @return a stream of the encrypted words
+     */
+    public static Stream<String> encryptWords(Stream<String> words) {
+        if (EncryptionMetrics.ENABLED) {
+            return words.map(word -> EncryptionMetrics.encryptWords(word, DEFAULT_CIPHER::encryptWord, List.of(word)));
+        }
+        return DEFAULT_CIPHER.encryptWords(words);
+    }
+
+    /**
+     * Encrypts a batch of words and writes each ciphertext on its own line.
+     *
+     * @param words the words to encrypt, containing only lowercase letters from the alphabet
+     * @param out the writer receiving one encrypted word per line, ideally buffered
+     * @throws IOException if the writer fails
+     * @throws IllegalArgumentException if any word contains characters outside the standard
+     *         alphabet (a-z)
+     */
+    public static void writeEncryptedWords(Iterable<String> words, Writer out) throws IOException {
+        if (EncryptionMetrics.ENABLED) {
+            EncryptionMetrics.writeEncryptedWords(DEFAULT_CIPHER, words, out);
+            return;
+        }
+        DEFAULT_CIPHER.writeEncryptedWords(words, out);
+    }
+
+    /**
+     * Encrypts a long word by splitting it into chunks that are encrypted concurrently on the
+     * common fork-join pool. Words shorter than {@link ParallelEncryptor#DEFAULT_THRESHOLD}
+     * are encrypted on the calling thread.
+     *
+     * @param word the word to encrypt, containing only lowercase letters from the alphabet
+     * @return the encrypted word, identical to {@link #encryptWord(String)}
+     * @throws IllegalArgumentException if the word contains characters outside the standard
+     *         alphabet (a-z)
+     */
+    public static String encryptWordParallel(String word) {
+        return PARALLEL_ENCRYPTOR.encrypt(word);
+    }
+
+    /**
+     * Encrypts a single letter using a Caesar cipher with a fixed shift.
+     *
+     * @param letter the letter to encrypt, must be a lowercase letter (a-z)
+     * @return the encrypted letter
+     * @throws IllegalArgumentException if the letter is not a lowercase letter in the alphabet
+     */
+    public static char encryptLetter(char letter) throws Exception {
+        if (EncryptionMetrics.ENABLED) {
+            return EncryptionMetrics.encryptLetter(DEFAULT_CIPHER, letter);
+        }
+        return DEFAULT_CIPHER.encryptLetter(letter);
+    }
+
+    /**
+     * Decrypts a word that was encrypted with {@link #encryptWord(String)}.
+     *
+     * @param word the word to decrypt, containing only lowercase letters from the alphabet
+     * @return the decrypted word
+     * @throws Exception if the word contains characters outside the standard alphabet (a-z)
+     */
+    public static String decryptWord(String word) throws Exception {
+        return DEFAULT_CIPHER.decryptWord(word);
+    }
+
+    /**
+     * Decrypts a single letter that was encrypted with {@link #encryptLetter(char)}.
+     *
+     * @param letter the letter to decrypt, must be a lowercase letter (a-z)
+     * @return the decrypted letter
+     * @throws IllegalArgumentException if the letter is not a lowercase letter in the alphabet
+     */
+    public static char decryptLetter(char letter) throws Exception {
+        return DEFAULT_CIPHER.decryptLetter(letter);
+    }
+
+    /**
+     * Encrypts a range of characters in place without allocating.
+     *
+     * @param chars the array holding the characters to encrypt
+     * @param offset the index of the first character to encrypt
+     * @param length the number of characters to encrypt
+     * @throws IllegalArgumentException if the range contains characters outside the standard
+     *         alphabet (a-z); characters before the first invalid one are left encrypted
+     */
+    public static void encryptChars(char[] chars, int offset, int length) {
+        encryptChars(chars, offset, chars, offset, length);
+    }
+
+    /**
+     * Encrypts a range of characters into a destination array without allocating. The result
+     * matches {@link #encryptWord(String)} for the same characters.
+     *
+     * @param src the array holding the characters to encrypt
+     * @param srcOffset the index of the first character to encrypt
+     * @param dst the array receiving the encrypted characters
+     * @param dstOffset the index in {@code dst} of the first encrypted character
+     * @param length the number of characters to encrypt
+     * @throws IllegalArgumentException if the range contains characters outside the standard
+     *         alphabet (a-z); characters before the first invalid one are left encrypted
+     */
+    public static void encryptChars(char[] src, int srcOffset, char[] dst, int dstOffset, int length) {
+        DEFAULT_CIPHER.encryptChars(src, srcOffset, dst, dstOffset, length);
+    }
+
+    /**
+     * Encrypts the remaining characters of a buffer in place and advances its position to
+     * its limit.
+     *
+     * @param buffer the characters to encrypt
+     * @throws IllegalArgumentException if the buffer contains characters outside the standard
+     *         alphabet (a-z); the position is left unchanged
+     */
+    public static void encryptChars(CharBuffer buffer) {
+        encryptChars(buffer, buffer);
+    }
+
+    /**
+     * Encrypts the remaining characters of {@code src} into {@code dst} and advances the
+     * position of both buffers by the number of characters encrypted.
+     *
+     * @param src the characters to encrypt
+     * @param dst the buffer receiving the encrypted characters
+     * @throws BufferOverflowException if {@code dst} has fewer remaining characters than {@code src}
+     * @throws IllegalArgumentException if {@code src} contains characters outside the standard
+     *         alphabet (a-z); both positions are left unchanged
+     */
+    public static void encryptChars(CharBuffer src, CharBuffer dst) {
+        DEFAULT_CIPHER.encryptChars(src, dst);
+    }
+
+    /**
+     * Encrypts a range of ASCII bytes in place without allocating.
+     *
+     * @param bytes the array holding the bytes to encrypt
+     * @param offset the index of the first byte to encrypt
+     * @param length the number of bytes to encrypt
+     * @throws IllegalArgumentException if the range contains bytes outside the standard
+     *         alphabet (a-z); bytes before the first invalid one are left encrypted
+     */
+    public static void encryptBytes(byte[] bytes, int offset, int length) {
+        encryptBytes(bytes, offset, bytes, offset, length);
+    }
+
+    /**
+     * Encrypts a range of ASCII bytes into a destination array without allocating. The result
+     * matches {@link #encryptWord(String)} for the same characters.
+     *
+     * @param src the array holding the bytes to encrypt
+     * @param srcOffset the index of the first byte to encrypt
+     * @param dst the array receiving the encrypted bytes
+     * @param dstOffset the index in {@code dst} of the first encrypted byte
+     * @param length the number of bytes to encrypt
+     * @throws IllegalArgumentException if the range contains bytes outside the standard
+     *         alphabet (a-z); bytes before the first invalid one are left encrypted
+     */
+    public static void encryptBytes(byte[] src, int srcOffset, byte[] dst, int dstOffset, int length) {
+        DEFAULT_CIPHER.encryptBytes(src, srcOffset, dst, dstOffset, length);
+    }
+
+    /**
+     * Encrypts the remaining ASCII bytes of a buffer in place and advances its position to
+     * its limit.
+     *
+     * @param buffer the bytes to encrypt
+     * @throws IllegalArgumentException if the buffer contains bytes outside the standard
+     *         alphabet (a-z); the position is left unchanged
+     */
+    public static void encryptBytes(ByteBuffer buffer) {
+        encryptBytes(buffer, buffer);
+    }
+
+    /**
+     * Encrypts the remaining ASCII bytes of {@code src} into {@code dst} and advances the
+     * position of both buffers by the number of bytes encrypted.
+     *
+     * @param src the bytes to encrypt
+     * @param dst the buffer receiving the encrypted bytes
+     * @throws BufferOverflowException if {@code dst} has fewer remaining bytes than {@code src}
+     * @throws IllegalArgumentException if {@code src} contains bytes outside the standard
+     *         alphabet (a-z); both positions are left unchanged
+     */
+    public static void encryptBytes(ByteBuffer src, ByteBuffer dst) {
+        DEFAULT_CIPHER.encryptBytes(src, dst);
+    }
+
+    /**
+     * Encrypts a file into another file by streaming it through memory-mapped chunks, so
+     * inputs of any size are encrypted with constant heap use.
+     *
+     * @param input the file to encrypt
+     * @param output the file receiving the encrypted bytes, replaced if it exists
+     * @param policy what to do with bytes outside the standard alphabet (a-z)
+     * @return the number of bytes written to the output
+     * @throws IOException if either file cannot be read or written
+     * @throws IllegalArgumentException if the policy is {@link InvalidCharPolicy#REJECT} and
+     *         the input contains a byte outside the standard alphabet
+     */
+    public static long encryptFile(Path input, Path output, InvalidCharPolicy policy) throws IOException {
+        return new FileEncryptor(DEFAULT_CIPHER, policy, FileEncryptor.DEFAULT_CHUNK_SIZE).encryptFile(input, output);
+    }
+
+    /**
+     * Outputs the original word and its encrypted version to the console.
+     *
+     * @param originalWord the original word before encryption
+     * @param encryptedWord the encrypted word
+     */
+    public static void outputEncryptedWord(String originalWord, String encryptedWord) {
+        System.out.println("\"" + originalWord + "\"" + ENCRYPT_MESSAGE + "\"" + encryptedWord + "\"");
+    }
+
+    /**
+     * Outputs the original word and its encrypted version to the given sink.
+     *
+     * @param sink the destination of the output
+     * @param originalWord the original word before encryption
+     * @param encryptedWord the encrypted word
+     */
+    public static void outputEncryptedWord(OutputSink sink, String originalWord, String encryptedWord) {
+        sink.writeEncryptedWord(originalWord, encryptedWord);
+    }
+
+    /**
+     * Outputs a welcome message to the console, introducing the encryption machine.
+     */
+    public static void outputStartMessage() {
+        EncryptionMachine.outputStartMessage(OutputSink.stdout());
+    }
+
+    /**
+     * Outputs a welcome message to the given sink, introducing the encryption machine.
+     *
+     * @param sink the destination of the output
+     */
+    public static void outputStartMessage(OutputSink sink) {
+        sink.writeLine("""
+                    Welcome to the CSCI717 Encryption Machine Construction
+                    The program lets you encrypt a message
+                    with a key for your recipient to decrypt!
+                    """);
+    }
+
+    /**
+     * Outputs a completion message to the console after encryption is finished.
+     */
+    public static void outputEndMessage() {
+        EncryptionMachine.outputEndMessage(OutputSink.stdout());
+    }
+
+    /**
+     * Outputs a completion message to the given sink and flushes it, so everything buffered
+     * during the session reaches its destination.
+     *
+     * @param sink the destination of the output
+     */
+    public static void outputEndMessage(OutputSink sink) {
+        sink.writeLine("Message fully encrypted. Happy secret Messaging!");
+        sink.flush();
+    }
+
+    /**
+     * Prompts the user to enter a key and outputs its encrypted version.
+     *
+     * @param scanner the Scanner object for reading user input
+     * @throws Exception if the key contains invalid characters
+     */
+    public static void encryptKey(Scanner scanner) throws Exception {
+        EncryptionMachine.encryptKey(scanner, OutputSink.stdout());
+    }
+
+    /**
+     * Prompts the user to enter a key and outputs its encrypted version to the given sink.
+     *
+     * @param scanner the Scanner object for reading user input
+     * @param sink the destination of the prompt and the output
+     * @throws Exception if the key contains invalid characters
+     */
+    public static void encryptKey(Scanner scanner, OutputSink sink) throws Exception {
+        sink.writeLine("Enter a key:");
+        String key = scanner.nextLine();
+        String encryptedKey = EncryptionMachine.encryptWord(key);
+        EncryptionMachine.outputEncryptedWord(sink, key, encryptedKey);
+    }
+
+    /**
+     * Creates a Vigenère cipher over the standard alphabet (a-z) with the given key.
+     *
+     * @param key the key, containing only letters a-z
+     * @return the keyed cipher
+     * @throws IllegalArgumentException if the key is empty or contains characters outside a-z
+     */
+    public static VigenereCipher vigenere(String key) {
+        return new VigenereCipher(List.of(ALPHABET), key, INVALID_LETTER_MESSAGE);
+    }
+
+    /**
+     * Prompts the user to enter a key and returns the Vigenère cipher it defines.
+     *
+     * @param scanner the Scanner object for reading user input
+     * @param sink the destination of the prompt
+     * @return the keyed cipher
+     * @throws IllegalArgumentException if the key is empty or contains characters outside a-z
+     */
+    public static VigenereCipher readKey(Scanner scanner, OutputSink sink) {
+        sink.writeLine("Enter a key:");
+        return EncryptionMachine.vigenere(scanner.nextLine());
+    }
+
+    /**
+     * Handles the encryption of multiple words with a key. The words are encrypted as one
+     * message, so the key position runs on from each word to the next.
+     *
+     * @param scanner the Scanner object for reading user input
+     * @param sink the destination of the prompts and the output
+     * @param cipher the keyed cipher to encrypt with
+     * @throws IllegalArgumentException if any word contains characters outside a-z
+     */
+    public static void keyedEncryptionLoop(Scanner scanner, OutputSink sink, VigenereCipher cipher) {
+        int words = EncryptionMachine.readWordCount(scanner, sink);
+        VigenereCipher.Cursor cursor = cipher.encryptor();
+
+        for (int i = 0; i < words; i++) {
+            sink.writeLine("\nNext word:");
+            String word = scanner.nextLine();
+            EncryptionMachine.outputEncryptedWord(sink, word, cursor.translateWord(word));
+        }
+    }
+
+    /**
+     * Handles the encryption of multiple words based on user input.
+     * Prompts the user for the number of words and each word to encrypt.
+     *
+     * @param scanner the Scanner object for reading user input
+     * @throws Exception if any word contains invalid characters
+     */
+    public static void wordEncryptionLoop(Scanner scanner) throws Exception {
+        EncryptionMachine.wordEncryptionLoop(scanner, OutputSink.stdout());
+    }
+
+    /**
+     * Handles the encryption of multiple words based on user input, writing prompts and
+     * results to the given sink.
+     *
+     * @param scanner the Scanner object for reading user input
+     * @param sink the destination of the prompts and the output
+     * @throws Exception if any word contains invalid characters
+     */
+    public static void wordEncryptionLoop(Scanner scanner, OutputSink sink) throws Exception {
+        int words = EncryptionMachine.readWordCount(scanner, sink);
+
+        for (int i = 0; i < words; i++) {
+            sink.writeLine("\nNext word:");
+            String word = scanner.nextLine();
+            String encryptedWord = EncryptionMachine.encryptWord(word);
+            EncryptionMachine.outputEncryptedWord(sink, word, encryptedWord);
+        }
+    }
+
+    /**
+     * Handles the encryption of multiple words without ever throwing for invalid characters.
+     * Words are encrypted according to the policy; under {@link InvalidCharPolicy#REJECT} an
+     * invalid word is reported with its offending offsets and the loop moves on.
+     *
+     * @param scanner the Scanner object for reading user input
+     * @param sink the destination of the prompts and the output
+     * @param policy what to do with characters outside the standard alphabet (a-z)
+     */
+    public static void wordEncryptionLoop(Scanner scanner, OutputSink sink, InvalidCharPolicy policy) {
+        int words = EncryptionMachine.readWordCount(scanner, sink);
+
+        for (int i = 0; i < words; i++) {
+            sink.writeLine("\nNext word:");
+            String word = scanner.nextLine();
+            EncryptionResult result = EncryptionMachine.tryEncryptWord(word, policy);
+            if (result.isRejected()) {
+                sink.writeLine("\"" + word + "\" was not encrypted, invalid characters at offsets "
+                        + Arrays.toString(result.getInvalidOffsets()));
+            } else {
+                EncryptionMachine.outputEncryptedWord(sink, word, result.getText());
+            }
+        }
+    }
+
+    /**
+     * Prompts the user for the number of words in the message.
+     *
+     * @param scanner the Scanner object for reading user input
+     * @param sink the destination of the prompt and any error message
+     * @return the number of words, or 0 if the input was not a positive number
+     */
+    private static int readWordCount(Scanner scanner, OutputSink sink) {
+        sink.writeLine("\nHow many words in your message?:");
+        int words = 0;
+
+        try {
+            // Attempt to parse the input as an integer
+            words = Integer.parseInt(scanner.nextLine());
+        } catch (NumberFormatException ex) {
+            sink.writeLine("A number was expected to be entered.");
+            return 0;
+        }
+
+        if (words <= 0) {
+            sink.writeLine("There were no words in the message.");
+            return 0;
+        }
+        return words;
+    }
+
+    /**
+     * Runs the batch mode: every line of the input is one word, and its ciphertext is written
+     * as one line of the output. There are no prompts and the output is flushed once at the
+     * end, so large word lists are not slowed down by console I/O.
+     *
+     * @param in the input holding one word per line
+     * @param out the output receiving one encrypted word per line
+     * @throws IOException if reading or writing fails
+     * @throws IllegalArgumentException if any word contains characters outside the standard
+     *         alphabet (a-z)
+     */
+    public static void batchEncryptionMode(InputStream in, OutputStream out) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
+        EncryptionMachine.writeEncryptedWords(() -> reader.lines().iterator(), writer);
+        writer.flush();
+    }
+
+    /**
+     * Runs the batch mode without ever throwing for invalid characters: every line of the
+     * input is encrypted according to the policy and written as one line of the output. Under
+     * {@link InvalidCharPolicy#REJECT} a rejected word is answered with a line starting with
+     * {@link EncryptionServer#ERROR_PREFIX} and the offset of its first invalid character, as
+     * the server does, so output lines stay aligned with input lines.
+     *
+     * @param in the input holding one word per line
+     * @param out the output receiving one encrypted word or error per line
+     * @param policy what to do with characters outside the standard alphabet (a-z)
+     * @throws IOException if reading or writing fails
+     */
+    public static void batchEncryptionMode(InputStream in, OutputStream out, InvalidCharPolicy policy)
+            throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
+        String word;
+        while ((word = reader.readLine()) != null) {
+            EncryptionResult result = EncryptionMachine.tryEncryptWord(word, policy);
+            if (result.isRejected()) {
+                writer.write(EncryptionServer.ERROR_PREFIX + "invalid character at offset "
+                        + result.getInvalidOffsets()[0]);
+            } else {
+                writer.write(result.getText());
+            }
+            writer.write(System.lineSeparator());
+        }
+        writer.flush();
+    }
+
+    /**
+     * Finds the {@code --invalid=} option among the arguments of the interactive and batch
+     * modes.
+     *
+     * @param args the command-line arguments
+     * @return the selected policy, or null if the option is absent so words that cannot be
+     *         encrypted throw
+     * @throws IllegalArgumentException if the policy name is unknown
+     */
+    private static InvalidCharPolicy invalidPolicyOption(String[] args) {
+        InvalidCharPolicy policy = null;
+        for (String arg : args) {
+            if (arg.startsWith(INVALID_POLICY_OPTION)) {
+                policy = InvalidCharPolicy.fromName(arg.substring(INVALID_POLICY_OPTION.length()));
+            }
+        }
+        return policy;
+    }
+
+    /**
+     * Runs the argument mode: {@code --encrypt [--key=key] <word>...}. Every word is encrypted
+     * and written as one line of the output, with no prompts, so scripts can encrypt a few
+     * words with a single short-lived process. With a key the words are encrypted with a
+     * Vigenère cipher as one message, so the key runs on from each word to the next.
+     *
+     * @param args the command-line arguments, starting with the argument mode flag
+     * @param out the output receiving one encrypted word per line
+     * @throws IOException if writing fails
+     * @throws IllegalArgumentException if the key or any word contains characters outside the
+     *         standard alphabet (a-z); nothing is written in that case
+     */
+    public static void argumentEncryptionMode(String[] args, OutputStream out) throws IOException {
+        int first = 1;
+        VigenereCipher.Cursor cursor = null;
+        if (args.length > 1 && args[1].startsWith(KEY_OPTION)) {
+            cursor = EncryptionMachine.vigenere(args[1].substring(KEY_OPTION.length())).encryptor();
+            first = 2;
+        }
+
+        // Encrypt everything before writing so a bad word leaves no partial output
+        StringBuilder lines = new StringBuilder();
+        for (int i = first; i < args.length; i++) {
+            String encrypted;
+            if (cursor != null) {
+                encrypted = cursor.translateWord(args[i]);
+            } else if (EncryptionMetrics.ENABLED) {
+                encrypted = EncryptionMetrics.encryptWord(DEFAULT_CIPHER, args[i]);
+            } else {
+                encrypted = DEFAULT_CIPHER.encryptWord(args[i]);
+            }
+            lines.append(encrypted).append(System.lineSeparator());
+        }
+
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        writer.write(lines.toString());
+        writer.flush();
+    }
+
+    /**
+     * Runs the non-interactive file mode:
+     * {@code --encrypt-file <input> <output> [--invalid=reject|pass-through|skip|replace] [--chunk-size=bytes] [--key=key] [--incremental]}.
+     * With a key the file is encrypted with a Vigenère cipher instead of the fixed shift.
+     * With {@code --incremental} only the chunks that changed since the last incremental run
+     * are encrypted, using the checkpoint kept next to the output. Invalid bytes are rejected
+     * by default, as {@link #encryptLetter} does, and a rejected input leaves no output;
+     * {@code --invalid=pass-through} keeps line breaks and punctuation instead.
+     *
+     * @param args the command-line arguments, starting with the file mode flag
+     * @throws IOException if either file cannot be read or written
+     * @throws IllegalArgumentException if the input is rejected
+     * @see IncrementalEncryptor
+     */
+    public static void fileEncryptionMode(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.out.println("Usage: " + ENCRYPT_FILE_FLAG
+                    + " <input> <output> [--invalid=reject|pass-through|skip|replace] [--chunk-size=bytes] [--key=key]"
+                    + " [--incremental]");
+            return;
+        }
+
+        InvalidCharPolicy policy = InvalidCharPolicy.REJECT;
+        int chunkSize = FileEncryptor.DEFAULT_CHUNK_SIZE;
+        String key = null;
+        boolean incremental = false;
+        for (int i = 3; i < args.length; i++) {
+            if (args[i].startsWith(INVALID_POLICY_OPTION)) {
+                policy = InvalidCharPolicy.fromName(args[i].substring(INVALID_POLICY_OPTION.length()));
+            } else if (args[i].startsWith(CHUNK_SIZE_OPTION)) {
+                chunkSize = Integer.parseInt(args[i].substring(CHUNK_SIZE_OPTION.length()));
+            } else if (args[i].startsWith(KEY_OPTION)) {
+                key = args[i].substring(KEY_OPTION.length());
+            } else if (args[i].equals(INCREMENTAL_FLAG)) {
+                incremental = true;
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        if (incremental) {
+            if (key != null) {
+                throw new IllegalArgumentException(INCREMENTAL_FLAG + " cannot be combined with " + KEY_OPTION);
+            }
+            IncrementalEncryptor.Result result = new IncrementalEncryptor(DEFAULT_CIPHER, policy, chunkSize)
+                    .encryptFile(Path.of(args[1]), Path.of(args[2]));
+            System.out.println("Encrypted " + result.getChunksEncrypted() + " of " + result.getChunkCount()
+                    + " chunks (" + result.getBytesEncrypted() + " of " + result.getSize() + " bytes) to " + args[2]);
+            return;
+        }
+
+        FileEncryptor encryptor = key == null
+                ? new FileEncryptor(DEFAULT_CIPHER, policy, chunkSize)
+                : new FileEncryptor(EncryptionMachine.vigenere(key), policy, chunkSize);
+        long written = encryptor.encryptFile(Path.of(args[1]), Path.of(args[2]));
+        System.out.println("Encrypted " + written + " bytes to " + args[2]);
+    }
+
+    /**
+     * Runs the non-interactive directory mode:
+     * {@code --encrypt-dir <input> <output> [--invalid=reject|pass-through|skip|replace] [--threads=n]}.
+     * Every file under the input directory is encrypted to the same relative path under the
+     * output directory, and a line is printed per file followed by the aggregate throughput.
+     * Invalid bytes are rejected by default, as {@link #encryptWord} does.
+     *
+     * @param args the command-line arguments, starting with the directory mode flag
+     * @throws IOException if the input cannot be walked or an output directory cannot be created
+     * @see DirectoryEncryptor
+     */
+    public static void directoryEncryptionMode(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.out.println("Usage: " + ENCRYPT_DIR_FLAG
+                    + " <input> <output> [--invalid=reject|pass-through|skip|replace] [--threads=n]");
+            return;
+        }
+
+        InvalidCharPolicy policy = InvalidCharPolicy.REJECT;
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (int i = 3; i < args.length; i++) {
+            if (args[i].startsWith(INVALID_POLICY_OPTION)) {
+                policy = InvalidCharPolicy.fromName(args[i].substring(INVALID_POLICY_OPTION.length()));
+            } else if (args[i].startsWith(THREADS_OPTION)) {
+                threads = Integer.parseInt(args[i].substring(THREADS_OPTION.length()));
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        DirectoryEncryptor.Report report;
+        try {
+            report = new DirectoryEncryptor(DEFAULT_CIPHER, policy, pool)
+                    .encryptDirectory(Path.of(args[1]), Path.of(args[2]));
+        } finally {
+            pool.shutdown();
+        }
+
+        for (DirectoryEncryptor.FileResult file : report.getFiles()) {
+            if (file.isSuccessful()) {
+                System.out.printf("%s: %d bytes in %.1f ms (%.1f MB/s)%n", file.getInput(),
+                        file.getBytes(), file.getNanos() / 1e6, file.getThroughput());
+            } else {
+                System.out.printf("%s: failed, %s%n", file.getInput(), file.getError());
+            }
+        }
+        int files = report.getFiles().size();
+        System.out.printf("Encrypted %d of %d files, %d bytes in %.1f ms (%.1f MB/s) on %d threads%n",
+                files - report.getFailureCount(), files, report.getBytes(),
+                report.getElapsedNanos() / 1e6, report.getThroughput(), threads);
+    }
+
+    /**
+     * Runs the re-keying mode:
+     * {@code --rekey <input> <output> --to=shift [--from=shift] [--invalid=...] [--threads=n]}.
+     * Every file under the input directory, encrypted with {@link #ALPHABET} and the old
+     * shift ({@link #SHIFT} by default), is converted to the new shift under the same relative
+     * path of the output directory in one pass, without decrypting it first. Progress is
+     * printed at most twice a second, followed by any failed files and the aggregate
+     * throughput. Bytes outside the alphabet pass through unchanged by default, so nothing
+     * of the ciphertext is lost.
+     *
+     * @param args the command-line arguments, starting with the re-keying mode flag
+     * @throws IOException if the input cannot be walked or an output directory cannot be created
+     * @see Rekeyer
+     */
+    public static void rekeyMode(String[] args) throws IOException {
+        if (args.length < 4) {
+            System.out.println("Usage: " + REKEY_FLAG + " <input> <output> --to=shift [--from=shift]"
+                    + " [--invalid=reject|pass-through|skip|replace] [--threads=n]");
+            return;
+        }
+
+        int from = SHIFT;
+        Integer to = null;
+        InvalidCharPolicy policy = InvalidCharPolicy.PASS_THROUGH;
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (int i = 3; i < args.length; i++) {
+            if (args[i].startsWith(FROM_OPTION)) {
+                from = Integer.parseInt(args[i].substring(FROM_OPTION.length()));
+            } else if (args[i].startsWith(TO_OPTION)) {
+                to = Integer.parseInt(args[i].substring(TO_OPTION.length()));
+            } else if (args[i].startsWith(INVALID_POLICY_OPTION)) {
+                policy = InvalidCharPolicy.fromName(args[i].substring(INVALID_POLICY_OPTION.length()));
+            } else if (args[i].startsWith(THREADS_OPTION)) {
+                threads = Integer.parseInt(args[i].substring(THREADS_OPTION.length()));
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (to == null) {
+            throw new IllegalArgumentException(REKEY_FLAG + " needs " + TO_OPTION + "shift");
+        }
+
+        Rekeyer rekeyer = new Rekeyer(DEFAULT_CIPHER.withShift(from), DEFAULT_CIPHER.withShift(to));
+        long start = System.nanoTime();
+        AtomicLong lastPrinted = new AtomicLong(start);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        DirectoryEncryptor.Report report;
+        try {
+            report = rekeyer.rekeyDirectory(Path.of(args[1]), Path.of(args[2]), policy, pool,
+                    (filesDone, fileCount, bytesDone, totalBytes) -> {
+                        long now = System.nanoTime();
+                        long last = lastPrinted.get();
+                        if (now - last >= PROGRESS_INTERVAL_NANOS && lastPrinted.compareAndSet(last, now)) {
+                            System.out.printf("%d of %d files, %d of %d bytes (%.0f%%), %.1f MB/s%n",
+                                    filesDone, fileCount, bytesDone, totalBytes,
+                                    100.0 * bytesDone / Math.max(1, totalBytes),
+                                    bytesDone / 1e6 / ((now - start) / 1e9));
+                        }
+                    });
+        } finally {
+            pool.shutdown();
+        }
+
+        for (DirectoryEncryptor.FileResult file : report.getFiles()) {
+            if (!file.isSuccessful()) {
+                System.out.printf("%s: failed, %s%n", file.getInput(), file.getError());
+            }
+        }
+        int files = report.getFiles().size();
+        System.out.printf("Re-keyed %d of %d files from shift %d to %d, %d bytes in %.1f ms (%.1f MB/s) on %d threads%n",
+                files - report.getFailureCount(), files, from, to, report.getBytes(),
+                report.getElapsedNanos() / 1e6, report.getThroughput(), threads);
+    }
+
+    /**
+     * Runs the archive mode: {@code --archive <input> <archive> [--block-size=bytes] [--no-compress]}.
+     * Every line of the UTF-8 input is encrypted like {@link #encryptWord} and stored as a
+     * record of a block archive. If a line is rejected no archive is left behind.
+     *
+     * @param args the command-line arguments, starting with the archive mode flag
+     * @throws IOException if either file cannot be read or written
+     * @see ArchiveWriter
+     */
+    public static void archiveMode(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.out.println("Usage: " + ARCHIVE_FLAG + " <input> <archive> [--block-size=bytes] [--no-compress]");
+            return;
+        }
+
+        int blockSize = ArchiveWriter.DEFAULT_BLOCK_SIZE;
+        boolean compress = true;
+        for (int i = 3; i < args.length; i++) {
+            if (args[i].startsWith(BLOCK_SIZE_OPTION)) {
+                blockSize = Integer.parseInt(args[i].substring(BLOCK_SIZE_OPTION.length()));
+            } else if (args[i].equals(NO_COMPRESS_FLAG)) {
+                compress = false;
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        Path archive = Path.of(args[2]);
+        try (Stream<String> lines = Files.lines(Path.of(args[1]), StandardCharsets.UTF_8);
+             ArchiveWriter writer = new ArchiveWriter(archive, DEFAULT_CIPHER, blockSize, compress)) {
+            for (String line : (Iterable<String>) lines::iterator) {
+                writer.append(line);
+            }
+            System.out.println("Archived " + writer.getRecordCount() + " records to " + archive);
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(archive);
+            throw ex;
+        }
+    }
+
+    /**
+     * Runs the extract mode: {@code --extract <archive> <first> [count]}. It prints the
+     * decrypted records of the range, one per line, reading only the blocks that hold them.
+     *
+     * @param args the command-line arguments, starting with the extract mode flag
+     * @throws IOException if the archive cannot be read or is corrupted
+     * @see ArchiveReader
+     */
+    public static void extractMode(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.out.println("Usage: " + EXTRACT_FLAG + " <archive> <first> [count]");
+            return;
+        }
+
+        long first = Long.parseLong(args[2]);
+        int count = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+        try (ArchiveReader reader = new ArchiveReader(Path.of(args[1]), DEFAULT_CIPHER)) {
+            for (String word : reader.read(first, count)) {
+                System.out.println(word);
+            }
+        }
+    }
+
+    /**
+     * Runs the shift recovery mode: {@code --crack <input> [--sample=bytes]}. It prints the
+     * most likely shift of an encrypted file.
+     *
+     * @param args the command-line arguments, starting with the crack mode flag
+     * @throws IOException if the file cannot be read
+     */
+    public static void crackMode(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: " + CRACK_FLAG + " <input> [--sample=bytes]");
+            return;
+        }
+
+        long sampleBudget = ShiftCracker.DEFAULT_SAMPLE_BUDGET;
+        for (int i = 2; i < args.length; i++) {
+            if (args[i].startsWith(SAMPLE_OPTION)) {
+                sampleBudget = Long.parseLong(args[i].substring(SAMPLE_OPTION.length()));
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        ShiftCracker.Result result = ShiftCracker.english().crack(Path.of(args[1]), sampleBudget);
+        if (result.getLettersCounted() == 0) {
+            System.out.println("No letters from the alphabet were found.");
+            return;
+        }
+        System.out.println("Most likely shift: " + result.getShift()
+                + " (based on " + result.getLettersCounted() + " letters)");
+    }
+
+    /**
+     * Runs the server mode: {@code --serve [--port=number | --unix=path]}. It listens on the
+     * loopback interface, or on a Unix domain socket, until the process is stopped.
+     *
+     * @param args the command-line arguments, starting with the server mode flag
+     * @throws IOException if the socket cannot be opened
+     * @see EncryptionServer
+     */
+    public static void serveMode(String[] args) throws IOException {
+        SocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), DEFAULT_PORT);
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].startsWith(PORT_OPTION)) {
+                int port = Integer.parseInt(args[i].substring(PORT_OPTION.length()));
+                address = new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+            } else if (args[i].startsWith(UNIX_OPTION)) {
+                address = UnixDomainSocketAddress.of(args[i].substring(UNIX_OPTION.length()));
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        try (EncryptionServer server = new EncryptionServer(address)) {
+            System.out.println("Listening on " + server.getLocalAddress());
+            server.serve();
+        }
+    }
+
+    /**
+     * The main entry point for the program. Without arguments the interactive console mode
+     * runs. The first argument can select another mode:
+     * <ul>
+     *   <li>{@code --buffered} - the interactive mode with output buffered until the end</li>
+     *   <li>{@code --vigenere} - the interactive mode encrypting with the entered key</li>
+     *   <li>{@code --encrypt} - encrypts the remaining arguments without prompts</li>
+     *   <li>{@code --encrypt-file} - encrypts a file without prompts</li>
+     *   <li>{@code --encrypt-dir} - encrypts a directory tree in parallel without prompts</li>
+     *   <li>{@code --rekey} - converts a directory tree of ciphertext to another shift</li>
+     *   <li>{@code --archive} - encrypts one word per line of a file into a block archive</li>
+     *   <li>{@code --extract} - decrypts a range of records from a block archive</li>
+     *   <li>{@code --batch} - encrypts one word per line of stdin without prompts</li>
+     *   <li>{@code --crack} - recovers the shift of an encrypted file</li>
+     *   <li>{@code --serve} - encrypts words sent over a local socket</li>
+     * </ul>
+     * The interactive and batch modes also accept {@code --invalid=policy}, which handles
+     * characters outside the alphabet by that policy instead of stopping at the first
+     * invalid word.
+     *
+     * @param args command-line arguments, empty for the interactive mode
+     * @throws RuntimeException if an error occurs during execution
+     */
+    public static void main(String[] args) {
+        try {
+            if (args.length > 0 && args[0].equals(ENCRYPT_FLAG)) {
+                EncryptionMachine.argumentEncryptionMode(args, System.out);
+                return;
+            }
+            if (args.length > 0 && args[0].equals(ENCRYPT_FILE_FLAG)) {
+                EncryptionMachine.fileEncryptionMode(args);
+                return;
+            }
+            if (args.length > 0 && args[0].equals(ENCRYPT_DIR_FLAG)) {
+                EncryptionMachine.directoryEncryptionMode(args);
+                return;
+            }
+            if (args.length > 0 && args[0].equals(REKEY_FLAG)) {
+                EncryptionMachine.rekeyMode(args);
+                return;
+            }
+            if (args.length > 0 && args[0].equals(ARCHIVE_FLAG)) {
+                EncryptionMachine.archiveMode(args);
+                return;
+            }
+            if (args.length > 0 && args[0].equals(EXTRACT_FLAG)) {
+                EncryptionMachine.extractMode(args);
+                return;
+            }
+            if (args.length > 0 && args[0].equals(BATCH_FLAG)) {
+                InvalidCharPolicy policy = EncryptionMachine.invalidPolicyOption(args);
+                if (policy != null) {
+                    EncryptionMachine.batchEncryptionMode(System.in, System.out, policy);
+                } else {
+                    EncryptionMachine.batchEncryptionMode(System.in, System.out);
+                }
+                return;
+            }
+            if (args.length > 0 && args[0].equals(CRACK_FLAG)) {
+                EncryptionMachine.crackMode(args);
+                return;
+            }
+            if (args.length > 0 && args[0].equals(SERVE_FLAG)) {
+                EncryptionMachine.serveMode(args);
+                return;
+            }
+
+            Scanner scanner = new Scanner(System.in);
+            OutputSink sink = args.length > 0 && args[0].equals(BUFFERED_FLAG)
+                    ? OutputSink.buffered(System.out, Charset.defaultCharset())
+                    : OutputSink.stdout();
+            boolean keyed = args.length > 0 && args[0].equals(VIGENERE_FLAG);
+            InvalidCharPolicy policy = EncryptionMachine.invalidPolicyOption(args);
+            if (keyed && policy != null) {
+                throw new IllegalArgumentException(VIGENERE_FLAG + " cannot be combined with " + INVALID_POLICY_OPTION);
+            }
+
+            try {
+                EncryptionMachine.outputStartMessage(sink);
+                if (keyed) {
+                    VigenereCipher cipher = EncryptionMachine.readKey(scanner, sink);
+                    EncryptionMachine.keyedEncryptionLoop(scanner, sink, cipher);
+                } else {
+                    EncryptionMachine.encryptKey(scanner, sink);
+                    if (policy != null) {
+                        EncryptionMachine.wordEncryptionLoop(scanner, sink, policy);
+                    } else {
+                        EncryptionMachine.wordEncryptionLoop(scanner, sink);
+                    }
+                }
+                EncryptionMachine.outputEndMessage(sink);
+            } finally {
+                sink.flush();
+            }
+
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
\ No newline at end of file
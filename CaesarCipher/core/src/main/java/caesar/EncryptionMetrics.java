@@ -0,0 +1,391 @@
+package caesar;
+
+/**
+ * Counters and timers for the encryption hot paths: characters encrypted, words encrypted,
+ * rejected words and letters, and an {@code encryptWord} latency histogram. Counters are
+ * {@link LongAdder}s, so threads encrypting in parallel do not contend on one cache line.
+ * <p>
+ * Metrics are off unless the JVM is started with {@code -Dcaesar.metrics=true}. The switch is
+ * a {@code static final} constant, so when it is off the JIT compiler removes the recording
+ * branches and the hot paths cost exactly what they did before. When it is on, the metrics
+ * are registered with the platform MBean server as {@value #OBJECT_NAME}, every timed
+ * {@code encryptWord} call emits a {@code caesar.EncryptWord} JFR event, and a
+ * {@code caesar.EncryptionStatistics} JFR event with the totals is emitted every second of a
+ * recording, so both can be lined up with GC and I/O events.
+ * <p>
+ * The instrumented entry points are {@link EncryptionMachine#encryptWord(String)},
+ * {@link EncryptionMachine#encryptLetter(char)},
+ * {@link EncryptionMachine#tryEncryptWord(String, InvalidCharPolicy)}, every form of
+ * {@link EncryptionMachine#encryptWords(String...)},
+ * {@link EncryptionMachine#writeEncryptedWords(Iterable, Writer)}, the argument mode and
+ * {@link EncryptionServer}.
+ */
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+
+public final class EncryptionMetrics implements EncryptionMetricsMXBean {
+    /** System property that turns metrics on. */
+    public static final String ENABLED_PROPERTY = "caesar.metrics";
+
+    /** Whether metrics are recorded, fixed when the class is initialized. */
+    public static final boolean ENABLED = Boolean.getBoolean(ENABLED_PROPERTY);
+
+    /** Name the metrics are registered under with the platform MBean server. */
+    public static final String OBJECT_NAME = "caesar:type=EncryptionMetrics";
+
+    /** Number of latency buckets: one for zero and one per power of two of a long. */
+    private static final int BUCKETS = 64;
+
+    /** The only instance. */
+    private static final EncryptionMetrics INSTANCE = new EncryptionMetrics();
+
+    static {
+        if (ENABLED) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE, new ObjectName(OBJECT_NAME));
+            } catch (JMException e) {
+                throw new IllegalStateException("Could not register " + OBJECT_NAME, e);
+            }
+            FlightRecorder.addPeriodicEvent(StatisticsEvent.class, INSTANCE::emitStatistics);
+        }
+    }
+
+    /** Characters encrypted. */
+    private final LongAdder characters = new LongAdder();
+
+    /** Words encrypted. */
+    private final LongAdder words = new LongAdder();
+
+    /** Words and letters rejected for characters outside the alphabet. */
+    private final LongAdder rejections = new LongAdder();
+
+    /** Timed {@code encryptWord} calls per latency bucket. */
+    private final LongAdder[] latency = new LongAdder[BUCKETS];
+
+    /**
+     * JFR event for one timed {@code encryptWord} call; its duration is the call's latency.
+     */
+    @Name("caesar.EncryptWord")
+    @Label("Encrypt Word")
+    @Category("Caesar Cipher")
+    @Description("One call to encryptWord")
+    static final class EncryptWordEvent extends Event {
+        @Label("Length")
+        int length;
+
+        @Label("Rejected")
+        boolean rejected;
+    }
+
+    /**
+     * Periodic JFR event with the running totals.
+     */
+    @Name("caesar.EncryptionStatistics")
+    @Label("Encryption Statistics")
+    @Category("Caesar Cipher")
+    @Period("1 s")
+    static final class StatisticsEvent extends Event {
+        @Label("Characters Encrypted")
+        long charactersEncrypted;
+
+        @Label("Words Encrypted")
+        long wordsEncrypted;
+
+        @Label("Invalid Character Rejections")
+        long invalidCharacterRejections;
+    }
+
+    private EncryptionMetrics() {
+        for (int i = 0; i < BUCKETS; i++) {
+            latency[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Returns the metrics. They only change when {@link #ENABLED} is true.
+     *
+     * @return the metrics
+     */
+    public static EncryptionMetrics get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Encrypts a word, timing the call and counting the word, its characters or its
+     * rejection. Callers only take this path when {@link #ENABLED} is true, and use it for
+     * ciphers that bypass the word cache.
+     *
+     * @param cipher the cipher to encrypt with
+     * @param word the word to encrypt
+     * @return the encrypted word
+     * @throws IllegalArgumentException if the word contains characters outside the alphabet
+     */
+    static String encryptWord(Cipher cipher, String word) {
+        return encryptWord(cipher::encryptWord, word);
+    }
+
+    /**
+     * Runs an encryption of a word, such as a cached one, timing the call and counting the
+     * word, its characters or its rejection.
+     *
+     * @param encryption the encryption to time
+     * @param word the word to encrypt
+     * @return the encrypted word
+     * @throws IllegalArgumentException if the word contains characters outside the alphabet
+     */
+    static String encryptWord(UnaryOperator<String> encryption, String word) {
+        EncryptWordEvent event = new EncryptWordEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            String encrypted = encryption.apply(word);
+            INSTANCE.words.increment();
+            INSTANCE.characters.add(word.length());
+            return encrypted;
+        } catch (IllegalArgumentException e) {
+            INSTANCE.rejections.increment();
+            event.rejected = true;
+            throw e;
+        } finally {
+            INSTANCE.latency[bucket(System.nanoTime() - start)].increment();
+            event.length = word.length();
+            event.commit();
+        }
+    }
+
+    /**
+     * Encrypts a letter, counting it or its rejection. Callers only take this path when
+     * {@link #ENABLED} is true.
+     *
+     * @param cipher the cipher to encrypt with
+     * @param letter the letter to encrypt
+     * @return the encrypted letter
+     * @throws IllegalArgumentException if the letter is not in the alphabet
+     */
+    static char encryptLetter(Cipher cipher, char letter) {
+        try {
+            char encrypted = cipher.encryptLetter(letter);
+            INSTANCE.characters.increment();
+            return encrypted;
+        } catch (IllegalArgumentException e) {
+            INSTANCE.rejections.increment();
+            throw e;
+        }
+    }
+
+    /**
+     * Encrypts a batch of words, counting the words and their characters, or the rejection
+     * if any word is invalid. Callers only take this path when {@link #ENABLED} is true.
+     *
+     * @param batch the batch to encrypt
+     * @param encryption the batch encryption to run
+     * @param words the words of the batch, for counting
+     * @return the encrypted batch
+     * @throws IllegalArgumentException if any word contains characters outside the alphabet
+     */
+    static <B> B encryptWords(B batch, UnaryOperator<B> encryption, List<String> words) {
+        B encrypted;
+        try {
+            encrypted = encryption.apply(batch);
+        } catch (IllegalArgumentException e) {
+            INSTANCE.rejections.increment();
+            throw e;
+        }
+
+        long characterCount = 0;
+        for (String word : words) {
+            characterCount += word.length();
+        }
+        INSTANCE.words.add(words.size());
+        INSTANCE.characters.add(characterCount);
+        return encrypted;
+    }
+
+    /**
+     * Encrypts a word under a policy, counting the word and the characters that were
+     * encrypted, or the rejection if the policy is {@link InvalidCharPolicy#REJECT} and the
+     * word has invalid characters. Callers only take this path when {@link #ENABLED} is true.
+     *
+     * @param cipher the cipher to encrypt with
+     * @param word the word to encrypt
+     * @param policy what to do with characters outside the alphabet
+     * @return the encrypted text and the offsets of any invalid characters
+     */
+    static EncryptionResult tryEncryptWord(Cipher cipher, String word, InvalidCharPolicy policy) {
+        EncryptionResult result = cipher.tryEncryptWord(word, policy);
+        if (result.isRejected()) {
+            INSTANCE.rejections.increment();
+        } else {
+            INSTANCE.words.increment();
+            INSTANCE.characters.add(word.length() - result.getInvalidCount());
+        }
+        return result;
+    }
+
+    /**
+     * Encrypts words onto a writer, counting the words and characters written, and the
+     * rejection if a word is invalid. The words are counted as the cipher takes them, so the
+     * ones written before a rejected word are counted too. Callers only take this path when
+     * {@link #ENABLED} is true.
+     *
+     * @param cipher the cipher to encrypt with
+     * @param words the words to encrypt
+     * @param out the writer receiving one encrypted word per line
+     * @throws IOException if the writer fails
+     * @throws IllegalArgumentException if any word contains characters outside the alphabet
+     */
+    static void writeEncryptedWords(Cipher cipher, Iterable<String> words, Writer out) throws IOException {
+        // Words taken and their characters; the last one taken is only written on success
+        long[] taken = new long[2];
+        int[] lastLength = new int[1];
+        Iterable<String> counted = () -> new Iterator<>() {
+            private final Iterator<String> iterator = words.iterator();
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public String next() {
+                String word = iterator.next();
+                taken[0]++;
+                taken[1] += word.length();
+                lastLength[0] = word.length();
+                return word;
+            }
+        };
+
+        try {
+            cipher.writeEncryptedWords(counted, out);
+        } catch (IllegalArgumentException e) {
+            INSTANCE.rejections.increment();
+            taken[0]--;
+            taken[1] -= lastLength[0];
+            throw e;
+        } finally {
+            INSTANCE.words.add(taken[0]);
+            INSTANCE.characters.add(taken[1]);
+        }
+    }
+
+    /**
+     * Returns the latency bucket of a duration.
+     *
+     * @param nanos the duration in nanoseconds
+     * @return the bucket index
+     */
+    private static int bucket(long nanos) {
+        return Math.min(BUCKETS - 1, Long.SIZE - Long.numberOfLeadingZeros(Math.max(0, nanos)));
+    }
+
+    /**
+     * Emits the running totals as a JFR event.
+     */
+    private void emitStatistics() {
+        StatisticsEvent event = new StatisticsEvent();
+        event.charactersEncrypted = getCharactersEncrypted();
+        event.wordsEncrypted = getWordsEncrypted();
+        event.invalidCharacterRejections = getInvalidCharacterRejections();
+        event.commit();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return ENABLED;
+    }
+
+    @Override
+    public long getCharactersEncrypted() {
+        return characters.sum();
+    }
+
+    @Override
+    public long getWordsEncrypted() {
+        return words.sum();
+    }
+
+    @Override
+    public long getInvalidCharacterRejections() {
+        return rejections.sum();
+    }
+
+    @Override
+    public long getEncryptWordCalls() {
+        long calls = 0;
+        for (LongAdder bucket : latency) {
+            calls += bucket.sum();
+        }
+        return calls;
+    }
+
+    @Override
+    public long[] getEncryptWordLatencyHistogram() {
+        long[] histogram = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            histogram[i] = latency[i].sum();
+        }
+        return histogram;
+    }
+
+    @Override
+    public long getEncryptWordLatencyP50Nanos() {
+        return percentile(0.50);
+    }
+
+    @Override
+    public long getEncryptWordLatencyP99Nanos() {
+        return percentile(0.99);
+    }
+
+    /**
+     * Returns a latency percentile as the upper bound of the bucket it falls into.
+     *
+     * @param fraction the percentile as a fraction, for example 0.99
+     * @return the latency in nanoseconds, or 0 if nothing was timed
+     */
+    private long percentile(double fraction) {
+        long[] histogram = getEncryptWordLatencyHistogram();
+        long total = 0;
+        for (long count : histogram) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(fraction * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += histogram[i];
+            if (seen >= rank) {
+                return i == BUCKETS - 1 ? Long.MAX_VALUE : 1L << i;
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public void reset() {
+        characters.reset();
+        words.reset();
+        rejections.reset();
+        for (LongAdder bucket : latency) {
+            bucket.reset();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package caesar;
+
+/**
+ * The JMX view of {@link EncryptionMetrics}, registered as {@value EncryptionMetrics#OBJECT_NAME}
+ * when metrics are enabled.
+ */
+public interface EncryptionMetricsMXBean {
+    /**
+     * Returns whether metrics are being recorded.
+     *
+     * @return the value of {@link EncryptionMetrics#ENABLED}
+     */
+    boolean isEnabled();
+
+    /**
+     * Returns the number of characters encrypted through the instrumented entry points.
+     *
+     * @return the character count
+     */
+    long getCharactersEncrypted();
+
+    /**
+     * Returns the number of words encrypted through the instrumented entry points.
+     *
+     * @return the word count
+     */
+    long getWordsEncrypted();
+
+    /**
+     * Returns the number of words and letters rejected for characters outside the alphabet.
+     *
+     * @return the rejection count
+     */
+    long getInvalidCharacterRejections();
+
+    /**
+     * Returns the number of timed {@code encryptWord} calls.
+     *
+     * @return the call count
+     */
+    long getEncryptWordCalls();
+
+    /**
+     * Returns the {@code encryptWord} latency histogram. Bucket 0 counts calls under one
+     * nanosecond and bucket {@code i} counts calls taking [2<sup>i-1</sup>, 2<sup>i</sup>)
+     * nanoseconds.
+     *
+     * @return the count of calls in each bucket
+     */
+    long[] getEncryptWordLatencyHistogram();
+
+    /**
+     * Returns the median {@code encryptWord} latency, as the upper bound of its bucket.
+     *
+     * @return the median latency in nanoseconds, or 0 if nothing was timed
+     */
+    long getEncryptWordLatencyP50Nanos();
+
+    /**
+     * Returns the 99th percentile {@code encryptWord} latency, as the upper bound of its
+     * bucket.
+     *
+     * @return the p99 latency in nanoseconds, or 0 if nothing was timed
+     */
+    long getEncryptWordLatencyP99Nanos();
+
+    /**
+     * Sets every counter and histogram bucket back to zero.
+     */
+    void reset();
+}
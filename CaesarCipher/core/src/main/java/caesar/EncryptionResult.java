@@ -0,0 +1,77 @@
+package caesar;
+
+/**
+ * The outcome of an exception-free encryption: the encrypted text, if any, and the offsets
+ * of every input character that was outside the alphabet. Clean input shares one empty
+ * offsets array, so a successful result costs nothing beyond the text itself.
+ */
+import java.util.Arrays;
+
+public final class EncryptionResult {
+    /** Shared offsets array of results without invalid characters. */
+    private static final int[] NO_OFFSETS = new int[0];
+
+    /** The encrypted text, or {@code null} if the input was rejected. */
+    private final String text;
+
+    /** The offsets of the invalid input characters, in increasing order. */
+    private final int[] invalidOffsets;
+
+    /**
+     * Creates a result.
+     *
+     * @param text the encrypted text, or {@code null} if the input was rejected
+     * @param invalidOffsets the offsets of the invalid characters, or {@code null} if there
+     *        were none
+     * @param invalidCount the number of valid entries in {@code invalidOffsets}
+     */
+    EncryptionResult(String text, int[] invalidOffsets, int invalidCount) {
+        this.text = text;
+        this.invalidOffsets = invalidOffsets == null ? NO_OFFSETS : Arrays.copyOf(invalidOffsets, invalidCount);
+    }
+
+    /**
+     * Returns the encrypted text, with invalid characters handled by the policy that was used.
+     *
+     * @return the encrypted text, or {@code null} if the input was rejected
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Returns whether the input was rejected under {@link InvalidCharPolicy#REJECT}.
+     *
+     * @return {@code true} if there is no encrypted text
+     */
+    public boolean isRejected() {
+        return text == null;
+    }
+
+    /**
+     * Returns whether every input character was in the alphabet.
+     *
+     * @return {@code true} if no invalid characters were found
+     */
+    public boolean isValid() {
+        return invalidOffsets.length == 0;
+    }
+
+    /**
+     * Returns the offsets of the input characters that were outside the alphabet.
+     *
+     * @return a copy of the offsets, in increasing order
+     */
+    public int[] getInvalidOffsets() {
+        return invalidOffsets.clone();
+    }
+
+    /**
+     * Returns how many input characters were outside the alphabet.
+     *
+     * @return the number of invalid characters
+     */
+    public int getInvalidCount() {
+        return invalidOffsets.length;
+    }
+}
@@ -0,0 +1,189 @@
+package caesar;
+
+/**
+ * A long-running server that encrypts words for clients over a TCP or Unix domain socket, so
+ * callers do not pay JVM startup for every message. The protocol is line based: each request
+ * line is one word, answered by one line holding its ciphertext, or {@code ERROR} followed by
+ * the reason if the word contains characters outside the standard alphabet (a-z) or is longer
+ * than {@value LineChannel#MAX_LINE_LENGTH} bytes.
+ * <p>
+ * Every connection is served by its own virtual thread, so thousands of mostly idle clients
+ * cost little more than their buffers. Replies are flushed once the client has no further
+ * requests waiting, so pipelined requests share one write.
+ */
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public final class EncryptionServer implements Closeable {
+    /** Prefix of the reply to a word that cannot be encrypted. */
+    public static final String ERROR_PREFIX = "ERROR ";
+
+    /** The socket accepting connections. */
+    private final ServerSocketChannel server;
+
+    /** Runs every connection on its own virtual thread. */
+    private final ExecutorService connections = Executors.newVirtualThreadPerTaskExecutor();
+
+    /** The connections currently open, closed together when the server shuts down. */
+    private final Set<SocketChannel> open = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Opens a server bound to the given address. An {@link InetSocketAddress} listens on
+     * TCP, a {@link UnixDomainSocketAddress} on a Unix domain socket.
+     *
+     * @param address the address to listen on; TCP port 0 picks a free port
+     * @throws IOException if the socket cannot be opened or bound
+     */
+    public EncryptionServer(SocketAddress address) throws IOException {
+        ServerSocketChannel server = address instanceof UnixDomainSocketAddress
+                ? ServerSocketChannel.open(StandardProtocolFamily.UNIX)
+                : ServerSocketChannel.open();
+        try {
+            server.bind(address);
+        } catch (IOException e) {
+            server.close();
+            throw e;
+        }
+        this.server = server;
+    }
+
+    /**
+     * Returns the address the server listens on, including the port chosen for TCP port 0.
+     *
+     * @return the bound address
+     */
+    public SocketAddress getLocalAddress() {
+        try {
+            return server.getLocalAddress();
+        } catch (IOException e) {
+            throw new IllegalStateException("The server is closed", e);
+        }
+    }
+
+    /**
+     * Accepts connections until the server is closed, handing each one to a virtual thread.
+     *
+     * @throws IOException if accepting a connection fails for a reason other than the server
+     *         being closed
+     */
+    public void serve() throws IOException {
+        while (true) {
+            SocketChannel client;
+            try {
+                client = server.accept();
+            } catch (ClosedChannelException e) {
+                return;
+            }
+            try {
+                if (client.getLocalAddress() instanceof InetSocketAddress) {
+                    // Replies are small and latency bound; do not hold them back for coalescing
+                    client.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                }
+            } catch (IOException e) {
+                // The client went away right after connecting; drop it and keep accepting
+                EncryptionServer.closeQuietly(client);
+                continue;
+            }
+            open.add(client);
+            connections.execute(() -> handle(client));
+        }
+    }
+
+    /**
+     * Answers every request of one connection until the client disconnects.
+     *
+     * @param client the connected client
+     */
+    private void handle(SocketChannel client) {
+        try (client) {
+            LineChannel lines = new LineChannel(client);
+
+            while (true) {
+                String reply;
+                try {
+                    String word = lines.readLine();
+                    if (word == null) {
+                        break;
+                    }
+                    reply = EncryptionServer.reply(word);
+                } catch (LineChannel.LineTooLongException e) {
+                    reply = ERROR_PREFIX + e.getMessage();
+                }
+                lines.writeLine(reply);
+                if (!lines.hasBufferedInput()) {
+                    lines.flush();
+                }
+            }
+            lines.flush();
+        } catch (IOException e) {
+            // The client went away or the server is shutting down; nothing is left to answer
+        } finally {
+            open.remove(client);
+        }
+    }
+
+    /**
+     * Closes a client whose connection already failed.
+     *
+     * @param client the client to close
+     */
+    private static void closeQuietly(SocketChannel client) {
+        try {
+            client.close();
+        } catch (IOException e) {
+            // Nothing more can be done for a connection that is already broken
+        }
+    }
+
+    /**
+     * Builds the reply line for one request. Valid words go through
+     * {@link EncryptionMachine#encryptWord(String)}, so the word cache and the metrics see
+     * server traffic like any other.
+     *
+     * @param word the requested word
+     * @return the encrypted word, or an error line if the word is not valid
+     */
+    static String reply(String word) {
+        try {
+            return EncryptionMachine.encryptWord(word);
+        } catch (IllegalArgumentException e) {
+            // Only rejected words are scanned a second time, to report where they went wrong
+            return ERROR_PREFIX + "invalid character at offset " + EncryptionMachine.validateWord(word);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Stops accepting connections, closes the open ones and waits for their threads to end.
+     * A Unix domain socket file is removed.
+     *
+     * @throws IOException if the socket cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        SocketAddress address = server.isOpen() ? server.getLocalAddress() : null;
+        server.close();
+        for (SocketChannel client : open) {
+            client.close();
+        }
+        connections.close();
+
+        if (address instanceof UnixDomainSocketAddress unix) {
+            Files.deleteIfExists(unix.getPath());
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package caesar;
+
+/**
+ * Encrypts a file into another file in fixed-size chunks. Each chunk of the input is memory
+ * mapped and translated into a single reusable direct buffer that is then written to the
+ * output channel, so heap use stays constant no matter how large the input is.
+ * <p>
+ * Input bytes are treated as ISO-8859-1, so ASCII letters are encrypted exactly like
+ * {@code EncryptionMachine.encryptLetter} and everything else is handled by the configured
+ * {@link InvalidCharPolicy}. With a {@link VigenereCipher} the key position runs on from one
+ * chunk to the next, so the chunk size does not change the output.
+ */
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public final class FileEncryptor {
+    /** Default number of bytes mapped and encrypted at a time. */
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+
+    /** The translation table of the fixed-shift cipher, or null with a key. */
+    private final ShiftTable table;
+
+    /** The keyed cipher, or null with a fixed shift. */
+    private final VigenereCipher keyed;
+
+    /** Message used when a byte is rejected. */
+    private final String invalidLetterMessage;
+
+    /** What to do with bytes outside the alphabet. */
+    private final InvalidCharPolicy policy;
+
+    /** Number of bytes mapped and encrypted at a time. */
+    private final int chunkSize;
+
+    /** Byte written in place of invalid bytes under {@link InvalidCharPolicy#REPLACE}. */
+    private final byte replacement;
+
+    /**
+     * Creates a file encryptor that replaces invalid bytes with
+     * {@link InvalidCharPolicy#DEFAULT_REPLACEMENT} under {@link InvalidCharPolicy#REPLACE}.
+     *
+     * @param cipher the cipher to encrypt with
+     * @param policy what to do with bytes outside the alphabet
+     * @param chunkSize the number of bytes mapped and encrypted at a time, must be positive
+     * @throws IllegalArgumentException if the chunk size is not positive
+     */
+    public FileEncryptor(Cipher cipher, InvalidCharPolicy policy, int chunkSize) {
+        this(cipher, policy, chunkSize, (byte) InvalidCharPolicy.DEFAULT_REPLACEMENT);
+    }
+
+    /**
+     * Creates a file encryptor.
+     *
+     * @param cipher the cipher to encrypt with
+     * @param policy what to do with bytes outside the alphabet
+     * @param chunkSize the number of bytes mapped and encrypted at a time, must be positive
+     * @param replacement the byte written in place of invalid bytes under
+     *        {@link InvalidCharPolicy#REPLACE}
+     * @throws IllegalArgumentException if the chunk size is not positive
+     */
+    public FileEncryptor(Cipher cipher, InvalidCharPolicy policy, int chunkSize, byte replacement) {
+        this(cipher.getTable(), null, cipher.getInvalidLetterMessage(), policy, chunkSize, replacement);
+    }
+
+    /**
+     * Creates a file encryptor for a keyed cipher that replaces invalid bytes with
+     * {@link InvalidCharPolicy#DEFAULT_REPLACEMENT} under {@link InvalidCharPolicy#REPLACE}.
+     * Every file starts at the first key letter.
+     *
+     * @param cipher the keyed cipher to encrypt with
+     * @param policy what to do with bytes outside the alphabet
+     * @param chunkSize the number of bytes mapped and encrypted at a time, must be positive
+     * @throws IllegalArgumentException if the chunk size is not positive
+     */
+    public FileEncryptor(VigenereCipher cipher, InvalidCharPolicy policy, int chunkSize) {
+        this(null, cipher, cipher.getInvalidLetterMessage(), policy, chunkSize,
+                (byte) InvalidCharPolicy.DEFAULT_REPLACEMENT);
+    }
+
+    /**
+     * Creates a file encryptor for either a fixed shift or a key.
+     *
+     * @param table the fixed-shift table, or null
+     * @param keyed the keyed cipher, or null
+     * @param invalidLetterMessage the message used when a byte is rejected
+     * @param policy what to do with bytes outside the alphabet
+     * @param chunkSize the number of bytes mapped and encrypted at a time, must be positive
+     * @param replacement the byte written in place of invalid bytes
+     * @throws IllegalArgumentException if the chunk size is not positive
+     */
+    private FileEncryptor(ShiftTable table, VigenereCipher keyed, String invalidLetterMessage,
+            InvalidCharPolicy policy, int chunkSize, byte replacement) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("The chunk size must be positive");
+        }
+        this.table = table;
+        this.keyed = keyed;
+        this.invalidLetterMessage = invalidLetterMessage;
+        this.policy = policy;
+        this.chunkSize = chunkSize;
+        this.replacement = replacement;
+    }
+
+    /**
+     * Encrypts the input file into the output file, replacing the output if it exists. If the
+     * input is rejected by {@link InvalidCharPolicy#REJECT} the partial output is deleted.
+     *
+     * @param input the file to encrypt
+     * @param output the file receiving the encrypted bytes
+     * @return the number of bytes written to the output
+     * @throws IOException if either file cannot be read or written
+     * @throws IllegalArgumentException if the policy is {@link InvalidCharPolicy#REJECT} and
+     *         the input contains a byte outside the alphabet
+     */
+    public long encryptFile(Path input, Path output) throws IOException {
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE,
+                     StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            return encrypt(in, out);
+        } catch (IllegalArgumentException ex) {
+            Files.deleteIfExists(output);
+            throw ex;
+        }
+    }
+
+    /**
+     * Encrypts everything in the input channel into the output channel, one mapped chunk at
+     * a time.
+     *
+     * @param in the channel to read from, starting at position zero
+     * @param out the channel to write to, starting at its current position
+     * @return the number of bytes written to the output
+     * @throws IOException if a channel cannot be mapped, read or written
+     */
+    private long encrypt(FileChannel in, FileChannel out) throws IOException {
+        long size = in.size();
+        ByteBuffer encrypted = ByteBuffer.allocateDirect((int) Math.min(chunkSize, Math.max(size, 1)));
+        long written = 0;
+        VigenereCipher.Cursor cursor = keyed == null ? null : keyed.encryptor();
+
+        for (long position = 0; position < size; position += chunkSize) {
+            long length = Math.min(chunkSize, size - position);
+            MappedByteBuffer chunk = in.map(FileChannel.MapMode.READ_ONLY, position, length);
+
+            encrypted.clear();
+            translateChunk(chunk, encrypted, position, cursor);
+            encrypted.flip();
+
+            while (encrypted.hasRemaining()) {
+                written += out.write(encrypted);
+            }
+        }
+
+        return written;
+    }
+
+    /**
+     * Translates one mapped chunk into the output buffer according to the policy.
+     *
+     * @param chunk the mapped input bytes
+     * @param encrypted the buffer receiving the encrypted bytes, at least as large as the chunk
+     * @param chunkOffset the file offset of the chunk, used in error messages
+     * @param cursor the key position carried over from the previous chunk, or null with a
+     *        fixed shift
+     */
+    private void translateChunk(ByteBuffer chunk, ByteBuffer encrypted, long chunkOffset, VigenereCipher.Cursor cursor) {
+        int length = chunk.remaining();
+        for (int i = 0; i < length; i++) {
+            byte letter = chunk.get(i);
+            int translated = cursor == null ? table.translate(letter) : cursor.translate(letter);
+            if (translated >= 0) {
+                encrypted.put((byte) translated);
+                continue;
+            }
+
+            switch (policy) {
+                case PASS_THROUGH -> encrypted.put(letter);
+                case REPLACE -> encrypted.put(replacement);
+                case SKIP -> {
+                    // Leave the byte out of the output
+                }
+                default -> throw new IllegalArgumentException(invalidLetterMessage
+                        + " (found at byte " + (chunkOffset + i) + ")");
+            }
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package caesar;
+
+/**
+ * Keeps an encrypted copy of a file up to date, encrypting and writing only the chunks of
+ * the input that changed since the last run. Next to the output it keeps a checkpoint with
+ * a 64-bit hash of every fixed-size chunk of the input, made of its CRC-32C and CRC-32,
+ * which the JIT computes with hardware instructions; a chunk whose hash still matches is
+ * left alone in the output, while appended, changed or partial last chunks are encrypted
+ * and written at their own offset. The output is then truncated to the size of the input.
+ * <p>
+ * Splicing chunks in place needs every input byte to map to one output byte, so
+ * {@link InvalidCharPolicy#SKIP} is not supported. Every input chunk is still read and
+ * hashed to find changes anywhere in the file, but that costs a fraction of encrypting and
+ * rewriting the output. The hash detects accidental changes, not deliberate ones. If the
+ * checkpoint is missing, belongs to another cipher, policy or chunk size, or the output does
+ * not have the size it recorded, the whole file is encrypted again.
+ */
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UTFDataFormatException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.CRC32C;
+
+public final class IncrementalEncryptor {
+    /** Suffix appended to the output file name to get its checkpoint. */
+    public static final String CHECKPOINT_SUFFIX = ".ckpt";
+
+    /** Magic number at the start of every checkpoint, "CSRCKPT1" in ASCII. */
+    private static final long MAGIC = 0x435352434B505431L;
+
+
+    /** The cipher used for every byte. */
+    private final Cipher cipher;
+
+    /** What to do with bytes outside the alphabet. */
+    private final InvalidCharPolicy policy;
+
+    /** Number of bytes hashed and encrypted at a time. */
+    private final int chunkSize;
+
+    /**
+     * The outcome of one incremental run.
+     */
+    public static final class Result {
+        /** The size of the input and the output. */
+        private final long size;
+
+        /** The number of chunks in the input. */
+        private final int chunkCount;
+
+        /** The number of chunks that were encrypted and written. */
+        private final int chunksEncrypted;
+
+        /** The number of bytes that were encrypted and written. */
+        private final long bytesEncrypted;
+
+        Result(long size, int chunkCount, int chunksEncrypted, long bytesEncrypted) {
+            this.size = size;
+            this.chunkCount = chunkCount;
+            this.chunksEncrypted = chunksEncrypted;
+            this.bytesEncrypted = bytesEncrypted;
+        }
+
+        /**
+         * Returns the size of the input, which the output now has too.
+         *
+         * @return the size in bytes
+         */
+        public long getSize() {
+            return size;
+        }
+
+        /**
+         * Returns the number of chunks in the input.
+         *
+         * @return the chunk count
+         */
+        public int getChunkCount() {
+            return chunkCount;
+        }
+
+        /**
+         * Returns the number of chunks that were new or changed and so were encrypted.
+         *
+         * @return the number of chunks written to the output
+         */
+        public int getChunksEncrypted() {
+            return chunksEncrypted;
+        }
+
+        /**
+         * Returns the number of bytes that were encrypted.
+         *
+         * @return the number of bytes written to the output
+         */
+        public long getBytesEncrypted() {
+            return bytesEncrypted;
+        }
+    }
+
+    /**
+     * Creates an incremental encryptor.
+     *
+     * @param cipher the cipher to encrypt with
+     * @param policy what to do with bytes outside the alphabet, anything but
+     *        {@link InvalidCharPolicy#SKIP}
+     * @param chunkSize the number of bytes hashed and encrypted at a time, must be positive
+     * @throws IllegalArgumentException if the policy is {@link InvalidCharPolicy#SKIP} or the
+     *         chunk size is not positive
+     */
+    public IncrementalEncryptor(Cipher cipher, InvalidCharPolicy policy, int chunkSize) {
+        if (policy == InvalidCharPolicy.SKIP) {
+            throw new IllegalArgumentException("Incremental encryption needs one output byte per input byte");
+        }
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("The chunk size must be positive");
+        }
+        this.cipher = cipher;
+        this.policy = policy;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Returns the checkpoint kept for an output file.
+     *
+     * @param output the encrypted file
+     * @return the path of its checkpoint, in the same directory
+     */
+    public static Path checkpointPath(Path output) {
+        return output.resolveSibling(output.getFileName() + CHECKPOINT_SUFFIX);
+    }
+
+    /**
+     * Brings the output up to date with the input, encrypting only the chunks that changed
+     * since the checkpoint was written, and writes a new checkpoint. If the input is rejected
+     * by {@link InvalidCharPolicy#REJECT} the output and its checkpoint are deleted.
+     *
+     * @param input the file to encrypt
+     * @param output the file holding the encrypted bytes
+     * @return how much of the input had to be encrypted
+     * @throws IOException if a file cannot be read or written
+     * @throws IllegalArgumentException if the policy is {@link InvalidCharPolicy#REJECT} and
+     *         the input contains a byte outside the alphabet
+     */
+    public Result encryptFile(Path input, Path output) throws IOException {
+        Path checkpoint = checkpointPath(output);
+        long[] previous = readCheckpoint(checkpoint, output);
+
+        CRC32C crc32c = new CRC32C();
+        CRC32 crc32 = new CRC32();
+        byte[] chunk = new byte[chunkSize];
+        byte[] encrypted = new byte[chunkSize];
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            long size = in.size();
+            int chunkCount = (int) ((size + chunkSize - 1) / chunkSize);
+            long[] hashes = new long[chunkCount];
+            int chunksEncrypted = 0;
+            long bytesEncrypted = 0;
+
+            for (int i = 0; i < chunkCount; i++) {
+                long offset = (long) i * chunkSize;
+                int length = (int) Math.min(chunkSize, size - offset);
+                read(in, ByteBuffer.wrap(chunk, 0, length), offset);
+
+                crc32c.reset();
+                crc32c.update(chunk, 0, length);
+                crc32.reset();
+                crc32.update(chunk, 0, length);
+                hashes[i] = crc32c.getValue() << 32 | crc32.getValue();
+                if (i < previous.length && hashes[i] == previous[i]) {
+                    continue;
+                }
+
+                int written = cipher.encryptBytes(chunk, 0, encrypted, 0, length, policy,
+                        (byte) InvalidCharPolicy.DEFAULT_REPLACEMENT);
+                if (written < 0) {
+                    throw new IllegalArgumentException(cipher.getInvalidLetterMessage()
+                            + " (found at byte " + (offset - 1 - written) + ")");
+                }
+                ByteBuffer buffer = ByteBuffer.wrap(encrypted, 0, length);
+                while (buffer.hasRemaining()) {
+                    out.write(buffer, offset + buffer.position());
+                }
+                chunksEncrypted++;
+                bytesEncrypted += length;
+            }
+
+            out.truncate(size);
+            out.force(false);
+            writeCheckpoint(checkpoint, size, hashes);
+            return new Result(size, chunkCount, chunksEncrypted, bytesEncrypted);
+        } catch (IllegalArgumentException ex) {
+            Files.deleteIfExists(output);
+            Files.deleteIfExists(checkpoint);
+            throw ex;
+        }
+    }
+
+    /**
+     * Reads the chunk hashes of a checkpoint if it matches this encryptor and the output.
+     *
+     * @param checkpoint the checkpoint to read
+     * @param output the output it describes
+     * @return the hash of every chunk of the input the output was last encrypted from, or
+     *         no hashes if the checkpoint is missing, malformed or does not match, so
+     *         everything has to be encrypted again
+     * @throws IOException if an existing checkpoint cannot be read
+     */
+    private long[] readCheckpoint(Path checkpoint, Path output) throws IOException {
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(checkpoint))) {
+            if (in.readLong() != MAGIC
+                    || in.readInt() != chunkSize
+                    || !in.readUTF().equals(policy.name())
+                    || in.readInt() != cipher.getShift()
+                    || !in.readUTF().equals(cipher.getRings().toString())) {
+                return new long[0];
+            }
+            long size = in.readLong();
+            if (!Files.isRegularFile(output) || Files.size(output) != size) {
+                return new long[0];
+            }
+
+            // A corrupt count must not size the array, so it has to match the recorded size
+            int count = in.readInt();
+            if (count != (size + chunkSize - 1) / chunkSize) {
+                return new long[0];
+            }
+            long[] hashes = new long[count];
+            for (int i = 0; i < count; i++) {
+                hashes[i] = in.readLong();
+            }
+            return hashes;
+        } catch (NoSuchFileException | EOFException | UTFDataFormatException ex) {
+            return new long[0];
+        }
+    }
+
+    /**
+     * Writes a checkpoint to a temporary file and moves it over the old one in one step.
+     *
+     * @param checkpoint the checkpoint to write
+     * @param size the size of the input
+     * @param hashes the hash of every chunk of the input
+     * @throws IOException if the checkpoint cannot be written
+     */
+    private void writeCheckpoint(Path checkpoint, long size, long[] hashes) throws IOException {
+        Path temp = Files.createTempFile(checkpoint.toAbsolutePath().getParent(), "." + checkpoint.getFileName(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeLong(MAGIC);
+                out.writeInt(chunkSize);
+                out.writeUTF(policy.name());
+                out.writeInt(cipher.getShift());
+                out.writeUTF(cipher.getRings().toString());
+                out.writeLong(size);
+                out.writeInt(hashes.length);
+                for (long hash : hashes) {
+                    out.writeLong(hash);
+                }
+            }
+            Files.move(temp, checkpoint, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Fills a buffer from a channel at the given offset.
+     *
+     * @param in the channel to read from
+     * @param buffer the buffer to fill
+     * @param offset the offset in the channel of the first byte
+     * @throws IOException if the channel cannot be read or ends early
+     */
+    private static void read(FileChannel in, ByteBuffer buffer, long offset) throws IOException {
+        int start = buffer.position();
+        while (buffer.hasRemaining()) {
+            if (in.read(buffer, offset + buffer.position() - start) < 0) {
+                throw new IOException("The file shrank while it was being encrypted");
+            }
+        }
+    }
+}
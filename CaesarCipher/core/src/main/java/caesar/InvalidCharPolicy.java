@@ -0,0 +1,38 @@
+package caesar;
+
+/**
+ * Decides what happens to characters outside the cipher alphabet when encrypting input that
+ * is not guaranteed to be clean, such as log files or text corpora.
+ */
+import java.util.Locale;
+
+public enum InvalidCharPolicy {
+    /**
+     * Refuse the input, the same as {@code encryptLetter}. Throwing entry points throw an
+     * {@link IllegalArgumentException}; exception-free entry points report a status instead.
+     */
+    REJECT,
+
+    /** Copy the character to the output unchanged. */
+    PASS_THROUGH,
+
+    /** Leave the character out of the output. */
+    SKIP,
+
+    /** Write a replacement character, {@link #DEFAULT_REPLACEMENT} unless one is given. */
+    REPLACE;
+
+    /** The replacement character used by {@link #REPLACE} when none is given. */
+    public static final char DEFAULT_REPLACEMENT = '?';
+
+    /**
+     * Parses a policy name as given on the command line, such as {@code pass-through}.
+     *
+     * @param name the policy name, case-insensitive, with dashes or underscores
+     * @return the matching policy
+     * @throws IllegalArgumentException if no policy has that name
+     */
+    public static InvalidCharPolicy fromName(String name) {
+        return InvalidCharPolicy.valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+}
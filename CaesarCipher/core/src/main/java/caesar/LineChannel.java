@@ -0,0 +1,153 @@
+package caesar;
+
+/**
+ * Reads and writes UTF-8 lines over a byte channel through two reusable buffers. It is used
+ * by {@link EncryptionServer} and {@link EncryptionClient} instead of
+ * {@link java.nio.channels.Channels#newReader}, whose stream adapters block while holding a
+ * monitor and so pin the carrier of a virtual thread.
+ * <p>
+ * Lines are limited to {@link #MAX_LINE_LENGTH} bytes, so a peer that never sends a line
+ * feed cannot exhaust the heap. A longer line is skipped up to its line feed and reported
+ * with a {@link LineTooLongException}, after which reading can carry on with the next line.
+ */
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+final class LineChannel {
+    /** The most bytes a line may hold, without its line terminator. */
+    static final int MAX_LINE_LENGTH = 4096;
+
+    /** Capacity of the read and write buffers. */
+    private static final int BUFFER_SIZE = 8192;
+
+    /** The connected channel. */
+    private final ByteChannel channel;
+
+    /** Bytes read from the channel that have not been returned as lines yet, in read mode. */
+    private final ByteBuffer in = ByteBuffer.allocate(BUFFER_SIZE).flip();
+
+    /** Lines written but not yet sent to the channel. */
+    private final ByteBuffer out = ByteBuffer.allocate(BUFFER_SIZE);
+
+    /** The line being assembled, grown up to {@link #MAX_LINE_LENGTH} when a line is longer than it. */
+    private byte[] line = new byte[128];
+
+    /**
+     * Thrown for a line longer than {@link #MAX_LINE_LENGTH} bytes. The line has been skipped,
+     * so the next read returns the line after it.
+     */
+    static final class LineTooLongException extends IOException {
+        /** Serialization version. */
+        private static final long serialVersionUID = 1L;
+
+        LineTooLongException() {
+            super("line too long");
+        }
+    }
+
+    /**
+     * Creates a line reader and writer over a blocking channel.
+     *
+     * @param channel the connected channel
+     */
+    LineChannel(ByteChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Reads the next line, without its line terminator.
+     *
+     * @return the line, or null if the channel reached end of stream
+     * @throws LineTooLongException if the line is longer than {@link #MAX_LINE_LENGTH} bytes
+     * @throws IOException if reading fails
+     */
+    String readLine() throws IOException {
+        int length = 0;
+        boolean tooLong = false;
+        while (true) {
+            while (in.hasRemaining()) {
+                byte b = in.get();
+                if (b == '\n') {
+                    if (length > 0 && line[length - 1] == '\r') {
+                        length--;
+                    }
+                    if (tooLong || length > MAX_LINE_LENGTH) {
+                        throw new LineTooLongException();
+                    }
+                    return new String(line, 0, length, StandardCharsets.UTF_8);
+                }
+                if (tooLong) {
+                    continue;
+                }
+                // Leave room for a trailing carriage return, which is not part of the line
+                if (length == MAX_LINE_LENGTH + 1) {
+                    tooLong = true;
+                    continue;
+                }
+                if (length == line.length) {
+                    line = Arrays.copyOf(line, Math.min(length * 2, MAX_LINE_LENGTH + 1));
+                }
+                line[length++] = b;
+            }
+
+            in.clear();
+            int read = channel.read(in);
+            in.flip();
+            if (read < 0) {
+                if (tooLong || length > MAX_LINE_LENGTH) {
+                    throw new LineTooLongException();
+                }
+                return length > 0 ? new String(line, 0, length, StandardCharsets.UTF_8) : null;
+            }
+        }
+    }
+
+    /**
+     * Returns whether another line has already been received, at least in part, so replies
+     * to pipelined requests can be sent together.
+     *
+     * @return true if unread bytes are buffered
+     */
+    boolean hasBufferedInput() {
+        return in.hasRemaining();
+    }
+
+    /**
+     * Buffers a line followed by a line feed, sending earlier lines first if the buffer is
+     * full.
+     *
+     * @param text the line to write
+     * @throws IOException if writing fails
+     */
+    void writeLine(String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length >= out.remaining()) {
+            flush();
+        }
+        if (bytes.length >= out.capacity()) {
+            ByteBuffer large = ByteBuffer.wrap(bytes);
+            while (large.hasRemaining()) {
+                channel.write(large);
+            }
+        } else {
+            out.put(bytes);
+        }
+        out.put((byte) '\n');
+    }
+
+    /**
+     * Sends every buffered line.
+     *
+     * @throws IOException if writing fails
+     */
+    void flush() throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+        out.clear();
+    }
+}
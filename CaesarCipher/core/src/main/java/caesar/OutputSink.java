@@ -0,0 +1,73 @@
+package caesar;
+
+/**
+ * Destination for the console messages of the encryption machine. The default
+ * {@link #stdout()} sink prints every message straight to {@code System.out}, exactly as the
+ * machine always has; {@link #buffered(Writer)} collects output in a writer and only pushes
+ * it out on {@link #flush()}, which is much cheaper when the output is piped to a file.
+ * <p>
+ * Sinks report write failures as {@link UncheckedIOException}, mirroring how
+ * {@code System.out} never throws checked exceptions.
+ */
+import java.io.BufferedWriter;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+
+public interface OutputSink {
+    /**
+     * Writes a message followed by a line separator.
+     *
+     * @param line the message to write
+     */
+    void writeLine(String line);
+
+    /**
+     * Writes an original word and its encrypted version in the
+     * {@code "word" has been encrypted to: "encrypted"} format, followed by a line separator.
+     *
+     * @param originalWord the original word before encryption
+     * @param encryptedWord the encrypted word
+     */
+    void writeEncryptedWord(String originalWord, String encryptedWord);
+
+    /**
+     * Pushes any buffered output to its destination.
+     */
+    void flush();
+
+    /**
+     * Returns the sink that prints every message to {@code System.out} as soon as it is
+     * written. {@code System.out} is looked up on every call, so redirecting it later is
+     * honored.
+     *
+     * @return the console sink
+     */
+    static OutputSink stdout() {
+        return ConsoleOutputSink.INSTANCE;
+    }
+
+    /**
+     * Returns a sink that writes to the given writer and flushes it only on {@link #flush()}.
+     *
+     * @param writer the destination, ideally buffered
+     * @return a sink writing to {@code writer}
+     */
+    static OutputSink buffered(Writer writer) {
+        return new WriterOutputSink(writer);
+    }
+
+    /**
+     * Returns a sink that buffers output for the given stream in the given charset and
+     * writes it only when the buffer fills up or on {@link #flush()}.
+     *
+     * @param out the destination stream
+     * @param charset the charset used to encode the output
+     * @return a buffered sink writing to {@code out}
+     */
+    static OutputSink buffered(OutputStream out, Charset charset) {
+        return new WriterOutputSink(new BufferedWriter(new OutputStreamWriter(out, charset)));
+    }
+}
@@ -0,0 +1,180 @@
+package caesar;
+
+/**
+ * Encrypts large inputs by splitting them into chunks that are translated concurrently on a
+ * {@link ForkJoinPool}. A Caesar shift is stateless per character, so chunks never need to
+ * coordinate. Inputs shorter than the threshold are encrypted on the calling thread.
+ * <p>
+ * Chunks are split at arbitrary char offsets, so strings for alphabets with supplementary
+ * letters are encrypted on the calling thread with {@link Cipher#encryptWord}, which keeps
+ * surrogate pairs together. The char and byte methods cannot represent such letters and
+ * reject them, like the other bulk methods of {@link Cipher}.
+ */
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+public final class ParallelEncryptor {
+    /** Default number of characters below which a range is encrypted sequentially. */
+    public static final int DEFAULT_THRESHOLD = 1 << 16;
+
+    /** The cipher used for every character. */
+    private final Cipher cipher;
+
+    /** The translation table of {@link #cipher}. */
+    private final ShiftTable table;
+
+    /** The pool the chunks are encrypted on. */
+    private final ForkJoinPool pool;
+
+    /** Number of characters below which a range is not split any further. */
+    private final int threshold;
+
+    /**
+     * Translates one range of the input and reports the first invalid position.
+     */
+    @FunctionalInterface
+    private interface RangeTranslator {
+        /**
+         * Translates a range of the input.
+         *
+         * @param offset the offset of the range relative to the start of the input
+         * @param length the length of the range
+         * @return -1 if every element was translated, otherwise the offset relative to the
+         *         start of the range of the first element outside the alphabet
+         */
+        int translate(int offset, int length);
+    }
+
+    /**
+     * Recursively halves a range until it is below the threshold, then translates it.
+     * Returns the lowest invalid offset in the range, or -1 if there is none.
+     */
+    private static final class ChunkTask extends RecursiveTask<Integer> {
+        /** The translator applied to each leaf range. */
+        private final RangeTranslator translator;
+
+        /** Offset of this task's range relative to the start of the input. */
+        private final int offset;
+
+        /** Length of this task's range. */
+        private final int length;
+
+        /** Length below which the range is translated directly. */
+        private final int threshold;
+
+        ChunkTask(RangeTranslator translator, int offset, int length, int threshold) {
+            this.translator = translator;
+            this.offset = offset;
+            this.length = length;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (length <= threshold) {
+                int invalid = translator.translate(offset, length);
+                return invalid == -1 ? -1 : offset + invalid;
+            }
+
+            int half = length >>> 1;
+            ChunkTask right = new ChunkTask(translator, offset + half, length - half, threshold);
+            right.fork();
+            int leftInvalid = new ChunkTask(translator, offset, half, threshold).compute();
+            int rightInvalid = right.join();
+
+            return leftInvalid != -1 ? leftInvalid : rightInvalid;
+        }
+    }
+
+    /**
+     * Creates a parallel encryptor.
+     *
+     * @param cipher the cipher to encrypt with
+     * @param pool the pool to run chunks on
+     * @param threshold the number of characters below which a range is encrypted on the
+     *        calling thread, must be positive
+     * @throws IllegalArgumentException if the threshold is not positive
+     */
+    public ParallelEncryptor(Cipher cipher, ForkJoinPool pool, int threshold) {
+        if (threshold <= 0) {
+            throw new IllegalArgumentException("The threshold must be positive");
+        }
+        this.cipher = cipher;
+        this.table = cipher.getTable();
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Encrypts a string, splitting it across the pool if it is longer than the threshold
+     * and the alphabet has no supplementary letters.
+     *
+     * @param text the text to encrypt
+     * @return the encrypted text, identical to what {@link Cipher#encryptWord} returns
+     * @throws IllegalArgumentException if the text contains characters outside the alphabet
+     */
+    public String encrypt(String text) {
+        if (table.hasSupplementaryLetters()) {
+            return cipher.encryptWord(text);
+        }
+        char[] chars = text.toCharArray();
+        encrypt(chars, 0, chars, 0, chars.length);
+        return new String(chars);
+    }
+
+    /**
+     * Encrypts a range of characters into a destination array. The ranges may be the same
+     * range of the same array to encrypt in place.
+     *
+     * @param src the array holding the characters to encrypt
+     * @param srcOffset the index of the first character to encrypt
+     * @param dst the array receiving the encrypted characters
+     * @param dstOffset the index in {@code dst} of the first encrypted character
+     * @param length the number of characters to encrypt
+     * @throws IllegalArgumentException if the range contains characters outside the alphabet,
+     *         which includes the surrogates of supplementary letters
+     */
+    public void encrypt(char[] src, int srcOffset, char[] dst, int dstOffset, int length) {
+        Objects.checkFromIndexSize(srcOffset, length, src.length);
+        Objects.checkFromIndexSize(dstOffset, length, dst.length);
+
+        run(length, (offset, chunk) -> table.translate(src, srcOffset + offset, dst, dstOffset + offset, chunk));
+    }
+
+    /**
+     * Encrypts a range of ISO-8859-1 bytes into a destination array. The ranges may be the
+     * same range of the same array to encrypt in place.
+     *
+     * @param src the array holding the bytes to encrypt
+     * @param srcOffset the index of the first byte to encrypt
+     * @param dst the array receiving the encrypted bytes
+     * @param dstOffset the index in {@code dst} of the first encrypted byte
+     * @param length the number of bytes to encrypt
+     * @throws IllegalArgumentException if the range contains bytes outside the alphabet
+     */
+    public void encrypt(byte[] src, int srcOffset, byte[] dst, int dstOffset, int length) {
+        Objects.checkFromIndexSize(srcOffset, length, src.length);
+        Objects.checkFromIndexSize(dstOffset, length, dst.length);
+
+        run(length, (offset, chunk) -> table.translate(src, srcOffset + offset, dst, dstOffset + offset, chunk));
+    }
+
+    /**
+     * Translates the whole input, sequentially when it is below the threshold and on the
+     * pool otherwise.
+     *
+     * @param length the length of the input
+     * @param translator translates one range of the input
+     * @throws IllegalArgumentException if any range contains an element outside the alphabet
+     */
+    private void run(int length, RangeTranslator translator) {
+        int invalid = length <= threshold
+                ? translator.translate(0, length)
+                : pool.invoke(new ChunkTask(translator, 0, length, threshold));
+
+        if (invalid != -1) {
+            throw cipher.invalidLetter();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package caesar;
+
+/**
+ * Converts ciphertext encrypted under one shift into ciphertext under another without ever
+ * producing the plaintext. Shifting by A and then by B - A is the same as shifting by B, and
+ * every ring rotates on its own, so the two ciphers compose into a single cipher over the
+ * same rings whose shift is the difference of theirs. Re-keying is then one table lookup per
+ * letter, exactly as fast as encrypting, instead of a decryption pass followed by an
+ * encryption pass with the plaintext held in between.
+ * <p>
+ * Whole corpora are re-keyed in parallel with a {@link DirectoryEncryptor} running the
+ * composed cipher, with the same atomic outputs, per-file results and progress updates.
+ */
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+public final class Rekeyer {
+    /** The cipher the input was encrypted with. */
+    private final Cipher from;
+
+    /** The cipher the output is encrypted with. */
+    private final Cipher to;
+
+    /** The cipher shifting by the difference of the two shifts. */
+    private final Cipher composed;
+
+    /**
+     * Creates a re-keyer between two ciphers over the same rings.
+     *
+     * @param from the cipher the input was encrypted with
+     * @param to the cipher the output should be encrypted with
+     * @throws IllegalArgumentException if the ciphers do not rotate the same rings, or their
+     *         shifts are too far apart to compose into one shift
+     */
+    public Rekeyer(Cipher from, Cipher to) {
+        if (!from.getRings().equals(to.getRings())) {
+            throw new IllegalArgumentException("Both ciphers must use the same alphabets");
+        }
+        long shift = (long) to.getShift() - from.getShift();
+        if (shift != (int) shift) {
+            throw new IllegalArgumentException("The shifts " + from.getShift() + " and " + to.getShift()
+                    + " are too far apart to compose");
+        }
+        this.from = from;
+        this.to = to;
+        this.composed = from.withShift((int) shift);
+    }
+
+    /**
+     * Returns the cipher the input was encrypted with.
+     *
+     * @return the old cipher
+     */
+    public Cipher getFrom() {
+        return from;
+    }
+
+    /**
+     * Returns the cipher the output is encrypted with.
+     *
+     * @return the new cipher
+     */
+    public Cipher getTo() {
+        return to;
+    }
+
+    /**
+     * Returns the single cipher that turns ciphertext under the old cipher into ciphertext
+     * under the new one.
+     *
+     * @return the composed cipher
+     */
+    public Cipher getComposed() {
+        return composed;
+    }
+
+    /**
+     * Re-keys one encrypted word.
+     *
+     * @param word a word encrypted with the old cipher
+     * @return the same word encrypted with the new cipher
+     * @throws IllegalArgumentException if the word contains characters outside the alphabet
+     */
+    public String rekeyWord(String word) {
+        return composed.encryptWord(word);
+    }
+
+    /**
+     * Re-keys a range of encrypted bytes, treated as ISO-8859-1, in one pass.
+     *
+     * @param src the encrypted bytes
+     * @param srcOffset the index of the first byte to re-key
+     * @param dst the array receiving the re-keyed bytes, which may be {@code src}
+     * @param dstOffset the index of the first byte to write
+     * @param length the number of bytes to re-key
+     * @param policy what to do with bytes outside the alphabet
+     * @param replacement the byte written in place of invalid bytes under
+     *        {@link InvalidCharPolicy#REPLACE}
+     * @return the number of bytes written, or {@code -1 - offset} of the first invalid byte
+     *         under {@link InvalidCharPolicy#REJECT}
+     * @see Cipher#encryptBytes(byte[], int, byte[], int, int, InvalidCharPolicy, byte)
+     */
+    public int rekeyBytes(byte[] src, int srcOffset, byte[] dst, int dstOffset, int length,
+            InvalidCharPolicy policy, byte replacement) {
+        return composed.encryptBytes(src, srcOffset, dst, dstOffset, length, policy, replacement);
+    }
+
+    /**
+     * Re-keys every regular file under a directory tree into the same relative paths under an
+     * output directory, in parallel on the given pool.
+     *
+     * @param input the directory of files encrypted with the old cipher
+     * @param output the directory receiving the files encrypted with the new cipher
+     * @param policy what to do with bytes outside the alphabet
+     * @param pool the pool to run files and chunks on
+     * @param listener the listener receiving progress updates from the worker threads
+     * @return the result of every file and the aggregate timing
+     * @throws IOException if the input cannot be walked or an output directory cannot be
+     *         created; failures of single files are reported in the result instead
+     * @see DirectoryEncryptor#encryptDirectory(Path, Path, DirectoryEncryptor.ProgressListener)
+     */
+    public DirectoryEncryptor.Report rekeyDirectory(Path input, Path output, InvalidCharPolicy policy,
+            ForkJoinPool pool, DirectoryEncryptor.ProgressListener listener) throws IOException {
+        return new DirectoryEncryptor(composed, policy, pool).encryptDirectory(input, output, listener);
+    }
+}
@@ -0,0 +1,296 @@
+package caesar;
+
+/**
+ * Recovers the shift of a Caesar-encrypted text without knowing the key. A single pass over
+ * the ciphertext builds a histogram of alphabet letters, and every candidate shift is then
+ * scored against the expected letter frequencies with a chi-squared statistic, so the text
+ * is never decrypted once per candidate.
+ * <p>
+ * Large files are sampled: at most a configurable number of bytes, spread evenly across the
+ * file, are read through one reusable buffer.
+ */
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Objects;
+
+public final class ShiftCracker {
+    /** Relative frequency of each letter a-z in English text, in percent. */
+    private static final double[] ENGLISH_FREQUENCIES = {
+        8.167, 1.492, 2.782, 4.253, 12.702, 2.228, 2.015, 6.094, 6.966, 0.153, 0.772, 4.025, 2.406,
+        6.749, 7.507, 1.929, 0.095, 5.987, 6.327, 9.056, 2.758, 0.978, 2.360, 0.150, 1.974, 0.074,
+    };
+
+    /** Default number of bytes sampled from a file. */
+    public static final long DEFAULT_SAMPLE_BUDGET = 1 << 20;
+
+    /** Size of each contiguous window read when sampling a file. */
+    private static final int SAMPLE_WINDOW = 1 << 16;
+
+    /** The alphabet the ciphertext was encrypted over. */
+    private final String alphabet;
+
+    /** Expected share of each alphabet letter in the plaintext, summing to one. */
+    private final double[] expected;
+
+    /** Position in the alphabet of every character value up to the highest letter, or -1. */
+    private final int[] letterIndex;
+
+    /**
+     * The outcome of scoring every shift.
+     */
+    public static final class Result {
+        /** The alphabet that was scored. */
+        private final String alphabet;
+
+        /** The chi-squared score of every shift; lower is a better fit. */
+        private final double[] scores;
+
+        /** The number of alphabet letters the scores are based on. */
+        private final long lettersCounted;
+
+        /** The shift with the lowest score. */
+        private final int shift;
+
+        Result(String alphabet, double[] scores, long lettersCounted) {
+            int best = 0;
+            for (int i = 1; i < scores.length; i++) {
+                if (scores[i] < scores[best]) {
+                    best = i;
+                }
+            }
+            this.alphabet = alphabet;
+            this.scores = scores;
+            this.lettersCounted = lettersCounted;
+            this.shift = best;
+        }
+
+        /**
+         * Returns the most likely shift.
+         *
+         * @return the shift with the lowest chi-squared score
+         */
+        public int getShift() {
+            return shift;
+        }
+
+        /**
+         * Returns the chi-squared score of a shift; lower is a better fit.
+         *
+         * @param shift the shift, in the range [0, alphabet length)
+         * @return the score of that shift
+         */
+        public double getScore(int shift) {
+            return scores[shift];
+        }
+
+        /**
+         * Returns how many alphabet letters were counted. Guesses based on only a handful of
+         * letters are unreliable.
+         *
+         * @return the number of letters counted
+         */
+        public long getLettersCounted() {
+            return lettersCounted;
+        }
+
+        /**
+         * Returns a cipher for the most likely shift, ready to decrypt the text.
+         *
+         * @return the recovered cipher
+         */
+        public Cipher getCipher() {
+            return new Cipher(alphabet, shift);
+        }
+    }
+
+    /**
+     * Creates a cracker for the given alphabet and expected letter frequencies.
+     *
+     * @param alphabet the alphabet the ciphertext was encrypted over
+     * @param frequencies the relative frequency of each alphabet letter in the plaintext, in
+     *        any unit
+     * @throws IllegalArgumentException if the alphabet and frequencies differ in length or a
+     *         frequency is not positive
+     */
+    public ShiftCracker(String alphabet, double[] frequencies) {
+        if (alphabet.length() != frequencies.length) {
+            throw new IllegalArgumentException("Expected one frequency per alphabet letter");
+        }
+
+        double total = 0;
+        for (double frequency : frequencies) {
+            if (!(frequency > 0)) {
+                throw new IllegalArgumentException("Letter frequencies must be positive");
+            }
+            total += frequency;
+        }
+
+        double[] expected = new double[frequencies.length];
+        for (int i = 0; i < frequencies.length; i++) {
+            expected[i] = frequencies[i] / total;
+        }
+
+        int highest = 0;
+        for (int i = 0; i < alphabet.length(); i++) {
+            highest = Math.max(highest, alphabet.charAt(i));
+        }
+        int[] letterIndex = new int[highest + 1];
+        Arrays.fill(letterIndex, -1);
+        for (int i = 0; i < alphabet.length(); i++) {
+            letterIndex[alphabet.charAt(i)] = i;
+        }
+
+        this.alphabet = alphabet;
+        this.expected = expected;
+        this.letterIndex = letterIndex;
+    }
+
+    /**
+     * Creates a cracker for lowercase English text encrypted over the standard alphabet.
+     *
+     * @return a cracker for {@link EncryptionMachine#ALPHABET}
+     */
+    public static ShiftCracker english() {
+        return new ShiftCracker(EncryptionMachine.ALPHABET, ENGLISH_FREQUENCIES);
+    }
+
+    /**
+     * Scores every shift for a ciphertext. Characters outside the alphabet are ignored.
+     *
+     * @param ciphertext the encrypted text
+     * @return the scores and the most likely shift
+     */
+    public Result crack(CharSequence ciphertext) {
+        long[] histogram = new long[alphabet.length()];
+        for (int i = 0; i < ciphertext.length(); i++) {
+            count(histogram, ciphertext.charAt(i));
+        }
+        return score(histogram);
+    }
+
+    /**
+     * Scores every shift for a range of ISO-8859-1 ciphertext bytes. Bytes outside the
+     * alphabet are ignored.
+     *
+     * @param ciphertext the array holding the encrypted bytes
+     * @param offset the index of the first byte
+     * @param length the number of bytes
+     * @return the scores and the most likely shift
+     */
+    public Result crack(byte[] ciphertext, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, ciphertext.length);
+
+        long[] histogram = new long[alphabet.length()];
+        for (int i = offset; i < offset + length; i++) {
+            count(histogram, (char) (ciphertext[i] & 0xFF));
+        }
+        return score(histogram);
+    }
+
+    /**
+     * Scores every shift for an encrypted file, reading at most {@code sampleBudget} bytes.
+     * When the file is larger than the budget, equally spaced windows are sampled so the
+     * estimate covers the whole file.
+     *
+     * @param file the encrypted file
+     * @param sampleBudget the maximum number of bytes to read, must be positive
+     * @return the scores and the most likely shift
+     * @throws IOException if the file cannot be read
+     */
+    public Result crack(Path file, long sampleBudget) throws IOException {
+        if (sampleBudget <= 0) {
+            throw new IllegalArgumentException("The sample budget must be positive");
+        }
+
+        long[] histogram = new long[alphabet.length()];
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer window = ByteBuffer.allocateDirect(SAMPLE_WINDOW);
+
+            if (size <= sampleBudget) {
+                sample(channel, 0, size, window, histogram);
+            } else {
+                long windows = Math.max(1, sampleBudget / SAMPLE_WINDOW);
+                long windowSize = Math.min(SAMPLE_WINDOW, sampleBudget);
+                long step = size / windows;
+                for (long i = 0; i < windows; i++) {
+                    sample(channel, i * step, windowSize, window, histogram);
+                }
+            }
+        }
+        return score(histogram);
+    }
+
+    /**
+     * Counts the alphabet letters of one region of a file.
+     *
+     * @param channel the file to read
+     * @param position the offset of the region
+     * @param length the length of the region
+     * @param window the reusable read buffer
+     * @param histogram the letter counts to add to
+     * @throws IOException if the file cannot be read
+     */
+    private void sample(FileChannel channel, long position, long length, ByteBuffer window, long[] histogram)
+            throws IOException {
+        long end = position + length;
+        while (position < end) {
+            window.clear();
+            window.limit((int) Math.min(window.capacity(), end - position));
+            int read = channel.read(window, position);
+            if (read < 0) {
+                return;
+            }
+            for (int i = 0; i < read; i++) {
+                count(histogram, (char) (window.get(i) & 0xFF));
+            }
+            position += read;
+        }
+    }
+
+    /**
+     * Adds one character to the histogram if it is an alphabet letter.
+     *
+     * @param histogram the letter counts
+     * @param c the character
+     */
+    private void count(long[] histogram, char c) {
+        if (c < letterIndex.length && letterIndex[c] >= 0) {
+            histogram[letterIndex[c]]++;
+        }
+    }
+
+    /**
+     * Computes the chi-squared score of every shift from the ciphertext letter counts.
+     *
+     * @param histogram the number of times each alphabet letter occurs in the ciphertext
+     * @return the scores and the most likely shift
+     */
+    private Result score(long[] histogram) {
+        int size = histogram.length;
+        long total = 0;
+        for (long count : histogram) {
+            total += count;
+        }
+
+        double[] scores = new double[size];
+        if (total > 0) {
+            for (int shift = 0; shift < size; shift++) {
+                double chiSquared = 0;
+                for (int c = 0; c < size; c++) {
+                    // Ciphertext letter c came from plaintext letter c - shift
+                    double expectedCount = total * expected[Math.floorMod(c - shift, size)];
+                    double difference = histogram[c] - expectedCount;
+                    chiSquared += difference * difference / expectedCount;
+                }
+                scores[shift] = chiSquared;
+            }
+        }
+
+        return new Result(alphabet, scores, total);
+    }
+}
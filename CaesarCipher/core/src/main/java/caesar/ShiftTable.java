@@ -0,0 +1,433 @@
+package caesar;
+
+/**
+ * A precomputed translation table for a Caesar shift over a fixed alphabet. The table is
+ * indexed directly by character value, so encrypting a letter is a single bounds check and
+ * array load instead of a linear search through the alphabet followed by a modulo.
+ * <p>
+ * An alphabet can be made of several rings that each rotate on their own, for example
+ * lowercase letters, uppercase letters and digits, so case and character class are kept.
+ * Letters may be any Unicode code points, including supplementary characters. The direct
+ * table only covers code points below {@link #DIRECT_LIMIT}, which includes Latin-1 and
+ * therefore the ASCII fast path. Other BMP letters live in 256-entry pages that are only
+ * allocated where the alphabet has letters, so a few CJK letters do not cost a table of tens
+ * of thousands of entries. Supplementary letters are kept in a sorted array and found by
+ * binary search.
+ */
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public final class ShiftTable {
+    /** Marker returned by {@link #translate(char)} for characters outside the alphabet. */
+    public static final char INVALID = '\uFFFF';
+
+    /** Code points below this value are translated through the direct table. */
+    public static final int DIRECT_LIMIT = 0x800;
+
+    /** Number of chars covered by one page of the sparse table. */
+    private static final int PAGE_SIZE = 256;
+
+    /** Number of pages covering the BMP. */
+    private static final int PAGE_COUNT = (Character.MAX_VALUE + 1) / PAGE_SIZE;
+
+    /** The rings this table was built from. */
+    private final List<String> rings;
+
+    /** All rings concatenated. */
+    private final String alphabet;
+
+    /** The normalized shift, in the range [0, least common multiple of the ring lengths). */
+    private final int shift;
+
+    /** Encrypted character for every character value up to the highest direct letter. */
+    private final char[] table;
+
+    /** Encrypted byte for every unsigned byte value, or -1 if it has no single-byte translation. */
+    private final short[] byteTable;
+
+    /** Encrypted character of BMP letters above the direct table, in pages of 256 by high byte; null if there are none. */
+    private final char[][] pages;
+
+    /** Letters that are supplementary or have a supplementary translation, sorted. */
+    private final int[] wideLetters;
+
+    /** Encrypted code point of each letter in {@link #wideLetters}. */
+    private final int[] wideEncrypted;
+
+    /** Whether any letter is a supplementary character and so needs two chars. */
+    private final boolean supplementary;
+
+    /**
+     * Builds the translation table for the given alphabet and shift.
+     *
+     * @param alphabet the characters to rotate through, in order and without duplicates
+     * @param shift the number of positions to shift each character, may be negative
+     * @throws IllegalArgumentException if the alphabet is empty, contains duplicates or
+     *         contains the {@link #INVALID} marker
+     */
+    public ShiftTable(String alphabet, int shift) {
+        this(List.of(alphabet), shift);
+    }
+
+    /**
+     * Builds the translation table for several rings rotated by the same shift. Every letter
+     * is shifted within its own ring, so with the rings a-z and A-Z the shift 3 turns
+     * {@code 'y'} into {@code 'b'} and {@code 'Y'} into {@code 'B'}. A ring holding a single
+     * letter, such as a space, maps that letter to itself.
+     *
+     * @param rings the code points of each ring, in order; no code point may appear twice
+     * @param shift the number of positions to shift each letter, may be negative
+     * @throws IllegalArgumentException if there are no rings, a ring is empty, a letter
+     *         appears more than once, or a letter is the {@link #INVALID} marker or a lone
+     *         surrogate
+     */
+    public ShiftTable(List<String> rings, int shift) {
+        if (rings.isEmpty()) {
+            throw new IllegalArgumentException("The alphabet must contain at least one letter");
+        }
+
+        int[][] letters = new int[rings.size()][];
+        int highestDirect = 0;
+        int letterCount = 0;
+        long period = 1;
+        for (int r = 0; r < letters.length; r++) {
+            letters[r] = ShiftTable.codePoints(rings.get(r));
+            if (letters[r].length == 0) {
+                throw new IllegalArgumentException("The alphabet must contain at least one letter");
+            }
+            for (int letter : letters[r]) {
+                if (letter == INVALID) {
+                    throw new IllegalArgumentException("The alphabet may not contain U+FFFF");
+                }
+                if (letter <= Character.MAX_VALUE && Character.isSurrogate((char) letter)) {
+                    throw new IllegalArgumentException("The alphabet may not contain lone surrogates");
+                }
+                if (letter < DIRECT_LIMIT) {
+                    highestDirect = Math.max(highestDirect, letter);
+                }
+            }
+            letterCount += letters[r].length;
+            period = lcm(period, letters[r].length);
+        }
+
+        char[] table = new char[highestDirect + 1];
+        Arrays.fill(table, INVALID);
+        int[] wideLetters = new int[letterCount];
+        int[] wideEncrypted = new int[letterCount];
+        int wide = 0;
+        boolean supplementary = false;
+        char[][] pages = null;
+        Set<Integer> seen = new HashSet<>();
+
+        for (int[] ring : letters) {
+            int length = ring.length;
+            int ringShift = Math.floorMod(shift, length);
+            for (int i = 0; i < length; i++) {
+                int letter = ring[i];
+                if (!seen.add(letter)) {
+                    throw new IllegalArgumentException(
+                            "The alphabet contains '" + Character.toString(letter) + "' more than once");
+                }
+                // Stay within the bounds of the given ring
+                int encrypted = ring[(i + ringShift) % length];
+                supplementary |= Character.isSupplementaryCodePoint(letter);
+
+                if (encrypted > Character.MAX_VALUE || letter > Character.MAX_VALUE) {
+                    // Pairs that need a code point on either side
+                    wideLetters[wide] = letter;
+                    wideEncrypted[wide++] = encrypted;
+                } else if (letter < DIRECT_LIMIT) {
+                    table[letter] = (char) encrypted;
+                } else {
+                    if (pages == null) {
+                        pages = new char[PAGE_COUNT][];
+                    }
+                    char[] page = pages[letter >>> 8];
+                    if (page == null) {
+                        page = pages[letter >>> 8] = new char[PAGE_SIZE];
+                        Arrays.fill(page, INVALID);
+                    }
+                    page[letter & 0xFF] = (char) encrypted;
+                }
+            }
+        }
+        wideLetters = Arrays.copyOf(wideLetters, wide);
+        wideEncrypted = Arrays.copyOf(wideEncrypted, wide);
+        sortWideLetters(wideLetters, wideEncrypted);
+
+        // Bytes are treated as ISO-8859-1, so ASCII input maps onto the same letters
+        short[] byteTable = new short[256];
+        for (int b = 0; b < byteTable.length; b++) {
+            char encrypted = b < table.length ? table[b] : INVALID;
+            byteTable[b] = encrypted < byteTable.length ? (short) encrypted : -1;
+        }
+
+        this.rings = List.copyOf(rings);
+        this.alphabet = String.join("", rings);
+        // Shifting by the period returns every ring to where it started
+        this.shift = period <= Integer.MAX_VALUE ? (int) Math.floorMod(shift, period) : shift;
+        this.table = table;
+        this.byteTable = byteTable;
+        this.pages = pages;
+        this.wideLetters = wideLetters;
+        this.wideEncrypted = wideEncrypted;
+        this.supplementary = supplementary;
+    }
+
+    /**
+     * Returns the code points of a string. A plain loop instead of
+     * {@code String.codePoints().toArray()}, which would spin up the stream and lambda
+     * machinery while the first table is built and add to the startup of one-off runs.
+     *
+     * @param letters the string
+     * @return its code points, in order
+     */
+    static int[] codePoints(String letters) {
+        int[] codePoints = new int[letters.codePointCount(0, letters.length())];
+        for (int i = 0, c = 0; i < letters.length(); c++) {
+            codePoints[c] = letters.codePointAt(i);
+            i += Character.charCount(codePoints[c]);
+        }
+        return codePoints;
+    }
+
+    /**
+     * Returns the least common multiple of two positive numbers.
+     *
+     * @param a the first number
+     * @param b the second number
+     * @return the least common multiple, saturated at {@link Long#MAX_VALUE}
+     */
+    private static long lcm(long a, long b) {
+        long gcd = a;
+        for (long rest = b; rest != 0; ) {
+            long next = gcd % rest;
+            gcd = rest;
+            rest = next;
+        }
+        long quotient = a / gcd;
+        return quotient > Long.MAX_VALUE / b ? Long.MAX_VALUE : quotient * b;
+    }
+
+    /**
+     * Sorts the wide letters, keeping each translation next to its letter.
+     *
+     * @param letters the wide letters
+     * @param encrypted the translation of each letter, reordered along with it
+     */
+    private static void sortWideLetters(int[] letters, int[] encrypted) {
+        // Pack each pair into one long so a single primitive sort keeps them together
+        long[] pairs = new long[letters.length];
+        for (int i = 0; i < letters.length; i++) {
+            pairs[i] = (long) letters[i] << 32 | encrypted[i];
+        }
+        Arrays.sort(pairs);
+        for (int i = 0; i < pairs.length; i++) {
+            letters[i] = (int) (pairs[i] >>> 32);
+            encrypted[i] = (int) pairs[i];
+        }
+    }
+
+    /**
+     * Translates a single character through the table.
+     *
+     * @param letter the character to encrypt
+     * @return the encrypted character, or {@link #INVALID} if the letter is not in the
+     *         alphabet or is part of a supplementary letter
+     */
+    public char translate(char letter) {
+        return letter < table.length ? table[letter] : translateWide(letter);
+    }
+
+    /**
+     * Translates a character above the direct table.
+     *
+     * @param letter the character to encrypt
+     * @return the encrypted character, or {@link #INVALID}
+     */
+    private char translateWide(char letter) {
+        if (pages == null) {
+            return INVALID;
+        }
+        char[] page = pages[letter >>> 8];
+        return page == null ? INVALID : page[letter & 0xFF];
+    }
+
+    /**
+     * Translates a single code point through the table, including supplementary letters.
+     *
+     * @param codePoint the code point to encrypt
+     * @return the encrypted code point, or -1 if it is not in the alphabet
+     */
+    public int translateCodePoint(int codePoint) {
+        if (codePoint >= 0 && codePoint <= Character.MAX_VALUE) {
+            char encrypted = translate((char) codePoint);
+            if (encrypted != INVALID || !supplementary) {
+                return encrypted == INVALID ? -1 : encrypted;
+            }
+        }
+        int index = Arrays.binarySearch(wideLetters, codePoint);
+        return index >= 0 ? wideEncrypted[index] : -1;
+    }
+
+    /**
+     * Returns whether the alphabet has supplementary letters, which the char-based methods
+     * cannot translate and which need {@link #translateCodePoint(int)}.
+     *
+     * @return true if any letter is above U+FFFF
+     */
+    public boolean hasSupplementaryLetters() {
+        return supplementary;
+    }
+
+    /**
+     * Translates a single ISO-8859-1 byte through the table.
+     *
+     * @param letter the byte to encrypt
+     * @return the encrypted byte as an unsigned value, or -1 if the byte has no single-byte
+     *         translation
+     */
+    public int translate(byte letter) {
+        return byteTable[letter & 0xFF];
+    }
+
+    /**
+     * Translates a range of characters into a destination array. The ranges may be the same
+     * range of the same array to translate in place.
+     *
+     * @param src the characters to encrypt
+     * @param srcOffset the index of the first character to encrypt
+     * @param dst the array receiving the encrypted characters
+     * @param dstOffset the index in {@code dst} of the first encrypted character
+     * @param length the number of characters to encrypt
+     * @return -1 if every character was translated, otherwise the position relative to
+     *         {@code srcOffset} of the first character outside the alphabet; characters
+     *         before it have already been written
+     */
+    public int translate(char[] src, int srcOffset, char[] dst, int dstOffset, int length) {
+        char[] table = this.table;
+        for (int i = 0; i < length; i++) {
+            char letter = src[srcOffset + i];
+            char encrypted = letter < table.length ? table[letter] : translateWide(letter);
+            if (encrypted == INVALID) {
+                return i;
+            }
+            dst[dstOffset + i] = encrypted;
+        }
+        return -1;
+    }
+
+    /**
+     * Translates a range of ISO-8859-1 (and therefore ASCII) bytes into a destination array.
+     * The ranges may be the same range of the same array to translate in place.
+     *
+     * @param src the bytes to encrypt
+     * @param srcOffset the index of the first byte to encrypt
+     * @param dst the array receiving the encrypted bytes
+     * @param dstOffset the index in {@code dst} of the first encrypted byte
+     * @param length the number of bytes to encrypt
+     * @return -1 if every byte was translated, otherwise the position relative to
+     *         {@code srcOffset} of the first byte without a single-byte translation; bytes
+     *         before it have already been written
+     */
+    public int translate(byte[] src, int srcOffset, byte[] dst, int dstOffset, int length) {
+        short[] byteTable = this.byteTable;
+        for (int i = 0; i < length; i++) {
+            int encrypted = byteTable[src[srcOffset + i] & 0xFF];
+            if (encrypted < 0) {
+                return i;
+            }
+            dst[dstOffset + i] = (byte) encrypted;
+        }
+        return -1;
+    }
+
+    /**
+     * Translates the remaining characters of one buffer into another, using the backing
+     * arrays directly when both buffers have them. Buffer positions are not modified.
+     *
+     * @param src the characters to encrypt, from its position to its limit
+     * @param dst the buffer receiving the encrypted characters, starting at its position
+     * @return -1 if every character was translated, otherwise the position relative to
+     *         {@code src.position()} of the first character outside the alphabet
+     */
+    public int translate(CharBuffer src, CharBuffer dst) {
+        int length = src.remaining();
+        if (src.hasArray() && dst.hasArray()) {
+            return translate(src.array(), src.arrayOffset() + src.position(),
+                    dst.array(), dst.arrayOffset() + dst.position(), length);
+        }
+
+        int srcPosition = src.position();
+        int dstPosition = dst.position();
+        for (int i = 0; i < length; i++) {
+            char encrypted = translate(src.get(srcPosition + i));
+            if (encrypted == INVALID) {
+                return i;
+            }
+            dst.put(dstPosition + i, encrypted);
+        }
+        return -1;
+    }
+
+    /**
+     * Translates the remaining ISO-8859-1 bytes of one buffer into another, using the backing
+     * arrays directly when both buffers have them. Buffer positions are not modified.
+     *
+     * @param src the bytes to encrypt, from its position to its limit
+     * @param dst the buffer receiving the encrypted bytes, starting at its position
+     * @return -1 if every byte was translated, otherwise the position relative to
+     *         {@code src.position()} of the first byte without a single-byte translation
+     */
+    public int translate(ByteBuffer src, ByteBuffer dst) {
+        int length = src.remaining();
+        if (src.hasArray() && dst.hasArray()) {
+            return translate(src.array(), src.arrayOffset() + src.position(),
+                    dst.array(), dst.arrayOffset() + dst.position(), length);
+        }
+
+        short[] byteTable = this.byteTable;
+        int srcPosition = src.position();
+        int dstPosition = dst.position();
+        for (int i = 0; i < length; i++) {
+            int encrypted = byteTable[src.get(srcPosition + i) & 0xFF];
+            if (encrypted < 0) {
+                return i;
+            }
+            dst.put(dstPosition + i, (byte) encrypted);
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the alphabet this table was built from, with all rings concatenated.
+     *
+     * @return the alphabet
+     */
+    public String getAlphabet() {
+        return alphabet;
+    }
+
+    /**
+     * Returns the rings this table was built from.
+     *
+     * @return the rings, unmodifiable
+     */
+    public List<String> getRings() {
+        return rings;
+    }
+
+    /**
+     * Returns the shift applied by this table, normalized to the range [0, alphabet length)
+     * for a single ring, or to the least common multiple of the ring lengths for several.
+     *
+     * @return the normalized shift
+     */
+    public int getShift() {
+        return shift;
+    }
+}
@@ -0,0 +1,97 @@
+package caesar;
+
+/**
+ * Encrypts ASCII byte ranges a whole vector of lanes at a time using the incubating Vector
+ * API ({@code jdk.incubator.vector}). The vector path is only used when the module is
+ * present at runtime (for example with {@code --add-modules jdk.incubator.vector}) and the
+ * alphabet is a contiguous ASCII range such as a-z; otherwise, and for the tail of every
+ * range, the scalar {@link ShiftTable} path is used.
+ */
+import java.util.Objects;
+
+public final class VectorEncryptor {
+    /** Whether the Vector API module was resolved when the JVM started. */
+    private static final boolean VECTOR_API_AVAILABLE =
+            ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    /** The cipher providing the alphabet, shift and rejection message. */
+    private final Cipher cipher;
+
+    /** The scalar translation table, used for fallbacks and tails. */
+    private final ShiftTable table;
+
+    /** The vector kernel, or {@code null} if the vector path cannot be used. */
+    private final VectorKernel kernel;
+
+    /**
+     * Creates a vector encryptor for the given cipher.
+     *
+     * @param cipher the cipher to encrypt with
+     */
+    public VectorEncryptor(Cipher cipher) {
+        this.cipher = cipher;
+        this.table = cipher.getTable();
+        this.kernel = VECTOR_API_AVAILABLE && table.getRings().size() == 1 && isContiguousAscii(table.getAlphabet())
+                ? new VectorKernel(table.getAlphabet().charAt(0), table.getAlphabet().length(), table.getShift())
+                : null;
+    }
+
+    /**
+     * Returns whether the Vector API module is available in this JVM.
+     *
+     * @return {@code true} if {@code jdk.incubator.vector} was resolved at startup
+     */
+    public static boolean isVectorApiAvailable() {
+        return VECTOR_API_AVAILABLE;
+    }
+
+    /**
+     * Returns whether this encryptor uses the vector path.
+     *
+     * @return {@code true} if the Vector API is available and the alphabet is a contiguous
+     *         ASCII range
+     */
+    public boolean isVectorized() {
+        return kernel != null;
+    }
+
+    /**
+     * Encrypts a range of ASCII bytes into a destination array. The ranges may be the same
+     * range of the same array to encrypt in place.
+     *
+     * @param src the array holding the bytes to encrypt
+     * @param srcOffset the index of the first byte to encrypt
+     * @param dst the array receiving the encrypted bytes
+     * @param dstOffset the index in {@code dst} of the first encrypted byte
+     * @param length the number of bytes to encrypt
+     * @throws IllegalArgumentException if the range contains bytes outside the alphabet;
+     *         bytes before the first invalid one are left encrypted
+     */
+    public void encrypt(byte[] src, int srcOffset, byte[] dst, int dstOffset, int length) {
+        Objects.checkFromIndexSize(srcOffset, length, src.length);
+        Objects.checkFromIndexSize(dstOffset, length, dst.length);
+
+        int done = kernel == null ? 0 : kernel.translate(src, srcOffset, dst, dstOffset, length);
+
+        // The scalar table finishes the tail, or the block where the kernel saw an invalid byte
+        if (table.translate(src, srcOffset + done, dst, dstOffset + done, length - done) != -1) {
+            throw cipher.invalidLetter();
+        }
+    }
+
+    /**
+     * Checks whether the alphabet is a run of consecutive ASCII characters.
+     *
+     * @param alphabet the alphabet to check
+     * @return {@code true} if every letter follows the previous one and all are ASCII
+     */
+    private static boolean isContiguousAscii(String alphabet) {
+        char first = alphabet.charAt(0);
+        for (int i = 1; i < alphabet.length(); i++) {
+            if (alphabet.charAt(i) != first + i) {
+                return false;
+            }
+        }
+        return first + alphabet.length() <= 128;
+    }
+}
@@ -0,0 +1,69 @@
+package caesar;
+
+/**
+ * The Vector API loop behind {@link VectorEncryptor}. It is kept in its own class so that
+ * {@code jdk.incubator.vector} types are only loaded once the module is known to be present.
+ */
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+final class VectorKernel {
+    /** The widest byte vector shape the hardware supports. */
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+
+    /** The first letter of the contiguous alphabet. */
+    private final byte first;
+
+    /** The number of letters in the alphabet. */
+    private final byte size;
+
+    /** The normalized shift. */
+    private final byte shift;
+
+    /**
+     * Creates a kernel for the contiguous ASCII alphabet starting at {@code first}.
+     *
+     * @param first the first letter of the alphabet
+     * @param size the number of letters, such that {@code first + size <= 128}
+     * @param shift the normalized shift, in the range [0, size)
+     */
+    VectorKernel(char first, int size, int shift) {
+        this.first = (byte) first;
+        this.size = (byte) size;
+        this.shift = (byte) shift;
+    }
+
+    /**
+     * Translates whole vectors of the range until fewer than one vector of bytes is left or
+     * a vector contains a byte outside the alphabet.
+     *
+     * @param src the array holding the bytes to encrypt
+     * @param srcOffset the index of the first byte to encrypt
+     * @param dst the array receiving the encrypted bytes
+     * @param dstOffset the index in {@code dst} of the first encrypted byte
+     * @param length the number of bytes to encrypt
+     * @return the number of leading bytes translated; the rest must be handled by the caller
+     */
+    int translate(byte[] src, int srcOffset, byte[] dst, int dstOffset, int length) {
+        int upperBound = SPECIES.loopBound(length);
+        int i = 0;
+
+        for (; i < upperBound; i += SPECIES.length()) {
+            // Bytes wrap modulo 256, so one unsigned compare checks both ends of the range
+            ByteVector index = ByteVector.fromArray(SPECIES, src, srcOffset + i).sub(first);
+            VectorMask<Byte> valid = index.compare(VectorOperators.UNSIGNED_LT, size);
+            if (!valid.allTrue()) {
+                break;
+            }
+
+            // Stay within the bounds of the given alphabet
+            ByteVector shifted = index.add(shift);
+            shifted = shifted.sub(size, shifted.compare(VectorOperators.UNSIGNED_GE, size));
+            shifted.add(first).intoArray(dst, dstOffset + i);
+        }
+
+        return i;
+    }
+}
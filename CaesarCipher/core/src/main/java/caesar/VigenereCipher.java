@@ -0,0 +1,493 @@
+package caesar;
+
+/**
+ * An immutable Vigenère cipher: a Caesar shift that changes from letter to letter, following
+ * the letters of a key. Each key letter shifts by its index within its own ring, so with the
+ * key {@code "abc"} over a-z the first letter of the text is shifted by 0, the second by 1,
+ * the third by 2, and then the key starts over. Characters outside the alphabet that are
+ * passed through, replaced or skipped do not use up a key letter.
+ * <p>
+ * The key schedule is built once at construction: one {@link ShiftTable} per distinct shift,
+ * and for letters in the direct table a flat table holding the translation of every distinct
+ * shift and character, plus the index of each key position's shift, so a letter costs two
+ * array loads and a position increment. A key can hold at most as many distinct shifts as
+ * its longest ring has letters, so the flat tables stop growing at about 39 KB for a-z,
+ * counting both directions, however long the key is; each further key letter costs only
+ * 8 bytes of indexes.
+ * <p>
+ * Text that arrives in chunks is encrypted with a {@link Cursor}, which carries the key
+ * position from one chunk to the next, so the chunks encrypt exactly like the whole text.
+ */
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+public final class VigenereCipher {
+    /** Number of entries per key position in the byte schedule. */
+    private static final int BYTE_WIDTH = 256;
+
+    /** The rings the letters rotate through. */
+    private final List<String> rings;
+
+    /** The key the shifts were taken from. */
+    private final String key;
+
+    /** The schedule of shifts by key letter. */
+    private final Schedule encryption;
+
+    /** The schedule of opposite shifts, used to decrypt. */
+    private final Schedule decryption;
+
+    /** Message used when a character outside the alphabet is encountered. */
+    private final String invalidLetterMessage;
+
+    /**
+     * The translation tables of every distinct shift and the shift used at each key position.
+     */
+    private static final class Schedule {
+        /** The translation table of each distinct shift, in order of first use in the key. */
+        final ShiftTable[] tables;
+
+        /** Index into {@link #tables} of the shift at each key position. */
+        final int[] slots;
+
+        /** Entries per table in {@link #chars}: one past the highest direct letter. */
+        final int width;
+
+        /** Translation of character {@code c} by table {@code t} at {@code t * width + c}. */
+        final char[] chars;
+
+        /** Translation of unsigned byte {@code b} by table {@code t} at {@code t * 256 + b}, or -1. */
+        final short[] bytes;
+
+        /**
+         * Builds one table per distinct shift and maps every key position to its table.
+         *
+         * @param rings the rings of the alphabet
+         * @param shifts the shift of each key position
+         * @param width one past the highest letter below {@link ShiftTable#DIRECT_LIMIT}
+         */
+        Schedule(List<String> rings, int[] shifts, int width) {
+            // Keys often repeat letters, and equal shifts share a table
+            Map<Integer, Integer> byShift = new HashMap<>();
+            this.slots = new int[shifts.length];
+            for (int p = 0; p < shifts.length; p++) {
+                slots[p] = byShift.computeIfAbsent(shifts[p], shift -> byShift.size());
+            }
+
+            this.tables = new ShiftTable[byShift.size()];
+            this.width = width;
+            this.chars = new char[tables.length * width];
+            this.bytes = new short[tables.length * BYTE_WIDTH];
+            for (Map.Entry<Integer, Integer> entry : byShift.entrySet()) {
+                int t = entry.getValue();
+                ShiftTable table = new ShiftTable(rings, entry.getKey());
+                tables[t] = table;
+                for (int c = 0; c < width; c++) {
+                    chars[t * width + c] = table.translate((char) c);
+                }
+                for (int b = 0; b < BYTE_WIDTH; b++) {
+                    bytes[t * BYTE_WIDTH + b] = (short) table.translate((byte) b);
+                }
+            }
+        }
+    }
+
+    /**
+     * A position in the key, advanced by every letter translated through it. A cursor is not
+     * thread-safe; each stream of chunks needs its own.
+     */
+    public final class Cursor {
+        /** The schedule translated with. */
+        private final Schedule schedule;
+
+        /** The key position of the next letter. */
+        private int position;
+
+        /**
+         * Creates a cursor.
+         *
+         * @param schedule the schedule to translate with
+         * @param position the key position of the first letter
+         */
+        private Cursor(Schedule schedule, int position) {
+            this.schedule = schedule;
+            this.position = position;
+        }
+
+        /**
+         * Returns the key position the next letter will be translated at.
+         *
+         * @return the key position, in the range [0, key length)
+         */
+        public int getPosition() {
+            return position;
+        }
+
+        /**
+         * Translates a word that continues the text translated so far.
+         *
+         * @param word the word to translate, containing only letters from the alphabet
+         * @return the translated word
+         * @throws IllegalArgumentException if the word contains characters outside the
+         *         alphabet, in which case the position is not advanced
+         */
+        public String translateWord(String word) {
+            Schedule schedule = this.schedule;
+            char[] chars = schedule.chars;
+            int[] slots = schedule.slots;
+            int width = schedule.width;
+            int period = slots.length;
+            int length = word.length();
+            char[] translated = new char[length];
+
+            int position = this.position;
+            for (int i = 0; i < length; i++) {
+                char letter = word.charAt(i);
+                char c = letter < width ? chars[slots[position] * width + letter] : ShiftTable.INVALID;
+                if (c == ShiftTable.INVALID) {
+                    return translateCodePoints(word, i, translated, position);
+                }
+                translated[i] = c;
+                if (++position == period) {
+                    position = 0;
+                }
+            }
+
+            this.position = position;
+            return new String(translated);
+        }
+
+        /**
+         * Finishes translating a word one code point at a time, for letters above the direct
+         * table and supplementary letters.
+         *
+         * @param word the word being translated
+         * @param from the index of the first char not yet translated
+         * @param prefix the translation of the chars before {@code from}
+         * @param position the key position of the char at {@code from}
+         * @return the translated word
+         * @throws IllegalArgumentException if a character is outside the alphabet
+         */
+        private String translateCodePoints(String word, int from, char[] prefix, int position) {
+            ShiftTable[] tables = schedule.tables;
+            int[] slots = schedule.slots;
+            StringBuilder translated = new StringBuilder(word.length()).append(prefix, 0, from);
+            for (int i = from; i < word.length(); ) {
+                int codePoint = word.codePointAt(i);
+                int c = tables[slots[position]].translateCodePoint(codePoint);
+                if (c < 0) {
+                    throw invalidLetter();
+                }
+                translated.appendCodePoint(c);
+                position = position + 1 == slots.length ? 0 : position + 1;
+                i += Character.charCount(codePoint);
+            }
+
+            this.position = position;
+            return translated.toString();
+        }
+
+        /**
+         * Translates a single ISO-8859-1 byte, advancing the position if it is a letter.
+         *
+         * @param letter the byte to translate
+         * @return the translated byte as an unsigned value, or -1 if the byte has no
+         *         single-byte translation
+         */
+        public int translate(byte letter) {
+            int translated = schedule.bytes[schedule.slots[position] * BYTE_WIDTH + (letter & 0xFF)];
+            if (translated >= 0 && ++position == schedule.slots.length) {
+                position = 0;
+            }
+            return translated;
+        }
+
+        /**
+         * Translates a range of characters into a destination array without allocating or
+         * throwing, like {@link Cipher#encryptChars(char[], int, char[], int, int, InvalidCharPolicy, char)}.
+         * Supplementary letters are outside the reach of the char methods and count as
+         * invalid.
+         *
+         * @param src the array holding the characters to translate
+         * @param srcOffset the index of the first character to translate
+         * @param dst the array receiving the translated characters
+         * @param dstOffset the index in {@code dst} of the first translated character
+         * @param length the number of characters to translate
+         * @param policy what to do with characters outside the alphabet
+         * @param replacement the character written in place of invalid ones under
+         *        {@link InvalidCharPolicy#REPLACE}
+         * @return the number of characters written to {@code dst}, or {@code -1 - offset}
+         *         where {@code offset} is the position relative to {@code srcOffset} of the
+         *         first invalid character if the policy is {@link InvalidCharPolicy#REJECT}, in
+         *         which case the characters before it may already have been written but the
+         *         position is not advanced
+         */
+        public int translateChars(char[] src, int srcOffset, char[] dst, int dstOffset, int length,
+                InvalidCharPolicy policy, char replacement) {
+            Objects.checkFromIndexSize(srcOffset, length, src.length);
+            Objects.checkFromIndexSize(dstOffset, length, dst.length);
+
+            Schedule schedule = this.schedule;
+            char[] chars = schedule.chars;
+            int[] slots = schedule.slots;
+            int width = schedule.width;
+            int period = slots.length;
+
+            int position = this.position;
+            int written = 0;
+            for (int i = 0; i < length; i++) {
+                char letter = src[srcOffset + i];
+                int slot = slots[position];
+                char c = letter < width ? chars[slot * width + letter] : schedule.tables[slot].translate(letter);
+                if (c != ShiftTable.INVALID) {
+                    dst[dstOffset + written++] = c;
+                    if (++position == period) {
+                        position = 0;
+                    }
+                } else if (policy == InvalidCharPolicy.REJECT) {
+                    return -1 - i;
+                } else if (policy == InvalidCharPolicy.PASS_THROUGH) {
+                    dst[dstOffset + written++] = letter;
+                } else if (policy == InvalidCharPolicy.REPLACE) {
+                    dst[dstOffset + written++] = replacement;
+                }
+            }
+
+            this.position = position;
+            return written;
+        }
+
+        /**
+         * Translates a range of ISO-8859-1 bytes into a destination array without allocating
+         * or throwing, like {@link Cipher#encryptBytes(byte[], int, byte[], int, int, InvalidCharPolicy, byte)}.
+         *
+         * @param src the array holding the bytes to translate
+         * @param srcOffset the index of the first byte to translate
+         * @param dst the array receiving the translated bytes
+         * @param dstOffset the index in {@code dst} of the first translated byte
+         * @param length the number of bytes to translate
+         * @param policy what to do with bytes outside the alphabet
+         * @param replacement the byte written in place of invalid ones under
+         *        {@link InvalidCharPolicy#REPLACE}
+         * @return the number of bytes written to {@code dst}, or {@code -1 - offset} where
+         *         {@code offset} is the position relative to {@code srcOffset} of the first
+         *         invalid byte if the policy is {@link InvalidCharPolicy#REJECT}, in which case
+         *         the bytes before it may already have been written but the position is not
+         *         advanced
+         */
+        public int translateBytes(byte[] src, int srcOffset, byte[] dst, int dstOffset, int length,
+                InvalidCharPolicy policy, byte replacement) {
+            Objects.checkFromIndexSize(srcOffset, length, src.length);
+            Objects.checkFromIndexSize(dstOffset, length, dst.length);
+
+            short[] bytes = schedule.bytes;
+            int[] slots = schedule.slots;
+            int period = slots.length;
+
+            int position = this.position;
+            int written = 0;
+            for (int i = 0; i < length; i++) {
+                byte letter = src[srcOffset + i];
+                int b = bytes[slots[position] * BYTE_WIDTH + (letter & 0xFF)];
+                if (b >= 0) {
+                    dst[dstOffset + written++] = (byte) b;
+                    if (++position == period) {
+                        position = 0;
+                    }
+                } else if (policy == InvalidCharPolicy.REJECT) {
+                    return -1 - i;
+                } else if (policy == InvalidCharPolicy.PASS_THROUGH) {
+                    dst[dstOffset + written++] = letter;
+                } else if (policy == InvalidCharPolicy.REPLACE) {
+                    dst[dstOffset + written++] = replacement;
+                }
+            }
+
+            this.position = position;
+            return written;
+        }
+    }
+
+    /**
+     * Creates a Vigenère cipher for the given alphabet and key.
+     *
+     * @param alphabet the characters to rotate through, in order and without duplicates
+     * @param key the letters giving the shift of each position, all from the alphabet
+     * @throws IllegalArgumentException if the alphabet is empty or contains duplicates, or
+     *         the key is empty or has letters outside the alphabet
+     */
+    public VigenereCipher(String alphabet, String key) {
+        this(List.of(alphabet), key, "Only letters from the alphabet \"" + alphabet + "\" are allowed");
+    }
+
+    /**
+     * Creates a Vigenère cipher over several rings that each rotate on their own. Each key
+     * letter shifts by its index within its own ring, and that shift is applied to every
+     * ring, so with the rings a-z and A-Z both {@code 'c'} and {@code 'C'} in the key shift
+     * by 2.
+     *
+     * @param rings the code points of each ring, in order; no code point may appear twice
+     * @param key the letters giving the shift of each position, all from the rings
+     * @throws IllegalArgumentException if a ring is empty, a letter appears twice, or the key
+     *         is empty or has letters outside the rings
+     */
+    public VigenereCipher(List<String> rings, String key) {
+        this(rings, key, "Only letters from the alphabets \"" + String.join("\", \"", rings) + "\" are allowed");
+    }
+
+    /**
+     * Creates a Vigenère cipher with a specific message for rejected characters.
+     *
+     * @param rings the code points of each ring, in order
+     * @param key the letters giving the shift of each position
+     * @param invalidLetterMessage the message of the exception thrown for rejected characters
+     */
+    VigenereCipher(List<String> rings, String key, String invalidLetterMessage) {
+        // Validates the rings before the key is looked up in them
+        this.rings = new ShiftTable(rings, 0).getRings();
+
+        Map<Integer, Integer> indexes = new HashMap<>();
+        int width = 1;
+        for (String ring : this.rings) {
+            int[] letters = ShiftTable.codePoints(ring);
+            for (int i = 0; i < letters.length; i++) {
+                indexes.put(letters[i], i);
+                if (letters[i] < ShiftTable.DIRECT_LIMIT) {
+                    width = Math.max(width, letters[i] + 1);
+                }
+            }
+        }
+
+        int[] shifts = ShiftTable.codePoints(key);
+        for (int p = 0; p < shifts.length; p++) {
+            Integer index = indexes.get(shifts[p]);
+            if (index == null) {
+                throw new IllegalArgumentException("The key may only contain letters from the alphabet");
+            }
+            shifts[p] = index;
+        }
+        if (shifts.length == 0) {
+            throw new IllegalArgumentException("The key must contain at least one letter");
+        }
+
+        int[] inverse = new int[shifts.length];
+        for (int p = 0; p < shifts.length; p++) {
+            inverse[p] = -shifts[p];
+        }
+
+        this.key = key;
+        this.encryption = new Schedule(this.rings, shifts, width);
+        this.decryption = new Schedule(this.rings, inverse, width);
+        this.invalidLetterMessage = invalidLetterMessage;
+    }
+
+    /**
+     * Encrypts a word on its own, starting at the first key letter.
+     *
+     * @param word the word to encrypt, containing only letters from the alphabet
+     * @return the encrypted word
+     * @throws IllegalArgumentException if the word contains characters outside the alphabet
+     */
+    public String encryptWord(String word) {
+        return new Cursor(encryption, 0).translateWord(word);
+    }
+
+    /**
+     * Decrypts a word on its own, starting at the first key letter.
+     *
+     * @param word the word to decrypt, containing only letters from the alphabet
+     * @return the decrypted word
+     * @throws IllegalArgumentException if the word contains characters outside the alphabet
+     */
+    public String decryptWord(String word) {
+        return new Cursor(decryption, 0).translateWord(word);
+    }
+
+    /**
+     * Returns a cursor that encrypts a text in chunks, starting at the first key letter.
+     *
+     * @return the encrypting cursor
+     */
+    public Cursor encryptor() {
+        return encryptor(0);
+    }
+
+    /**
+     * Returns a cursor that encrypts a text in chunks, starting as if {@code letterIndex}
+     * letters had already been encrypted. Independent parts of a text whose letter counts
+     * are known can so be encrypted in parallel.
+     *
+     * @param letterIndex the number of letters of the text before the first chunk
+     * @return the encrypting cursor
+     */
+    public Cursor encryptor(long letterIndex) {
+        return new Cursor(encryption, (int) Math.floorMod(letterIndex, (long) getPeriod()));
+    }
+
+    /**
+     * Returns a cursor that decrypts a text in chunks, starting at the first key letter.
+     *
+     * @return the decrypting cursor
+     */
+    public Cursor decryptor() {
+        return decryptor(0);
+    }
+
+    /**
+     * Returns a cursor that decrypts a text in chunks, starting as if {@code letterIndex}
+     * letters had already been decrypted.
+     *
+     * @param letterIndex the number of letters of the text before the first chunk
+     * @return the decrypting cursor
+     */
+    public Cursor decryptor(long letterIndex) {
+        return new Cursor(decryption, (int) Math.floorMod(letterIndex, (long) getPeriod()));
+    }
+
+    /**
+     * Returns the key.
+     *
+     * @return the key
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Returns the number of letters after which the key starts over.
+     *
+     * @return the number of code points in the key
+     */
+    public int getPeriod() {
+        return encryption.slots.length;
+    }
+
+    /**
+     * Returns the rings this cipher rotates through.
+     *
+     * @return the rings, unmodifiable
+     */
+    public List<String> getRings() {
+        return rings;
+    }
+
+    /**
+     * Returns the exception thrown for a character outside the alphabet.
+     *
+     * @return a new exception with this cipher's message
+     */
+    IllegalArgumentException invalidLetter() {
+        return new IllegalArgumentException(invalidLetterMessage);
+    }
+
+    /**
+     * Returns the message used for characters outside the alphabet.
+     *
+     * @return the message
+     */
+    String getInvalidLetterMessage() {
+        return invalidLetterMessage;
+    }
+}
@@ -0,0 +1,295 @@
+package caesar;
+
+/**
+ * A bounded, thread-safe cache of encrypted words, keyed by cipher and word, for message
+ * streams that encrypt the same words over and over. Entries are evicted least recently
+ * used first once either limit is reached: the number of entries, or the weight, which is
+ * the total number of characters of the cached words.
+ * <p>
+ * The cache is split into independently locked segments chosen by key hash, so concurrent
+ * callers rarely wait for each other; each segment enforces its share of the limits. Small
+ * limits get fewer segments, so that every segment can hold at least one entry and
+ * {@value #MIN_SEGMENT_WEIGHT} characters. Words that are rejected, or longer than a
+ * segment's share of the weight, are not cached, so they are encrypted every time just as
+ * without a cache.
+ * <p>
+ * A cache hit replaces encryption with a hash lookup under a lock, which only pays off when
+ * words are long enough or repeat often enough; see {@code WordCacheBenchmark}.
+ */
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class WordCache {
+    /** System property giving the entry limit of the cache used by {@link EncryptionMachine}. */
+    public static final String ENTRIES_PROPERTY = "caesar.cache.entries";
+
+    /** System property giving the weight limit, in characters, of that cache. */
+    public static final String WEIGHT_PROPERTY = "caesar.cache.weight";
+
+    /** The fewest characters of cached words a segment is given, unless the whole cache has fewer. */
+    static final long MIN_SEGMENT_WEIGHT = 64;
+
+    /** The independently locked segments. */
+    private final Segment[] segments;
+
+    /** Mask selecting a segment from a key hash. */
+    private final int segmentMask;
+
+    /** Lookups answered from the cache. */
+    private final LongAdder hits = new LongAdder();
+
+    /** Lookups that had to encrypt. */
+    private final LongAdder misses = new LongAdder();
+
+    /** Entries removed to stay within the limits. */
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * The cache key: a cipher and a word, with the hash computed once.
+     */
+    private static final class Key {
+        /** The cipher the word is encrypted with. */
+        private final Cipher cipher;
+
+        /** The plaintext word. */
+        private final String word;
+
+        /** The combined hash of the cipher and the word. */
+        private final int hash;
+
+        Key(Cipher cipher, String word) {
+            this.cipher = cipher;
+            this.word = word;
+            this.hash = 31 * cipher.hashCode() + word.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key key && hash == key.hash && word.equals(key.word) && cipher.equals(key.cipher);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * One lock-protected share of the cache, kept in access order so the eldest entry is the
+     * least recently used.
+     */
+    private final class Segment extends LinkedHashMap<Key, String> {
+        /** The most entries this segment may hold. */
+        private final long maxEntries;
+
+        /** The most characters of cached words this segment may hold. */
+        private final long maxWeight;
+
+        /** The characters of the words currently cached. */
+        private long weight;
+
+        Segment(long maxEntries, long maxWeight) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+            this.maxWeight = maxWeight;
+        }
+
+        /**
+         * Adds an entry and evicts least recently used entries until the segment is within
+         * its limits. A word heavier than the whole segment is not added, since it would
+         * only evict everything, itself included. The caller holds the segment lock.
+         *
+         * @param key the key
+         * @param encrypted the encrypted word
+         */
+        void add(Key key, String encrypted) {
+            if (key.word.length() > maxWeight) {
+                return;
+            }
+            if (put(key, encrypted) == null) {
+                weight += key.word.length();
+            }
+
+            Iterator<Map.Entry<Key, String>> eldest = entrySet().iterator();
+            while ((size() > maxEntries || weight > maxWeight) && eldest.hasNext()) {
+                Key evicted = eldest.next().getKey();
+                eldest.remove();
+                weight -= evicted.word.length();
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Creates a cache limited by the number of entries only.
+     *
+     * @param maxEntries the most entries to keep, must be positive
+     */
+    public WordCache(long maxEntries) {
+        this(maxEntries, Long.MAX_VALUE);
+    }
+
+    /**
+     * Creates a cache limited by the number of entries and the total length of the cached
+     * words.
+     *
+     * @param maxEntries the most entries to keep, must be positive
+     * @param maxWeight the most characters of cached words to keep, must be positive
+     * @throws IllegalArgumentException if a limit is not positive
+     */
+    public WordCache(long maxEntries, long maxWeight) {
+        // The next power of two of four segments per processor
+        this(maxEntries, maxWeight, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 4 - 1) << 1);
+    }
+
+    /**
+     * Creates a cache with at most a given number of segments. Fewer are used if the limits
+     * cannot give each segment one entry and {@value #MIN_SEGMENT_WEIGHT} characters.
+     *
+     * @param maxEntries the most entries to keep, must be positive
+     * @param maxWeight the most characters of cached words to keep, must be positive
+     * @param maxSegments the most segments to use, a power of two
+     * @throws IllegalArgumentException if a limit is not positive
+     */
+    WordCache(long maxEntries, long maxWeight, int maxSegments) {
+        if (maxEntries <= 0 || maxWeight <= 0) {
+            throw new IllegalArgumentException("Cache limits must be positive");
+        }
+
+        int segmentCount = (int) Math.min(maxSegments, Math.min(Long.highestOneBit(maxEntries),
+                Long.highestOneBit(Math.max(1, maxWeight / MIN_SEGMENT_WEIGHT))));
+        segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(maxEntries / segmentCount, maxWeight / segmentCount);
+        }
+        segmentMask = segmentCount - 1;
+    }
+
+    /**
+     * Creates the cache configured by {@value #ENTRIES_PROPERTY} and {@value #WEIGHT_PROPERTY}.
+     *
+     * @return the cache, or {@code null} if no entry limit is set
+     */
+    static WordCache fromSystemProperties() {
+        long entries = Long.getLong(ENTRIES_PROPERTY, 0);
+        if (entries <= 0) {
+            return null;
+        }
+        return new WordCache(entries, Long.getLong(WEIGHT_PROPERTY, Long.MAX_VALUE));
+    }
+
+    /**
+     * Encrypts a word, returning the cached result when the same cipher has encrypted the
+     * same word before.
+     *
+     * @param cipher the cipher to encrypt with
+     * @param word the word to encrypt
+     * @return the encrypted word
+     * @throws IllegalArgumentException if the word contains characters outside the alphabet
+     */
+    public String encryptWord(Cipher cipher, String word) {
+        Key key = new Key(cipher, word);
+        // Spread the hash so segments are not chosen by the low bits of String.hashCode alone
+        int spread = key.hash ^ (key.hash >>> 16);
+        Segment segment = segments[spread & segmentMask];
+
+        String encrypted;
+        synchronized (segment) {
+            encrypted = segment.get(key);
+        }
+        if (encrypted != null) {
+            hits.increment();
+            return encrypted;
+        }
+
+        misses.increment();
+        // Encrypt outside the lock; two racing misses just store the same value twice
+        encrypted = cipher.encryptWord(word);
+        synchronized (segment) {
+            segment.add(key, encrypted);
+        }
+        return encrypted;
+    }
+
+    /**
+     * Returns the number of lookups answered from the cache.
+     *
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that had to encrypt, including rejected words.
+     *
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the share of lookups answered from the cache.
+     *
+     * @return the hit rate between 0 and 1, or 0 before the first lookup
+     */
+    public double getHitRate() {
+        long hitCount = getHitCount();
+        long total = hitCount + getMissCount();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    /**
+     * Returns the number of entries evicted to stay within the limits.
+     *
+     * @return the eviction count
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Returns the number of cached entries.
+     *
+     * @return the entry count
+     */
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns the total number of characters of the cached words.
+     *
+     * @return the weight
+     */
+    public long getWeight() {
+        long weight = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                weight += segment.weight;
+            }
+        }
+        return weight;
+    }
+
+    /**
+     * Removes every entry. The statistics are kept.
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+                segment.weight = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package caesar;
+
+/**
+ * An {@link OutputSink} writing to a {@link Writer}. Messages are written piece by piece, so
+ * the quotes and framing of an encrypted word never become an intermediate string.
+ */
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+final class WriterOutputSink implements OutputSink {
+    /** The destination of all output. */
+    private final Writer writer;
+
+    /** The platform line separator, matching {@code println}. */
+    private final String lineSeparator = System.lineSeparator();
+
+    WriterOutputSink(Writer writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    public void writeLine(String line) {
+        try {
+            writer.write(line);
+            writer.write(lineSeparator);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public void writeEncryptedWord(String originalWord, String encryptedWord) {
+        try {
+            writer.write('"');
+            writer.write(originalWord);
+            writer.write('"');
+            writer.write(EncryptionMachine.ENCRYPT_MESSAGE);
+            writer.write('"');
+            writer.write(encryptedWord);
+            writer.write('"');
+            writer.write(lineSeparator);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public void flush() {
+        try {
+            writer.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
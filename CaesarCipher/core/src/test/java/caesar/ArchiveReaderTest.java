@@ -0,0 +1,118 @@
+package caesar;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ArchiveReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Builds distinct words of varying length, some of them empty.
+     */
+    private static List<String> words(int count) {
+        SplittableRandom random = new SplittableRandom(7);
+        List<String> words = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            char[] letters = new char[random.nextInt(12)];
+            for (int j = 0; j < letters.length; j++) {
+                letters[j] = EncryptionMachine.ALPHABET.charAt(random.nextInt(EncryptionMachine.ALPHABET.length()));
+            }
+            words.add(new String(letters));
+        }
+        return words;
+    }
+
+    /**
+     * Writes the words to an archive in the temporary directory.
+     */
+    private Path archive(List<String> words, int blockSize, boolean compress) throws Exception {
+        Path path = tempDir.resolve("words-" + blockSize + "-" + compress + ".arc");
+        try (ArchiveWriter writer = new ArchiveWriter(path, EncryptionMachine.DEFAULT_CIPHER, blockSize, compress)) {
+            for (String word : words) {
+                writer.append(word);
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Every range, within a block and across blocks, reads back the original words with
+     * and without compression
+     */
+    @Test
+    public void testRandomRangesRoundTrip() throws Exception {
+        List<String> words = words(2000);
+        for (boolean compress : new boolean[] {false, true}) {
+            try (ArchiveReader reader = new ArchiveReader(archive(words, 256, compress), EncryptionMachine.DEFAULT_CIPHER)) {
+                assertEquals(words.size(), reader.getRecordCount());
+                assertTrue(reader.getBlockCount() > 10);
+
+                SplittableRandom random = new SplittableRandom(11);
+                for (int i = 0; i < 200; i++) {
+                    int first = random.nextInt(words.size());
+                    int count = random.nextInt(Math.min(300, words.size() - first) + 1);
+                    assertEquals(words.subList(first, first + count), reader.read(first, count));
+                }
+                assertEquals(words, reader.read(0, words.size()));
+                assertEquals(words.get(words.size() - 1), reader.read(words.size() - 1));
+            }
+        }
+    }
+
+    /**
+     * Ranges outside the archive are rejected and an empty archive has no records
+     */
+    @Test
+    public void testBounds() throws Exception {
+        try (ArchiveReader reader = new ArchiveReader(archive(words(10), 64, true), EncryptionMachine.DEFAULT_CIPHER)) {
+            assertThrows(IndexOutOfBoundsException.class, () -> reader.read(10));
+            assertThrows(IndexOutOfBoundsException.class, () -> reader.read(5, 6));
+            assertThrows(IndexOutOfBoundsException.class, () -> reader.read(-1, 1));
+            assertEquals(List.of(), reader.read(10, 0));
+        }
+        try (ArchiveReader reader = new ArchiveReader(archive(List.of(), 64, true), EncryptionMachine.DEFAULT_CIPHER)) {
+            assertEquals(0, reader.getRecordCount());
+            assertEquals(0, reader.getBlockCount());
+        }
+    }
+
+    /**
+     * A flipped byte in a block fails reads of that block only, and a truncated file or
+     * a file that is not an archive cannot be opened
+     */
+    @Test
+    public void testCorruption() throws Exception {
+        Path path = archive(words(500), 128, false);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer b = ByteBuffer.allocate(1);
+            channel.read(b, ArchiveWriter.HEADER_SIZE + 3);
+            b.put(0, (byte) (b.get(0) ^ 1)).rewind();
+            channel.write(b, ArchiveWriter.HEADER_SIZE + 3);
+        }
+        try (ArchiveReader reader = new ArchiveReader(path, EncryptionMachine.DEFAULT_CIPHER)) {
+            java.io.IOException ex = assertThrows(java.io.IOException.class, () -> reader.read(0));
+            assertEquals("Block 0 is corrupted", ex.getMessage());
+            assertEquals(words(500).get(499), reader.read(499));
+        }
+
+        Path truncated = tempDir.resolve("truncated.arc");
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(truncated, java.util.Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(java.io.IOException.class, () -> new ArchiveReader(truncated, EncryptionMachine.DEFAULT_CIPHER));
+
+        Path text = Files.writeString(tempDir.resolve("text.txt"), "not an archive, just some text");
+        assertThrows(java.io.IOException.class, () -> new ArchiveReader(text, EncryptionMachine.DEFAULT_CIPHER));
+    }
+}
@@ -0,0 +1,92 @@
+package caesar;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ArchiveWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Records are stored encrypted, never as plain text
+     */
+    @Test
+    public void testStoresEncryptedWords() throws Exception {
+        Path path = tempDir.resolve("plain.arc");
+        try (ArchiveWriter writer = new ArchiveWriter(path, EncryptionMachine.DEFAULT_CIPHER, 1024, false)) {
+            writer.append("attackatdawn");
+            assertEquals(1, writer.getRecordCount());
+        }
+        String stored = new String(Files.readAllBytes(path), StandardCharsets.ISO_8859_1);
+        assertTrue(stored.contains(EncryptionMachine.DEFAULT_CIPHER.encryptWord("attackatdawn")));
+        assertFalse(stored.contains("attackatdawn"));
+    }
+
+    /**
+     * Compression shrinks repetitive text, and each block is only deflated when that helps
+     */
+    @Test
+    public void testCompression() throws Exception {
+        Path plain = tempDir.resolve("plain.arc");
+        Path deflated = tempDir.resolve("deflated.arc");
+        try (ArchiveWriter a = new ArchiveWriter(plain, EncryptionMachine.DEFAULT_CIPHER, 4096, false);
+             ArchiveWriter b = new ArchiveWriter(deflated, EncryptionMachine.DEFAULT_CIPHER, 4096, true)) {
+            for (int i = 0; i < 1000; i++) {
+                a.append("thequickbrownfox");
+                b.append("thequickbrownfox");
+            }
+        }
+        assertTrue(Files.size(deflated) * 4 < Files.size(plain));
+
+        // A lone one-letter record does not shrink, so it is stored as it is
+        Path tiny = tempDir.resolve("tiny.arc");
+        try (ArchiveWriter writer = new ArchiveWriter(tiny, EncryptionMachine.DEFAULT_CIPHER, 4096, true)) {
+            writer.append("a");
+        }
+        assertEquals(ArchiveWriter.HEADER_SIZE + 2 + ArchiveWriter.INDEX_ENTRY_SIZE + ArchiveWriter.TRAILER_SIZE,
+                Files.size(tiny));
+    }
+
+    /**
+     * A record larger than the block size gets a block of its own
+     */
+    @Test
+    public void testOversizedRecord() throws Exception {
+        Path path = tempDir.resolve("large.arc");
+        String large = "z".repeat(100);
+        try (ArchiveWriter writer = new ArchiveWriter(path, EncryptionMachine.DEFAULT_CIPHER, 16, true)) {
+            writer.append("ab");
+            writer.append(large);
+            writer.append("cd");
+        }
+        try (ArchiveReader reader = new ArchiveReader(path, EncryptionMachine.DEFAULT_CIPHER)) {
+            assertEquals(3, reader.getBlockCount());
+            assertEquals(java.util.List.of("ab", large, "cd"), reader.read(0, 3));
+        }
+    }
+
+    /**
+     * Invalid words are rejected without being appended, closed writers refuse records,
+     * and the block size must be positive
+     */
+    @Test
+    public void testRejections() throws Exception {
+        Path path = tempDir.resolve("words.arc");
+        ArchiveWriter writer = new ArchiveWriter(path, EncryptionMachine.DEFAULT_CIPHER);
+        writer.append("hello");
+        assertThrows(IllegalArgumentException.class, () -> writer.append("Hello"));
+        assertEquals(1, writer.getRecordCount());
+        writer.close();
+        writer.close();
+        assertThrows(IllegalStateException.class, () -> writer.append("hello"));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new ArchiveWriter(tempDir.resolve("zero.arc"), EncryptionMachine.DEFAULT_CIPHER, 0, true));
+    }
+}
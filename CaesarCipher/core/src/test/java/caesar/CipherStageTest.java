@@ -0,0 +1,182 @@
+package caesar;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+public class CipherStageTest {
+
+    /**
+     * Validation, encryption and framing compose into one pipeline that keeps the order
+     */
+    @Test
+    public void testComposedPipeline() throws Exception {
+        Cipher cipher = EncryptionMachine.DEFAULT_CIPHER;
+        CipherStage<String, String> validate = CipherStage.validation(cipher);
+        CipherStage<String, EncryptedChunk> encrypt = CipherStage.encryption(cipher);
+        CipherStage<EncryptedChunk, String> frame = CipherStage.framing();
+
+        List<String> lines = new ArrayList<>();
+        CompletableFuture<Void> done;
+        try (SubmissionPublisher<String> source = new SubmissionPublisher<>()) {
+            source.subscribe(validate);
+            validate.subscribe(encrypt);
+            encrypt.subscribe(frame);
+            done = frame.consume(lines::add);
+
+            for (int i = 0; i < 1000; i++) {
+                source.submit(i % 2 == 0 ? "hello" : "xyz");
+            }
+        }
+        done.get(10, TimeUnit.SECONDS);
+
+        assertEquals(1000, lines.size());
+        assertEquals("\"hello\"" + EncryptionMachine.ENCRYPT_MESSAGE + "\"khoor\"", lines.get(0));
+        assertEquals("\"xyz\"" + EncryptionMachine.ENCRYPT_MESSAGE + "\"abc\"", lines.get(999));
+    }
+
+    /**
+     * A stage wired to a source that is already emitting holds the items back until its own
+     * subscriber arrives, so none is lost
+     */
+    @Test
+    public void testUpstreamEmittingBeforeDownstreamSubscribes() throws Exception {
+        CipherStage<String, EncryptedChunk> encrypt = CipherStage.encryption(EncryptionMachine.DEFAULT_CIPHER);
+
+        List<String> ciphertexts = new ArrayList<>();
+        CompletableFuture<Void> done;
+        try (SubmissionPublisher<String> source = new SubmissionPublisher<>()) {
+            source.subscribe(encrypt);
+            for (int i = 0; i < 100; i++) {
+                source.submit("abc");
+            }
+            // Give the source time to deliver anything the stage requested too early
+            Thread.sleep(100);
+
+            done = encrypt.consume(chunk -> ciphertexts.add(chunk.getCiphertext()));
+            for (int i = 0; i < 900; i++) {
+                source.submit("xyz");
+            }
+        }
+        done.get(10, TimeUnit.SECONDS);
+
+        assertEquals(1000, ciphertexts.size());
+        assertEquals("def", ciphertexts.get(0));
+        assertEquals("abc", ciphertexts.get(999));
+    }
+
+    /**
+     * An invalid chunk fails the pipeline with the same exception as encryptWord
+     */
+    @Test
+    public void testInvalidChunkFailsPipeline() throws Exception {
+        CipherStage<String, EncryptedChunk> encrypt = CipherStage.encryption(EncryptionMachine.DEFAULT_CIPHER);
+
+        CompletableFuture<Void> done;
+        try (SubmissionPublisher<String> source = new SubmissionPublisher<>()) {
+            source.subscribe(encrypt);
+            done = encrypt.consume(chunk -> { });
+            source.submit("hello");
+            source.submit("Hello");
+        }
+
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> done.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, exception.getCause());
+        assertEquals("Only standard English alphabet letters a-z are allowed", exception.getCause().getMessage());
+    }
+
+    /**
+     * A keyed stage encrypts its chunks as one text
+     */
+    @Test
+    public void testKeyedEncryption() throws Exception {
+        CipherStage<String, EncryptedChunk> encrypt = CipherStage.encryption(EncryptionMachine.vigenere("lemon"));
+
+        StringBuilder ciphertext = new StringBuilder();
+        CompletableFuture<Void> done;
+        try (SubmissionPublisher<String> source = new SubmissionPublisher<>()) {
+            source.subscribe(encrypt);
+            done = encrypt.consume(chunk -> ciphertext.append(chunk.getCiphertext()));
+            source.submit("attack");
+            source.submit("at");
+            source.submit("dawn");
+        }
+        done.get(10, TimeUnit.SECONDS);
+
+        assertEquals("lxfopvefrnhr", ciphertext.toString());
+    }
+
+    /**
+     * The pass-through policy keeps spaces in multi-word chunks
+     */
+    @Test
+    public void testEncryptionPolicy() throws Exception {
+        CipherStage<String, EncryptedChunk> encrypt =
+                CipherStage.encryption(EncryptionMachine.DEFAULT_CIPHER, InvalidCharPolicy.PASS_THROUGH);
+
+        List<String> ciphertexts = new ArrayList<>();
+        CompletableFuture<Void> done;
+        try (SubmissionPublisher<String> source = new SubmissionPublisher<>()) {
+            source.subscribe(encrypt);
+            done = encrypt.consume(chunk -> ciphertexts.add(chunk.getCiphertext()));
+            source.submit("hello world");
+        }
+        done.get(10, TimeUnit.SECONDS);
+
+        assertEquals(List.of("khoor zruog"), ciphertexts);
+    }
+
+    /**
+     * A subscriber that requests nothing stops the source after a bounded number of items
+     */
+    @Test
+    public void testBackpressureBoundsBuffering() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try (SubmissionPublisher<String> source = new SubmissionPublisher<>(executor, 4)) {
+            CipherStage<String, EncryptedChunk> encrypt =
+                    new CipherStage<>(executor, 4, chunk -> new EncryptedChunk(chunk, chunk));
+            source.subscribe(encrypt);
+
+            Flow.Subscription[] stalled = new Flow.Subscription[1];
+            encrypt.subscribe(new Flow.Subscriber<EncryptedChunk>() {
+                public void onSubscribe(Flow.Subscription subscription) {
+                    stalled[0] = subscription;
+                }
+
+                public void onNext(EncryptedChunk item) {
+                }
+
+                public void onError(Throwable throwable) {
+                }
+
+                public void onComplete() {
+                }
+            });
+
+            int accepted = 0;
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (accepted < 1000 && System.nanoTime() < deadline) {
+                if (source.offer("abc", 10, TimeUnit.MILLISECONDS, null) >= 0) {
+                    accepted++;
+                }
+            }
+
+            // Source buffer, stage demand and stage buffer are each bounded by 4 items
+            assertTrue(accepted > 0);
+            assertTrue(accepted <= 16, "accepted " + accepted);
+
+            stalled[0].cancel();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package caesar;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+public class CipherTest {
+
+    // ============================================
+    // Test Group 3: Constant Modification
+    // ============================================
+
+    /**
+     * BBT-3.1: Shift = 1 (Standard, no wrap)
+     */
+    @Test
+    public void testBBT_3_1_ShiftOne() {
+        Cipher cipher = new Cipher(EncryptionMachine.ALPHABET, 1);
+        assertEquals('b', cipher.encryptLetter('a'));
+        assertEquals("qmbz", cipher.encryptWord("play"));
+    }
+
+    /**
+     * BBT-3.2: Shift = 1 (Wrap-around)
+     */
+    @Test
+    public void testBBT_3_2_ShiftOneWrapAround() {
+        Cipher cipher = new Cipher(EncryptionMachine.ALPHABET, 1);
+        assertEquals('a', cipher.encryptLetter('z'));
+        assertEquals("afcsb", cipher.encryptWord("zebra"));
+    }
+
+    /**
+     * BBT-3.3: Shift = 25 (Reverse Shift)
+     */
+    @Test
+    public void testBBT_3_3_ShiftTwentyFive() {
+        Cipher cipher = new Cipher(EncryptionMachine.ALPHABET, 25);
+        assertEquals('z', cipher.encryptLetter('a'));
+        // Every letter moves back by one: z->y, u->t, l->k
+        assertEquals("ytkt", cipher.encryptWord("zulu"));
+    }
+
+    /**
+     * A custom alphabet rejects characters outside it with a message naming the alphabet
+     */
+    @Test
+    public void testCustomAlphabet() {
+        Cipher cipher = new Cipher("0123456789", 5);
+        assertEquals("56789", cipher.encryptWord("01234"));
+        assertEquals(5, cipher.getShift());
+        assertEquals("0123456789", cipher.getAlphabet());
+
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> cipher.encryptWord("12a"));
+        assertEquals("Only letters from the alphabet \"0123456789\" are allowed", exception.getMessage());
+    }
+
+    /**
+     * The default cipher keeps the original rejection message
+     */
+    @Test
+    public void testDefaultCipher() {
+        assertEquals(EncryptionMachine.ALPHABET, EncryptionMachine.DEFAULT_CIPHER.getAlphabet());
+        assertEquals(EncryptionMachine.SHIFT, EncryptionMachine.DEFAULT_CIPHER.getShift());
+
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> {
+            EncryptionMachine.DEFAULT_CIPHER.encryptLetter('A');
+        });
+        assertEquals("Only standard English alphabet letters a-z are allowed", exception.getMessage());
+    }
+
+    /**
+     * Many keys can be used concurrently from different threads
+     */
+    @Test
+    public void testConcurrentKeys() throws Exception {
+        String word = "pneumonoultramicroscopicsilicovolcanoconiosis";
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int shift = 0; shift < 26; shift++) {
+                Cipher cipher = new Cipher(EncryptionMachine.ALPHABET, shift);
+                Cipher inverse = new Cipher(EncryptionMachine.ALPHABET, -shift);
+                results.add(executor.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        if (!inverse.encryptWord(cipher.encryptWord(word)).equals(word)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Case-preserving and alphanumeric ciphers rotate every ring on its own
+     */
+    @Test
+    public void testCasePreservingAndAlphanumeric() {
+        Cipher casePreserving = Cipher.casePreserving(3);
+        assertEquals("Khoor", casePreserving.encryptWord("Hello"));
+        assertEquals("aBc", casePreserving.encryptWord("xYz"));
+        assertEquals("Hello", casePreserving.decryptWord("Khoor"));
+        assertThrows(IllegalArgumentException.class, () -> casePreserving.encryptWord("Hello1"));
+
+        Cipher alphanumeric = Cipher.alphanumeric(3);
+        assertEquals("Uhdu2", alphanumeric.encryptWord("Rear9"));
+        assertEquals("Rear9", alphanumeric.decryptWord("Uhdu2"));
+        assertEquals(-1, alphanumeric.validateWord("Agent007"));
+        assertEquals(5, alphanumeric.validateWord("Agent 007"));
+    }
+
+    /**
+     * A one-letter ring lets spaces through unchanged
+     */
+    @Test
+    public void testSpaceRing() {
+        Cipher cipher = new Cipher(List.of(EncryptionMachine.ALPHABET, " "), 3);
+        assertEquals("khoor zruog", cipher.encryptWord("hello world"));
+    }
+
+    /**
+     * Non-Latin alphabets above the direct table use the compact lookup
+     */
+    @Test
+    public void testWideAlphabet() {
+        String hiragana = "\u3042\u3044\u3046\u3048\u304A";
+        Cipher cipher = new Cipher(List.of(hiragana, EncryptionMachine.ALPHABET), 1);
+        assertEquals("\u3044\u3046b\u3042", cipher.encryptWord("\u3042\u3044a\u304A"));
+        assertEquals("\u3042\u3044a\u304A", cipher.decryptWord("\u3044\u3046b\u3042"));
+        assertThrows(IllegalArgumentException.class, () -> cipher.encryptWord("\u3043"));
+    }
+
+    /**
+     * Supplementary letters such as emoji are shifted as whole code points
+     */
+    @Test
+    public void testSupplementaryAlphabet() {
+        String emoji = "\uD83D\uDE00\uD83D\uDE01\uD83D\uDE02";
+        Cipher cipher = new Cipher(List.of(EncryptionMachine.ALPHABET, emoji), 1);
+
+        String word = "a\uD83D\uDE00b\uD83D\uDE02";
+        String encrypted = cipher.encryptWord(word);
+        assertEquals("b\uD83D\uDE01c\uD83D\uDE00", encrypted);
+        assertEquals(word, cipher.decryptWord(encrypted));
+        assertEquals(0x1F601, cipher.encryptCodePoint(0x1F600));
+
+        assertEquals(-1, cipher.validateWord(word));
+        assertEquals(3, cipher.validateWord("a\uD83D\uDE00\uD83D\uDE03"));
+        assertThrows(IllegalArgumentException.class, () -> cipher.encryptWord("a\uD83D\uDE03"));
+
+        EncryptionResult result = cipher.tryEncryptWord("a\uD83D\uDE03\uD83D\uDE00", InvalidCharPolicy.REPLACE);
+        assertEquals("b?\uD83D\uDE01", result.getText());
+        assertArrayEquals(new int[] {1}, result.getInvalidOffsets());
+    }
+
+    /**
+     * A ring mixing BMP and supplementary letters maps across the char boundary
+     */
+    @Test
+    public void testMixedRing() {
+        Cipher cipher = new Cipher(List.of("x\uD83D\uDE00"), 1);
+        assertEquals("\uD83D\uDE00x", cipher.encryptWord("x\uD83D\uDE00"));
+        assertEquals("x\uD83D\uDE00", cipher.decryptWord("\uD83D\uDE00x"));
+    }
+
+    /**
+     * Ciphers with the same rings and the same effective shift are equal
+     */
+    @Test
+    public void testEqualsAndHashCode() {
+        Cipher cipher = new Cipher(EncryptionMachine.ALPHABET, 3);
+        Cipher same = new Cipher(EncryptionMachine.ALPHABET, 3 + 26);
+        assertEquals(cipher, same);
+        assertEquals(cipher.hashCode(), same.hashCode());
+        assertEquals(cipher, EncryptionMachine.DEFAULT_CIPHER);
+        assertNotEquals(cipher, new Cipher(EncryptionMachine.ALPHABET, 4));
+        assertNotEquals(cipher, Cipher.alphanumeric(3));
+    }
+}
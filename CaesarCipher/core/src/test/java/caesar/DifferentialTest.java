@@ -0,0 +1,571 @@
+package caesar;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Differential tests of every encryption path against the reference
+ * {@link EncryptionMachine#encryptLetter(char)}: random valid and invalid inputs of many
+ * lengths go through the word, bulk array, buffer, vector, off-heap segment, parallel, cached,
+ * metered, keyed and file paths, which must all produce the reference output and reject exactly the
+ * reference's invalid characters.
+ * <p>
+ * The randomized test runs for {@value #DEFAULT_MILLIS} ms unless
+ * {@code -Dcaesar.fuzz.millis} gives another budget, for example several minutes for a soak
+ * run. Failures report the seed, which {@code -Dcaesar.fuzz.seed} replays.
+ */
+public class DifferentialTest {
+
+    /** System property giving the time budget of the randomized test in milliseconds. */
+    private static final String MILLIS_PROPERTY = "caesar.fuzz.millis";
+
+    /** System property fixing the seed of the randomized test. */
+    private static final String SEED_PROPERTY = "caesar.fuzz.seed";
+
+    /** Time budget when the property is not set, small enough for every build. */
+    private static final long DEFAULT_MILLIS = 1500;
+
+    /** The message every path must reject invalid characters with. */
+    private static final String MESSAGE = "Only standard English alphabet letters a-z are allowed";
+
+    /** Characters outside the alphabet that are likely to trip up a table or a range check. */
+    private static final char[] EDGE_CHARACTERS = {
+        '`', '{', 'A', 'Z', '@', '[', '0', ' ', '\n', '\0', '\u007F', '\u0080', '\u00E9', '\u00FF',
+        '\u0100', '\u07FF', '\u0800', '\u4E00', '\uD800', '\uDBFF', '\uDC00', '\uDFFF', '\uFFFE', '\uFFFF'
+    };
+
+    /** Replacement character and byte used under {@link InvalidCharPolicy#REPLACE}. */
+    private static final char REPLACEMENT = '?';
+
+    @TempDir
+    Path tempDir;
+
+    private final Cipher cipher = EncryptionMachine.DEFAULT_CIPHER;
+
+    /** Splits anything longer than 64 chars so the fork-join path is exercised. */
+    private final ParallelEncryptor parallel = new ParallelEncryptor(cipher, ForkJoinPool.commonPool(), 64);
+
+    private final VectorEncryptor vector = new VectorEncryptor(cipher);
+
+    private final WordCache cache = new WordCache(256);
+
+    /** A one-letter key shifting by 3, which must agree with the fixed shift. */
+    private final VigenereCipher vigenere = EncryptionMachine.vigenere("d");
+
+    /** Inputs checked so far, so the batch paths also see mixed lists. */
+    private final List<String> recent = new ArrayList<>();
+
+    /** Number of inputs checked, used to run the slow file path on a sample. */
+    private int checked;
+
+    /**
+     * The reference result for one input, built with encryptLetter.
+     */
+    private static final class Reference {
+        /** The input with every valid letter encrypted and every invalid one kept. */
+        final String passThrough;
+
+        /** The offsets of the invalid characters. */
+        final int[] invalid;
+
+        /** The input itself. */
+        final String input;
+
+        Reference(String input) {
+            char[] encrypted = input.toCharArray();
+            int[] invalid = new int[input.length()];
+            int count = 0;
+            for (int i = 0; i < encrypted.length; i++) {
+                try {
+                    encrypted[i] = EncryptionMachine.encryptLetter(encrypted[i]);
+                } catch (Exception e) {
+                    assertEquals(MESSAGE, e.getMessage());
+                    invalid[count++] = i;
+                }
+            }
+            this.input = input;
+            this.passThrough = new String(encrypted);
+            this.invalid = Arrays.copyOf(invalid, count);
+        }
+
+        boolean isValid() {
+            return invalid.length == 0;
+        }
+
+        /**
+         * Returns the expected output under a policy, or null if the input is rejected.
+         */
+        String expected(InvalidCharPolicy policy) {
+            if (isValid()) {
+                return passThrough;
+            }
+            if (policy == InvalidCharPolicy.REJECT) {
+                return null;
+            }
+            StringBuilder expected = new StringBuilder(input.length());
+            int next = 0;
+            for (int i = 0; i < input.length(); i++) {
+                if (next < invalid.length && invalid[next] == i) {
+                    next++;
+                    if (policy == InvalidCharPolicy.PASS_THROUGH) {
+                        expected.append(input.charAt(i));
+                    } else if (policy == InvalidCharPolicy.REPLACE) {
+                        expected.append(REPLACEMENT);
+                    }
+                } else {
+                    expected.append(passThrough.charAt(i));
+                }
+            }
+            return expected.toString();
+        }
+    }
+
+    /**
+     * Hand-picked edge cases agree on every path
+     */
+    @Test
+    public void testEdgeCases() throws Exception {
+        check("");
+        check("a");
+        check("z");
+        check(EncryptionMachine.ALPHABET);
+        for (char c : EDGE_CHARACTERS) {
+            check(String.valueOf(c));
+            check("abc" + c + "xyz");
+        }
+        check("\uD83D\uDE00");
+        check("a".repeat(1000) + "\uFFFF");
+        check("\uFFFF" + "z".repeat(1000));
+    }
+
+    /**
+     * Random inputs agree on every path for the configured time budget
+     */
+    @Test
+    public void testRandomInputs() throws Exception {
+        long seed = Long.getLong(SEED_PROPERTY, System.nanoTime());
+        long deadline = System.nanoTime() + Long.getLong(MILLIS_PROPERTY, DEFAULT_MILLIS) * 1_000_000;
+        SplittableRandom random = new SplittableRandom(seed);
+
+        int inputs = 0;
+        do {
+            String input = DifferentialTest.randomInput(random);
+            try {
+                check(input);
+            } catch (AssertionError e) {
+                throw new AssertionError("Input " + inputs + " of seed " + seed + " (-D" + SEED_PROPERTY + "="
+                        + seed + "): \"" + DifferentialTest.escape(input) + "\"", e);
+            }
+            inputs++;
+        } while (System.nanoTime() < deadline);
+    }
+
+    /**
+     * Generates an input: mostly short, sometimes long, and either clean or with invalid
+     * characters at a random density.
+     */
+    private static String randomInput(SplittableRandom random) {
+        int length = switch (random.nextInt(10)) {
+            case 0 -> random.nextInt(4096);
+            case 1, 2 -> random.nextInt(256);
+            default -> random.nextInt(24);
+        };
+        double invalidRate = switch (random.nextInt(4)) {
+            case 0, 1 -> 0;
+            case 2 -> 0.01;
+            default -> random.nextDouble();
+        };
+
+        StringBuilder input = new StringBuilder(length);
+        while (input.length() < length) {
+            if (random.nextDouble() >= invalidRate) {
+                input.append((char) ('a' + random.nextInt(26)));
+                continue;
+            }
+            switch (random.nextInt(4)) {
+                case 0 -> input.append(EDGE_CHARACTERS[random.nextInt(EDGE_CHARACTERS.length)]);
+                case 1 -> input.append((char) random.nextInt(256));
+                case 2 -> input.appendCodePoint(random.nextInt(Character.MIN_SUPPLEMENTARY_CODE_POINT,
+                        Character.MAX_CODE_POINT + 1));
+                default -> input.append((char) random.nextInt(Character.MAX_VALUE + 1));
+            }
+        }
+        return input.toString();
+    }
+
+    /**
+     * Runs every path on one input and compares it with the reference.
+     */
+    private void check(String input) throws Exception {
+        Reference reference = new Reference(input);
+        checkStrictWordPaths(reference);
+        checkStrictCharPaths(reference);
+        checkPolicyPaths(reference);
+
+        boolean latin1 = input.chars().allMatch(c -> c < 256);
+        if (latin1) {
+            checkStrictBytePaths(reference);
+            checkBytePolicyPaths(reference);
+            if (checked++ % 64 == 0) {
+                checkFile(reference, InvalidCharPolicy.values()[checked % InvalidCharPolicy.values().length],
+                        1 + checked % 17);
+            }
+        }
+
+        if (reference.isValid()) {
+            assertEquals(input, cipher.decryptWord(reference.passThrough), "Cipher.decryptWord");
+            assertEquals(input, vigenere.decryptWord(reference.passThrough), "VigenereCipher.decryptWord");
+        }
+        checkBatch(input);
+    }
+
+    /**
+     * Checks the paths that take a whole word and throw for invalid characters.
+     */
+    private void checkStrictWordPaths(Reference reference) {
+        String input = reference.input;
+        assertStrict(reference, "EncryptionMachine.encryptWord", () -> EncryptionMachine.encryptWord(input));
+        assertStrict(reference, "Cipher.encryptWord", () -> cipher.encryptWord(input));
+        assertStrict(reference, "EncryptionMachine.encryptWordParallel", () -> EncryptionMachine.encryptWordParallel(input));
+        assertStrict(reference, "ParallelEncryptor.encrypt(String)", () -> parallel.encrypt(input));
+        assertStrict(reference, "WordCache.encryptWord", () -> cache.encryptWord(cipher, input));
+        assertStrict(reference, "WordCache.encryptWord (hit)", () -> cache.encryptWord(cipher, input));
+        assertStrict(reference, "EncryptionMetrics.encryptWord", () -> EncryptionMetrics.encryptWord(cipher, input));
+        assertStrict(reference, "VigenereCipher.encryptWord", () -> vigenere.encryptWord(input));
+    }
+
+    /**
+     * Checks the char array and buffer paths that throw for invalid characters.
+     */
+    private void checkStrictCharPaths(Reference reference) {
+        String input = reference.input;
+        int length = input.length();
+        int firstInvalid = reference.isValid() ? length : reference.invalid[0];
+
+        char[] dst = new char[length];
+        assertStrict(reference, "Cipher.encryptChars(char[])", () -> {
+            cipher.encryptChars(input.toCharArray(), 0, dst, 0, length);
+            return new String(dst);
+        });
+        assertEquals(reference.passThrough.substring(0, firstInvalid), new String(dst, 0, firstInvalid),
+                "Cipher.encryptChars(char[]) prefix");
+
+        char[] inPlace = input.toCharArray();
+        assertStrict(reference, "EncryptionMachine.encryptChars in place", () -> {
+            EncryptionMachine.encryptChars(inPlace, 0, length);
+            return new String(inPlace);
+        });
+        assertEquals(reference.passThrough.substring(0, firstInvalid), new String(inPlace, 0, firstInvalid),
+                "EncryptionMachine.encryptChars in place prefix");
+
+        assertStrict(reference, "ParallelEncryptor.encrypt(char[])", () -> {
+            char[] out = new char[length];
+            parallel.encrypt(input.toCharArray(), 0, out, 0, length);
+            return new String(out);
+        });
+
+        CharBuffer heapSrc = CharBuffer.wrap(input.toCharArray());
+        CharBuffer heapDst = CharBuffer.allocate(length);
+        assertStrict(reference, "Cipher.encryptChars(CharBuffer) heap", () -> {
+            cipher.encryptChars(heapSrc, heapDst);
+            return heapDst.flip().toString();
+        });
+        CharBuffer directSrc = ByteBuffer.allocateDirect(length * 2).asCharBuffer().put(input).flip();
+        CharBuffer directDst = ByteBuffer.allocateDirect(length * 2).asCharBuffer();
+        assertStrict(reference, "Cipher.encryptChars(CharBuffer) direct", () -> {
+            cipher.encryptChars(directSrc, directDst);
+            return directDst.flip().toString();
+        });
+        if (!reference.isValid()) {
+            assertEquals(0, heapSrc.position(), "CharBuffer position after rejection");
+            assertEquals(0, directSrc.position(), "CharBuffer position after rejection");
+        }
+    }
+
+    /**
+     * Checks the ISO-8859-1 byte array, buffer, vector and parallel paths that throw for
+     * invalid bytes.
+     */
+    private void checkStrictBytePaths(Reference reference) {
+        byte[] input = reference.input.getBytes(StandardCharsets.ISO_8859_1);
+        int length = input.length;
+        int firstInvalid = reference.isValid() ? length : reference.invalid[0];
+        String expectedPrefix = reference.passThrough.substring(0, firstInvalid);
+
+        byte[] dst = new byte[length];
+        assertStrict(reference, "Cipher.encryptBytes(byte[])", () -> {
+            cipher.encryptBytes(input, 0, dst, 0, length);
+            return latin1(dst, length);
+        });
+        assertEquals(expectedPrefix, latin1(dst, firstInvalid), "Cipher.encryptBytes(byte[]) prefix");
+
+        byte[] inPlace = input.clone();
+        assertStrict(reference, "EncryptionMachine.encryptBytes in place", () -> {
+            EncryptionMachine.encryptBytes(inPlace, 0, length);
+            return latin1(inPlace, length);
+        });
+
+        byte[] vectorDst = new byte[length];
+        assertStrict(reference, "VectorEncryptor.encrypt", () -> {
+            vector.encrypt(input, 0, vectorDst, 0, length);
+            return latin1(vectorDst, length);
+        });
+        assertEquals(expectedPrefix, latin1(vectorDst, firstInvalid), "VectorEncryptor.encrypt prefix");
+
+        assertStrict(reference, "ParallelEncryptor.encrypt(byte[])", () -> {
+            byte[] out = new byte[length];
+            parallel.encrypt(input, 0, out, 0, length);
+            return latin1(out, length);
+        });
+
+        ByteBuffer heapSrc = ByteBuffer.wrap(input.clone());
+        ByteBuffer heapDst = ByteBuffer.allocate(length);
+        assertStrict(reference, "Cipher.encryptBytes(ByteBuffer) heap", () -> {
+            cipher.encryptBytes(heapSrc, heapDst);
+            return latin1(heapDst.flip());
+        });
+        ByteBuffer directSrc = ByteBuffer.allocateDirect(length).put(input).flip();
+        ByteBuffer directDst = ByteBuffer.allocateDirect(length);
+        assertStrict(reference, "Cipher.encryptBytes(ByteBuffer) direct", () -> {
+            cipher.encryptBytes(directSrc, directDst);
+            return latin1(directDst.flip());
+        });
+        if (!reference.isValid()) {
+            assertEquals(0, heapSrc.position(), "ByteBuffer position after rejection");
+            assertEquals(0, directSrc.position(), "ByteBuffer position after rejection");
+        }
+    }
+
+    /**
+     * Checks validation and the paths that handle invalid characters by policy.
+     */
+    private void checkPolicyPaths(Reference reference) {
+        String input = reference.input;
+        int length = input.length();
+        int firstInvalid = reference.isValid() ? -1 : reference.invalid[0];
+        assertEquals(firstInvalid, cipher.validateWord(input), "Cipher.validateWord");
+        assertEquals(firstInvalid, EncryptionMachine.validateWord(input), "EncryptionMachine.validateWord");
+
+        for (InvalidCharPolicy policy : InvalidCharPolicy.values()) {
+            String expected = reference.expected(policy);
+            String name = " under " + policy;
+
+            EncryptionResult result = cipher.tryEncryptWord(input, policy, REPLACEMENT);
+            assertEquals(expected, result.getText(), "Cipher.tryEncryptWord" + name);
+            assertArrayEquals(reference.invalid, result.getInvalidOffsets(), "Cipher.tryEncryptWord offsets" + name);
+            if (policy != InvalidCharPolicy.REPLACE || InvalidCharPolicy.DEFAULT_REPLACEMENT == REPLACEMENT) {
+                EncryptionResult machine = EncryptionMachine.tryEncryptWord(input, policy);
+                assertEquals(expected, machine.getText(), "EncryptionMachine.tryEncryptWord" + name);
+                assertArrayEquals(reference.invalid, machine.getInvalidOffsets(),
+                        "EncryptionMachine.tryEncryptWord offsets" + name);
+            }
+
+            char[] dst = new char[length];
+            int written = cipher.encryptChars(input.toCharArray(), 0, dst, 0, length, policy, REPLACEMENT);
+            assertPolicyResult(reference, policy, written, new String(dst, 0, Math.max(0, written)),
+                    "Cipher.encryptChars(policy)" + name);
+
+            char[] inPlace = input.toCharArray();
+            written = cipher.encryptChars(inPlace, 0, inPlace, 0, length, policy, REPLACEMENT);
+            assertPolicyResult(reference, policy, written, new String(inPlace, 0, Math.max(0, written)),
+                    "Cipher.encryptChars(policy) in place" + name);
+
+            checkVigenereChars(reference, policy);
+        }
+    }
+
+    /**
+     * Checks the byte paths that handle invalid bytes by policy.
+     */
+    private void checkBytePolicyPaths(Reference reference) {
+        byte[] input = reference.input.getBytes(StandardCharsets.ISO_8859_1);
+        int length = input.length;
+
+        for (InvalidCharPolicy policy : InvalidCharPolicy.values()) {
+            String name = " under " + policy;
+
+            byte[] dst = new byte[length];
+            int written = cipher.encryptBytes(input, 0, dst, 0, length, policy, (byte) REPLACEMENT);
+            assertPolicyResult(reference, policy, written, latin1(dst, Math.max(0, written)),
+                    "Cipher.encryptBytes(policy)" + name);
+
+            byte[] keyed = new byte[length];
+            written = vigenere.encryptor().translateBytes(input, 0, keyed, 0, length, policy, (byte) REPLACEMENT);
+            assertPolicyResult(reference, policy, written, latin1(keyed, Math.max(0, written)),
+                    "VigenereCipher.Cursor.translateBytes" + name);
+        }
+    }
+
+    /**
+     * Checks the keyed char path in up to three chunks, which must carry the key position
+     * and report a rejection at the offset of the first invalid character.
+     */
+    private void checkVigenereChars(Reference reference, InvalidCharPolicy policy) {
+        String input = reference.input;
+        int length = input.length();
+        char[] src = input.toCharArray();
+        char[] dst = new char[length];
+        VigenereCipher.Cursor cursor = vigenere.encryptor();
+
+        int firstSplit = length == 0 ? 0 : (input.hashCode() & 0x7FFFFFFF) % (length + 1);
+        int secondSplit = (firstSplit + length) / 2;
+        int[] bounds = {0, Math.min(firstSplit, secondSplit), Math.max(firstSplit, secondSplit), length};
+
+        int written = 0;
+        for (int chunk = 0; chunk < 3; chunk++) {
+            int from = bounds[chunk];
+            int result = cursor.translateChars(src, from, dst, written, bounds[chunk + 1] - from, policy, REPLACEMENT);
+            if (result < 0) {
+                assertPolicyResult(reference, policy, -1 - (from + -1 - result), null,
+                        "VigenereCipher.Cursor.translateChars under " + policy);
+                return;
+            }
+            written += result;
+        }
+        assertPolicyResult(reference, policy, written, new String(dst, 0, written),
+                "VigenereCipher.Cursor.translateChars under " + policy);
+    }
+
+    /**
+     * Compares the status and output of a policy-driven bulk call with the reference.
+     *
+     * @param written the value returned by the call: a count, or -1 - offset on rejection
+     * @param output the output written, ignored on rejection
+     */
+    private static void assertPolicyResult(Reference reference, InvalidCharPolicy policy, int written,
+            String output, String name) {
+        String expected = reference.expected(policy);
+        if (expected == null) {
+            assertEquals(-1 - reference.invalid[0], written, name + " status");
+        } else {
+            assertEquals(expected.length(), written, name + " count");
+            assertEquals(expected, output, name);
+        }
+    }
+
+    /**
+     * Checks the file path with one policy and chunk size.
+     */
+    private void checkFile(Reference reference, InvalidCharPolicy policy, int chunkSize) throws Exception {
+        Path input = Files.write(tempDir.resolve("in.txt"), reference.input.getBytes(StandardCharsets.ISO_8859_1));
+        Path output = tempDir.resolve("out.txt");
+        FileEncryptor encryptor = new FileEncryptor(cipher, policy, chunkSize, (byte) REPLACEMENT);
+        String name = "FileEncryptor under " + policy + " in chunks of " + chunkSize;
+
+        String expected = reference.expected(policy);
+        if (expected == null) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                    () -> encryptor.encryptFile(input, output), name);
+            assertEquals(MESSAGE + " (found at byte " + reference.invalid[0] + ")", e.getMessage(), name);
+            assertFalse(Files.exists(output), name + " leaves no output");
+        } else {
+            assertEquals(expected.length(), encryptor.encryptFile(input, output), name + " count");
+            assertEquals(expected, Files.readString(output, StandardCharsets.ISO_8859_1), name);
+        }
+    }
+
+    /**
+     * Checks the batch paths on the most recent inputs, which reject the whole batch if any
+     * word is invalid.
+     */
+    private void checkBatch(String input) {
+        recent.add(input);
+        if (recent.size() < 8) {
+            return;
+        }
+
+        List<String> expected = new ArrayList<>();
+        boolean valid = true;
+        for (String word : recent) {
+            Reference reference = new Reference(word);
+            valid &= reference.isValid();
+            expected.add(reference.passThrough);
+        }
+        List<String> words = List.copyOf(recent);
+        recent.clear();
+
+        if (valid) {
+            assertEquals(expected, EncryptionMachine.encryptWords(words), "EncryptionMachine.encryptWords(List)");
+            assertEquals(expected, Arrays.asList(EncryptionMachine.encryptWords(words.toArray(new String[0]))),
+                    "EncryptionMachine.encryptWords(String...)");
+            assertEquals(expected, EncryptionMachine.encryptWords(words.stream()).toList(),
+                    "EncryptionMachine.encryptWords(Stream)");
+        } else {
+            assertRejected("EncryptionMachine.encryptWords(List)", () -> EncryptionMachine.encryptWords(words));
+            assertRejected("EncryptionMachine.encryptWords(String...)",
+                    () -> EncryptionMachine.encryptWords(words.toArray(new String[0])));
+            assertRejected("EncryptionMachine.encryptWords(Stream)",
+                    () -> EncryptionMachine.encryptWords(words.stream()).toList());
+        }
+    }
+
+    /**
+     * Asserts that a strict path returns the reference output for a valid input and rejects
+     * an invalid one with the reference message.
+     */
+    private static void assertStrict(Reference reference, String name, Callable<String> path) {
+        if (reference.isValid()) {
+            try {
+                assertEquals(reference.passThrough, path.call(), name);
+            } catch (Exception e) {
+                fail(name + " threw for a valid input", e);
+            }
+        } else {
+            assertRejected(name, path);
+        }
+    }
+
+    /**
+     * Asserts that a path throws IllegalArgumentException with the reference message.
+     */
+    private static void assertRejected(String name, Callable<?> path) {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, path::call, name + " must reject");
+        assertEquals(MESSAGE, e.getMessage(), name);
+    }
+
+    /**
+     * Decodes bytes as ISO-8859-1.
+     */
+    private static String latin1(byte[] bytes, int length) {
+        return new String(bytes, 0, length, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Decodes the remaining bytes of a buffer as ISO-8859-1.
+     */
+    private static String latin1(ByteBuffer buffer) {
+        return StandardCharsets.ISO_8859_1.decode(buffer).toString();
+    }
+
+    /**
+     * Escapes non-printable and non-ASCII characters so a failing input can be pasted back.
+     * Long inputs are cut short; the seed replays them in full.
+     */
+    private static String escape(String input) {
+        StringBuilder escaped = new StringBuilder();
+        for (char c : input.substring(0, Math.min(input.length(), 64)).toCharArray()) {
+            if (c >= ' ' && c < 0x7F && c != '"' && c != '\\') {
+                escaped.append(c);
+            } else {
+                escaped.append(String.format("\\u%04X", (int) c));
+            }
+        }
+        if (input.length() > 64) {
+            escaped.append("... (").append(input.length()).append(" chars)");
+        }
+        return escaped.toString();
+    }
+}
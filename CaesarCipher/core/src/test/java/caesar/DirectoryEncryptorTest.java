@@ -0,0 +1,195 @@
+package caesar;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class DirectoryEncryptorTest {
+
+    @TempDir
+    Path tempDir;
+
+    /** A small pool so the tests exercise work stealing. */
+    private final ForkJoinPool pool = new ForkJoinPool(3);
+
+    @AfterEach
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Writes the text to a file under the input directory, creating parent directories.
+     */
+    private Path write(String name, String text) throws Exception {
+        Path path = tempDir.resolve("in").resolve(name);
+        Files.createDirectories(path.getParent());
+        return Files.writeString(path, text, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Reads a file under the output directory.
+     */
+    private String read(String name) throws Exception {
+        return Files.readString(tempDir.resolve("out").resolve(name), StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Builds a word of the given length cycling through the alphabet.
+     */
+    private static String letters(int length) {
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append(EncryptionMachine.ALPHABET.charAt((i * 7) % EncryptionMachine.ALPHABET.length()));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Lists every file left under the output directory.
+     */
+    private List<Path> outputFiles() throws Exception {
+        try (Stream<Path> walk = Files.walk(tempDir.resolve("out"))) {
+            return walk.filter(Files::isRegularFile).toList();
+        }
+    }
+
+    /**
+     * Small, batched and split files in nested directories all match encryptWord
+     */
+    @Test
+    public void testMatchesEncryptWordAcrossTree() throws Exception {
+        String large = letters(1000);
+        write("a.txt", "hello");
+        write("b.txt", "");
+        write("nested/c.txt", letters(40));
+        write("nested/deeper/large.txt", large);
+
+        DirectoryEncryptor encryptor = new DirectoryEncryptor(EncryptionMachine.DEFAULT_CIPHER,
+                InvalidCharPolicy.REJECT, pool, 64, 50);
+        DirectoryEncryptor.Report report = encryptor.encryptDirectory(tempDir.resolve("in"), tempDir.resolve("out"));
+
+        assertEquals(4, report.getFiles().size());
+        assertEquals(0, report.getFailureCount());
+        assertEquals(1045, report.getBytes());
+        assertEquals("khoor", read("a.txt"));
+        assertEquals("", read("b.txt"));
+        assertEquals(EncryptionMachine.encryptWord(letters(40)), read("nested/c.txt"));
+        assertEquals(EncryptionMachine.encryptWord(large), read("nested/deeper/large.txt"));
+        assertEquals(4, outputFiles().size());
+    }
+
+    /**
+     * A rejected file fails on its own, leaves no output or temporary file, and reports the
+     * first invalid byte even when it lies in a later chunk
+     */
+    @Test
+    public void testRejectedFileLeavesNothingBehind() throws Exception {
+        write("good.txt", "abc");
+        write("bad.txt", "hello world");
+        write("large.txt", letters(300) + "!" + letters(10) + "?");
+
+        DirectoryEncryptor encryptor = new DirectoryEncryptor(EncryptionMachine.DEFAULT_CIPHER,
+                InvalidCharPolicy.REJECT, pool, 64, 1);
+        DirectoryEncryptor.Report report = encryptor.encryptDirectory(tempDir.resolve("in"), tempDir.resolve("out"));
+
+        assertEquals(2, report.getFailureCount());
+        assertEquals(3, report.getBytes());
+        assertEquals(List.of(tempDir.resolve("out").resolve("good.txt").toAbsolutePath()), outputFiles());
+        for (DirectoryEncryptor.FileResult file : report.getFiles()) {
+            String name = file.getInput().getFileName().toString();
+            if (name.equals("bad.txt")) {
+                assertTrue(file.getError().endsWith("(found at byte 5)"), file.getError());
+            } else if (name.equals("large.txt")) {
+                assertTrue(file.getError().endsWith("(found at byte 300)"), file.getError());
+            } else {
+                assertTrue(file.isSuccessful());
+            }
+        }
+    }
+
+    /**
+     * Split files under pass-through and skip match the single-threaded file encryptor
+     */
+    @Test
+    public void testSplitFilesMatchFileEncryptor() throws Exception {
+        String text = (letters(50) + " " + letters(13) + "\n").repeat(20);
+        Path input = write("text.txt", text);
+
+        for (InvalidCharPolicy policy : List.of(InvalidCharPolicy.PASS_THROUGH, InvalidCharPolicy.SKIP,
+                InvalidCharPolicy.REPLACE)) {
+            Path expected = tempDir.resolve("expected-" + policy);
+            new FileEncryptor(EncryptionMachine.DEFAULT_CIPHER, policy, 64).encryptFile(input, expected);
+
+            DirectoryEncryptor encryptor = new DirectoryEncryptor(EncryptionMachine.DEFAULT_CIPHER, policy, pool, 64, 64);
+            assertEquals(0, encryptor.encryptDirectory(tempDir.resolve("in"), tempDir.resolve("out")).getFailureCount());
+            assertEquals(Files.readString(expected, StandardCharsets.ISO_8859_1), read("text.txt"), policy.toString());
+        }
+    }
+
+    /**
+     * Existing outputs are replaced and an output directory inside the input is not walked
+     */
+    @Test
+    public void testOutputInsideInput() throws Exception {
+        write("a.txt", "abc");
+        Path output = tempDir.resolve("in").resolve("encrypted");
+        Files.createDirectories(output);
+        Files.writeString(output.resolve("a.txt"), "stale");
+
+        DirectoryEncryptor encryptor = new DirectoryEncryptor(EncryptionMachine.DEFAULT_CIPHER,
+                InvalidCharPolicy.REJECT, pool);
+        DirectoryEncryptor.Report report = encryptor.encryptDirectory(tempDir.resolve("in"), output);
+
+        assertEquals(1, report.getFiles().size());
+        assertEquals("def", Files.readString(output.resolve("a.txt")));
+    }
+
+    /**
+     * Progress counts every chunk and file, including failed ones, and ends at the totals
+     */
+    @Test
+    public void testProgressReachesTotals() throws Exception {
+        write("a.txt", "abc");
+        write("bad.txt", "a b");
+        write("large.txt", letters(200) + "!" + letters(55));
+
+        java.util.Queue<long[]> updates = new java.util.concurrent.ConcurrentLinkedQueue<>();
+        DirectoryEncryptor encryptor = new DirectoryEncryptor(EncryptionMachine.DEFAULT_CIPHER,
+                InvalidCharPolicy.REJECT, pool, 64, 1);
+        encryptor.encryptDirectory(tempDir.resolve("in"), tempDir.resolve("out"),
+                (filesDone, fileCount, bytesDone, totalBytes) ->
+                        updates.add(new long[] {filesDone, fileCount, bytesDone, totalBytes}));
+
+        // Three files plus the three chunks of large.txt that were written
+        assertEquals(6, updates.size());
+        long files = 0;
+        long bytes = 0;
+        for (long[] update : updates) {
+            assertEquals(3, update[1]);
+            assertEquals(262, update[3]);
+            files = Math.max(files, update[0]);
+            bytes = Math.max(bytes, update[2]);
+        }
+        assertEquals(3, files);
+        assertEquals(262, bytes);
+    }
+
+    /**
+     * Chunk and batch sizes must be positive
+     */
+    @Test
+    public void testRejectsNonPositiveSizes() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new DirectoryEncryptor(EncryptionMachine.DEFAULT_CIPHER, InvalidCharPolicy.REJECT, pool, 0, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new DirectoryEncryptor(EncryptionMachine.DEFAULT_CIPHER, InvalidCharPolicy.REJECT, pool, 1, 0));
+    }
+}
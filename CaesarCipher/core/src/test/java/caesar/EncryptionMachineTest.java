@@ -0,0 +1,1143 @@
+package caesar;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+public class EncryptionMachineTest {
+
+    // ============================================
+    // Test Group 1: Standard and Boundary Encryption
+    // ============================================
+
+    /**
+     * BBT-1.1: Standard flow - basic encryption with shift of 3
+     */
+    @Test
+    public void testBBT_1_1_StandardFlow() throws Exception {
+        // Key: csci -> fvfl
+        assertEquals("fvfl", EncryptionMachine.encryptWord("csci"));
+        // Words: hello -> khoor, world -> zruog
+        assertEquals("khoor", EncryptionMachine.encryptWord("hello"));
+        assertEquals("zruog", EncryptionMachine.encryptWord("world"));
+    }
+
+    /**
+     * BBT-1.2: Full Alphabet Wrap-Around - tests x->a, y->b, z->c wrap logic
+     */
+    @Test
+    public void testBBT_1_2_FullAlphabetWrapAround() throws Exception {
+        // Key: xyz -> abc
+        assertEquals("abc", EncryptionMachine.encryptWord("xyz"));
+        // Word: zebra -> cheud
+        assertEquals("cheud", EncryptionMachine.encryptWord("zebra"));
+        // Verify individual wrap-around letters
+        assertEquals('a', EncryptionMachine.encryptLetter('x'));
+        assertEquals('b', EncryptionMachine.encryptLetter('y'));
+        assertEquals('c', EncryptionMachine.encryptLetter('z'));
+    }
+
+    /**
+     * BBT-1.3: Start of Alphabet - encryption for characters at start (no wrap)
+     */
+    @Test
+    public void testBBT_1_3_StartOfAlphabet() throws Exception {
+        // Key: abc -> def
+        assertEquals("def", EncryptionMachine.encryptWord("abc"));
+        // Word: apple -> dssoh
+        assertEquals("dssoh", EncryptionMachine.encryptWord("apple"));
+    }
+
+    /**
+     * BBT-1.4: Middle of Alphabet - basic functionality for non-boundary characters
+     */
+    @Test
+    public void testBBT_1_4_MiddleOfAlphabet() throws Exception {
+        // Key: mid -> plg
+        assertEquals("plg", EncryptionMachine.encryptWord("mid"));
+        // Word: program -> surjudp
+        assertEquals("surjudp", EncryptionMachine.encryptWord("program"));
+    }
+
+    /**
+     * BBT-1.5: Single Character Input - minimum valid length (1 character)
+     */
+    @Test
+    public void testBBT_1_5_SingleCharacterInput() throws Exception {
+        // Key: a -> d
+        assertEquals("d", EncryptionMachine.encryptWord("a"));
+        // Word: z -> c
+        assertEquals("c", EncryptionMachine.encryptWord("z"));
+    }
+
+    /**
+     * BBT-1.6: Long Input - handling of very long strings
+     */
+    @Test
+    public void testBBT_1_6_LongInput() throws Exception {
+        // Key: antidisestablishmentarianism -> dqwlglvhvwdeolvkphqwduldqlvp
+        assertEquals("dqwlglvhvwdeolvkphqwduldqlvp",
+                EncryptionMachine.encryptWord("antidisestablishmentarianism"));
+        // Word: pneumonoultramicroscopicsilicovolcanoconiosis ->
+        // sqhxprqrxowudplfurvfrslfvlolfryrofdqrfrqlrvlv
+        assertEquals("sqhxprqrxowudplfurvfrslfvlolfryrofdqrfrqlrvlv",
+                EncryptionMachine.encryptWord("pneumonoultramicroscopicsilicovolcanoconiosis"));
+    }
+
+    // ============================================
+    // Test Group 2: User Input Flow and Constraints
+    // ============================================
+
+    /**
+     * BBT-2.1: Zero Words - program handles word count of 0
+     * Note: This test only validates the key encryption, as the flow logic
+     * is in the main method which is not directly unit testable
+     */
+    @Test
+    public void testBBT_2_1_ZeroWords() throws Exception {
+        // Key: test -> whvw
+        assertEquals("whvw", EncryptionMachine.encryptWord("test"));
+    }
+
+    /**
+     * BBT-2.2: Large Number of Words - verifies multiple word encryption
+     */
+    @Test
+    public void testBBT_2_2_LargeNumberOfWords() throws Exception {
+        // Key: hi -> kl
+        assertEquals("kl", EncryptionMachine.encryptWord("hi"));
+        // Words: one, two, three, four, five
+        assertEquals("rqh", EncryptionMachine.encryptWord("one"));
+        assertEquals("wzr", EncryptionMachine.encryptWord("two"));
+        assertEquals("wkuhh", EncryptionMachine.encryptWord("three"));
+        assertEquals("irxu", EncryptionMachine.encryptWord("four"));
+        assertEquals("ilyh", EncryptionMachine.encryptWord("five"));
+    }
+
+    /**
+     * BBT-2.3: Prompting and Output - verifies encryption logic for key and word
+     * Note: Actual prompt verification would require integration testing
+     */
+    @Test
+    public void testBBT_2_3_PromptingAndOutput() throws Exception {
+        // Key: key -> nhb
+        assertEquals("nhb", EncryptionMachine.encryptWord("key"));
+        // Word: word -> zrug
+        assertEquals("zrug", EncryptionMachine.encryptWord("word"));
+    }
+
+    // ============================================
+    // Additional Test Cases for Branch Coverage
+    // ============================================
+
+    /**
+     * Test invalid character - should throw IllegalArgumentException
+     * This tests the branch in encryptLetter where charIndex == -1
+     */
+    @Test
+    public void testInvalidCharacterUppercase() {
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> {
+            EncryptionMachine.encryptLetter('A');
+        });
+        assertEquals("Only standard English alphabet letters a-z are allowed", exception.getMessage());
+    }
+
+    /**
+     * Test invalid character with number - should throw IllegalArgumentException
+     */
+    @Test
+    public void testInvalidCharacterNumber() {
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> {
+            EncryptionMachine.encryptLetter('5');
+        });
+        assertEquals("Only standard English alphabet letters a-z are allowed", exception.getMessage());
+    }
+
+    /**
+     * Test invalid character with special character - should throw
+     * IllegalArgumentException
+     */
+    @Test
+    public void testInvalidCharacterSpecial() {
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> {
+            EncryptionMachine.encryptLetter('!');
+        });
+        assertEquals("Only standard English alphabet letters a-z are allowed", exception.getMessage());
+    }
+
+    /**
+     * Test invalid word with uppercase letters - should throw
+     * IllegalArgumentException
+     */
+    @Test
+    public void testInvalidWordUppercase() {
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> {
+            EncryptionMachine.encryptWord("Hello");
+        });
+        assertEquals("Only standard English alphabet letters a-z are allowed", exception.getMessage());
+    }
+
+    /**
+     * Test invalid word with numbers - should throw IllegalArgumentException
+     */
+    @Test
+    public void testInvalidWordWithNumbers() {
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> {
+            EncryptionMachine.encryptWord("test123");
+        });
+        assertEquals("Only standard English alphabet letters a-z are allowed", exception.getMessage());
+    }
+
+    /**
+     * Test invalid word with spaces - should throw IllegalArgumentException
+     */
+    @Test
+    public void testInvalidWordWithSpaces() {
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> {
+            EncryptionMachine.encryptWord("hello world");
+        });
+        assertEquals("Only standard English alphabet letters a-z are allowed", exception.getMessage());
+    }
+
+    /**
+     * Test empty string - should return empty string (loop never executes)
+     */
+    @Test
+    public void testEmptyString() throws Exception {
+        assertEquals("", EncryptionMachine.encryptWord(""));
+    }
+
+    // ============================================
+    // Test Group 4: Console I/O Method Coverage
+    // ============================================
+    // Note: These tests require changing private methods to package-private
+    // (removing 'private' keyword) to allow testing
+
+    /**
+     * Test outputStartMessage - verifies the method executes without error
+     */
+    @Test
+    public void testOutputStartMessage() {
+        // Redirect System.out to capture output
+        java.io.ByteArrayOutputStream outContent = new java.io.ByteArrayOutputStream();
+        java.io.PrintStream originalOut = System.out;
+        System.setOut(new java.io.PrintStream(outContent));
+
+        try {
+            EncryptionMachine.outputStartMessage();
+
+            String output = outContent.toString();
+            assertTrue(output.contains("Welcome to the CSCI717 Encryption Machine Construction"));
+            assertTrue(output.contains("The program lets you encrypt a message"));
+        } finally {
+            System.setOut(originalOut);
+        }
+    }
+
+    /**
+     * Test outputEndMessage - verifies the method executes without error
+     */
+    @Test
+    public void testOutputEndMessage() {
+        // Redirect System.out to capture output
+        java.io.ByteArrayOutputStream outContent = new java.io.ByteArrayOutputStream();
+        java.io.PrintStream originalOut = System.out;
+        System.setOut(new java.io.PrintStream(outContent));
+
+        try {
+            EncryptionMachine.outputEndMessage();
+
+            String output = outContent.toString();
+            assertTrue(output.contains("Message fully encrypted"));
+        } finally {
+            System.setOut(originalOut);
+        }
+    }
+
+    /**
+     * Test outputEncryptedWord - verifies the method outputs correctly
+     */
+    @Test
+    public void testOutputEncryptedWord() {
+        // Redirect System.out to capture output
+        java.io.ByteArrayOutputStream outContent = new java.io.ByteArrayOutputStream();
+        java.io.PrintStream originalOut = System.out;
+        System.setOut(new java.io.PrintStream(outContent));
+
+        try {
+            EncryptionMachine.outputEncryptedWord("hello", "khoor");
+
+            String output = outContent.toString();
+            assertTrue(output.contains("\"hello\""));
+            assertTrue(output.contains("has been encrypted to:"));
+            assertTrue(output.contains("\"khoor\""));
+        } finally {
+            System.setOut(originalOut);
+        }
+    }
+
+    /**
+     * Test encryptKey - verifies the method reads input and encrypts correctly
+     */
+    @Test
+    public void testEncryptKey() throws Exception {
+        // Setup input and output streams
+        String input = "test\n";
+        java.io.ByteArrayInputStream inContent = new java.io.ByteArrayInputStream(input.getBytes());
+        java.io.ByteArrayOutputStream outContent = new java.io.ByteArrayOutputStream();
+
+        java.io.InputStream originalIn = System.in;
+        java.io.PrintStream originalOut = System.out;
+
+        System.setIn(inContent);
+        System.setOut(new java.io.PrintStream(outContent));
+
+        try {
+            java.util.Scanner scanner = new java.util.Scanner(System.in);
+            EncryptionMachine.encryptKey(scanner);
+
+            String output = outContent.toString();
+            assertTrue(output.contains("Enter a key:"));
+            assertTrue(output.contains("\"test\""));
+            assertTrue(output.contains("\"whvw\""));
+        } finally {
+            System.setIn(originalIn);
+            System.setOut(originalOut);
+        }
+    }
+
+    // ============================================
+    // Test Group 5: wordEncryptionLoop Coverage
+    // ============================================
+
+    /**
+     * Test wordEncryptionLoop with valid input - positive word count
+     */
+    @Test
+    public void testWordEncryptionLoopValidInput() throws Exception {
+        // Setup: 2 words
+        String input = "2\nhello\nworld\n";
+        java.io.ByteArrayInputStream inContent = new java.io.ByteArrayInputStream(input.getBytes());
+        java.io.ByteArrayOutputStream outContent = new java.io.ByteArrayOutputStream();
+
+        java.io.InputStream originalIn = System.in;
+        java.io.PrintStream originalOut = System.out;
+
+        System.setIn(inContent);
+        System.setOut(new java.io.PrintStream(outContent));
+
+        try {
+            java.util.Scanner scanner = new java.util.Scanner(System.in);
+            EncryptionMachine.wordEncryptionLoop(scanner);
+
+            String output = outContent.toString();
+            assertTrue(output.contains("How many words in your message?:"));
+            assertTrue(output.contains("Next word:"));
+            assertTrue(output.contains("\"hello\""));
+            assertTrue(output.contains("\"khoor\""));
+            assertTrue(output.contains("\"world\""));
+            assertTrue(output.contains("\"zruog\""));
+        } finally {
+            System.setIn(originalIn);
+            System.setOut(originalOut);
+        }
+    }
+
+    /**
+     * Test wordEncryptionLoop with zero words
+     */
+    @Test
+    public void testWordEncryptionLoopZeroWords() throws Exception {
+        String input = "0\n";
+        java.io.ByteArrayInputStream inContent = new java.io.ByteArrayInputStream(input.getBytes());
+        java.io.ByteArrayOutputStream outContent = new java.io.ByteArrayOutputStream();
+
+        java.io.InputStream originalIn = System.in;
+        java.io.PrintStream originalOut = System.out;
+
+        System.setIn(inContent);
+        System.setOut(new java.io.PrintStream(outContent));
+
+        try {
+            java.util.Scanner scanner = new java.util.Scanner(System.in);
+            EncryptionMachine.wordEncryptionLoop(scanner);
+
+            String output = outContent.toString();
+            assertTrue(output.contains("How many words in your message?:"));
+            assertTrue(output.contains("There were no words in the message."));
+        } finally {
+            System.setIn(originalIn);
+            System.setOut(originalOut);
+        }
+    }
+
+    /**
+     * Test wordEncryptionLoop with negative word count
+     */
+    @Test
+    public void testWordEncryptionLoopNegativeWords() throws Exception {
+        String input = "-5\n";
+        java.io.ByteArrayInputStream inContent = new java.io.ByteArrayInputStream(input.getBytes());
+        java.io.ByteArrayOutputStream outContent = new java.io.ByteArrayOutputStream();
+
+        java.io.InputStream originalIn = System.in;
+        java.io.PrintStream originalOut = System.out;
+
+        System.setIn(inContent);
+        System.setOut(new java.io.PrintStream(outContent));
+
+        try {
+            java.util.Scanner scanner = new java.util.Scanner(System.in);
+            EncryptionMachine.wordEncryptionLoop(scanner);
+
+            String output = outContent.toString();
+            assertTrue(output.contains("How many words in your message?:"));
+            assertTrue(output.contains("There were no words in the message."));
+        } finally {
+            System.setIn(originalIn);
+            System.setOut(originalOut);
+        }
+    }
+
+    /**
+     * Test wordEncryptionLoop with invalid input (non-numeric)
+     */
+    @Test
+    public void testWordEncryptionLoopInvalidInput() throws Exception {
+        String input = "abc\n";
+        java.io.ByteArrayInputStream inContent = new java.io.ByteArrayInputStream(input.getBytes());
+        java.io.ByteArrayOutputStream outContent = new java.io.ByteArrayOutputStream();
+
+        java.io.InputStream originalIn = System.in;
+        java.io.PrintStream originalOut = System.out;
+
+        System.setIn(inContent);
+        System.setOut(new java.io.PrintStream(outContent));
+
+        try {
+            java.util.Scanner scanner = new java.util.Scanner(System.in);
+            EncryptionMachine.wordEncryptionLoop(scanner);
+
+            String output = outContent.toString();
+            assertTrue(output.contains("How many words in your message?:"));
+            assertTrue(output.contains("A number was expected to be entered."));
+        } finally {
+            System.setIn(originalIn);
+            System.setOut(originalOut);
+        }
+    }
+
+    /**
+     * Test wordEncryptionLoop with exception thrown during word encryption
+     */
+    @Test
+    public void testWordEncryptionLoopWithInvalidWord() {
+        // Setup: 1 word, but the word contains invalid characters
+        String input = "1\nHELLO\n";
+        java.io.ByteArrayInputStream inContent = new java.io.ByteArrayInputStream(input.getBytes());
+        java.io.ByteArrayOutputStream outContent = new java.io.ByteArrayOutputStream();
+
+        java.io.InputStream originalIn = System.in;
+        java.io.PrintStream originalOut = System.out;
+
+        System.setIn(inContent);
+        System.setOut(new java.io.PrintStream(outContent));
+
+        try {
+            java.util.Scanner scanner = new java.util.Scanner(System.in);
+
+            // This should throw an exception when trying to encrypt "HELLO"
+            assertThrows(IllegalArgumentException.class, () -> {
+                EncryptionMachine.wordEncryptionLoop(scanner);
+            });
+        } finally {
+            System.setIn(originalIn);
+            System.setOut(originalOut);
+        }
+    }
+
+    /**
+     * Test wordEncryptionLoop with single word - ensures all paths in loop are
+     * covered
+     */
+    @Test
+    public void testWordEncryptionLoopSingleWord() throws Exception {
+        // Setup: exactly 1 word
+        String input = "1\ntest\n";
+        java.io.ByteArrayInputStream inContent = new java.io.ByteArrayInputStream(input.getBytes());
+        java.io.ByteArrayOutputStream outContent = new java.io.ByteArrayOutputStream();
+
+        java.io.InputStream originalIn = System.in;
+        java.io.PrintStream originalOut = System.out;
+
+        System.setIn(inContent);
+        System.setOut(new java.io.PrintStream(outContent));
+
+        try {
+            java.util.Scanner scanner = new java.util.Scanner(System.in);
+            EncryptionMachine.wordEncryptionLoop(scanner);
+
+            String output = outContent.toString();
+            assertTrue(output.contains("How many words in your message?:"));
+            assertTrue(output.contains("Next word:"));
+            assertTrue(output.contains("\"test\""));
+            assertTrue(output.contains("\"whvw\""));
+        } finally {
+            System.setIn(originalIn);
+            System.setOut(originalOut);
+        }
+    }
+
+    // ============================================
+    // Test Group 6: Main Method Coverage
+    // ============================================
+
+    /**
+     * Test main method - full integration test
+     */
+    @Test
+    public void testMainMethod() {
+        // Simulate complete user interaction: key + 1 word
+        String input = "test\n1\nhello\n";
+        java.io.ByteArrayInputStream inContent = new java.io.ByteArrayInputStream(input.getBytes());
+        java.io.ByteArrayOutputStream outContent = new java.io.ByteArrayOutputStream();
+
+        java.io.InputStream originalIn = System.in;
+        java.io.PrintStream originalOut = System.out;
+
+        System.setIn(inContent);
+        System.setOut(new java.io.PrintStream(outContent));
+
+        try {
+            EncryptionMachine.main(new String[] {});
+
+            String output = outContent.toString();
+            // Verify start message
+            assertTrue(output.contains("Welcome to the CSCI717 Encryption Machine Construction"));
+            // Verify key encryption
+            assertTrue(output.contains("Enter a key:"));
+            assertTrue(output.contains("\"test\""));
+            assertTrue(output.contains("\"whvw\""));
+            // Verify word loop
+            assertTrue(output.contains("How many words in your message?:"));
+            assertTrue(output.contains("Next word:"));
+            assertTrue(output.contains("\"hello\""));
+            assertTrue(output.contains("\"khoor\""));
+            // Verify end message
+            assertTrue(output.contains("Message fully encrypted"));
+        } finally {
+            System.setIn(originalIn);
+            System.setOut(originalOut);
+        }
+    }
+
+    /**
+     * Test main method with exception handling - invalid character in key
+     */
+    @Test
+    public void testMainMethodWithException() {
+        // Simulate user entering invalid key
+        String input = "TEST\n";
+        java.io.ByteArrayInputStream inContent = new java.io.ByteArrayInputStream(input.getBytes());
+        java.io.ByteArrayOutputStream outContent = new java.io.ByteArrayOutputStream();
+
+        java.io.InputStream originalIn = System.in;
+        java.io.PrintStream originalOut = System.out;
+
+        System.setIn(inContent);
+        System.setOut(new java.io.PrintStream(outContent));
+
+        try {
+            Exception exception = assertThrows(RuntimeException.class, () -> {
+                EncryptionMachine.main(new String[] {});
+            });
+
+            // Verify it's wrapping an IllegalArgumentException
+            assertTrue(exception.getCause() instanceof IllegalArgumentException);
+        } finally {
+            System.setIn(originalIn);
+            System.setOut(originalOut);
+        }
+    }
+
+    // ============================================
+    // Test Group 3: Constant Modification (Hypothetical)
+    // ============================================
+    // Note: These tests cannot be directly implemented without modifying
+    // the SHIFT constant or refactoring the code to accept shift as a parameter.
+    // They are documented here for completeness but would require code changes
+    // to make SHIFT configurable for testing purposes.
+
+    /*
+     * BBT-3.1: Shift = 1 (Standard, no wrap)
+     * With SHIFT = 1: a -> b, play -> qmbz
+     * 
+     * BBT-3.2: Shift = 1 (Wrap-around)
+     * With SHIFT = 1: z -> a, zebra -> afcsb
+     * 
+     * BBT-3.3: Shift = 25 (Reverse Shift)
+     * With SHIFT = 25: a -> z, zulu -> yult
+     * 
+     * To implement these tests, consider refactoring encryptLetter and encryptWord
+     * to accept a shift parameter, or create separate methods for testing purposes.
+     */
+
+    // ============================================
+    // Test Group 7: Bulk Encryption
+    // ============================================
+
+    /**
+     * Bulk char[] encryption matches encryptWord, both in place and into a destination
+     */
+    @Test
+    public void testEncryptCharsMatchesEncryptWord() throws Exception {
+        String word = "pneumonoultramicroscopicsilicovolcanoconiosis";
+        String expected = EncryptionMachine.encryptWord(word);
+
+        char[] inPlace = ("__" + word + "__").toCharArray();
+        EncryptionMachine.encryptChars(inPlace, 2, word.length());
+        assertEquals("__" + expected + "__", new String(inPlace));
+
+        char[] dst = new char[word.length() + 1];
+        EncryptionMachine.encryptChars(word.toCharArray(), 0, dst, 1, word.length());
+        assertEquals(expected, new String(dst, 1, word.length()));
+    }
+
+    /**
+     * Bulk byte[] encryption matches encryptWord for ASCII input
+     */
+    @Test
+    public void testEncryptBytesMatchesEncryptWord() throws Exception {
+        byte[] bytes = "hello".getBytes(java.nio.charset.StandardCharsets.US_ASCII);
+        EncryptionMachine.encryptBytes(bytes, 0, bytes.length);
+        assertEquals("khoor", new String(bytes, java.nio.charset.StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Buffer encryption advances positions and works for heap and direct buffers
+     */
+    @Test
+    public void testEncryptBuffers() {
+        java.nio.CharBuffer chars = java.nio.CharBuffer.wrap("xyz".toCharArray());
+        EncryptionMachine.encryptChars(chars);
+        assertFalse(chars.hasRemaining());
+        assertEquals("abc", chars.flip().toString());
+
+        java.nio.CharBuffer readOnly = java.nio.CharBuffer.wrap("world");
+        java.nio.CharBuffer charDst = java.nio.CharBuffer.allocate(5);
+        EncryptionMachine.encryptChars(readOnly, charDst);
+        assertEquals("zruog", charDst.flip().toString());
+
+        java.nio.ByteBuffer src = java.nio.ByteBuffer.allocateDirect(3);
+        src.put("mid".getBytes(java.nio.charset.StandardCharsets.US_ASCII)).flip();
+        java.nio.ByteBuffer dst = java.nio.ByteBuffer.allocateDirect(3);
+        EncryptionMachine.encryptBytes(src, dst);
+        assertEquals(3, src.position());
+        dst.flip();
+        assertEquals("plg", java.nio.charset.StandardCharsets.US_ASCII.decode(dst).toString());
+    }
+
+    /**
+     * Bulk entry points reject invalid characters like encryptWord does
+     */
+    @Test
+    public void testBulkInvalidCharacters() {
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> {
+            EncryptionMachine.encryptChars("Hello".toCharArray(), 0, 5);
+        });
+        assertEquals("Only standard English alphabet letters a-z are allowed", exception.getMessage());
+
+        java.nio.ByteBuffer bytes = java.nio.ByteBuffer.wrap("test123".getBytes(java.nio.charset.StandardCharsets.US_ASCII));
+        assertThrows(IllegalArgumentException.class, () -> EncryptionMachine.encryptBytes(bytes));
+        assertEquals(0, bytes.position());
+
+        assertThrows(java.nio.BufferOverflowException.class, () -> {
+            EncryptionMachine.encryptChars(java.nio.CharBuffer.wrap("abc"), java.nio.CharBuffer.allocate(2));
+        });
+    }
+
+    // ============================================
+    // Test Group 8: Decryption
+    // ============================================
+
+    /**
+     * decryptWord and decryptLetter reverse encryptWord and encryptLetter, including wrap-around
+     */
+    @Test
+    public void testDecryptReversesEncrypt() throws Exception {
+        assertEquals("hello", EncryptionMachine.decryptWord("khoor"));
+        assertEquals("xyz", EncryptionMachine.decryptWord("abc"));
+        assertEquals('z', EncryptionMachine.decryptLetter('c'));
+        assertEquals("pneumonoultramicroscopicsilicovolcanoconiosis", EncryptionMachine.decryptWord(
+                EncryptionMachine.encryptWord("pneumonoultramicroscopicsilicovolcanoconiosis")));
+    }
+
+    /**
+     * Decryption rejects invalid characters like encryption does
+     */
+    @Test
+    public void testDecryptInvalidCharacter() {
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> {
+            EncryptionMachine.decryptWord("Khoor");
+        });
+        assertEquals("Only standard English alphabet letters a-z are allowed", exception.getMessage());
+    }
+
+    // ============================================
+    // Test Group 9: Batch Encryption
+    // ============================================
+
+    /**
+     * Batch encryption of arrays, lists and streams matches encryptWord
+     */
+    @Test
+    public void testEncryptWordsBatch() {
+        assertArrayEquals(new String[] {"rqh", "wzr", "wkuhh"}, EncryptionMachine.encryptWords("one", "two", "three"));
+        assertEquals(java.util.List.of("irxu", "ilyh"), EncryptionMachine.encryptWords(java.util.List.of("four", "five")));
+        assertEquals(java.util.List.of("kl", ""),
+                EncryptionMachine.encryptWords(java.util.stream.Stream.of("hi", "")).collect(java.util.stream.Collectors.toList()));
+    }
+
+    /**
+     * Writing a large batch produces one ciphertext per line
+     */
+    @Test
+    public void testWriteEncryptedWordsLargeBatch() throws Exception {
+        java.util.List<String> words = new java.util.ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            words.add(i % 2 == 0 ? "hello" : "antidisestablishmentarianism");
+        }
+
+        java.io.StringWriter out = new java.io.StringWriter();
+        EncryptionMachine.writeEncryptedWords(words, out);
+
+        String[] lines = out.toString().split(System.lineSeparator());
+        assertEquals(10000, lines.length);
+        assertEquals("khoor", lines[0]);
+        assertEquals("dqwlglvhvwdeolvkphqwduldqlvp", lines[9999]);
+    }
+
+    /**
+     * The batch mode reads words from stdin without prompting
+     */
+    @Test
+    public void testMainBatchMode() {
+        String input = "hello\nworld\n";
+        java.io.ByteArrayInputStream inContent = new java.io.ByteArrayInputStream(input.getBytes());
+        java.io.ByteArrayOutputStream outContent = new java.io.ByteArrayOutputStream();
+
+        java.io.InputStream originalIn = System.in;
+        java.io.PrintStream originalOut = System.out;
+
+        System.setIn(inContent);
+        System.setOut(new java.io.PrintStream(outContent));
+
+        try {
+            EncryptionMachine.main(new String[] {"--batch"});
+
+            String output = outContent.toString();
+            assertEquals("khoor" + System.lineSeparator() + "zruog" + System.lineSeparator(), output);
+            assertFalse(output.contains("Next word:"));
+        } finally {
+            System.setIn(originalIn);
+            System.setOut(originalOut);
+        }
+    }
+
+    /**
+     * The batch mode stops at the first invalid word
+     */
+    @Test
+    public void testBatchModeInvalidWord() {
+        java.io.ByteArrayInputStream in = new java.io.ByteArrayInputStream("hello\nWORLD\n".getBytes());
+        assertThrows(IllegalArgumentException.class, () -> {
+            EncryptionMachine.batchEncryptionMode(in, new java.io.ByteArrayOutputStream());
+        });
+    }
+
+    // ============================================
+    // Test Group 10: Exception-Free Validation
+    // ============================================
+
+    /**
+     * validateWord reports the first invalid offset, or -1 for a clean word
+     */
+    @Test
+    public void testValidateWord() {
+        assertEquals(-1, EncryptionMachine.validateWord("hello"));
+        assertEquals(-1, EncryptionMachine.validateWord(""));
+        assertEquals(0, EncryptionMachine.validateWord("Hello"));
+        assertEquals(5, EncryptionMachine.validateWord("hello world"));
+    }
+
+    /**
+     * A clean word encrypts exactly as encryptWord under every policy
+     */
+    @Test
+    public void testTryEncryptWordValid() {
+        for (InvalidCharPolicy policy : InvalidCharPolicy.values()) {
+            EncryptionResult result = EncryptionMachine.tryEncryptWord("hello", policy);
+            assertTrue(result.isValid());
+            assertFalse(result.isRejected());
+            assertEquals("khoor", result.getText());
+            assertEquals(0, result.getInvalidCount());
+        }
+    }
+
+    /**
+     * Each policy handles invalid characters and all offsets are reported
+     */
+    @Test
+    public void testTryEncryptWordPolicies() {
+        String word = "Hi there!";
+        int[] offsets = {0, 2, 8};
+
+        EncryptionResult rejected = EncryptionMachine.tryEncryptWord(word, InvalidCharPolicy.REJECT);
+        assertTrue(rejected.isRejected());
+        assertNull(rejected.getText());
+        assertArrayEquals(offsets, rejected.getInvalidOffsets());
+
+        EncryptionResult passed = EncryptionMachine.tryEncryptWord(word, InvalidCharPolicy.PASS_THROUGH);
+        assertEquals("Hl wkhuh!", passed.getText());
+        assertArrayEquals(offsets, passed.getInvalidOffsets());
+
+        EncryptionResult skipped = EncryptionMachine.tryEncryptWord(word, InvalidCharPolicy.SKIP);
+        assertEquals("lwkhuh", skipped.getText());
+        assertEquals(3, skipped.getInvalidCount());
+
+        EncryptionResult replaced = EncryptionMachine.tryEncryptWord(word, InvalidCharPolicy.REPLACE);
+        assertEquals("?l?wkhuh?", replaced.getText());
+        assertFalse(replaced.isValid());
+    }
+
+    /**
+     * The status-code bulk methods return the count written or the encoded reject offset
+     */
+    @Test
+    public void testBulkStatusCodes() {
+        Cipher cipher = EncryptionMachine.DEFAULT_CIPHER;
+        char[] chars = "ab-cd".toCharArray();
+        char[] encrypted = new char[chars.length];
+
+        assertEquals(-1 - 2, cipher.encryptChars(chars, 0, encrypted, 0, chars.length, InvalidCharPolicy.REJECT, '?'));
+        assertEquals(4, cipher.encryptChars(chars, 0, encrypted, 0, chars.length, InvalidCharPolicy.SKIP, '?'));
+        assertEquals("defg", new String(encrypted, 0, 4));
+        assertEquals(5, cipher.encryptChars(chars, 0, encrypted, 0, chars.length, InvalidCharPolicy.REPLACE, '*'));
+        assertEquals("de*fg", new String(encrypted));
+
+        byte[] bytes = "xy z".getBytes(java.nio.charset.StandardCharsets.ISO_8859_1);
+        byte[] encryptedBytes = new byte[bytes.length];
+        assertEquals(-1 - 2, cipher.encryptBytes(bytes, 0, encryptedBytes, 0, bytes.length, InvalidCharPolicy.REJECT, (byte) '?'));
+        assertEquals(4, cipher.encryptBytes(bytes, 0, bytes, 0, bytes.length, InvalidCharPolicy.PASS_THROUGH, (byte) '?'));
+        assertEquals("ab c", new String(bytes, java.nio.charset.StandardCharsets.ISO_8859_1));
+    }
+
+    /**
+     * The reporting loop reports an invalid word and carries on instead of throwing
+     */
+    @Test
+    public void testWordEncryptionLoopReportsInvalidWord() {
+        java.util.Scanner scanner = new java.util.Scanner("2\nHello\nworld\n");
+        java.io.StringWriter out = new java.io.StringWriter();
+        OutputSink sink = OutputSink.buffered(out);
+
+        EncryptionMachine.wordEncryptionLoop(scanner, sink, InvalidCharPolicy.REJECT);
+        sink.flush();
+
+        String output = out.toString();
+        assertTrue(output.contains("\"Hello\" was not encrypted, invalid characters at offsets [0]"));
+        assertTrue(output.contains("\"world\" has been encrypted to: \"zruog\""));
+    }
+
+    /**
+     * The interactive mode with --invalid= reports an invalid word and encrypts the rest
+     */
+    @Test
+    public void testMainInteractiveModeWithPolicy() {
+        java.io.ByteArrayInputStream inContent = new java.io.ByteArrayInputStream("test\n2\nHello\nworld\n".getBytes());
+        java.io.ByteArrayOutputStream outContent = new java.io.ByteArrayOutputStream();
+
+        java.io.InputStream originalIn = System.in;
+        java.io.PrintStream originalOut = System.out;
+
+        System.setIn(inContent);
+        System.setOut(new java.io.PrintStream(outContent));
+
+        try {
+            EncryptionMachine.main(new String[] {"--invalid=reject"});
+
+            String output = outContent.toString();
+            assertTrue(output.contains("\"Hello\" was not encrypted, invalid characters at offsets [0]"));
+            assertTrue(output.contains("\"world\" has been encrypted to: \"zruog\""));
+            assertTrue(output.contains("Message fully encrypted"));
+        } finally {
+            System.setIn(originalIn);
+            System.setOut(originalOut);
+        }
+
+        assertThrows(RuntimeException.class, () -> EncryptionMachine.main(new String[] {"--vigenere", "--invalid=skip"}));
+    }
+
+    /**
+     * The batch mode with --invalid= keeps one output line per input line instead of throwing
+     */
+    @Test
+    public void testMainBatchModeWithPolicy() {
+        java.io.InputStream originalIn = System.in;
+        java.io.PrintStream originalOut = System.out;
+        String n = System.lineSeparator();
+
+        try {
+            java.io.ByteArrayOutputStream outContent = new java.io.ByteArrayOutputStream();
+            System.setIn(new java.io.ByteArrayInputStream("hello\nHello!\nxyz\n".getBytes()));
+            System.setOut(new java.io.PrintStream(outContent));
+            EncryptionMachine.main(new String[] {"--batch", "--invalid=reject"});
+            assertEquals("khoor" + n + "ERROR invalid character at offset 0" + n + "abc" + n, outContent.toString());
+
+            outContent.reset();
+            System.setIn(new java.io.ByteArrayInputStream("Hello!\n".getBytes()));
+            EncryptionMachine.main(new String[] {"--batch", "--invalid=pass-through"});
+            assertEquals("Hhoor!" + n, outContent.toString());
+        } finally {
+            System.setIn(originalIn);
+            System.setOut(originalOut);
+        }
+    }
+
+    // ============================================
+    // Test Group 11: Keyed (Vigenere) Mode
+    // ============================================
+
+    /**
+     * The keyed loop runs the key on from one word to the next
+     */
+    @Test
+    public void testKeyedEncryptionLoop() {
+        java.util.Scanner scanner = new java.util.Scanner("lemon\n3\nattack\nat\ndawn\n");
+        java.io.StringWriter out = new java.io.StringWriter();
+        OutputSink sink = OutputSink.buffered(out);
+
+        VigenereCipher cipher = EncryptionMachine.readKey(scanner, sink);
+        EncryptionMachine.keyedEncryptionLoop(scanner, sink, cipher);
+        sink.flush();
+
+        String output = out.toString();
+        assertTrue(output.contains("Enter a key:"));
+        assertTrue(output.contains("\"attack\" has been encrypted to: \"lxfopv\""));
+        assertTrue(output.contains("\"at\" has been encrypted to: \"ef\""));
+        assertTrue(output.contains("\"dawn\" has been encrypted to: \"rnhr\""));
+    }
+
+    /**
+     * The --vigenere flag runs the interactive mode with the entered key
+     */
+    @Test
+    public void testMainVigenereMode() {
+        java.io.InputStream originalIn = System.in;
+        java.io.PrintStream originalOut = System.out;
+        java.io.ByteArrayOutputStream outContent = new java.io.ByteArrayOutputStream();
+
+        System.setIn(new java.io.ByteArrayInputStream("lemon\n1\nattackatdawn\n".getBytes()));
+        System.setOut(new java.io.PrintStream(outContent));
+
+        try {
+            EncryptionMachine.main(new String[] {"--vigenere"});
+
+            String output = outContent.toString();
+            assertTrue(output.contains("\"attackatdawn\" has been encrypted to: \"lxfopvefrnhr\""));
+            assertFalse(output.contains("\"lemon\" has been encrypted"));
+            assertTrue(output.contains("Message fully encrypted"));
+        } finally {
+            System.setIn(originalIn);
+            System.setOut(originalOut);
+        }
+    }
+
+    // ============================================
+    // Test Group 12: Argument Mode
+    // ============================================
+
+    /**
+     * --encrypt prints one encrypted word per argument, with or without a key
+     */
+    @Test
+    public void testArgumentEncryptionMode() throws Exception {
+        java.io.ByteArrayOutputStream out = new java.io.ByteArrayOutputStream();
+        EncryptionMachine.argumentEncryptionMode(new String[] {"--encrypt", "hello", "world"}, out);
+        assertEquals("khoor" + System.lineSeparator() + "zruog" + System.lineSeparator(), out.toString());
+
+        out.reset();
+        EncryptionMachine.argumentEncryptionMode(new String[] {"--encrypt", "--key=lemon", "attack", "at", "dawn"}, out);
+        assertEquals(java.util.List.of("lxfopv", "ef", "rnhr"), out.toString().lines().toList());
+
+        out.reset();
+        EncryptionMachine.argumentEncryptionMode(new String[] {"--encrypt"}, out);
+        assertEquals("", out.toString());
+    }
+
+    /**
+     * An invalid word fails --encrypt without printing anything
+     */
+    @Test
+    public void testArgumentEncryptionModeInvalidWord() {
+        java.io.ByteArrayOutputStream out = new java.io.ByteArrayOutputStream();
+        assertThrows(IllegalArgumentException.class,
+                () -> EncryptionMachine.argumentEncryptionMode(new String[] {"--encrypt", "hello", "World"}, out));
+        assertEquals(0, out.size());
+    }
+
+    /**
+     * main dispatches --encrypt to the argument mode
+     */
+    @Test
+    public void testMainArgumentMode() {
+        java.io.PrintStream originalOut = System.out;
+        java.io.ByteArrayOutputStream outContent = new java.io.ByteArrayOutputStream();
+        System.setOut(new java.io.PrintStream(outContent));
+
+        try {
+            EncryptionMachine.main(new String[] {"--encrypt", "xyz"});
+            assertEquals("abc", outContent.toString().strip());
+        } finally {
+            System.setOut(originalOut);
+        }
+    }
+
+    // ============================================
+    // Test Group 13: Directory Mode
+    // ============================================
+
+    /**
+     * main dispatches --encrypt-dir, encrypts the tree and prints the aggregate line
+     */
+    @Test
+    public void testMainDirectoryMode(@org.junit.jupiter.api.io.TempDir java.nio.file.Path tempDir) throws Exception {
+        java.nio.file.Path input = java.nio.file.Files.createDirectories(tempDir.resolve("in").resolve("sub"));
+        java.nio.file.Files.writeString(input.resolve("a.txt"), "xyz");
+        java.nio.file.Files.writeString(tempDir.resolve("in").resolve("b.txt"), "Xyz");
+        java.nio.file.Path output = tempDir.resolve("out");
+
+        java.io.PrintStream originalOut = System.out;
+        java.io.ByteArrayOutputStream outContent = new java.io.ByteArrayOutputStream();
+        System.setOut(new java.io.PrintStream(outContent));
+
+        try {
+            EncryptionMachine.main(new String[] {"--encrypt-dir", tempDir.resolve("in").toString(),
+                    output.toString(), "--threads=2"});
+            assertEquals("abc", java.nio.file.Files.readString(output.resolve("sub").resolve("a.txt")));
+            assertFalse(java.nio.file.Files.exists(output.resolve("b.txt")));
+            assertTrue(outContent.toString().contains("b.txt: failed, "));
+            assertTrue(outContent.toString().contains("Encrypted 1 of 2 files, 3 bytes"));
+        } finally {
+            System.setOut(originalOut);
+        }
+    }
+
+    // ============================================
+    // Test Group 14: Archive Mode
+    // ============================================
+
+    /**
+     * --archive stores one record per line and --extract prints a range of them
+     */
+    @Test
+    public void testMainArchiveAndExtract(@org.junit.jupiter.api.io.TempDir java.nio.file.Path tempDir) throws Exception {
+        java.nio.file.Path input = java.nio.file.Files.write(tempDir.resolve("words.txt"),
+                java.util.List.of("attack", "at", "dawn", "retreat"));
+        java.nio.file.Path archive = tempDir.resolve("words.arc");
+
+        java.io.PrintStream originalOut = System.out;
+        java.io.ByteArrayOutputStream outContent = new java.io.ByteArrayOutputStream();
+        System.setOut(new java.io.PrintStream(outContent));
+
+        try {
+            EncryptionMachine.main(new String[] {"--archive", input.toString(), archive.toString(), "--block-size=8"});
+            assertEquals("Archived 4 records to " + archive, outContent.toString().strip());
+
+            outContent.reset();
+            EncryptionMachine.main(new String[] {"--extract", archive.toString(), "1", "2"});
+            assertEquals(java.util.List.of("at", "dawn"), outContent.toString().lines().toList());
+        } finally {
+            System.setOut(originalOut);
+        }
+    }
+
+    /**
+     * A line outside the alphabet fails --archive and leaves no archive behind
+     */
+    @Test
+    public void testArchiveModeInvalidLine(@org.junit.jupiter.api.io.TempDir java.nio.file.Path tempDir) throws Exception {
+        java.nio.file.Path input = java.nio.file.Files.write(tempDir.resolve("words.txt"),
+                java.util.List.of("hello", "hello world"));
+        java.nio.file.Path archive = tempDir.resolve("words.arc");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> EncryptionMachine.archiveMode(new String[] {"--archive", input.toString(), archive.toString()}));
+        assertFalse(java.nio.file.Files.exists(archive));
+    }
+
+    // ============================================
+    // Test Group 15: Incremental File Mode
+    // ============================================
+
+    /**
+     * --encrypt-file --incremental reports how many chunks changed since the last run
+     */
+    @Test
+    public void testMainIncrementalFileMode(@org.junit.jupiter.api.io.TempDir java.nio.file.Path tempDir) throws Exception {
+        java.nio.file.Path input = java.nio.file.Files.writeString(tempDir.resolve("log.txt"), "hello\n");
+        java.nio.file.Path output = tempDir.resolve("log.enc");
+        String[] args = {"--encrypt-file", input.toString(), output.toString(), "--chunk-size=4", "--incremental",
+                "--invalid=pass-through"};
+
+        java.io.PrintStream originalOut = System.out;
+        java.io.ByteArrayOutputStream outContent = new java.io.ByteArrayOutputStream();
+        System.setOut(new java.io.PrintStream(outContent));
+
+        try {
+            EncryptionMachine.main(args);
+            assertEquals("Encrypted 2 of 2 chunks (6 of 6 bytes) to " + output, outContent.toString().strip());
+
+            outContent.reset();
+            java.nio.file.Files.writeString(input, "world\n", java.nio.file.StandardOpenOption.APPEND);
+            EncryptionMachine.main(args);
+            assertEquals("Encrypted 2 of 3 chunks (8 of 12 bytes) to " + output, outContent.toString().strip());
+            assertEquals("khoor\nzruog\n", java.nio.file.Files.readString(output));
+        } finally {
+            System.setOut(originalOut);
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> EncryptionMachine.fileEncryptionMode(
+                new String[] {"--encrypt-file", input.toString(), output.toString(), "--key=abc", "--incremental"}));
+    }
+
+    // ============================================
+    // Test Group 16: Re-keying Mode
+    // ============================================
+
+    /**
+     * --rekey converts ciphertext under the default shift to another shift and keeps other bytes
+     */
+    @Test
+    public void testMainRekeyMode(@org.junit.jupiter.api.io.TempDir java.nio.file.Path tempDir) throws Exception {
+        java.nio.file.Path input = java.nio.file.Files.createDirectories(tempDir.resolve("in"));
+        java.nio.file.Files.writeString(input.resolve("a.txt"), EncryptionMachine.encryptWord("attack") + "\n");
+        java.nio.file.Path output = tempDir.resolve("out");
+
+        java.io.PrintStream originalOut = System.out;
+        java.io.ByteArrayOutputStream outContent = new java.io.ByteArrayOutputStream();
+        System.setOut(new java.io.PrintStream(outContent));
+
+        try {
+            EncryptionMachine.main(new String[] {"--rekey", input.toString(), output.toString(), "--to=10", "--threads=2"});
+            assertEquals(new Cipher(EncryptionMachine.ALPHABET, 10).encryptWord("attack") + "\n",
+                    java.nio.file.Files.readString(output.resolve("a.txt")));
+            assertTrue(outContent.toString().contains("Re-keyed 1 of 1 files from shift 3 to 10, 7 bytes"));
+        } finally {
+            System.setOut(originalOut);
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> EncryptionMachine.rekeyMode(
+                new String[] {"--rekey", input.toString(), output.toString(), "--from=1"}));
+    }
+
+}
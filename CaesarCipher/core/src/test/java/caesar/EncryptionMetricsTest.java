@@ -0,0 +1,132 @@
+package caesar;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.util.List;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class EncryptionMetricsTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final EncryptionMetrics metrics = EncryptionMetrics.get();
+
+    @BeforeEach
+    public void setUp() {
+        metrics.reset();
+    }
+
+    /**
+     * Metrics are off by default and the public entry points then record nothing
+     */
+    @Test
+    public void testDisabledByDefault() throws Exception {
+        assertFalse(EncryptionMetrics.ENABLED);
+        assertFalse(metrics.isEnabled());
+
+        EncryptionMachine.encryptWord("hello");
+        EncryptionMachine.encryptWords("one", "two");
+        assertEquals(0, metrics.getWordsEncrypted());
+        assertEquals(0, metrics.getCharactersEncrypted());
+    }
+
+    /**
+     * The recording paths count words, characters, rejections and latencies
+     */
+    @Test
+    public void testRecording() {
+        Cipher cipher = EncryptionMachine.DEFAULT_CIPHER;
+        assertEquals("khoor", EncryptionMetrics.encryptWord(cipher, "hello"));
+        assertEquals('d', EncryptionMetrics.encryptLetter(cipher, 'a'));
+        assertThrows(IllegalArgumentException.class, () -> EncryptionMetrics.encryptWord(cipher, "Hello"));
+        assertThrows(IllegalArgumentException.class, () -> EncryptionMetrics.encryptLetter(cipher, 'A'));
+        assertArrayEquals(new String[] {"rqh", "wzr"},
+                EncryptionMetrics.encryptWords(new String[] {"one", "two"}, cipher::encryptWords, List.of("one", "two")));
+
+        assertEquals(3, metrics.getWordsEncrypted());
+        assertEquals(5 + 1 + 6, metrics.getCharactersEncrypted());
+        assertEquals(2, metrics.getInvalidCharacterRejections());
+        assertEquals(2, metrics.getEncryptWordCalls());
+        assertTrue(metrics.getEncryptWordLatencyP99Nanos() >= metrics.getEncryptWordLatencyP50Nanos());
+        assertTrue(metrics.getEncryptWordLatencyP50Nanos() > 0);
+
+        metrics.reset();
+        assertEquals(0, metrics.getEncryptWordCalls());
+        assertEquals(0, metrics.getEncryptWordLatencyP99Nanos());
+    }
+
+    /**
+     * The policy and writer paths count words and characters, and rejections of invalid words
+     */
+    @Test
+    public void testPolicyAndWriterRecording() throws Exception {
+        Cipher cipher = EncryptionMachine.DEFAULT_CIPHER;
+        assertEquals("kh!oor", EncryptionMetrics.tryEncryptWord(cipher, "he!llo", InvalidCharPolicy.PASS_THROUGH).getText());
+        assertTrue(EncryptionMetrics.tryEncryptWord(cipher, "he!llo", InvalidCharPolicy.REJECT).isRejected());
+        assertEquals(1, metrics.getWordsEncrypted());
+        assertEquals(5, metrics.getCharactersEncrypted());
+        assertEquals(1, metrics.getInvalidCharacterRejections());
+
+        metrics.reset();
+        StringWriter out = new StringWriter();
+        EncryptionMetrics.writeEncryptedWords(cipher, List.of("one", "two"), out);
+        assertEquals("rqh" + System.lineSeparator() + "wzr" + System.lineSeparator(), out.toString());
+        assertThrows(IllegalArgumentException.class,
+                () -> EncryptionMetrics.writeEncryptedWords(cipher, List.of("six", "Ten", "end"), new StringWriter()));
+        assertEquals(3, metrics.getWordsEncrypted());
+        assertEquals(9, metrics.getCharactersEncrypted());
+        assertEquals(1, metrics.getInvalidCharacterRejections());
+        assertEquals(0, metrics.getEncryptWordCalls());
+    }
+
+    /**
+     * The metrics are a valid MXBean whose attributes can be read over JMX
+     */
+    @Test
+    public void testMXBeanAttributes() throws Exception {
+        EncryptionMetrics.encryptWord(EncryptionMachine.DEFAULT_CIPHER, "hello");
+
+        MBeanServer server = MBeanServerFactory.newMBeanServer();
+        ObjectName name = new ObjectName(EncryptionMetrics.OBJECT_NAME);
+        server.registerMBean(metrics, name);
+
+        assertEquals(1L, server.getAttribute(name, "WordsEncrypted"));
+        assertEquals(5L, server.getAttribute(name, "CharactersEncrypted"));
+        assertEquals(64, ((long[]) server.getAttribute(name, "EncryptWordLatencyHistogram")).length);
+        server.invoke(name, "reset", null, null);
+        assertEquals(0L, server.getAttribute(name, "WordsEncrypted"));
+    }
+
+    /**
+     * Timed calls are visible as JFR events in a recording
+     */
+    @Test
+    public void testJfrEvent() throws Exception {
+        Path file = tempDir.resolve("metrics.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("caesar.EncryptWord");
+            recording.start();
+            EncryptionMetrics.encryptWord(EncryptionMachine.DEFAULT_CIPHER, "hello");
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals("caesar.EncryptWord"))
+                .toList();
+        assertEquals(1, events.size());
+        assertEquals(5, events.get(0).getInt("length"));
+        assertFalse(events.get(0).getBoolean("rejected"));
+    }
+}
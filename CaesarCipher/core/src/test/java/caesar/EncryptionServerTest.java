@@ -0,0 +1,108 @@
+package caesar;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class EncryptionServerTest {
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Starts serving connections on a virtual thread.
+     */
+    private static void start(EncryptionServer server) {
+        Thread.ofVirtual().start(() -> {
+            try {
+                server.serve();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    /**
+     * Sends every word over one connection and returns the reply lines.
+     */
+    private static List<String> request(SocketAddress address, String... words) throws IOException {
+        try (EncryptionClient client = new EncryptionClient(address)) {
+            return client.encryptAll(List.of(words));
+        }
+    }
+
+    /**
+     * Pipelined TCP requests are answered in order, invalid words with an error line
+     */
+    @Test
+    public void testTcpRequests() throws Exception {
+        try (EncryptionServer server = new EncryptionServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))) {
+            start(server);
+            List<String> replies = request(server.getLocalAddress(), "hello", "Hello", "", "xyz");
+            assertEquals(List.of("khoor", "ERROR invalid character at offset 0", "", "abc"), replies);
+        }
+    }
+
+    /**
+     * A line over the length limit is answered with an error and the connection carries on
+     */
+    @Test
+    public void testLineTooLong() throws Exception {
+        try (EncryptionServer server = new EncryptionServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))) {
+            start(server);
+            String longest = "x".repeat(LineChannel.MAX_LINE_LENGTH);
+            List<String> replies = request(server.getLocalAddress(), longest, "x".repeat(100_000), "xyz");
+            assertEquals(List.of("a".repeat(LineChannel.MAX_LINE_LENGTH), "ERROR line too long", "abc"), replies);
+        }
+    }
+
+    /**
+     * The server also listens on a Unix domain socket and removes it when closed
+     */
+    @Test
+    public void testUnixDomainSocket() throws Exception {
+        Path socket = tempDir.resolve("caesar.sock");
+        try (EncryptionServer server = new EncryptionServer(UnixDomainSocketAddress.of(socket))) {
+            start(server);
+            try (EncryptionClient client = new EncryptionClient(server.getLocalAddress())) {
+                assertEquals("zruog", client.encrypt("world"));
+                assertEquals("ERROR invalid character at offset 5", client.encrypt("world!"));
+            }
+        }
+        assertFalse(Files.exists(socket));
+    }
+
+    /**
+     * Many concurrent connections each get their own answers
+     */
+    @Test
+    public void testConcurrentConnections() throws Exception {
+        try (EncryptionServer server = new EncryptionServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))) {
+            start(server);
+            SocketAddress address = server.getLocalAddress();
+
+            List<Future<List<String>>> results = new ArrayList<>();
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < 200; i++) {
+                    results.add(clients.submit(() -> request(address, "abc", "xyz")));
+                }
+            }
+            for (Future<List<String>> result : results) {
+                assertEquals(List.of("def", "abc"), result.get());
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package caesar;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class FileEncryptorTest {
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Writes the text to a file in the temporary directory.
+     */
+    private Path write(String name, String text) throws Exception {
+        return Files.writeString(tempDir.resolve(name), text, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Valid input spanning several small chunks matches encryptWord
+     */
+    @Test
+    public void testMatchesEncryptWordAcrossChunks() throws Exception {
+        String word = "pneumonoultramicroscopicsilicovolcanoconiosis";
+        Path input = write("in.txt", word);
+        Path output = tempDir.resolve("out.txt");
+
+        FileEncryptor encryptor = new FileEncryptor(EncryptionMachine.DEFAULT_CIPHER, InvalidCharPolicy.REJECT, 7);
+        assertEquals(word.length(), encryptor.encryptFile(input, output));
+        assertEquals(EncryptionMachine.encryptWord(word), Files.readString(output, StandardCharsets.ISO_8859_1));
+    }
+
+    /**
+     * Pass-through keeps spaces and newlines, skip drops them
+     */
+    @Test
+    public void testPassThroughAndSkipPolicies() throws Exception {
+        Path input = write("in.txt", "hello world\nXYZ\n");
+
+        Path passed = tempDir.resolve("passed.txt");
+        EncryptionMachine.encryptFile(input, passed, InvalidCharPolicy.PASS_THROUGH);
+        assertEquals("khoor zruog\nXYZ\n", Files.readString(passed, StandardCharsets.ISO_8859_1));
+
+        Path skipped = tempDir.resolve("skipped.txt");
+        EncryptionMachine.encryptFile(input, skipped, InvalidCharPolicy.SKIP);
+        assertEquals("khoorzruog", Files.readString(skipped, StandardCharsets.ISO_8859_1));
+    }
+
+    /**
+     * Replace writes the replacement byte in place of every invalid byte
+     */
+    @Test
+    public void testReplacePolicy() throws Exception {
+        Path input = write("in.txt", "hello world\n");
+        Path output = tempDir.resolve("out.txt");
+
+        new FileEncryptor(EncryptionMachine.DEFAULT_CIPHER, InvalidCharPolicy.REPLACE, 4, (byte) '_')
+                .encryptFile(input, output);
+        assertEquals("khoor_zruog_", Files.readString(output, StandardCharsets.ISO_8859_1));
+    }
+
+    /**
+     * Reject stops at the first invalid byte and removes the partial output
+     */
+    @Test
+    public void testRejectDeletesOutput() throws Exception {
+        Path input = write("in.txt", "hello world");
+        Path output = tempDir.resolve("out.txt");
+
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> {
+            EncryptionMachine.encryptFile(input, output, InvalidCharPolicy.REJECT);
+        });
+        assertTrue(exception.getMessage().contains("byte 5"));
+        assertFalse(Files.exists(output));
+    }
+
+    /**
+     * An empty input produces an empty output
+     */
+    @Test
+    public void testEmptyFile() throws Exception {
+        Path input = write("empty.txt", "");
+        Path output = tempDir.resolve("out.txt");
+        assertEquals(0, EncryptionMachine.encryptFile(input, output, InvalidCharPolicy.REJECT));
+        assertEquals(0, Files.size(output));
+    }
+
+    /**
+     * The command-line file mode encrypts without prompting
+     */
+    @Test
+    public void testMainFileMode() throws Exception {
+        Path input = write("in.txt", "abc xyz");
+        Path output = tempDir.resolve("out.txt");
+
+        java.io.ByteArrayOutputStream outContent = new java.io.ByteArrayOutputStream();
+        java.io.PrintStream originalOut = System.out;
+        System.setOut(new java.io.PrintStream(outContent));
+
+        try {
+            EncryptionMachine.main(new String[] {"--encrypt-file", input.toString(), output.toString(),
+                    "--invalid=pass-through", "--chunk-size=2"});
+            assertEquals("def abc", Files.readString(output, StandardCharsets.ISO_8859_1));
+            assertTrue(outContent.toString().contains("Encrypted 7 bytes"));
+        } finally {
+            System.setOut(originalOut);
+        }
+
+        // Without --invalid= the space is rejected like encryptLetter would, and nothing is left
+        Files.delete(output);
+        RuntimeException ex = assertThrows(RuntimeException.class,
+                () -> EncryptionMachine.main(new String[] {"--encrypt-file", input.toString(), output.toString()}));
+        assertInstanceOf(IllegalArgumentException.class, ex.getCause());
+        assertFalse(Files.exists(output));
+    }
+
+    /**
+     * A keyed file runs the key on across chunk boundaries and skips non-letters
+     */
+    @Test
+    public void testKeyedAcrossChunks() throws Exception {
+        Path input = write("in.txt", "attack at dawn\n");
+        Path output = tempDir.resolve("out.txt");
+
+        FileEncryptor encryptor = new FileEncryptor(EncryptionMachine.vigenere("lemon"), InvalidCharPolicy.PASS_THROUGH, 3);
+        assertEquals(15, encryptor.encryptFile(input, output));
+        assertEquals("lxfopv ef rnhr\n", Files.readString(output, StandardCharsets.ISO_8859_1));
+
+        EncryptionMachine.main(new String[] {"--encrypt-file", input.toString(), output.toString(),
+                "--key=lemon", "--invalid=skip", "--chunk-size=2"});
+        assertEquals("lxfopvefrnhr", Files.readString(output, StandardCharsets.ISO_8859_1));
+    }
+}
@@ -0,0 +1,150 @@
+package caesar;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class IncrementalEncryptorTest {
+
+    @TempDir
+    Path tempDir;
+
+    /** Chunks of 16 bytes so a few lines span several chunks. */
+    private final IncrementalEncryptor encryptor =
+            new IncrementalEncryptor(EncryptionMachine.DEFAULT_CIPHER, InvalidCharPolicy.PASS_THROUGH, 16);
+
+    /**
+     * Encrypts the input with the file encryptor for comparison.
+     */
+    private String expected(Path input) throws Exception {
+        Path output = tempDir.resolve("expected.txt");
+        new FileEncryptor(EncryptionMachine.DEFAULT_CIPHER, InvalidCharPolicy.PASS_THROUGH, 16).encryptFile(input, output);
+        return Files.readString(output, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Runs the incremental encryptor and checks the output matches a full encryption.
+     */
+    private IncrementalEncryptor.Result run(Path input, Path output) throws Exception {
+        IncrementalEncryptor.Result result = encryptor.encryptFile(input, output);
+        assertEquals(expected(input), Files.readString(output, StandardCharsets.ISO_8859_1));
+        return result;
+    }
+
+    /**
+     * The first run encrypts every chunk and an unchanged input encrypts none
+     */
+    @Test
+    public void testFirstAndUnchangedRuns() throws Exception {
+        Path input = Files.writeString(tempDir.resolve("log.txt"), "the quick brown fox\njumps over the lazy dog\n");
+        Path output = tempDir.resolve("log.enc");
+
+        IncrementalEncryptor.Result first = run(input, output);
+        assertEquals(3, first.getChunkCount());
+        assertEquals(3, first.getChunksEncrypted());
+        assertEquals(44, first.getBytesEncrypted());
+        assertTrue(Files.exists(IncrementalEncryptor.checkpointPath(output)));
+
+        IncrementalEncryptor.Result second = run(input, output);
+        assertEquals(0, second.getChunksEncrypted());
+        assertEquals(0, second.getBytesEncrypted());
+    }
+
+    /**
+     * Appending re-encrypts only the partial last chunk and the new ones
+     */
+    @Test
+    public void testAppend() throws Exception {
+        Path input = Files.writeString(tempDir.resolve("log.txt"), "a".repeat(40));
+        Path output = tempDir.resolve("log.enc");
+        run(input, output);
+
+        Files.writeString(input, "b".repeat(30), StandardOpenOption.APPEND);
+        IncrementalEncryptor.Result result = run(input, output);
+        assertEquals(5, result.getChunkCount());
+        assertEquals(3, result.getChunksEncrypted());
+        assertEquals(38, result.getBytesEncrypted());
+    }
+
+    /**
+     * Changing a byte in the middle re-encrypts that chunk alone, and shrinking the input
+     * truncates the output
+     */
+    @Test
+    public void testModifyAndShrink() throws Exception {
+        Path input = Files.writeString(tempDir.resolve("log.txt"), "abcdefghijklmnop".repeat(4));
+        Path output = tempDir.resolve("log.enc");
+        run(input, output);
+
+        Files.writeString(input, "abcdefghijklmnop".repeat(2) + "abcdefghijklmnoX" + "abcdefghijklmnop");
+        IncrementalEncryptor.Result modified = run(input, output);
+        assertEquals(1, modified.getChunksEncrypted());
+
+        Files.writeString(input, "abcdefghijklmnop".repeat(2));
+        IncrementalEncryptor.Result shrunk = run(input, output);
+        assertEquals(0, shrunk.getChunksEncrypted());
+        assertEquals(32, Files.size(output));
+    }
+
+    /**
+     * A checkpoint of another chunk size or cipher, a tampered output or a corrupted
+     * checkpoint all lead to a full run
+     */
+    @Test
+    public void testStaleCheckpoints() throws Exception {
+        Path input = Files.writeString(tempDir.resolve("log.txt"), "x".repeat(64));
+        Path output = tempDir.resolve("log.enc");
+        run(input, output);
+
+        IncrementalEncryptor otherSize =
+                new IncrementalEncryptor(EncryptionMachine.DEFAULT_CIPHER, InvalidCharPolicy.PASS_THROUGH, 32);
+        assertEquals(2, otherSize.encryptFile(input, output).getChunksEncrypted());
+
+        IncrementalEncryptor otherShift =
+                new IncrementalEncryptor(new Cipher(EncryptionMachine.ALPHABET, 5), InvalidCharPolicy.PASS_THROUGH, 32);
+        assertEquals(2, otherShift.encryptFile(input, output).getChunksEncrypted());
+        assertEquals("c".repeat(64), Files.readString(output));
+
+        assertEquals(4, run(input, output).getChunksEncrypted());
+        Files.writeString(output, "extra", StandardOpenOption.APPEND);
+        assertEquals(4, run(input, output).getChunksEncrypted());
+
+        Files.writeString(IncrementalEncryptor.checkpointPath(output), "garbage");
+        assertEquals(4, run(input, output).getChunksEncrypted());
+
+        // A corrupt chunk count is not used to size the hashes
+        Path checkpoint = IncrementalEncryptor.checkpointPath(output);
+        byte[] bytes = Files.readAllBytes(checkpoint);
+        ByteBuffer.wrap(bytes).putInt(bytes.length - 4 - 4 * Long.BYTES, Integer.MAX_VALUE);
+        Files.write(checkpoint, bytes);
+        assertEquals(4, run(input, output).getChunksEncrypted());
+    }
+
+    /**
+     * A rejected input deletes the output and its checkpoint, and skip is not supported
+     */
+    @Test
+    public void testRejections() throws Exception {
+        Path input = Files.writeString(tempDir.resolve("log.txt"), "abcdefghijklmnopqrstuvwxyz");
+        Path output = tempDir.resolve("log.enc");
+        IncrementalEncryptor strict = new IncrementalEncryptor(EncryptionMachine.DEFAULT_CIPHER, InvalidCharPolicy.REJECT, 16);
+        strict.encryptFile(input, output);
+
+        Files.writeString(input, "!", StandardOpenOption.APPEND);
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> strict.encryptFile(input, output));
+        assertTrue(ex.getMessage().endsWith("(found at byte 26)"));
+        assertFalse(Files.exists(output));
+        assertFalse(Files.exists(IncrementalEncryptor.checkpointPath(output)));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new IncrementalEncryptor(EncryptionMachine.DEFAULT_CIPHER, InvalidCharPolicy.SKIP, 16));
+        assertThrows(IllegalArgumentException.class,
+                () -> new IncrementalEncryptor(EncryptionMachine.DEFAULT_CIPHER, InvalidCharPolicy.REJECT, 0));
+    }
+}
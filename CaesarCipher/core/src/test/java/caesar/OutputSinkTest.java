@@ -0,0 +1,80 @@
+package caesar;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+public class OutputSinkTest {
+
+    /**
+     * The buffered sink writes the same framing as outputEncryptedWord
+     */
+    @Test
+    public void testBufferedSinkMatchesConsoleFormat() {
+        StringWriter writer = new StringWriter();
+        EncryptionMachine.outputEncryptedWord(OutputSink.buffered(writer), "hello", "khoor");
+
+        java.io.ByteArrayOutputStream outContent = new java.io.ByteArrayOutputStream();
+        java.io.PrintStream originalOut = System.out;
+        System.setOut(new java.io.PrintStream(outContent));
+
+        try {
+            EncryptionMachine.outputEncryptedWord("hello", "khoor");
+        } finally {
+            System.setOut(originalOut);
+        }
+        assertEquals(outContent.toString(), writer.toString());
+    }
+
+    /**
+     * Output to a buffered stream only appears once the end message flushes it
+     */
+    @Test
+    public void testBufferedSinkFlushesAtEndMessage() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        OutputSink sink = OutputSink.buffered(out, StandardCharsets.UTF_8);
+
+        EncryptionMachine.outputStartMessage(sink);
+        EncryptionMachine.outputEncryptedWord(sink, "hello", "khoor");
+        assertEquals(0, out.size());
+
+        EncryptionMachine.outputEndMessage(sink);
+        String output = out.toString(StandardCharsets.UTF_8);
+        assertTrue(output.contains("Welcome to the CSCI717 Encryption Machine Construction"));
+        assertTrue(output.contains("\"hello\" has been encrypted to: \"khoor\""));
+        assertTrue(output.contains("Message fully encrypted"));
+    }
+
+    /**
+     * The interactive flow runs unchanged through a buffered sink
+     */
+    @Test
+    public void testMainBufferedMode() {
+        String input = "test\n1\nhello\n";
+        java.io.ByteArrayInputStream inContent = new java.io.ByteArrayInputStream(input.getBytes());
+        java.io.ByteArrayOutputStream outContent = new java.io.ByteArrayOutputStream();
+
+        java.io.InputStream originalIn = System.in;
+        java.io.PrintStream originalOut = System.out;
+
+        System.setIn(inContent);
+        System.setOut(new java.io.PrintStream(outContent));
+
+        try {
+            EncryptionMachine.main(new String[] {"--buffered"});
+
+            String output = outContent.toString();
+            assertTrue(output.contains("Enter a key:"));
+            assertTrue(output.contains("\"whvw\""));
+            assertTrue(output.contains("Next word:"));
+            assertTrue(output.contains("\"khoor\""));
+            assertTrue(output.contains("Message fully encrypted"));
+        } finally {
+            System.setIn(originalIn);
+            System.setOut(originalOut);
+        }
+    }
+}
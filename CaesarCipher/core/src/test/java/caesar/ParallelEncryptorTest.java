@@ -0,0 +1,80 @@
+package caesar;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ParallelEncryptorTest {
+
+    private ForkJoinPool pool;
+
+    private ParallelEncryptor encryptor;
+
+    @BeforeEach
+    public void setUp() {
+        pool = new ForkJoinPool(4);
+        // A tiny threshold forces even short words to be split across tasks
+        encryptor = new ParallelEncryptor(EncryptionMachine.DEFAULT_CIPHER, pool, 3);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Split encryption matches encryptWord
+     */
+    @Test
+    public void testMatchesEncryptWord() throws Exception {
+        String word = "pneumonoultramicroscopicsilicovolcanoconiosis";
+        assertEquals(EncryptionMachine.encryptWord(word), encryptor.encrypt(word));
+        assertEquals("", encryptor.encrypt(""));
+    }
+
+    /**
+     * Byte ranges are encrypted in place
+     */
+    @Test
+    public void testBytesInPlace() {
+        byte[] bytes = "__antidisestablishmentarianism__".getBytes(java.nio.charset.StandardCharsets.US_ASCII);
+        encryptor.encrypt(bytes, 2, bytes, 2, bytes.length - 4);
+        assertEquals("__dqwlglvhvwdeolvkphqwduldqlvp__", new String(bytes, java.nio.charset.StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * An invalid character in any chunk is rejected with the encryptWord message
+     */
+    @Test
+    public void testInvalidCharacterInLaterChunk() {
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> {
+            encryptor.encrypt("abcdefghijklmnopqrstuvwxyZ");
+        });
+        assertEquals("Only standard English alphabet letters a-z are allowed", exception.getMessage());
+    }
+
+    /**
+     * Alphabets with supplementary letters match encryptWord without splitting surrogate pairs
+     */
+    @Test
+    public void testSupplementaryAlphabet() {
+        Cipher emoji = new Cipher("😀😁😂", 1);
+        ParallelEncryptor parallel = new ParallelEncryptor(emoji, pool, 3);
+        String word = "😀😁😂😀😁😂😀";
+        assertEquals(emoji.encryptWord(word), parallel.encrypt(word));
+        assertEquals("😁😂", parallel.encrypt("😀😁"));
+        assertThrows(IllegalArgumentException.class, () -> parallel.encrypt("😀a"));
+    }
+
+    /**
+     * The static entry point on EncryptionMachine uses the default engine
+     */
+    @Test
+    public void testEncryptWordParallel() {
+        assertEquals("khoor", EncryptionMachine.encryptWordParallel("hello"));
+        assertThrows(IllegalArgumentException.class, () -> new ParallelEncryptor(EncryptionMachine.DEFAULT_CIPHER, pool, 0));
+    }
+}
@@ -0,0 +1,96 @@
+package caesar;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class RekeyerTest {
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Re-keying a word matches decrypting it and encrypting it again, for any pair of shifts
+     */
+    @Test
+    public void testRekeyWordMatchesDecryptThenEncrypt() {
+        String word = "thequickbrownfoxjumpsoverthelazydog";
+        for (int from : new int[] {0, 3, 25, -7, 100}) {
+            for (int to : new int[] {0, 1, 13, -30}) {
+                Cipher a = new Cipher(EncryptionMachine.ALPHABET, from);
+                Cipher b = new Cipher(EncryptionMachine.ALPHABET, to);
+                Rekeyer rekeyer = new Rekeyer(a, b);
+                assertEquals(b.encryptWord(word), rekeyer.rekeyWord(a.encryptWord(word)), from + " -> " + to);
+            }
+        }
+    }
+
+    /**
+     * Every ring of a multi-ring cipher is re-keyed on its own
+     */
+    @Test
+    public void testRekeyMultiRingBytes() {
+        String text = "Attack at Dawn, 0600 hours!";
+        Cipher a = Cipher.alphanumeric(5);
+        Cipher b = Cipher.alphanumeric(-2);
+        byte[] bytes = a.encryptWord(text.replaceAll("[^A-Za-z0-9]", "")).getBytes(StandardCharsets.ISO_8859_1);
+
+        int written = new Rekeyer(a, b).rekeyBytes(bytes, 0, bytes, 0, bytes.length,
+                InvalidCharPolicy.REJECT, (byte) '?');
+        assertEquals(bytes.length, written);
+        assertEquals(b.encryptWord(text.replaceAll("[^A-Za-z0-9]", "")), new String(bytes, StandardCharsets.ISO_8859_1));
+    }
+
+    /**
+     * The composed cipher keeps the message of the default cipher for rejected letters, and
+     * ciphers over different alphabets cannot be composed
+     */
+    @Test
+    public void testRejections() {
+        Rekeyer rekeyer = new Rekeyer(EncryptionMachine.DEFAULT_CIPHER, new Cipher(EncryptionMachine.ALPHABET, 9));
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> rekeyer.rekeyWord("Abc"));
+        assertEquals(EncryptionMachine.DEFAULT_CIPHER.getInvalidLetterMessage(), ex.getMessage());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new Rekeyer(EncryptionMachine.DEFAULT_CIPHER, Cipher.casePreserving(3)));
+    }
+
+    /**
+     * A directory is re-keyed in parallel with progress, matching encryption under the new shift
+     */
+    @Test
+    public void testRekeyDirectory() throws Exception {
+        Cipher a = new Cipher(EncryptionMachine.ALPHABET, 4);
+        Cipher b = new Cipher(EncryptionMachine.ALPHABET, 17);
+        List<String> lines = List.of("lorem", "ipsum", "dolor", "sit", "amet");
+        Path input = Files.createDirectories(tempDir.resolve("in").resolve("sub"));
+        for (int i = 0; i < 3; i++) {
+            Files.write(input.resolve(i + ".txt"), lines.stream().map(a::encryptWord).toList());
+        }
+
+        AtomicLong bytesDone = new AtomicLong();
+        ForkJoinPool pool = new ForkJoinPool(2);
+        DirectoryEncryptor.Report report;
+        try {
+            report = new Rekeyer(a, b).rekeyDirectory(tempDir.resolve("in"), tempDir.resolve("out"),
+                    InvalidCharPolicy.PASS_THROUGH, pool,
+                    (filesDone, fileCount, bytes, totalBytes) -> bytesDone.accumulateAndGet(bytes, Math::max));
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(0, report.getFailureCount());
+        assertEquals(report.getBytes(), bytesDone.get());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(lines.stream().map(b::encryptWord).toList(),
+                    Files.readAllLines(tempDir.resolve("out").resolve("sub").resolve(i + ".txt")));
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package caesar;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ShiftCrackerTest {
+
+    private static final String PLAINTEXT = "it was the best of times it was the worst of times it was the age of "
+            + "wisdom it was the age of foolishness it was the epoch of belief it was the epoch of incredulity";
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Encrypts every word of the plaintext with the given shift, keeping the spaces.
+     */
+    private static String encrypt(String plaintext, int shift) {
+        Cipher cipher = new Cipher(EncryptionMachine.ALPHABET, shift);
+        StringBuilder sb = new StringBuilder();
+        for (String word : plaintext.split(" ")) {
+            sb.append(cipher.encryptWord(word)).append(' ');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Every shift of an English sentence is recovered
+     */
+    @Test
+    public void testRecoversEveryShift() {
+        ShiftCracker cracker = ShiftCracker.english();
+        for (int shift = 0; shift < 26; shift++) {
+            ShiftCracker.Result result = cracker.crack(encrypt(PLAINTEXT, shift));
+            assertEquals(shift, result.getShift(), "shift " + shift);
+            assertEquals(PLAINTEXT.replace(" ", "").length(), result.getLettersCounted());
+        }
+    }
+
+    /**
+     * The recovered cipher decrypts the text
+     */
+    @Test
+    public void testRecoveredCipherDecrypts() throws Exception {
+        String ciphertext = EncryptionMachine.encryptWord("wisdomandfoolishness");
+        Cipher recovered = ShiftCracker.english().crack(encrypt(PLAINTEXT, 3)).getCipher();
+        assertEquals("wisdomandfoolishness", recovered.decryptWord(ciphertext));
+    }
+
+    /**
+     * A large file is cracked from a bounded sample
+     */
+    @Test
+    public void testSampledFile() throws Exception {
+        String ciphertext = encrypt(PLAINTEXT, 11);
+        Path file = tempDir.resolve("large.txt");
+        Files.writeString(file, ciphertext.repeat(5000), StandardCharsets.ISO_8859_1);
+
+        ShiftCracker.Result result = ShiftCracker.english().crack(file, 1 << 16);
+        assertEquals(11, result.getShift());
+        assertTrue(result.getLettersCounted() <= 1 << 16);
+        assertTrue(result.getLettersCounted() > 0);
+    }
+
+    /**
+     * Text without any letters produces no guess worth trusting
+     */
+    @Test
+    public void testNoLetters() {
+        ShiftCracker.Result result = ShiftCracker.english().crack("123 !?");
+        assertEquals(0, result.getLettersCounted());
+        assertThrows(IllegalArgumentException.class, () -> new ShiftCracker("abc", new double[] {1, 2}));
+    }
+
+    /**
+     * The command-line crack mode prints the recovered shift
+     */
+    @Test
+    public void testMainCrackMode() throws Exception {
+        Path file = Files.writeString(tempDir.resolve("secret.txt"), encrypt(PLAINTEXT, 3), StandardCharsets.ISO_8859_1);
+
+        java.io.ByteArrayOutputStream outContent = new java.io.ByteArrayOutputStream();
+        java.io.PrintStream originalOut = System.out;
+        System.setOut(new java.io.PrintStream(outContent));
+
+        try {
+            EncryptionMachine.main(new String[] {"--crack", file.toString(), "--sample=4096"});
+            assertTrue(outContent.toString().contains("Most likely shift: 3"));
+        } finally {
+            System.setOut(originalOut);
+        }
+    }
+}
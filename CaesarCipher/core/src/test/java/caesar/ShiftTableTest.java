@@ -0,0 +1,91 @@
+package caesar;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+public class ShiftTableTest {
+
+    /**
+     * The table must agree with the original indexOf and modulo logic for every char value
+     */
+    @Test
+    public void testMatchesIndexOfForEveryChar() {
+        String alphabet = EncryptionMachine.ALPHABET;
+        ShiftTable table = new ShiftTable(alphabet, EncryptionMachine.SHIFT);
+
+        for (int c = Character.MIN_VALUE; c <= Character.MAX_VALUE; c++) {
+            int charIndex = alphabet.indexOf(c);
+            char expected = charIndex == -1
+                    ? ShiftTable.INVALID
+                    : alphabet.charAt((charIndex + EncryptionMachine.SHIFT) % alphabet.length());
+            assertEquals(expected, table.translate((char) c), "char " + c);
+        }
+    }
+
+    /**
+     * BBT-3.1 to BBT-3.3: other shift values, including a reverse shift
+     */
+    @Test
+    public void testOtherShifts() {
+        ShiftTable shiftOne = new ShiftTable(EncryptionMachine.ALPHABET, 1);
+        assertEquals('b', shiftOne.translate('a'));
+        assertEquals('a', shiftOne.translate('z'));
+
+        ShiftTable shiftTwentyFive = new ShiftTable(EncryptionMachine.ALPHABET, 25);
+        assertEquals('z', shiftTwentyFive.translate('a'));
+
+        ShiftTable negative = new ShiftTable(EncryptionMachine.ALPHABET, -1);
+        assertEquals('z', negative.translate('a'));
+        assertEquals(25, negative.getShift());
+    }
+
+    /**
+     * Invalid alphabets are rejected when the table is built
+     */
+    @Test
+    public void testInvalidAlphabets() {
+        assertThrows(IllegalArgumentException.class, () -> new ShiftTable("", 3));
+        assertThrows(IllegalArgumentException.class, () -> new ShiftTable("abca", 3));
+        assertThrows(IllegalArgumentException.class, () -> new ShiftTable("ab\uFFFF", 3));
+    }
+
+    /**
+     * Several rings share one table and the shift is normalized over all of them
+     */
+    @Test
+    public void testRings() {
+        ShiftTable table = new ShiftTable(java.util.List.of("abc", "XY"), 7);
+        assertEquals('b', table.translate('a'));
+        assertEquals('Y', table.translate('X'));
+        assertEquals(ShiftTable.INVALID, table.translate('d'));
+        assertEquals("abcXY", table.getAlphabet());
+        assertEquals(1, table.getShift());
+
+        assertThrows(IllegalArgumentException.class, () -> new ShiftTable(java.util.List.of("abc", "cd"), 1));
+        assertThrows(IllegalArgumentException.class, () -> new ShiftTable(java.util.List.of("abc", ""), 1));
+        assertThrows(IllegalArgumentException.class, () -> new ShiftTable("a\uD800", 1));
+    }
+
+    /**
+     * Letters above the direct table agree with a plain ring walk, for chars and code points
+     */
+    @Test
+    public void testWideLettersMatchRingWalk() {
+        StringBuilder ring = new StringBuilder();
+        for (int c = 0x4E00; c < 0x4E00 + 500; c += 3) {
+            ring.appendCodePoint(c);
+        }
+        ring.appendCodePoint(0x1F600).appendCodePoint(0x61);
+        int[] letters = ring.codePoints().toArray();
+        ShiftTable table = new ShiftTable(ring.toString(), 5);
+
+        for (int i = 0; i < letters.length; i++) {
+            int expected = letters[(i + 5) % letters.length];
+            assertEquals(expected, table.translateCodePoint(letters[i]), "letter " + letters[i]);
+        }
+        assertEquals(-1, table.translateCodePoint(0x4E01));
+        assertEquals(-1, table.translateCodePoint(0x1F601));
+        assertEquals(ShiftTable.INVALID, table.translate('\u4E01'));
+        assertTrue(table.hasSupplementaryLetters());
+    }
+}
@@ -0,0 +1,88 @@
+package caesar;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+public class VectorEncryptorTest {
+
+    private final VectorEncryptor encryptor =
+            new VectorEncryptor(EncryptionMachine.DEFAULT_CIPHER);
+
+    /**
+     * Encrypts the bytes one at a time with encryptLetter, the scalar reference
+     *
+     * @return the encrypted bytes, or null if encryptLetter rejects any of them
+     */
+    private static byte[] reference(byte[] input) {
+        byte[] expected = new byte[input.length];
+        try {
+            for (int i = 0; i < input.length; i++) {
+                expected[i] = (byte) EncryptionMachine.encryptLetter((char) (input[i] & 0xFF));
+            }
+        } catch (Exception ex) {
+            return null;
+        }
+        return expected;
+    }
+
+    /**
+     * The vector path is used when the module is present and the alphabet is a-z
+     */
+    @Test
+    public void testVectorizedWhenAvailable() {
+        assertEquals(VectorEncryptor.isVectorApiAvailable(), encryptor.isVectorized());
+        assertFalse(new VectorEncryptor(new Cipher("qwerty", 1)).isVectorized());
+    }
+
+    /**
+     * Differential test against encryptLetter for random valid inputs of many lengths
+     */
+    @Test
+    public void testMatchesEncryptLetterForValidInput() {
+        Random random = new Random(717);
+        for (int length = 0; length < 300; length++) {
+            byte[] input = new byte[length];
+            for (int i = 0; i < length; i++) {
+                input[i] = (byte) ('a' + random.nextInt(26));
+            }
+
+            byte[] actual = new byte[length];
+            encryptor.encrypt(input, 0, actual, 0, length);
+            assertArrayEquals(reference(input), actual, "length " + length);
+        }
+    }
+
+    /**
+     * Differential test for inputs containing one invalid byte anywhere, including
+     * non-ASCII bytes that would wrap around into the alphabet
+     */
+    @Test
+    public void testRejectsLikeEncryptLetter() throws Exception {
+        Random random = new Random(42);
+        for (int invalid = 0; invalid < 256; invalid++) {
+            if (invalid >= 'a' && invalid <= 'z') {
+                continue;
+            }
+
+            byte[] input = new byte[97];
+            for (int i = 0; i < input.length; i++) {
+                input[i] = (byte) ('a' + random.nextInt(26));
+            }
+            int position = random.nextInt(input.length);
+            input[position] = (byte) invalid;
+            assertNull(reference(input));
+
+            byte[] expected = input.clone();
+            byte[] actual = input.clone();
+            assertThrows(IllegalArgumentException.class, () -> encryptor.encrypt(actual, 0, actual, 0, actual.length));
+
+            // Everything before the invalid byte is encrypted, everything from it on is untouched
+            for (int i = 0; i < position; i++) {
+                expected[i] = (byte) EncryptionMachine.encryptLetter((char) expected[i]);
+            }
+            assertArrayEquals(expected, actual, "invalid byte " + invalid);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package caesar;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class VigenereCipherTest {
+
+    private final VigenereCipher lemon = EncryptionMachine.vigenere("lemon");
+
+    /**
+     * The textbook example encrypts and decrypts
+     */
+    @Test
+    public void testKnownAnswer() {
+        assertEquals("lxfopvefrnhr", lemon.encryptWord("attackatdawn"));
+        assertEquals("attackatdawn", lemon.decryptWord("lxfopvefrnhr"));
+        assertEquals(5, lemon.getPeriod());
+        assertEquals("lemon", lemon.getKey());
+    }
+
+    /**
+     * A one-letter key is the Caesar cipher with that letter's shift
+     */
+    @Test
+    public void testSingleLetterKeyMatchesCaesar() throws Exception {
+        VigenereCipher d = EncryptionMachine.vigenere("d");
+        assertEquals(EncryptionMachine.encryptWord("thequickbrownfox"), d.encryptWord("thequickbrownfox"));
+    }
+
+    /**
+     * Keys must be non-empty and made of alphabet letters, and words are validated
+     */
+    @Test
+    public void testInvalidKeyAndWord() {
+        assertThrows(IllegalArgumentException.class, () -> EncryptionMachine.vigenere(""));
+        assertThrows(IllegalArgumentException.class, () -> EncryptionMachine.vigenere("Lemon"));
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> lemon.encryptWord("attack at"));
+        assertEquals("Only standard English alphabet letters a-z are allowed", exception.getMessage());
+    }
+
+    /**
+     * Encrypting in chunks through a cursor matches encrypting the whole text
+     */
+    @Test
+    public void testCursorAcrossChunks() {
+        String text = "wearediscoveredsaveyourself";
+        VigenereCipher.Cursor cursor = lemon.encryptor();
+        StringBuilder chunks = new StringBuilder();
+        for (int i = 0; i < text.length(); i += 4) {
+            chunks.append(cursor.translateWord(text.substring(i, Math.min(text.length(), i + 4))));
+        }
+        assertEquals(lemon.encryptWord(text), chunks.toString());
+        assertEquals(text.length() % 5, cursor.getPosition());
+
+        // A failed chunk leaves the position where it was
+        assertThrows(IllegalArgumentException.class, () -> cursor.translateWord("ab1"));
+        assertEquals(text.length() % 5, cursor.getPosition());
+
+        // Starting at a letter index continues the key there
+        assertEquals(lemon.encryptWord(text).substring(12), lemon.encryptor(12).translateWord(text.substring(12)));
+        assertEquals(text.substring(12), lemon.decryptor(12).translateWord(lemon.encryptWord(text).substring(12)));
+    }
+
+    /**
+     * A very long key shares one table per distinct shift and still follows every key letter
+     */
+    @Test
+    public void testLongKeySharesTables() {
+        // One table per key position would take about 750 MB per direction here
+        VigenereCipher repeated = EncryptionMachine.vigenere("lemon".repeat(200_000));
+        assertEquals(1_000_000, repeated.getPeriod());
+
+        String text = "attackatdawn";
+        assertEquals(lemon.encryptWord(text), repeated.encryptWord(text));
+        assertEquals(text, repeated.decryptWord(repeated.encryptWord(text)));
+
+        byte[] src = text.getBytes(StandardCharsets.ISO_8859_1);
+        byte[] dst = new byte[src.length];
+        assertEquals(src.length, repeated.encryptor(999_995).translateBytes(src, 0, dst, 0, src.length,
+                InvalidCharPolicy.REJECT, (byte) '?'));
+        assertEquals(lemon.encryptWord(text), new String(dst, StandardCharsets.ISO_8859_1));
+
+        char[] chars = new char[text.length()];
+        assertEquals(text.length(), repeated.decryptor().translateChars(lemon.encryptWord(text).toCharArray(), 0,
+                chars, 0, chars.length, InvalidCharPolicy.REJECT, '?'));
+        assertEquals(text, new String(chars));
+    }
+
+    /**
+     * Bulk chars and bytes match encryptWord; skipped characters do not use up key letters
+     */
+    @Test
+    public void testBulkPolicies() {
+        char[] chars = "attack at dawn!".toCharArray();
+        char[] encrypted = new char[chars.length];
+        VigenereCipher.Cursor cursor = lemon.encryptor();
+        assertEquals(15, cursor.translateChars(chars, 0, encrypted, 0, 9, InvalidCharPolicy.PASS_THROUGH, '?')
+                + cursor.translateChars(chars, 9, encrypted, 9, 6, InvalidCharPolicy.PASS_THROUGH, '?'));
+        assertEquals("lxfopv ef rnhr!", new String(encrypted));
+
+        byte[] bytes = "attack at dawn!".getBytes(StandardCharsets.ISO_8859_1);
+        int written = lemon.encryptor().translateBytes(bytes, 0, bytes, 0, bytes.length, InvalidCharPolicy.SKIP, (byte) '?');
+        assertEquals("lxfopvefrnhr", new String(bytes, 0, written, StandardCharsets.ISO_8859_1));
+
+        VigenereCipher.Cursor rejecting = lemon.encryptor();
+        assertEquals(-1 - 6, rejecting.translateChars(chars, 0, encrypted, 0, chars.length, InvalidCharPolicy.REJECT, '?'));
+        assertEquals(0, rejecting.getPosition());
+        assertEquals('l', lemon.encryptor().translate((byte) 'a'));
+        assertEquals(-1, lemon.encryptor().translate((byte) ' '));
+    }
+
+    /**
+     * Each key letter shifts every ring by its index in its own ring
+     */
+    @Test
+    public void testMultiRingAndSupplementary() {
+        VigenereCipher mixed = new VigenereCipher(List.of(EncryptionMachine.ALPHABET, EncryptionMachine.UPPERCASE_ALPHABET), "bC");
+        assertEquals("bCcE", mixed.encryptWord("aAbC"));
+        assertEquals("aAbC", mixed.decryptWord("bCcE"));
+
+        VigenereCipher emoji = new VigenereCipher("😀😁😂", "😀😁");
+        assertEquals("😀😁😀", emoji.encryptWord("😀😀😀"));
+        assertEquals(2, emoji.getPeriod());
+    }
+}
@@ -0,0 +1,179 @@
+package caesar;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+public class WordCacheTest {
+
+    private final Cipher cipher = EncryptionMachine.DEFAULT_CIPHER;
+
+    /**
+     * Repeated words are answered from the cache with the same result as the cipher
+     */
+    @Test
+    public void testHitsAndMisses() {
+        WordCache cache = new WordCache(100);
+        assertEquals("khoor", cache.encryptWord(cipher, "hello"));
+        assertEquals("khoor", cache.encryptWord(cipher, "hello"));
+        assertEquals("zruog", cache.encryptWord(cipher, "world"));
+
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(1.0 / 3, cache.getHitRate(), 1e-9);
+        assertEquals(2, cache.size());
+        assertEquals(10, cache.getWeight());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getWeight());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    /**
+     * The least recently used entry is evicted when the entry limit is reached
+     */
+    @Test
+    public void testEntryLimitEvictsLeastRecentlyUsed() {
+        WordCache cache = new WordCache(2, Long.MAX_VALUE, 1);
+        cache.encryptWord(cipher, "one");
+        cache.encryptWord(cipher, "two");
+        cache.encryptWord(cipher, "one");
+        cache.encryptWord(cipher, "six");
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+
+        long misses = cache.getMissCount();
+        cache.encryptWord(cipher, "one");
+        assertEquals(misses, cache.getMissCount());
+        cache.encryptWord(cipher, "two");
+        assertEquals(misses + 1, cache.getMissCount());
+    }
+
+    /**
+     * Entries are evicted until the cached words fit the weight limit
+     */
+    @Test
+    public void testWeightLimit() {
+        WordCache cache = new WordCache(100, 10, 1);
+        cache.encryptWord(cipher, "abcd");
+        cache.encryptWord(cipher, "efgh");
+        assertEquals(8, cache.getWeight());
+        cache.encryptWord(cipher, "ijklmnop");
+        assertEquals(1, cache.size());
+        assertEquals(8, cache.getWeight());
+        assertEquals(2, cache.getEvictionCount());
+    }
+
+    /**
+     * Small limits use fewer segments, so a cache far from full still holds short words
+     */
+    @Test
+    public void testSmallLimitsUseFewerSegments() {
+        WordCache cache = new WordCache(1000, 100, 64);
+        assertEquals("khoor", cache.encryptWord(cipher, "hello"));
+        assertEquals(1, cache.size());
+        assertEquals(0, cache.getEvictionCount());
+        assertEquals("khoor", cache.encryptWord(cipher, "hello"));
+        assertEquals(1, cache.getHitCount());
+
+        // Many segments still share out a large weight limit
+        WordCache large = new WordCache(1000, 64 * WordCache.MIN_SEGMENT_WEIGHT, 64);
+        for (int n = 0; n < 200; n++) {
+            large.encryptWord(cipher, word(n));
+        }
+        assertEquals(0, large.getEvictionCount());
+    }
+
+    /**
+     * A word heavier than its segment's share of the weight is encrypted but never cached
+     */
+    @Test
+    public void testOversizedWordNotCached() {
+        WordCache cache = new WordCache(100, 10, 1);
+        cache.encryptWord(cipher, "abcd");
+        assertEquals("lmnopqrstuvwxyzabcd", cache.encryptWord(cipher, "ijklmnopqrstuvwxyza"));
+        assertEquals(1, cache.size());
+        assertEquals(4, cache.getWeight());
+        assertEquals(0, cache.getEvictionCount());
+        assertEquals(2, cache.getMissCount());
+    }
+
+    /**
+     * Entries are keyed by cipher configuration as well as by word
+     */
+    @Test
+    public void testKeyedByCipher() {
+        WordCache cache = new WordCache(100);
+        assertEquals("khoor", cache.encryptWord(cipher, "hello"));
+        assertEquals("ifmmp", cache.encryptWord(new Cipher(EncryptionMachine.ALPHABET, 1), "hello"));
+        assertEquals(2, cache.getMissCount());
+
+        assertEquals("khoor", cache.encryptWord(new Cipher(EncryptionMachine.ALPHABET, 3), "hello"));
+        assertEquals(1, cache.getHitCount());
+    }
+
+    /**
+     * Rejected words throw every time and are never cached
+     */
+    @Test
+    public void testRejectedWordsNotCached() {
+        WordCache cache = new WordCache(100);
+        assertThrows(IllegalArgumentException.class, () -> cache.encryptWord(cipher, "Hello"));
+        assertThrows(IllegalArgumentException.class, () -> cache.encryptWord(cipher, "Hello"));
+        assertEquals(0, cache.size());
+        assertEquals(2, cache.getMissCount());
+        assertThrows(IllegalArgumentException.class, () -> new WordCache(0));
+    }
+
+    /**
+     * Concurrent callers get correct results and the cache stays within its limit
+     */
+    @Test
+    public void testConcurrentAccess() throws Exception {
+        WordCache cache = new WordCache(64);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int seed = t;
+                futures.add(executor.submit(() -> {
+                    boolean correct = true;
+                    for (int i = 0; i < 20_000; i++) {
+                        // Skewed toward a few words so there are both hits and evictions
+                        int n = (i * 31 + seed) % 1000;
+                        String word = word(n % 10 == 0 ? n : n % 7);
+                        correct &= cipher.encryptWord(word).equals(cache.encryptWord(cipher, word));
+                    }
+                    return correct;
+                }));
+            }
+            for (Future<Boolean> future : futures) {
+                assertTrue(future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertTrue(cache.size() <= 64);
+        assertEquals(8 * 20_000, cache.getHitCount() + cache.getMissCount());
+        assertTrue(cache.getHitCount() > 0);
+    }
+
+    /**
+     * Spells a number in base 26 with the letters a-z.
+     */
+    private static String word(int n) {
+        StringBuilder word = new StringBuilder();
+        do {
+            word.append((char) ('a' + n % 26));
+            n /= 26;
+        } while (n > 0);
+        return word.toString();
+    }
+}
@@ -0,0 +1,148 @@
+package caesar;
+
+/**
+ * Encrypts ISO-8859-1 bytes held in {@link MemorySegment}s, such as files mapped into an
+ * {@link Arena} or memory allocated outside the heap, so payloads of any size can be
+ * encrypted without ever being copied into a {@code String} or an array. Letters are
+ * translated exactly like {@code EncryptionMachine.encryptLetter}.
+ * <p>
+ * The Foreign Function &amp; Memory API is a preview API in JDK 21, so the JVM has to be
+ * started with {@code --enable-preview} before this class can be loaded. Nothing else in the
+ * program depends on it.
+ */
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public final class SegmentEncryptor {
+    /** The cipher whose rules are applied. */
+    private final Cipher cipher;
+
+    /** The translation table of {@link #cipher}. */
+    private final ShiftTable table;
+
+    /**
+     * Creates a segment encryptor.
+     *
+     * @param cipher the cipher to encrypt with
+     */
+    public SegmentEncryptor(Cipher cipher) {
+        this.cipher = cipher;
+        this.table = cipher.getTable();
+    }
+
+    /**
+     * Encrypts every byte of a segment in place.
+     *
+     * @param segment the bytes to encrypt
+     * @throws IllegalArgumentException if the segment contains bytes outside the alphabet;
+     *         bytes before the first invalid one are left encrypted
+     * @throws UnsupportedOperationException if the segment is read-only
+     */
+    public void encrypt(MemorySegment segment) {
+        encrypt(segment, segment);
+    }
+
+    /**
+     * Encrypts every byte of one segment into the start of another. Passing the same segment
+     * twice encrypts it in place.
+     *
+     * @param src the bytes to encrypt
+     * @param dst the segment receiving the encrypted bytes
+     * @throws IndexOutOfBoundsException if {@code dst} is smaller than {@code src}
+     * @throws IllegalArgumentException if {@code src} contains bytes outside the alphabet;
+     *         bytes before the first invalid one are left encrypted
+     */
+    public void encrypt(MemorySegment src, MemorySegment dst) {
+        long written = encrypt(src, dst, InvalidCharPolicy.REJECT, (byte) InvalidCharPolicy.DEFAULT_REPLACEMENT);
+        if (written < 0) {
+            throw new IllegalArgumentException(cipher.getInvalidLetterMessage()
+                    + " (found at byte " + (-1 - written) + ")");
+        }
+    }
+
+    /**
+     * Encrypts every byte of one segment into the start of another without throwing for
+     * invalid bytes. Passing the same segment twice encrypts it in place.
+     *
+     * @param src the bytes to encrypt
+     * @param dst the segment receiving the encrypted bytes
+     * @param policy what to do with bytes outside the alphabet
+     * @param replacement the byte written in place of invalid ones under
+     *        {@link InvalidCharPolicy#REPLACE}
+     * @return the number of bytes written to {@code dst}, or {@code -1 - offset} where
+     *         {@code offset} is the position of the first invalid byte if the policy is
+     *         {@link InvalidCharPolicy#REJECT}, in which case the bytes before it may already
+     *         have been written
+     * @throws IndexOutOfBoundsException if {@code dst} is smaller than {@code src}
+     */
+    public long encrypt(MemorySegment src, MemorySegment dst, InvalidCharPolicy policy, byte replacement) {
+        long length = src.byteSize();
+        if (dst.byteSize() < length) {
+            throw new IndexOutOfBoundsException("The destination holds " + dst.byteSize()
+                    + " bytes but " + length + " are needed");
+        }
+
+        ShiftTable table = this.table;
+        long written = 0;
+        for (long i = 0; i < length; i++) {
+            byte letter = src.get(ValueLayout.JAVA_BYTE, i);
+            int b = table.translate(letter);
+            if (b >= 0) {
+                dst.set(ValueLayout.JAVA_BYTE, written++, (byte) b);
+            } else if (policy == InvalidCharPolicy.REJECT) {
+                return -1 - i;
+            } else if (policy == InvalidCharPolicy.PASS_THROUGH) {
+                dst.set(ValueLayout.JAVA_BYTE, written++, letter);
+            } else if (policy == InvalidCharPolicy.REPLACE) {
+                dst.set(ValueLayout.JAVA_BYTE, written++, replacement);
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Encrypts a file into another by mapping both into memory, replacing the output if it
+     * exists. Nothing is copied onto the heap, so the file may be larger than the heap. If
+     * the input is rejected by {@link InvalidCharPolicy#REJECT} the partial output is deleted.
+     *
+     * @param input the file to encrypt
+     * @param output the file receiving the encrypted bytes
+     * @param policy what to do with bytes outside the alphabet; invalid bytes are replaced
+     *        with {@link InvalidCharPolicy#DEFAULT_REPLACEMENT} under
+     *        {@link InvalidCharPolicy#REPLACE}
+     * @return the number of bytes written to the output
+     * @throws IOException if either file cannot be mapped, read or written
+     * @throws IllegalArgumentException if the policy is {@link InvalidCharPolicy#REJECT} and
+     *         the input contains a byte outside the alphabet
+     */
+    public long encryptFile(Path input, Path output, InvalidCharPolicy policy) throws IOException {
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE,
+                     StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = in.size();
+            long written;
+            try (Arena arena = Arena.ofConfined()) {
+                MemorySegment src = in.map(FileChannel.MapMode.READ_ONLY, 0, size, arena);
+                MemorySegment dst = out.map(FileChannel.MapMode.READ_WRITE, 0, size, arena);
+                written = encrypt(src, dst, policy, (byte) InvalidCharPolicy.DEFAULT_REPLACEMENT);
+            }
+            if (written < 0) {
+                throw new IllegalArgumentException(cipher.getInvalidLetterMessage()
+                        + " (found at byte " + (-1 - written) + ")");
+            }
+
+            // Skipped bytes leave the mapped output longer than what was written
+            out.truncate(written);
+            return written;
+        } catch (IllegalArgumentException ex) {
+            Files.deleteIfExists(output);
+            throw ex;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package caesar.bench;
+
+/**
+ * Compares encrypting a payload held off the heap through {@link SegmentEncryptor} with the
+ * heap paths it replaces: {@code encryptWord} on a {@code String}, which copies the payload
+ * twice, and the bulk byte array path. Run with {@code -prof gc} to see that the segment
+ * paths allocate nothing per operation.
+ */
+import caesar.Cipher;
+import caesar.EncryptionMachine;
+import caesar.SegmentEncryptor;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--enable-preview"})
+@State(Scope.Thread)
+public class SegmentBenchmark {
+    /** Number of bytes encrypted per invocation. */
+    @Param({"4096", "1048576", "16777216"})
+    public int length;
+
+    /** The fixed-shift cipher. */
+    private final Cipher cipher = EncryptionMachine.DEFAULT_CIPHER;
+
+    /** The segment engine for {@link #cipher}. */
+    private final SegmentEncryptor segments = new SegmentEncryptor(cipher);
+
+    /** The arena holding the off-heap segments. */
+    private Arena arena;
+
+    /** The payload as a string. */
+    private String word;
+
+    /** The payload as ISO-8859-1 bytes. */
+    private byte[] src;
+
+    /** Output of the byte array path. */
+    private byte[] dst;
+
+    /** The payload off the heap. */
+    private MemorySegment offHeapSrc;
+
+    /** Output of the off-heap path. */
+    private MemorySegment offHeapDst;
+
+    /** Output of the heap segment path. */
+    private MemorySegment heapDst;
+
+    @Setup
+    public void setUp() {
+        char[] letters = new char[length];
+        for (int i = 0; i < length; i++) {
+            letters[i] = EncryptionMachine.ALPHABET.charAt((i * 7) % EncryptionMachine.ALPHABET.length());
+        }
+        word = new String(letters);
+        src = word.getBytes(StandardCharsets.ISO_8859_1);
+        dst = new byte[length];
+
+        arena = Arena.ofShared();
+        offHeapSrc = arena.allocateArray(ValueLayout.JAVA_BYTE, src);
+        offHeapDst = arena.allocate(length);
+        heapDst = MemorySegment.ofArray(new byte[length]);
+    }
+
+    @TearDown
+    public void tearDown() {
+        arena.close();
+    }
+
+    @Benchmark
+    public String word() {
+        return cipher.encryptWord(word);
+    }
+
+    @Benchmark
+    public byte[] bytes() {
+        cipher.encryptBytes(src, 0, dst, 0, length);
+        return dst;
+    }
+
+    @Benchmark
+    public MemorySegment offHeap() {
+        segments.encrypt(offHeapSrc, offHeapDst);
+        return offHeapDst;
+    }
+
+    @Benchmark
+    public MemorySegment heapSegment() {
+        segments.encrypt(MemorySegment.ofArray(src), heapDst);
+        return heapDst;
+    }
+}
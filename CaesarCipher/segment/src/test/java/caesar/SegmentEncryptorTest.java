@@ -0,0 +1,154 @@
+package caesar;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class SegmentEncryptorTest {
+
+    @TempDir
+    Path tempDir;
+
+    /** The encryptor under test, with the default shift. */
+    private final SegmentEncryptor encryptor = new SegmentEncryptor(EncryptionMachine.DEFAULT_CIPHER);
+
+    /**
+     * Copies text into a new off-heap segment.
+     */
+    private static MemorySegment segment(Arena arena, String text) {
+        return arena.allocateArray(ValueLayout.JAVA_BYTE, text.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    /**
+     * Reads the first bytes of a segment back as text.
+     */
+    private static String text(MemorySegment segment, long length) {
+        return new String(segment.asSlice(0, length).toArray(ValueLayout.JAVA_BYTE), StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Encrypting an off-heap segment in place matches encryptWord
+     */
+    @Test
+    public void testInPlaceMatchesEncryptWord() throws Exception {
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment segment = segment(arena, "thequickbrownfoxjumpsoverthelazydog");
+            encryptor.encrypt(segment);
+            assertEquals(EncryptionMachine.encryptWord("thequickbrownfoxjumpsoverthelazydog"),
+                    text(segment, segment.byteSize()));
+        }
+    }
+
+    /**
+     * Encrypting into a larger segment writes only the start and leaves the source alone
+     */
+    @Test
+    public void testIntoAnotherSegment() {
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment src = segment(arena, "xyz");
+            MemorySegment dst = arena.allocate(5);
+            encryptor.encrypt(src, dst);
+            assertEquals("abc", text(dst, 3));
+            assertEquals(0, dst.get(ValueLayout.JAVA_BYTE, 3));
+            assertEquals("xyz", text(src, 3));
+
+            assertThrows(IndexOutOfBoundsException.class, () -> encryptor.encrypt(dst, src));
+        }
+    }
+
+    /**
+     * A heap segment over an array works like any other segment
+     */
+    @Test
+    public void testHeapSegment() {
+        byte[] bytes = "hello".getBytes(StandardCharsets.ISO_8859_1);
+        encryptor.encrypt(MemorySegment.ofArray(bytes));
+        assertEquals("khoor", new String(bytes, StandardCharsets.ISO_8859_1));
+    }
+
+    /**
+     * The strict entry points reject bytes outside the alphabet with their offset
+     */
+    @Test
+    public void testRejectsInvalidBytes() {
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment segment = segment(arena, "abc def");
+            IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                    () -> encryptor.encrypt(segment));
+            assertTrue(ex.getMessage().endsWith("(found at byte 3)"));
+            assertEquals(-4, encryptor.encrypt(segment, segment, InvalidCharPolicy.REJECT, (byte) '?'));
+        }
+    }
+
+    /**
+     * Each policy handles invalid bytes like Cipher.encryptBytes, on a fixed text and on
+     * random Latin-1 bytes
+     */
+    @Test
+    public void testPoliciesMatchEncryptBytes() {
+        assertPoliciesMatchEncryptBytes("hello, World!");
+
+        SplittableRandom random = new SplittableRandom(717);
+        for (int i = 0; i < 200; i++) {
+            char[] text = new char[random.nextInt(40)];
+            for (int j = 0; j < text.length; j++) {
+                // Mostly letters, so some inputs are valid
+                text[j] = random.nextInt(4) == 0 ? (char) random.nextInt(256) : (char) ('a' + random.nextInt(26));
+            }
+            assertPoliciesMatchEncryptBytes(new String(text));
+        }
+    }
+
+    /**
+     * Checks every policy on one text against Cipher.encryptBytes.
+     */
+    private void assertPoliciesMatchEncryptBytes(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.ISO_8859_1);
+        for (InvalidCharPolicy policy : InvalidCharPolicy.values()) {
+            byte[] expected = new byte[bytes.length];
+            int expectedWritten = EncryptionMachine.DEFAULT_CIPHER.encryptBytes(bytes, 0, expected, 0, bytes.length,
+                    policy, (byte) '*');
+
+            try (Arena arena = Arena.ofConfined()) {
+                MemorySegment dst = arena.allocate(bytes.length);
+                long written = encryptor.encrypt(segment(arena, text), dst, policy, (byte) '*');
+                assertEquals(expectedWritten, written, policy.toString());
+                if (written >= 0) {
+                    assertEquals(new String(expected, 0, expectedWritten, StandardCharsets.ISO_8859_1),
+                            text(dst, written), policy.toString());
+                }
+            }
+        }
+    }
+
+    /**
+     * Mapped files are encrypted through the FFM path, and a rejected file leaves no output
+     */
+    @Test
+    public void testEncryptFile() throws Exception {
+        Path input = Files.writeString(tempDir.resolve("in.txt"), "hello world\n", StandardCharsets.ISO_8859_1);
+        Path output = tempDir.resolve("out.txt");
+
+        assertEquals(12, encryptor.encryptFile(input, output, InvalidCharPolicy.PASS_THROUGH));
+        assertEquals("khoor zruog\n", Files.readString(output, StandardCharsets.ISO_8859_1));
+
+        assertEquals(10, encryptor.encryptFile(input, output, InvalidCharPolicy.SKIP));
+        assertEquals("khoorzruog", Files.readString(output, StandardCharsets.ISO_8859_1));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> encryptor.encryptFile(input, output, InvalidCharPolicy.REJECT));
+        assertFalse(Files.exists(output));
+
+        Path empty = Files.createFile(tempDir.resolve("empty.txt"));
+        assertEquals(0, encryptor.encryptFile(empty, output, InvalidCharPolicy.REJECT));
+        assertEquals(0, Files.size(output));
+    }
+}